@@ -0,0 +1,117 @@
+package com.arcxp.sdk
+
+import android.app.Application
+import android.os.Build
+import androidx.benchmark.junit4.BenchmarkRule
+import androidx.benchmark.junit4.measureRepeated
+import androidx.room.RoomDatabase
+import androidx.test.platform.app.InstrumentationRegistry
+import com.arcxp.commons.util.DependencyFactory
+import com.arcxp.content.db.Database
+import com.arcxp.content.db.DatabaseProfile
+import com.arcxp.content.db.JsonItem
+import kotlinx.coroutines.async
+import kotlinx.coroutines.awaitAll
+import kotlinx.coroutines.runBlocking
+import org.junit.After
+import org.junit.Assert.assertEquals
+import org.junit.Assume.assumeTrue
+import org.junit.Before
+import org.junit.Rule
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.junit.runners.Parameterized
+import java.util.Date
+
+/**
+ * Measures each [DatabaseProfile] setting on its own against [DatabaseProfile.DEFAULT], results are
+ * reported by [BenchmarkRule] (instrumentation output and the benchmark json)
+ * (run with: ./gradlew connectedAndroidTest -Pandroid.testInstrumentationRunnerArguments.class=com.arcxp.sdk.DatabaseProfileBenchmark)
+ *
+ * uses its own database file, so the app's cache is never touched
+ */
+@RunWith(Parameterized::class)
+class DatabaseProfileBenchmark(private val setting: String, private val profile: DatabaseProfile) {
+
+    @get:Rule
+    val benchmarkRule = BenchmarkRule()
+
+    private val application =
+        InstrumentationRegistry.getInstrumentation().targetContext.applicationContext as Application
+    private val body = "x".repeat(8 * 1024) // roughly a story sized ANS response
+    private val expiresAt = Date(System.currentTimeMillis() + 60_000)
+    private lateinit var database: Database
+
+    @Before
+    fun setUp() {
+        application.deleteDatabase(DATABASE)
+        database = DependencyFactory.createContentDatabase(application, profile, name = DATABASE)
+    }
+
+    @After
+    fun tearDown() {
+        database.close()
+        application.deleteDatabase(DATABASE)
+    }
+
+    @Test
+    fun settingIsApplied() {
+        // older versions only apply the pragmas to the first connection
+        assumeTrue(Build.VERSION.SDK_INT >= Build.VERSION_CODES.R)
+        val db = database.openHelper.readableDatabase
+        fun pragma(name: String) = db.query("PRAGMA $name").use { it.moveToFirst(); it.getString(0) }
+
+        if (profile.journalMode == RoomDatabase.JournalMode.WRITE_AHEAD_LOGGING) {
+            assertEquals(setting, "wal", pragma("journal_mode"))
+        }
+        profile.synchronous?.let { assertEquals(setting, it.ordinal.toString(), pragma("synchronous")) }
+        profile.cacheSizeKb?.let { assertEquals(setting, (-it).toString(), pragma("cache_size")) }
+    }
+
+    @Test
+    fun insert() {
+        val dao = database.sdkDao()
+        benchmarkRule.measureRepeated {
+            runBlocking { repeat(ITEMS) { dao.insertJsonItem(item(uuid = "$it")) } }
+            runWithTimingDisabled {
+                assertEquals(setting, ITEMS, dao.countJsonItems())
+                runBlocking { dao.deleteJsonTable() }
+            }
+        }
+    }
+
+    @Test
+    fun concurrentReads() {
+        val dao = database.sdkDao()
+        runBlocking { repeat(ITEMS) { dao.insertJsonItem(item(uuid = "$it")) } }
+        var found = 0
+        benchmarkRule.measureRepeated {
+            found = runBlocking {
+                (0 until READS).map { async { dao.getJsonById(uuid = "${it % ITEMS}") } }.awaitAll()
+            }.count { it != null }
+        }
+        assertEquals(setting, READS, found)
+    }
+
+    private fun item(uuid: String) = JsonItem(uuid = uuid, jsonResponse = body, expiresAt = expiresAt)
+
+    companion object {
+        private const val DATABASE = "database-profile-benchmark"
+        private const val ITEMS = 500
+        private const val READS = 2000
+
+        // one READ_OPTIMIZED setting per case, so each difference from the default is measured alone
+        @JvmStatic
+        @Parameterized.Parameters(name = "{0}")
+        fun profiles(): List<Array<Any>> = DatabaseProfile.READ_OPTIMIZED.let { tuned ->
+            listOf(
+                "default" to DatabaseProfile.DEFAULT,
+                "journalMode" to DatabaseProfile.DEFAULT.copy(journalMode = tuned.journalMode),
+                "synchronous" to DatabaseProfile.DEFAULT.copy(synchronous = tuned.synchronous),
+                "mmapSizeBytes" to DatabaseProfile.DEFAULT.copy(mmapSizeBytes = tuned.mmapSizeBytes),
+                "cacheSizeKb" to DatabaseProfile.DEFAULT.copy(cacheSizeKb = tuned.cacheSizeKb),
+                "queryThreads" to DatabaseProfile.DEFAULT.copy(queryThreads = tuned.queryThreads)
+            ).map { (setting, profile) -> arrayOf(setting, profile) }
+        }
+    }
+}
@@ -8,12 +8,18 @@ object NetworkController {
 
     val client : OkHttpClient = OkHttpClient.Builder()
         .addInterceptor { chain ->
-            chain.proceed(
-                chain.request()
-                    .newBuilder()
-                    .header("User-Agent", "ArcXP-Mobile Android")
-                    .build()
-            )
+            val request = chain.request()
+            // requests that bring their own agent keep it, the video player sends ArcXPVideoConfig.userAgent
+            if (request.header("User-Agent") != null) {
+                chain.proceed(request)
+            } else {
+                chain.proceed(
+                    request
+                        .newBuilder()
+                        .header("User-Agent", "ArcXP-Mobile Android")
+                        .build()
+                )
+            }
         }
         .build()
     val moshiConverter: MoshiConverterFactory = MoshiConverterFactory.create(moshi)
@@ -31,6 +31,20 @@ object Constants {
     const val DEFAULT_PRELOADING = true
     const val DEFAULT_PAGINATION_SIZE = 20
     val VALID_COLLECTION_SIZE_RANGE = 1..20
+    const val LOCAL_SEARCH_MAX_RESULTS = 500
+    const val DEFAULT_SEARCH_DEBOUNCE_MS = 0L
+    const val DEFAULT_SEARCH_CACHE_TTL_SECONDS = 60
+    const val DEFAULT_SEARCH_CACHE_SIZE = 50
+    val VALID_SEARCH_DEBOUNCE_RANGE_MS = 0L..2000L
+    const val ACCESS_TRACKING_BATCH_SIZE = 50
+    const val CACHE_MAINTENANCE_DELAY_MS = 30_000L // after init, so maintenance doesn't compete with first load
+    const val CACHE_MAINTENANCE_RETRY_MS = 60_000L // while waiting for idle or charging
+    const val FREELIST_VACUUM_THRESHOLD = 0.1 // fraction of free pages before reclaiming them
+    const val INCREMENTAL_VACUUM_PAGES = 256 // pages reclaimed per step
+    const val CONTENT_BATCH_PARALLELISM = 4 // concurrent network requests per content batch
+    const val SQLITE_MAX_BATCH_ARGS = 500 // below the 999 bound parameter limit of older sqlite versions
+    const val STALE_PURGE_AFTER_MS = 24 * 60 * 60_000L // expired entries are kept this long as offline fallback
+    const val SEED_EXPIRES_AT_MS = Long.MIN_VALUE // expiration of bundled seed entries, stale until revalidated
 
 
     //commons
@@ -122,6 +136,10 @@ if(I.frames&&I.document&&!('omid_v1_present'in I.frames)){var Ac;if(Ac=null==I.d
 
     const val OMID_VERSION = "1.3.19"
     const val PAL_VERSION = "17.0.5"
+    const val MEDIA_CACHE_DIRECTORY = "arcxp_media_cache" // under the app cache dir, shared by all players
+    const val VIDEO_METADATA_CACHE_DIRECTORY = "arcxp_video_metadata" // under the app cache dir
+    const val DEFAULT_VIDEO_CACHE_SIZE = 100 // video / playlist responses kept by the metadata cache
+    const val VIDEO_BATCH_PARALLELISM = 8 // concurrent findByUuid requests per batch, they share one http/2 connection
 
     //commerce
     const val TIMEOUT = 60L
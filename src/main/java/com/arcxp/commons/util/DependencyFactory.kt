@@ -40,19 +40,26 @@ import com.arcxp.content.ArcXPContentManager
 import com.arcxp.content.apimanagers.ContentApiManager
 import com.arcxp.content.db.CacheManager
 import com.arcxp.content.db.Database
+import com.arcxp.content.db.DatabaseProfile
+import com.arcxp.content.repositories.CacheSweeper
 import com.arcxp.content.repositories.ContentRepository
 import com.arcxp.content.retrofit.RetrofitController
+import com.arcxp.content.util.CacheScheduler
+import com.arcxp.content.util.SearchResultCache
 import com.arcxp.identity.UserSettingsManager
 import com.arcxp.sdk.R
 import com.arcxp.video.ArcMediaClient
 import com.arcxp.video.api.VideoApiManager
 import com.arcxp.video.cast.ArcCastManager
+import com.arcxp.video.util.VideoMetadataCache
 import com.facebook.CallbackManager
 import com.google.android.gms.auth.api.signin.GoogleSignIn
 import com.google.android.gms.auth.api.signin.GoogleSignInOptions
 import kotlinx.coroutines.CoroutineScope
 import kotlinx.coroutines.Dispatchers
 import kotlinx.coroutines.SupervisorJob
+import java.io.File
+import java.util.concurrent.Executors
 
 /**
  * DependencyFactory is a utility object responsible for creating and providing various dependencies used within the ArcXP Commerce module.
@@ -84,6 +91,7 @@ import kotlinx.coroutines.SupervisorJob
  * @method createArcXPLogger Create an instance of ArcXPLogger.
  * @method createIOScope Create a CoroutineScope for IO operations.
  * @method ioDispatcher Provide a Dispatcher for IO operations.
+ * @method createMainScope Create a CoroutineScope that delivers results on the main thread.
  * @method createBuildVersionProvider Create an instance of BuildVersionProviderImpl.
  * @method createArcXPCommerceManager Create an instance of ArcXPCommerceManager.
  * @method createRetailViewModel Create an instance of RetailViewModel.
@@ -106,10 +114,12 @@ import kotlinx.coroutines.SupervisorJob
  * @method createMediaClient Create an instance of ArcMediaClient.
  * @method createCastManager Create an instance of ArcCastManager.
  * @method createVideoApiManager Create an instance of VideoApiManager.
+ * @method createVideoMetadataCache Create an instance of VideoMetadataCache.
  * @method createArcXPContentManager Create an instance of ArcXPContentManager.
  * @method createLiveData Create an instance of MutableLiveData.
  * @method vacuumQuery Create a SimpleSQLiteQuery for VACUUM.
  * @method checkPointQuery Create a SimpleSQLiteQuery for WAL checkpoint.
+ * @method pragmaQuery Create a SimpleSQLiteQuery for a PRAGMA statement.
  * @method createArcXPException Create an instance of ArcXPException.
  * @method createArcXPError Create an instance of ArcXPError.
  * @method createArcXPRulesData Create an instance of ArcXPRulesData.
@@ -160,6 +170,7 @@ internal object DependencyFactory {
 
     fun createIOScope() = CoroutineScope(ioDispatcher() + SupervisorJob())
     fun ioDispatcher() = Dispatchers.IO
+    fun createMainScope() = CoroutineScope(Dispatchers.Main + SupervisorJob())
     fun createBuildVersionProvider() = BuildVersionProviderImpl()
 
 
@@ -249,6 +260,12 @@ internal object DependencyFactory {
     fun createVideoApiManager(baseUrl: String) = VideoApiManager(baseUrl = baseUrl)
     fun createVideoApiManager(orgName: String, environmentName: String) =
         VideoApiManager(orgName = orgName, environmentName = environmentName)
+    internal fun createVideoMetadataCache(timeUntilUpdateMinutes: Int?, maxEntries: Int, directory: File?) =
+        VideoMetadataCache(
+            timeUntilUpdateMinutes = timeUntilUpdateMinutes,
+            maxEntries = maxEntries,
+            directory = directory
+        )
 
 
     //content
@@ -258,29 +275,85 @@ internal object DependencyFactory {
         arcXPAnalyticsManager: ArcXPAnalyticsManager,
         contentConfig: ArcXPContentConfig,
         baseUrl: String,
-    ) = ArcXPContentManager(
-        application = application,
-        contentRepository = ContentRepository(
+    ): ArcXPContentManager {
+        val cacheManager = CacheManager(
             application = application,
-            cacheManager = CacheManager(
-                application = application, database = Room.databaseBuilder(
-                    context = application,
-                    klass = Database::class.java, name = "database"
-                ).fallbackToDestructiveMigration().build()
+            database = createContentDatabase(
+                application = application,
+                profile = contentConfig.databaseProfile
             ),
+            evictionPolicy = contentConfig.evictionPolicy,
+            pinnedCollections = contentConfig.pinnedCollections,
+            collectionQuotas = contentConfig.collectionQuotas
+        ).apply {
+            contentConfig.seedAssetPath?.let { importSeed(assetPath = it) }
+            scheduleMaintenance()
+        }
+        val contentRepository = ContentRepository(
+            application = application,
+            cacheManager = cacheManager,
             contentApiManager = ContentApiManager(
                 contentConfig = contentConfig,
                 application = application,
                 contentService = RetrofitController.getContentService(baseUrl = baseUrl),
                 navigationService = RetrofitController.getNavigationService(baseUrl = baseUrl)
-            )
-        ),
-        arcXPAnalyticsManager = arcXPAnalyticsManager
+            ),
+            searchCache = createSearchResultCache(contentConfig = contentConfig),
+            videoSearchCache = createSearchResultCache(contentConfig = contentConfig),
+            jsonSearchCache = createSearchResultCache(contentConfig = contentConfig),
+            hybridCollectionLoading = contentConfig.hybridCollectionLoading,
+            contentTypeCacheTimeMinutes = contentConfig.contentTypeCacheTimeMinutes
+        )
+        if (contentConfig.sweepIntervalMinutes > 0) {
+            CacheSweeper(
+                application = application,
+                contentRepository = contentRepository,
+                cacheManager = cacheManager,
+                hotCollections = contentConfig.hotCollections,
+                hotSectionLists = contentConfig.hotSectionLists,
+                intervalMillis = contentConfig.sweepIntervalMinutes * 60_000L,
+                scheduler = CacheScheduler.coroutine(application = application, scope = createIOScope()),
+                refreshOnCellular = contentConfig.refreshOnCellular
+            ).start()
+        }
+        return ArcXPContentManager(
+            application = application,
+            contentRepository = contentRepository,
+            arcXPAnalyticsManager = arcXPAnalyticsManager,
+            searchDebounceMillis = contentConfig.searchDebounceMillis
+        )
+    }
+
+    // name is only changed by tests and benchmarks, so they never touch the app's cache
+    fun createContentDatabase(
+        application: Application,
+        profile: DatabaseProfile,
+        name: String = "database"
+    ): Database {
+        val queryExecutor = profile.queryThreads?.let { Executors.newFixedThreadPool(it) }
+        return Room.databaseBuilder(
+            context = application,
+            klass = Database::class.java, name = name
+        ).addMigrations(*Database.migrations)
+            .fallbackToDestructiveMigrationFrom(1, 2)
+            .fallbackToDestructiveMigrationOnDowngrade()
+            .addCallback(Database.searchIndexCallback)
+            .addCallback(Database.profileCallback(profile = profile))
+            .setJournalMode(profile.journalMode)
+            .apply { queryExecutor?.let { setQueryExecutor(it) } }
+            .build()
+            .also { it.ownedQueryExecutor = queryExecutor }
+    }
+
+    fun <T> createSearchResultCache(contentConfig: ArcXPContentConfig) = SearchResultCache<T>(
+        ttlSeconds = contentConfig.searchCacheTtlSeconds,
+        maxEntries = contentConfig.searchCacheSize
     )
 
     fun <T> createLiveData(default: T? = null) = MutableLiveData<T>(default)
     fun vacuumQuery() = SimpleSQLiteQuery("VACUUM")
     fun checkPointQuery() = SimpleSQLiteQuery("pragma wal_checkpoint(full)")
+    fun pragmaQuery(pragma: String) = SimpleSQLiteQuery("pragma $pragma")
 
     //errors / exceptions
     fun createArcXPException(
@@ -0,0 +1,38 @@
+package com.arcxp.commons.util
+
+import android.content.Context
+import android.content.Intent
+import android.content.IntentFilter
+import android.os.BatteryManager
+import android.os.PowerManager
+
+/**
+ * DeviceStateUtil is a utility object for checking whether the device is in a good state for background work,
+ * such as cache maintenance, that should not compete with the user.
+ *
+ * The object defines the following operations:
+ * - Check if the device is charging
+ * - Check if the device is idle (screen off / not interactive)
+ *
+ * Example:
+ *
+ * if (DeviceStateUtil.isIdleOrCharging(context)) { ... }
+ *
+ * @method isCharging Check if the device is plugged in and charging (or full).
+ * @method isIdle Check if the device is not interactive.
+ * @method isIdleOrCharging Check if either of the above is true.
+ */
+object DeviceStateUtil {
+
+    fun isCharging(context: Context): Boolean {
+        // sticky broadcast, no receiver is registered
+        val status = context.registerReceiver(null, IntentFilter(Intent.ACTION_BATTERY_CHANGED))
+            ?.getIntExtra(BatteryManager.EXTRA_STATUS, -1)
+        return status == BatteryManager.BATTERY_STATUS_CHARGING || status == BatteryManager.BATTERY_STATUS_FULL
+    }
+
+    fun isIdle(context: Context): Boolean =
+        (context.getSystemService(Context.POWER_SERVICE) as? PowerManager)?.isInteractive == false
+
+    fun isIdleOrCharging(context: Context) = isCharging(context) || isIdle(context)
+}
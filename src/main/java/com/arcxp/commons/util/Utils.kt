@@ -55,9 +55,14 @@ import java.util.Locale
  * @method createSearchFailure Create a search failure with a specified message, search term, and value.
  */
 object Utils {
-    internal fun determineExpiresAt(expiresAt: String): Date {
-        //if this value is null, we will default to the "expires" header value
-        val timeUntilUpdateMinutes = ArcXPMobileSDK.contentConfig().cacheTimeUntilUpdateMinutes
+    internal fun determineExpiresAt(expiresAt: String): Date =
+        determineExpiresAt(
+            expiresAt = expiresAt,
+            timeUntilUpdateMinutes = ArcXPMobileSDK.contentConfig().cacheTimeUntilUpdateMinutes
+        )
+
+    //if timeUntilUpdateMinutes is null, we will default to the "expires" header value
+    internal fun determineExpiresAt(expiresAt: String, timeUntilUpdateMinutes: Int?): Date {
         return if (timeUntilUpdateMinutes != null) {
             val calendar = currentCalendar()
             calendar.add(Calendar.MINUTE, timeUntilUpdateMinutes)
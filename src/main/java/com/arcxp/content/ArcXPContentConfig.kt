@@ -4,7 +4,14 @@ import androidx.annotation.Keep
 import com.arcxp.commons.util.Constants.CACHE_TIME_UNTIL_UPDATE_MIN
 import com.arcxp.commons.util.Constants.DEFAULT_CACHE_SIZE_MB
 import com.arcxp.commons.util.Constants.DEFAULT_PRELOADING
+import com.arcxp.commons.util.Constants.DEFAULT_SEARCH_CACHE_SIZE
+import com.arcxp.commons.util.Constants.DEFAULT_SEARCH_CACHE_TTL_SECONDS
+import com.arcxp.commons.util.Constants.DEFAULT_SEARCH_DEBOUNCE_MS
 import com.arcxp.commons.util.Constants.VALID_CACHE_SIZE_RANGE_MB
+import com.arcxp.commons.util.Constants.VALID_SEARCH_DEBOUNCE_RANGE_MS
+import com.arcxp.content.db.CacheEvictionPolicy
+import com.arcxp.content.db.CacheManager
+import com.arcxp.content.db.DatabaseProfile
 
 /**
  * ArcXPContentConfig is a configuration class for the ArcXP Content module.
@@ -32,18 +39,72 @@ import com.arcxp.commons.util.Constants.VALID_CACHE_SIZE_RANGE_MB
  * Defaults to [DEFAULT_CACHE_SIZE_MB] megabytes if not specified
  * value is constrained in range [VALID_CACHE_SIZE_RANGE_MB]
  * @property preLoading Should we bulk load results of collection calls
+ * @property searchDebounceMillis delay before a livedata search starts,
+ * a newer search within this window replaces the pending one (useful for search as you type)
+ * Defaults to [DEFAULT_SEARCH_DEBOUNCE_MS], value is constrained in range [VALID_SEARCH_DEBOUNCE_RANGE_MS]
+ * @property searchCacheTtlSeconds how long search results are kept in memory, 0 disables the search cache
+ * Defaults to [DEFAULT_SEARCH_CACHE_TTL_SECONDS]
+ * @property searchCacheSize max number of (query, from, size) search results kept in memory
+ * Defaults to [DEFAULT_SEARCH_CACHE_SIZE]
+ * @property evictionPolicy which cached entries are removed first once the cache is over [cacheSizeMB]
+ * Defaults to [CacheEvictionPolicy.LRU], see also [CacheEvictionPolicy.TTL_FIRST], [CacheEvictionPolicy.SIZE_WEIGHTED]
+ * @property databaseProfile sqlite tuning for the cache database (journal mode, synchronous, mmap, page cache, query threads)
+ * Defaults to [DatabaseProfile.DEFAULT], see also [DatabaseProfile.READ_OPTIMIZED]
+ * @property hybridCollectionLoading when collections load full (see [preLoading]), return the lightweight collection first
+ * and fetch collection-full in the background to fill the cache. Defaults to false
+ * @property contentTypeCacheTimeMinutes cache time by ANS type (ie "video"), overriding [cacheTimeUntilUpdateMinutes]
+ * for items of that type when they are cached. Defaults to empty
+ * @property pinnedCollections collection aliases never evicted from the cache (section lists are never evicted either)
+ * Defaults to empty
+ * @property collectionQuotas max number of items cached per collection alias, items past the quota are returned but not cached
+ * Defaults to empty, no limit
+ * @property sweepIntervalMinutes minutes between background cache sweeps, which purge entries expired for a day
+ * and refresh [hotCollections] and [hotSectionLists] before they expire. Defaults to 0, disabled
+ * @property hotCollections collection aliases the sweep keeps fresh (first page)
+ * @property hotSectionLists site hierarchies the sweep keeps fresh
+ * @property refreshOnCellular whether the sweep may refresh off WiFi. Defaults to false
+ * @property seedAssetPath asset path of a bundled cache snapshot imported on first launch (see [CacheManager.importSeed])
+ * Defaults to null, no seed
  */
 @Keep
 class ArcXPContentConfig private constructor(
     val cacheTimeUntilUpdateMinutes: Int?,
     val cacheSizeMB: Int,
-    val preLoading: Boolean
+    val preLoading: Boolean,
+    val searchDebounceMillis: Long,
+    val searchCacheTtlSeconds: Int,
+    val searchCacheSize: Int,
+    val evictionPolicy: CacheEvictionPolicy,
+    val databaseProfile: DatabaseProfile,
+    val seedAssetPath: String?,
+    val hybridCollectionLoading: Boolean,
+    val contentTypeCacheTimeMinutes: Map<String, Int>,
+    val pinnedCollections: Set<String>,
+    val collectionQuotas: Map<String, Int>,
+    val sweepIntervalMinutes: Int,
+    val hotCollections: Set<String>,
+    val hotSectionLists: Set<String>,
+    val refreshOnCellular: Boolean
 ) {
     class Builder {
 
         private var cacheSize: Int? = null
         private var cacheTimeUntilUpdate: Int? = null
         private var preLoading: Boolean? = null
+        private var searchDebounceMillis: Long? = null
+        private var searchCacheTtlSeconds: Int? = null
+        private var searchCacheSize: Int? = null
+        private var evictionPolicy: CacheEvictionPolicy? = null
+        private var databaseProfile: DatabaseProfile? = null
+        private var seedAssetPath: String? = null
+        private var hybridCollectionLoading: Boolean? = null
+        private val contentTypeCacheTimeMinutes = mutableMapOf<String, Int>()
+        private val pinnedCollections = mutableSetOf<String>()
+        private val collectionQuotas = mutableMapOf<String, Int>()
+        private var sweepIntervalMinutes: Int? = null
+        private val hotCollections = mutableSetOf<String>()
+        private val hotSectionLists = mutableSetOf<String>()
+        private var refreshOnCellular: Boolean? = null
 
         fun setCacheTimeUntilUpdate(minutes: Int): Builder {
             this.cacheTimeUntilUpdate =
@@ -61,6 +122,76 @@ class ArcXPContentConfig private constructor(
             return this
         }
 
+        fun setSearchDebounce(millis: Long): Builder {
+            this.searchDebounceMillis = millis.coerceIn(VALID_SEARCH_DEBOUNCE_RANGE_MS)
+            return this
+        }
+
+        fun setSearchCacheTtl(seconds: Int): Builder {
+            this.searchCacheTtlSeconds = seconds.coerceAtLeast(0)
+            return this
+        }
+
+        fun setSearchCacheSize(entries: Int): Builder {
+            this.searchCacheSize = entries.coerceAtLeast(1)
+            return this
+        }
+
+        fun setEvictionPolicy(policy: CacheEvictionPolicy): Builder {
+            this.evictionPolicy = policy
+            return this
+        }
+
+        fun setDatabaseProfile(profile: DatabaseProfile): Builder {
+            this.databaseProfile = profile
+            return this
+        }
+
+        fun setSeedAsset(assetPath: String): Builder {
+            this.seedAssetPath = assetPath
+            return this
+        }
+
+        fun setHybridCollectionLoading(enabled: Boolean): Builder {
+            this.hybridCollectionLoading = enabled
+            return this
+        }
+
+        fun setCacheTimeUntilUpdate(contentType: String, minutes: Int): Builder {
+            this.contentTypeCacheTimeMinutes[contentType] = minutes.coerceAtLeast(CACHE_TIME_UNTIL_UPDATE_MIN)
+            return this
+        }
+
+        fun pinCollection(collectionAlias: String): Builder {
+            this.pinnedCollections.add(collectionAlias.replace("/", ""))
+            return this
+        }
+
+        fun setCollectionQuota(collectionAlias: String, maxItems: Int): Builder {
+            this.collectionQuotas[collectionAlias.replace("/", "")] = maxItems.coerceAtLeast(0)
+            return this
+        }
+
+        fun setCacheSweep(intervalMinutes: Int): Builder {
+            this.sweepIntervalMinutes = intervalMinutes.coerceAtLeast(0)
+            return this
+        }
+
+        fun addHotCollection(collectionAlias: String): Builder {
+            this.hotCollections.add(collectionAlias.replace("/", ""))
+            return this
+        }
+
+        fun addHotSectionList(siteHierarchy: String): Builder {
+            this.hotSectionLists.add(siteHierarchy)
+            return this
+        }
+
+        fun setRefreshOnCellular(enabled: Boolean): Builder {
+            this.refreshOnCellular = enabled
+            return this
+        }
+
         /**
          * members environment, org, site must not be null
          * the remaining values are defaulted
@@ -70,6 +201,20 @@ class ArcXPContentConfig private constructor(
                     cacheTimeUntilUpdateMinutes = cacheTimeUntilUpdate,
                     cacheSizeMB = cacheSize ?: DEFAULT_CACHE_SIZE_MB,
                     preLoading = preLoading ?: DEFAULT_PRELOADING,
+                    searchDebounceMillis = searchDebounceMillis ?: DEFAULT_SEARCH_DEBOUNCE_MS,
+                    searchCacheTtlSeconds = searchCacheTtlSeconds ?: DEFAULT_SEARCH_CACHE_TTL_SECONDS,
+                    searchCacheSize = searchCacheSize ?: DEFAULT_SEARCH_CACHE_SIZE,
+                    evictionPolicy = evictionPolicy ?: CacheEvictionPolicy.LRU,
+                    databaseProfile = databaseProfile ?: DatabaseProfile.DEFAULT,
+                    seedAssetPath = seedAssetPath,
+                    hybridCollectionLoading = hybridCollectionLoading ?: false,
+                    contentTypeCacheTimeMinutes = contentTypeCacheTimeMinutes.toMap(),
+                    pinnedCollections = pinnedCollections.toSet(),
+                    collectionQuotas = collectionQuotas.toMap(),
+                    sweepIntervalMinutes = sweepIntervalMinutes ?: 0,
+                    hotCollections = hotCollections.toSet(),
+                    hotSectionLists = hotSectionLists.toSet(),
+                    refreshOnCellular = refreshOnCellular ?: false,
                 )
 
 
@@ -8,10 +8,12 @@ import com.arcxp.commons.analytics.ArcXPAnalyticsManager
 import com.arcxp.commons.throwables.ArcXPException
 import com.arcxp.commons.throwables.ArcXPSDKErrorType
 import com.arcxp.commons.util.Constants.DEFAULT_PAGINATION_SIZE
+import com.arcxp.commons.util.Constants.DEFAULT_SEARCH_DEBOUNCE_MS
 import com.arcxp.commons.util.Constants.VALID_COLLECTION_SIZE_RANGE
 import com.arcxp.commons.util.DependencyFactory.createArcXPException
 import com.arcxp.commons.util.DependencyFactory.createIOScope
 import com.arcxp.commons.util.DependencyFactory.createLiveData
+import com.arcxp.commons.util.DependencyFactory.ioDispatcher
 import com.arcxp.commons.util.Either
 import com.arcxp.commons.util.Failure
 import com.arcxp.commons.util.Success
@@ -20,11 +22,19 @@ import com.arcxp.content.extendedModels.ArcXPContentElement
 import com.arcxp.content.extendedModels.ArcXPStory
 import com.arcxp.content.models.ArcXPContentCallback
 import com.arcxp.content.models.ArcXPSection
+import com.arcxp.content.models.CollectionChangeSet
 import com.arcxp.content.models.EventType
 import com.arcxp.content.repositories.ContentRepository
 import com.arcxp.content.util.AuthManager
+import com.arcxp.content.util.SearchQuery
 import com.arcxp.sdk.R
 import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.Job
+import kotlinx.coroutines.delay
+import kotlinx.coroutines.ensureActive
+import kotlinx.coroutines.flow.Flow
+import kotlinx.coroutines.flow.flowOn
+import kotlinx.coroutines.flow.lastOrNull
 import kotlinx.coroutines.launch
 import kotlinx.coroutines.withContext
 
@@ -66,8 +76,20 @@ class ArcXPContentManager internal constructor(
     private val _sectionListLiveData: MutableLiveData<Either<ArcXPException, List<ArcXPSection>>> = createLiveData(),
     private val _searchLiveData: MutableLiveData<Either<ArcXPException, Map<Int, ArcXPContentElement>>> = createLiveData(),
     private val _jsonLiveData: MutableLiveData<Either<ArcXPException, String>> = createLiveData(),
+    private val _collectionChangesLiveData: MutableLiveData<CollectionChangeSet> = createLiveData(),
+    private val searchDebounceMillis: Long = DEFAULT_SEARCH_DEBOUNCE_MS,
 ) {
 
+    // most recent search posting to [searchLiveData], cancelled when superseded by a newer search
+    private var searchJob: Job? = null
+
+    // most recent search posting to [jsonLiveData], superseded the same way as [searchJob]
+    private var jsonSearchJob: Job? = null
+
+    // io dispatcher without the sdk scope's job, so requests stay children of their caller
+    // and are cancelled with it (ie suspend calls from a cancelled viewModelScope)
+    private val ioContext = mIoScope.coroutineContext.minusKey(Job)
+
     /** [contentLiveData] subscribe to this for generic content element results for search / section lists
      * (getVideo, getGallery return this additionally) */
     val contentLiveData: LiveData<Either<ArcXPException, ArcXPContentElement>> = _contentLiveData
@@ -83,6 +105,11 @@ class ArcXPContentManager internal constructor(
         _collectionLiveData
 
 
+    /** [collectionChangesLiveData]
+     * subscribe to this for what changed in a collection page when it is refreshed from server
+     * (inserted / removed / moved / changed indices), so lists only rebind affected rows */
+    val collectionChangesLiveData: LiveData<CollectionChangeSet> = _collectionChangesLiveData
+
     /** [sectionListLiveData]
      * subscribe to this for navigation list from server
      * in list as key (getSectionList returns this additionally) */
@@ -109,6 +136,40 @@ class ArcXPContentManager internal constructor(
         AuthManager.accessToken = application.getString(R.string.bearer_token)
     }
 
+    /**
+     * launches a request on the io dispatcher. With a caller [scope] (ie lifecycleScope, viewModelScope)
+     * the request is its child, so it is cancelled with it: the network call is cancelled and
+     * an abandoned result is not parsed, cached or delivered. Without one it runs until complete.
+     */
+    private fun launchRequest(scope: CoroutineScope?, block: suspend CoroutineScope.() -> Unit): Job =
+        scope?.launch(context = ioContext, block = block)
+            ?: mIoScope.launch(block = block)
+
+    /**
+     * launches a search that posts to [searchLiveData] (or [jsonLiveData] with [asJson]), cancelling any
+     * search to the same livedata still in flight so stale results never overwrite newer ones.
+     * Waits [searchDebounceMillis] first, so rapid calls (ie search as you type) only hit the network for the last term.
+     */
+    private fun launchSearch(
+        scope: CoroutineScope?,
+        asJson: Boolean = false,
+        block: suspend CoroutineScope.() -> Unit
+    ) {
+        synchronized(this) {
+            val job = launchRequest(scope) {
+                delay(searchDebounceMillis)
+                block()
+            }
+            if (asJson) {
+                jsonSearchJob?.cancel()
+                jsonSearchJob = job
+            } else {
+                searchJob?.cancel()
+                searchJob = job
+            }
+        }
+    }
+
     /**
      * This function requests a collection result by content alias
      *
@@ -119,6 +180,8 @@ class ArcXPContentManager internal constructor(
      *
      * override [ArcXPContentCallback.onGetCollectionSuccess] for success
      *
+     * override [ArcXPContentCallback.onCollectionChanged] for changes made to the cached page by a refresh
+     *
      * override [ArcXPContentCallback.onError] for failure
      *
      * or leave null and use livedata result and error livedata
@@ -126,9 +189,11 @@ class ArcXPContentManager internal constructor(
      * @param from index in which to start (ie for pagination, you may want to start at index for next page)
      * @param size number of entries to request: (valid range [VALID_COLLECTION_SIZE_RANGE], will coerce parameter into this range if it is outside)
      * @param preLoading: [Boolean] should we call collection full? if nothing is entered, will default to [ArcXPContentConfig.preLoading] value
+     * @param scope optional caller scope (ie lifecycleScope), cancelling it cancels this request and skips its listener / livedata result
      * @return [LiveData] subscribe to this livedata for successful results (or use optional callback interface)
      * Note: this will always return same live data, can subscribe directly one time [collectionLiveData], listener will have individual results per call
      */
+    @JvmOverloads
     fun getCollection(
         collectionAlias: String,
         listener: ArcXPContentCallback? = null,
@@ -136,15 +201,22 @@ class ArcXPContentManager internal constructor(
         from: Int = 0,
         size: Int = DEFAULT_PAGINATION_SIZE,
         preLoading: Boolean? = null,
+        scope: CoroutineScope? = null,
     ): LiveData<Either<ArcXPException, Map<Int, ArcXPContentElement>>> {
-        mIoScope.launch {
-            _collectionLiveData.postValue(contentRepository.getCollection(
+        launchRequest(scope) {
+            val result = contentRepository.getCollection(
                 collectionAlias = collectionAlias.replace("/", ""),
                 shouldIgnoreCache = shouldIgnoreCache,
                 from = from,
                 size = size.coerceIn(VALID_COLLECTION_SIZE_RANGE),
                 full = preLoading,
-            ).apply {
+                onChanges = { changes ->
+                    _collectionChangesLiveData.postValue(changes)
+                    listener?.onCollectionChanged(changes = changes)
+                },
+            )
+            ensureActive()
+            _collectionLiveData.postValue(result.apply {
                 when (this) {
                     is Success -> listener?.onGetCollectionSuccess(response = success)
                     is Failure -> listener?.onError(error = failure)
@@ -170,16 +242,62 @@ class ArcXPContentManager internal constructor(
         size: Int = DEFAULT_PAGINATION_SIZE,
         preLoading: Boolean? = null,
     ): Either<ArcXPException, Map<Int, ArcXPContentElement>> =
-        withContext(mIoScope.coroutineContext) {
+        withContext(ioContext) {
             contentRepository.getCollection(
                 collectionAlias = collectionAlias.replace("/", ""),
                 shouldIgnoreCache = shouldIgnoreCache,
                 from = from,
                 size = size.coerceIn(VALID_COLLECTION_SIZE_RANGE),
-                full = preLoading
+                full = preLoading,
+                onChanges = { _collectionChangesLiveData.postValue(it) }
             )
         }
 
+    /**
+     * [getCollectionsSuspend] this suspend function requests the same page of several collections at once,
+     * ie every collection of a home screen, so they can be shown in one update
+     * @param collectionAliases Content Aliases
+     * @param from [Int] index in which to start (ie for pagination, you may want to start at index for next page)
+     * @param size [Int] number of entries to request per collection: (valid range [VALID_COLLECTION_SIZE_RANGE], will coerce parameter into this range if it is outside)
+     * @param preLoading: [Boolean] should we call collection full? if nothing is entered, will default to [ArcXPContentConfig.preLoading] value
+     * @return [Map] of content alias to [Either] [Success] [Map]<[Int], [ArcXPContentElement]> or [Failure] [ArcXPException]
+     */
+    suspend fun getCollectionsSuspend(
+        collectionAliases: List<String>,
+        from: Int = 0,
+        size: Int = DEFAULT_PAGINATION_SIZE,
+        preLoading: Boolean? = null,
+    ): Map<String, Either<ArcXPException, Map<Int, ArcXPContentElement>>> =
+        getCollectionsFlow(
+            collectionAliases = collectionAliases,
+            from = from,
+            size = size,
+            preLoading = preLoading
+        ).lastOrNull() ?: emptyMap()
+
+    /**
+     * [getCollectionsFlow] requests the same page of several collections at once,
+     * emitting cached collections immediately (if any), then the updated map as each stale or missing collection arrives
+     * @param collectionAliases Content Aliases
+     * @param from [Int] index in which to start (ie for pagination, you may want to start at index for next page)
+     * @param size [Int] number of entries to request per collection: (valid range [VALID_COLLECTION_SIZE_RANGE], will coerce parameter into this range if it is outside)
+     * @param preLoading: [Boolean] should we call collection full? if nothing is entered, will default to [ArcXPContentConfig.preLoading] value
+     * @return [Flow] of results keyed by content alias, completes once every collection is resolved
+     */
+    fun getCollectionsFlow(
+        collectionAliases: List<String>,
+        from: Int = 0,
+        size: Int = DEFAULT_PAGINATION_SIZE,
+        preLoading: Boolean? = null,
+    ): Flow<Map<String, Either<ArcXPException, Map<Int, ArcXPContentElement>>>> =
+        contentRepository.getCollections(
+            collectionAliases = collectionAliases.map { it.replace("/", "") },
+            from = from,
+            size = size.coerceIn(VALID_COLLECTION_SIZE_RANGE),
+            full = preLoading,
+            onChanges = { _collectionChangesLiveData.postValue(it) }
+        ).flowOn(ioDispatcher())
+
 
     /**
      * This function requests a collection result by content alias as a json string
@@ -196,23 +314,28 @@ class ArcXPContentManager internal constructor(
      * or leave null and use livedata result and error livedata
      * @param from index in which to start (ie for pagination, you may want to start at index for next page)
      * @param size number of entries to request: (valid range [VALID_COLLECTION_SIZE_RANGE], will coerce parameter into this range if it is outside)
+     * @param scope optional caller scope (ie lifecycleScope), cancelling it cancels this request and skips its listener / livedata result
      * @return [LiveData] subscribe to this livedata for successful results (or use callback interface)
      * Note: this returns the same live data as all other '..AsJson' calls, so can subscribe directly  to [jsonLiveData] once
      */
+    @JvmOverloads
     fun getCollectionAsJson(
         collectionAlias: String,
         listener: ArcXPContentCallback? = null,
         from: Int = 0,
         size: Int = DEFAULT_PAGINATION_SIZE,
         preLoading: Boolean? = null,
+        scope: CoroutineScope? = null,
     ): LiveData<Either<ArcXPException, String>> {
-        mIoScope.launch {
-            _jsonLiveData.postValue(contentRepository.getCollectionAsJson(
+        launchRequest(scope) {
+            val result = contentRepository.getCollectionAsJson(
                 collectionAlias = collectionAlias.replace("/", ""),
                 from = from,
                 size = size.coerceIn(VALID_COLLECTION_SIZE_RANGE),
                 full = preLoading,
-            ).apply {
+            )
+            ensureActive()
+            _jsonLiveData.postValue(result.apply {
                 when (this) {
                     is Success -> listener?.onGetJsonSuccess(response = success)
                     is Failure -> listener?.onError(error = failure)
@@ -224,7 +347,9 @@ class ArcXPContentManager internal constructor(
 
     /**
      * This function requests a search to be performed by search Term (keyword/tag based on resolver setup default is tag(used in example app))
-     * note: cache is not used for search, but if you open item it will be cached
+     * note: successful results are kept in memory per (search term, from, size) for [ArcXPContentConfig.searchCacheTtlSeconds]
+     * (see [ArcXPContentConfig.Builder.setSearchCacheTtl]), opened items are cached on disk and can be searched
+     * offline with [searchLocal] or together with the network with [searchHybrid]
      *
      * returns result either through callback interface or livedata
      *
@@ -235,26 +360,33 @@ class ArcXPContentManager internal constructor(
      * or leave [listener] null and use livedata result and error livedata
      * @param from index in which to start (ie for pagination, you may want to start at index for next page)
      * @param size number of entries to request: (valid range [VALID_COLLECTION_SIZE_RANGE])
+     * @param scope optional caller scope (ie lifecycleScope), cancelling it cancels this request and skips its listener / livedata result
      * @return [LiveData] subscribe to this livedata for successful results (or use callback interface)
      * Note: this returns the same live data as all other search calls, so can subscribe directly to [searchLiveData] once
+     * Note: a newer search call cancels this one if it is still in flight, its listener will not be called
      */
+    @JvmOverloads
     fun search(
         searchTerms: List<String>,
         listener: ArcXPContentCallback? = null,
         from: Int = 0,
-        size: Int = DEFAULT_PAGINATION_SIZE
+        size: Int = DEFAULT_PAGINATION_SIZE,
+        scope: CoroutineScope? = null
     ): LiveData<Either<ArcXPException, Map<Int, ArcXPContentElement>>> {
         return search(
             searchTerm = searchTerms.joinToString(separator = ","),
             listener = listener,
             from = from,
-            size = size
+            size = size,
+            scope = scope
         )
     }
 
     /**
      * This function requests a search to be performed by search Term (keyword/tag based on resolver setup default is tag(used in example app))
-     * note: cache is not used for search, but if you open item it will be cached
+     * note: successful results are kept in memory per (search term, from, size) for [ArcXPContentConfig.searchCacheTtlSeconds]
+     * (see [ArcXPContentConfig.Builder.setSearchCacheTtl]), opened items are cached on disk and can be searched
+     * offline with [searchLocal] or together with the network with [searchHybrid]
      *
      * returns result either through callback interface or livedata
      *
@@ -265,26 +397,33 @@ class ArcXPContentManager internal constructor(
      * or leave [listener] null and use livedata result and error livedata
      * @param from index in which to start (ie for pagination, you may want to start at index for next page)
      * @param size number of entries to request: (valid range [VALID_COLLECTION_SIZE_RANGE])
+     * @param scope optional caller scope (ie lifecycleScope), cancelling it cancels this request and skips its listener / livedata result
      * @return [LiveData] subscribe to this livedata for successful results (or use callback interface)
      * Note: this returns the same live data as all other search calls, so can subscribe directly to [searchLiveData] once
+     * Note: a newer search call cancels this one if it is still in flight, its listener will not be called
      */
+    @JvmOverloads
     fun searchVideos(
         searchTerms: List<String>,
         listener: ArcXPContentCallback? = null,
         from: Int = 0,
-        size: Int = DEFAULT_PAGINATION_SIZE
+        size: Int = DEFAULT_PAGINATION_SIZE,
+        scope: CoroutineScope? = null
     ): LiveData<Either<ArcXPException, Map<Int, ArcXPContentElement>>> {
         return searchVideos(
             searchTerm = searchTerms.joinToString(separator = ","),
             listener = listener,
             from = from,
-            size = size
+            size = size,
+            scope = scope
         )
     }
 
     /**
      * [searchSuspend] requests a search to be performed by search Term (keyword/tag based on resolver setup default is tag(used in example app))
-     * note: cache is not used for search, but if you open item it will be cached
+     * note: successful results are kept in memory per (search term, from, size) for [ArcXPContentConfig.searchCacheTtlSeconds]
+     * (see [ArcXPContentConfig.Builder.setSearchCacheTtl]), opened items are cached on disk and can be searched
+     * offline with [searchLocal] or together with the network with [searchHybrid]
      *
      * @param searchTerms List of strings to search
      * @param from index in which to start (ie for pagination, you may want to start at index for next page)
@@ -304,7 +443,9 @@ class ArcXPContentManager internal constructor(
 
     /**
      * [searchVideosSuspend] requests a search to be performed by search Term (keyword/tag based on resolver setup default is tag(used in example app))
-     * note: cache is not used for search, but if you open item it will be cached
+     * note: successful results are kept in memory per (search term, from, size) for [ArcXPContentConfig.searchCacheTtlSeconds]
+     * (see [ArcXPContentConfig.Builder.setSearchCacheTtl]), opened items are cached on disk and can be searched
+     * offline with [searchLocal] or together with the network with [searchHybrid]
      *
      * @param searchTerms List of strings to search
      * @param from index in which to start (ie for pagination, you may want to start at index for next page)
@@ -325,7 +466,9 @@ class ArcXPContentManager internal constructor(
 
     /**
      * This function requests a search to be performed by search Term (keyword/tag based on resolver setup default is tag(used in example app))
-     * note: cache is not used for search, but if you open item it will be cached
+     * note: successful results are kept in memory per (search term, from, size) for [ArcXPContentConfig.searchCacheTtlSeconds]
+     * (see [ArcXPContentConfig.Builder.setSearchCacheTtl]), opened items are cached on disk and can be searched
+     * offline with [searchLocal] or together with the network with [searchHybrid]
      *
      * returns result either through callback interface or livedata
      *
@@ -336,24 +479,29 @@ class ArcXPContentManager internal constructor(
      * or leave [listener] null and use livedata result and error livedata
      * @param from index in which to start (ie for pagination, you may want to start at index for next page)
      * @param size number of entries to request: (valid range [VALID_COLLECTION_SIZE_RANGE], will coerce parameter into this range if it is outside)
+     * @param scope optional caller scope (ie lifecycleScope), cancelling it cancels this request and skips its listener / livedata result
      * @return [LiveData] subscribe to this livedata for successful results (or use callback interface)
      * Note: this returns the same live data as all other search calls, so can subscribe directly to [searchLiveData] once
+     * Note: a newer search call cancels this one if it is still in flight, its listener will not be called
      */
+    @JvmOverloads
     fun search(
         searchTerm: String,
         listener: ArcXPContentCallback? = null,
         from: Int = 0,
-        size: Int = DEFAULT_PAGINATION_SIZE
+        size: Int = DEFAULT_PAGINATION_SIZE,
+        scope: CoroutineScope? = null
     ): LiveData<Either<ArcXPException, Map<Int, ArcXPContentElement>>> {
-        mIoScope.launch {
-            val regPattern = Regex("[^A-Za-z0-9,\\- ]")
-            val searchTermsChecked = regPattern.replace(searchTerm, "")
+        launchSearch(scope) {
+            val searchTermsChecked = SearchQuery.normalize(searchTerm = searchTerm)
+            val result = contentRepository.searchSuspend(
+                searchTerm = searchTermsChecked,
+                from = from,
+                size = size.coerceIn(VALID_COLLECTION_SIZE_RANGE)
+            )
+            ensureActive()
             _searchLiveData.postValue(
-                contentRepository.searchSuspend(
-                    searchTerm = searchTermsChecked,
-                    from = from,
-                    size = size.coerceIn(VALID_COLLECTION_SIZE_RANGE)
-                ).apply {
+                result.apply {
                     when (this) {
                         is Success -> listener?.onSearchSuccess(success)
                         is Failure -> listener?.onError(failure)
@@ -366,7 +514,9 @@ class ArcXPContentManager internal constructor(
 
     /**
      * This function requests a search to be performed by search Term (keyword/tag based on resolver setup default is tag(used in example app))
-     * note: cache is not used for search, but if you open item it will be cached
+     * note: successful results are kept in memory per (search term, from, size) for [ArcXPContentConfig.searchCacheTtlSeconds]
+     * (see [ArcXPContentConfig.Builder.setSearchCacheTtl]), opened items are cached on disk and can be searched
+     * offline with [searchLocal] or together with the network with [searchHybrid]
      *
      * returns result either through callback interface or livedata
      *
@@ -377,24 +527,29 @@ class ArcXPContentManager internal constructor(
      * or leave [listener] null and use livedata result and error livedata
      * @param from index in which to start (ie for pagination, you may want to start at index for next page)
      * @param size number of entries to request: (valid range [VALID_COLLECTION_SIZE_RANGE], will coerce parameter into this range if it is outside)
+     * @param scope optional caller scope (ie lifecycleScope), cancelling it cancels this request and skips its listener / livedata result
      * @return [LiveData] subscribe to this livedata for successful results (or use callback interface)
      * Note: this returns the same live data as all other '..AsJson' calls, so can subscribe directly to [jsonLiveData] once
+     * Note: a newer searchAsJson call cancels this one if it is still in flight, its listener will not be called
      */
+    @JvmOverloads
     fun searchAsJson(
         searchTerm: String,
         listener: ArcXPContentCallback? = null,
         from: Int = 0,
-        size: Int = DEFAULT_PAGINATION_SIZE
+        size: Int = DEFAULT_PAGINATION_SIZE,
+        scope: CoroutineScope? = null
     ): LiveData<Either<ArcXPException, String>> {
-        mIoScope.launch {
-            val regPattern = Regex("[^A-Za-z0-9,\\- ]")
-            val searchTermsChecked = regPattern.replace(searchTerm, "")
+        launchSearch(scope, asJson = true) {
+            val searchTermsChecked = SearchQuery.normalize(searchTerm = searchTerm)
+            val result = contentRepository.searchAsJsonSuspend(
+                searchTerm = searchTermsChecked,
+                from = from,
+                size = size.coerceIn(VALID_COLLECTION_SIZE_RANGE)
+            )
+            ensureActive()
             _jsonLiveData.postValue(
-                contentRepository.searchAsJsonSuspend(
-                    searchTerm = searchTermsChecked,
-                    from = from,
-                    size = size.coerceIn(VALID_COLLECTION_SIZE_RANGE)
-                ).apply {
+                result.apply {
                     when (this) {
                         is Success -> listener?.onGetJsonSuccess(success)
                         is Failure -> listener?.onError(failure)
@@ -407,7 +562,9 @@ class ArcXPContentManager internal constructor(
 
     /**
      * This function requests a search to be performed by search Term (keyword/tag based on resolver setup default is tag(used in example app))
-     * note: cache is not used for search, but if you open item it will be cached
+     * note: successful results are kept in memory per (search term, from, size) for [ArcXPContentConfig.searchCacheTtlSeconds]
+     * (see [ArcXPContentConfig.Builder.setSearchCacheTtl]), opened items are cached on disk and can be searched
+     * offline with [searchLocal] or together with the network with [searchHybrid]
      *
      * returns result either through callback interface or livedata
      *
@@ -418,20 +575,25 @@ class ArcXPContentManager internal constructor(
      * or leave [listener] null and use livedata result and error livedata
      * @param from index in which to start (ie for pagination, you may want to start at index for next page)
      * @param size number of entries to request: (valid range [VALID_COLLECTION_SIZE_RANGE], will coerce parameter into this range if it is outside)
+     * @param scope optional caller scope (ie lifecycleScope), cancelling it cancels this request and skips its listener / livedata result
      * @return [LiveData] subscribe to this livedata for successful results (or use callback interface)
      * Note: this returns the same live data as all other '..AsJson' calls, so can subscribe directly  to [jsonLiveData] once
      */
+    @JvmOverloads
     fun searchAsJson(
         searchTerms: List<String>,
         listener: ArcXPContentCallback? = null,
         from: Int = 0,
-        size: Int = DEFAULT_PAGINATION_SIZE
+        size: Int = DEFAULT_PAGINATION_SIZE,
+        scope: CoroutineScope? = null
     ): LiveData<Either<ArcXPException, String>> =
-        searchAsJson(searchTerms.joinToString(separator = ","), listener, from, size)
+        searchAsJson(searchTerms.joinToString(separator = ","), listener, from, size, scope)
 
     /**
      * [searchAsJsonSuspend]This function requests a search to be performed by search Term (keyword/tag based on resolver setup default is tag(used in example app))
-     * note: cache is not used for search, but if you open item it will be cached
+     * note: successful results are kept in memory per (search term, from, size) for [ArcXPContentConfig.searchCacheTtlSeconds]
+     * (see [ArcXPContentConfig.Builder.setSearchCacheTtl]), opened items are cached on disk and can be searched
+     * offline with [searchLocal] or together with the network with [searchHybrid]
      *
      * returns result either
      *
@@ -444,9 +606,8 @@ class ArcXPContentManager internal constructor(
         from: Int = 0,
         size: Int = DEFAULT_PAGINATION_SIZE
     ): Either<ArcXPException, String> {
-        return withContext(mIoScope.coroutineContext) {
-            val regPattern = Regex("[^A-Za-z0-9,\\- ]")
-            val searchTermsChecked = regPattern.replace(searchTerm, "")
+        return withContext(ioContext) {
+            val searchTermsChecked = SearchQuery.normalize(searchTerm = searchTerm)
             return@withContext contentRepository.searchAsJsonSuspend(
                 searchTerm = searchTermsChecked,
                 from = from,
@@ -458,7 +619,9 @@ class ArcXPContentManager internal constructor(
     /**
      * [searchAsJsonSuspend] this function requests a search to be performed by search Term
      * (keyword/tag based on resolver setup default is tag(used in example app))
-     * note: cache is not used for search, but if you open item it will be cached
+     * note: successful results are kept in memory per (search term, from, size) for [ArcXPContentConfig.searchCacheTtlSeconds]
+     * (see [ArcXPContentConfig.Builder.setSearchCacheTtl]), opened items are cached on disk and can be searched
+     * offline with [searchLocal] or together with the network with [searchHybrid]
      *
      * returns result either
      *
@@ -479,7 +642,9 @@ class ArcXPContentManager internal constructor(
 
     /**
      * This function requests a search to be performed by search Term (keyword/tag based on resolver setup default is tag(used in example app))
-     * note: cache is not used for search, but if you open item it will be cached
+     * note: successful results are kept in memory per (search term, from, size) for [ArcXPContentConfig.searchCacheTtlSeconds]
+     * (see [ArcXPContentConfig.Builder.setSearchCacheTtl]), opened items are cached on disk and can be searched
+     * offline with [searchLocal] or together with the network with [searchHybrid]
      *
      * returns result either through callback interface or livedata
      *
@@ -490,24 +655,29 @@ class ArcXPContentManager internal constructor(
      * or leave [listener] null and use livedata result and error livedata
      * @param from index in which to start (ie for pagination, you may want to start at index for next page)
      * @param size number of entries to request: (valid range [VALID_COLLECTION_SIZE_RANGE], will coerce parameter into this range if it is outside)
+     * @param scope optional caller scope (ie lifecycleScope), cancelling it cancels this request and skips its listener / livedata result
      * @return [LiveData] subscribe to this livedata for successful results (or use callback interface)
      * Note: this returns the same live data as all other search calls, so can subscribe directly to [searchLiveData] once
+     * Note: a newer search call cancels this one if it is still in flight, its listener will not be called
      */
+    @JvmOverloads
     fun searchVideos(
         searchTerm: String,
         listener: ArcXPContentCallback? = null,
         from: Int = 0,
-        size: Int = DEFAULT_PAGINATION_SIZE
+        size: Int = DEFAULT_PAGINATION_SIZE,
+        scope: CoroutineScope? = null
     ): LiveData<Either<ArcXPException, Map<Int, ArcXPContentElement>>> {
-        mIoScope.launch {
-            val regPattern = Regex("[^A-Za-z0-9,\\- ]")
-            val searchTermsChecked = regPattern.replace(searchTerm, "")
+        launchSearch(scope) {
+            val searchTermsChecked = SearchQuery.normalize(searchTerm = searchTerm)
+            val result = contentRepository.searchVideosSuspend(
+                searchTerm = searchTermsChecked,
+                from = from,
+                size = size.coerceIn(VALID_COLLECTION_SIZE_RANGE)
+            )
+            ensureActive()
             _searchLiveData.postValue(
-                contentRepository.searchVideosSuspend(
-                    searchTerm = searchTermsChecked,
-                    from = from,
-                    size = size.coerceIn(VALID_COLLECTION_SIZE_RANGE)
-                ).apply {
+                result.apply {
                     when (this) {
                         is Success -> listener?.onSearchSuccess(response = success)
                         is Failure -> listener?.onError(error = failure)
@@ -520,7 +690,9 @@ class ArcXPContentManager internal constructor(
 
     /**
      * [searchSuspend] requests a search to be performed by search Term (keyword/tag based on resolver setup default is tag(used in example app))
-     * note: cache is not used for search, but if you open item it will be cached
+     * note: successful results are kept in memory per (search term, from, size) for [ArcXPContentConfig.searchCacheTtlSeconds]
+     * (see [ArcXPContentConfig.Builder.setSearchCacheTtl]), opened items are cached on disk and can be searched
+     * offline with [searchLocal] or together with the network with [searchHybrid]
      *
      * @param searchTerm term to search
      * @param from index in which to start (ie for pagination, you may want to start at index for next page)
@@ -532,9 +704,8 @@ class ArcXPContentManager internal constructor(
         from: Int = 0,
         size: Int = DEFAULT_PAGINATION_SIZE
     ): Either<ArcXPException, Map<Int, ArcXPContentElement>> {
-        return withContext(mIoScope.coroutineContext) {
-            val regPattern = Regex("[^A-Za-z0-9,\\- ]")
-            val searchTermChecked = regPattern.replace(searchTerm, "")
+        return withContext(ioContext) {
+            val searchTermChecked = SearchQuery.normalize(searchTerm = searchTerm)
             contentRepository.searchSuspend(
                 searchTerm = searchTermChecked,
                 from = from,
@@ -546,7 +717,9 @@ class ArcXPContentManager internal constructor(
     /**
      * [searchVideosSuspend] requests a search to be performed by search Term (keyword/tag based on resolver setup default is tag(used in example app))
      * - searches only video results
-     * note: cache is not used for search, but if you open item it will be cached
+     * note: successful results are kept in memory per (search term, from, size) for [ArcXPContentConfig.searchCacheTtlSeconds]
+     * (see [ArcXPContentConfig.Builder.setSearchCacheTtl]), opened items are cached on disk and can be searched
+     * offline with [searchLocal] or together with the network with [searchHybrid]
      *
      * @param searchTerm term to search
      * @param from index in which to start (ie for pagination, you may want to start at index for next page)
@@ -558,9 +731,8 @@ class ArcXPContentManager internal constructor(
         from: Int = 0,
         size: Int = DEFAULT_PAGINATION_SIZE
     ): Either<ArcXPException, Map<Int, ArcXPContentElement>> {
-        return withContext(mIoScope.coroutineContext) {
-            val regPattern = Regex("[^A-Za-z0-9,\\- ]")
-            val searchTermChecked = regPattern.replace(searchTerm, "")
+        return withContext(ioContext) {
+            val searchTermChecked = SearchQuery.normalize(searchTerm = searchTerm)
             contentRepository.searchVideosSuspend(
                 searchTerm = searchTermChecked,
                 from = from,
@@ -569,6 +741,130 @@ class ArcXPContentManager internal constructor(
         }
     }
 
+    /**
+     * [searchLocal] requests a search of cached content only (works offline)
+     * searches headline, subheadline, description, author and taxonomy tags of cached items,
+     * results are ranked by relevance
+     *
+     * returns result either through callback interface or livedata
+     *
+     * @param searchTerm string to search
+     * @param listener Callback interface for optional callback
+     * override [ArcXPContentCallback.onSearchSuccess] for success
+     * override [ArcXPContentCallback.onError] for failure
+     * or leave [listener] null and use livedata result and error livedata
+     * @param from index in which to start (ie for pagination, you may want to start at index for next page)
+     * @param size number of entries to request: (valid range [VALID_COLLECTION_SIZE_RANGE], will coerce parameter into this range if it is outside)
+     * @param scope optional caller scope (ie lifecycleScope), cancelling it cancels this request and skips its listener / livedata result
+     * @return [LiveData] subscribe to this livedata for successful results (or use callback interface)
+     * Note: this returns the same live data as all other search calls, so can subscribe directly to [searchLiveData] once
+     * Note: a newer search call cancels this one if it is still in flight, its listener will not be called
+     */
+    @JvmOverloads
+    fun searchLocal(
+        searchTerm: String,
+        listener: ArcXPContentCallback? = null,
+        from: Int = 0,
+        size: Int = DEFAULT_PAGINATION_SIZE,
+        scope: CoroutineScope? = null
+    ): LiveData<Either<ArcXPException, Map<Int, ArcXPContentElement>>> {
+        launchSearch(scope) {
+            val result = searchLocalSuspend(searchTerm = searchTerm, from = from, size = size)
+            ensureActive()
+            _searchLiveData.postValue(
+                result.apply {
+                    when (this) {
+                        is Success -> listener?.onSearchSuccess(response = success)
+                        is Failure -> listener?.onError(error = failure)
+                    }
+                }
+            )
+        }
+        return searchLiveData
+    }
+
+    /**
+     * [searchLocalSuspend] requests a search of cached content only (works offline)
+     *
+     * @param searchTerm term to search
+     * @param from index in which to start (ie for pagination, you may want to start at index for next page)
+     * @param size number of entries to request: (valid range [VALID_COLLECTION_SIZE_RANGE])
+     * @return [Either] returns either Success Map<Int, ArcXPContentElement> with ranked cached results or Failure ArcXPException if nothing cached matches.
+     */
+    suspend fun searchLocalSuspend(
+        searchTerm: String,
+        from: Int = 0,
+        size: Int = DEFAULT_PAGINATION_SIZE
+    ): Either<ArcXPException, Map<Int, ArcXPContentElement>> =
+        withContext(ioContext) {
+            contentRepository.searchLocal(
+                searchTerm = SearchQuery.normalize(searchTerm = searchTerm),
+                from = from,
+                size = size.coerceIn(VALID_COLLECTION_SIZE_RANGE)
+            )
+        }
+
+    /**
+     * [searchHybrid] requests cached results immediately, then network results merged with them
+     *
+     * listener / livedata receives up to two results per call:
+     * cached matches (if any), then network results merged with cached matches when they arrive
+     *
+     * @param searchTerm string to search (searches TAG by default for network)
+     * @param listener Callback interface for optional callback
+     * override [ArcXPContentCallback.onSearchSuccess] for success
+     * override [ArcXPContentCallback.onError] for failure
+     * or leave [listener] null and use livedata result and error livedata
+     * @param from index in which to start (ie for pagination, you may want to start at index for next page)
+     * @param size number of entries to request: (valid range [VALID_COLLECTION_SIZE_RANGE], will coerce parameter into this range if it is outside)
+     * @param scope optional caller scope (ie lifecycleScope), cancelling it cancels this request and skips its listener / livedata result
+     * @return [LiveData] subscribe to this livedata for successful results (or use callback interface)
+     * Note: this returns the same live data as all other search calls, so can subscribe directly to [searchLiveData] once
+     * Note: a newer search call cancels this one if it is still in flight, its listener will not be called
+     */
+    @JvmOverloads
+    fun searchHybrid(
+        searchTerm: String,
+        listener: ArcXPContentCallback? = null,
+        from: Int = 0,
+        size: Int = DEFAULT_PAGINATION_SIZE,
+        scope: CoroutineScope? = null
+    ): LiveData<Either<ArcXPException, Map<Int, ArcXPContentElement>>> {
+        launchSearch(scope) {
+            searchHybridFlow(searchTerm = searchTerm, from = from, size = size).collect {
+                ensureActive()
+                _searchLiveData.postValue(it.apply {
+                    when (this) {
+                        is Success -> listener?.onSearchSuccess(response = success)
+                        is Failure -> listener?.onError(error = failure)
+                    }
+                })
+            }
+        }
+        return searchLiveData
+    }
+
+    /**
+     * [searchHybridFlow] emits cached results immediately (if any),
+     * then network results merged with cached results when they arrive
+     *
+     * @param searchTerm term to search
+     * @param from index in which to start (ie for pagination, you may want to start at index for next page)
+     * @param size number of entries to request: (valid range [VALID_COLLECTION_SIZE_RANGE])
+     * @return [Flow] of [Either] results, completes after network result
+     */
+    fun searchHybridFlow(
+        searchTerm: String,
+        from: Int = 0,
+        size: Int = DEFAULT_PAGINATION_SIZE
+    ): Flow<Either<ArcXPException, Map<Int, ArcXPContentElement>>> {
+        return contentRepository.searchHybrid(
+            searchTerm = SearchQuery.normalize(searchTerm = searchTerm),
+            from = from,
+            size = size.coerceIn(VALID_COLLECTION_SIZE_RANGE)
+        ).flowOn(ioDispatcher())
+    }
+
     /**
      * [getArcXPStory] This function requests a story / article result by ANS ID
      *
@@ -580,19 +876,24 @@ class ArcXPContentManager internal constructor(
      * override [ArcXPContentCallback.onError] for failure
      * or leave null and use livedata result and error livedata
      * @param shouldIgnoreCache if true, we ignore caching for this call only
+     * @param scope optional caller scope (ie lifecycleScope), cancelling it cancels this request and skips its listener / livedata result
      * @return [LiveData] subscribe to this livedata for successful results (or use callback interface)
      * Note: this returns the same live data, so can subscribe directly to [storyLiveData] once for results
      */
+    @JvmOverloads
     fun getArcXPStory(
         id: String,
         listener: ArcXPContentCallback? = null,
-        shouldIgnoreCache: Boolean = false
+        shouldIgnoreCache: Boolean = false,
+        scope: CoroutineScope? = null
     ): LiveData<Either<ArcXPException, ArcXPStory>> {
-        mIoScope.launch {
-            contentRepository.getStory(
+        launchRequest(scope) {
+            val result = contentRepository.getStory(
                 uuid = id,
                 shouldIgnoreCache = shouldIgnoreCache
-            ).apply {
+            )
+            ensureActive()
+            result.apply {
                 when (this) {
                     is Success -> {
                         if (success.type == EventType.STORY.value) {
@@ -633,7 +934,7 @@ class ArcXPContentManager internal constructor(
         id: String,
         shouldIgnoreCache: Boolean = false
     ): Either<ArcXPException, ArcXPStory> =
-        withContext(mIoScope.coroutineContext) {
+        withContext(ioContext) {
             contentRepository.getStory(
                 uuid = id,
                 shouldIgnoreCache = shouldIgnoreCache
@@ -669,13 +970,32 @@ class ArcXPContentManager internal constructor(
         id: String,
         shouldIgnoreCache: Boolean = false
     ): Either<ArcXPException, ArcXPContentElement> =
-        withContext(mIoScope.coroutineContext) {
+        withContext(ioContext) {
             contentRepository.getContent(
                 uuid = id,
                 shouldIgnoreCache = shouldIgnoreCache
             )
         }
 
+    /**
+     * [getContentBatchSuspend] This suspend function requests several ans results by id,
+     * reading cached items in one query and fetching the rest concurrently
+     *
+     * @param ids ANS IDs
+     * @param shouldIgnoreCache if true, we ignore caching for this call only
+     * @return [List] of [Either] Success ArcXPContentElement or Failure ArcXPException, in the order of [ids]
+     */
+    suspend fun getContentBatchSuspend(
+        ids: List<String>,
+        shouldIgnoreCache: Boolean = false
+    ): List<Either<ArcXPException, ArcXPContentElement>> =
+        withContext(ioContext) {
+            contentRepository.getContentBatch(
+                uuids = ids,
+                shouldIgnoreCache = shouldIgnoreCache
+            )
+        }
+
     /**
      * [getContentAsJson] This function requests a result by ANS ID as a json string
      *
@@ -686,20 +1006,25 @@ class ArcXPContentManager internal constructor(
      * override [ArcXPContentCallback.onGetJsonSuccess] for success
      * override [ArcXPContentCallback.onError] for failure
      * or leave null and use livedata result and error livedata
+     * @param scope optional caller scope (ie lifecycleScope), cancelling it cancels this request and skips its listener / livedata result
      * @return [LiveData] subscribe to this livedata for successful results (or use callback interface)
      * Note: this returns the same live data as all other '..AsJson' calls, so can subscribe directly to [jsonLiveData] once
      */
+    @JvmOverloads
     fun getContentAsJson(
         id: String,
         shouldIgnoreCache: Boolean = false,
-        listener: ArcXPContentCallback? = null
+        listener: ArcXPContentCallback? = null,
+        scope: CoroutineScope? = null
     ): LiveData<Either<ArcXPException, String>> {
-        mIoScope.launch {
+        launchRequest(scope) {
+            val result = contentRepository.getContentAsJson(
+                uuid = id,
+                shouldIgnoreCache = shouldIgnoreCache,
+            )
+            ensureActive()
             _jsonLiveData.postValue(
-                contentRepository.getContentAsJson(
-                    uuid = id,
-                    shouldIgnoreCache = shouldIgnoreCache,
-                ).apply {
+                result.apply {
                     when (this) {
                         is Success -> listener?.onGetJsonSuccess(response = success)
                         is Failure -> listener?.onError(error = failure)
@@ -713,13 +1038,16 @@ class ArcXPContentManager internal constructor(
         id: String,
         shouldIgnoreCache: Boolean,
         contentType: Utils.AnsTypes,
-        listener: ArcXPContentCallback?
+        listener: ArcXPContentCallback?,
+        scope: CoroutineScope?
     ): LiveData<Either<ArcXPException, ArcXPContentElement>> {
-        mIoScope.launch {
-            contentRepository.getContent(
+        launchRequest(scope) {
+            val result = contentRepository.getContent(
                 uuid = id,
                 shouldIgnoreCache = shouldIgnoreCache
-            ).apply {
+            )
+            ensureActive()
+            result.apply {
                 when (this) {
                     is Success -> {
                         if (success.type == contentType.type) {
@@ -756,19 +1084,23 @@ class ArcXPContentManager internal constructor(
      * override [ArcXPContentCallback.onError] for failure
      * or leave [listener] null and use livedata result stream and error livedata stream
      * @param shouldIgnoreCache if true, we ignore caching for this call only
+     * @param scope optional caller scope (ie lifecycleScope), cancelling it cancels this request and skips its listener / livedata result
      * @return [LiveData] subscribe to this livedata for successful results (or use callback interface)
      * Note: this returns the same live data as all other generic content calls, so can subscribe directly to [contentLiveData] once
      */
+    @JvmOverloads
     fun getGallery(
         id: String,
         listener: ArcXPContentCallback? = null,
-        shouldIgnoreCache: Boolean = false
+        shouldIgnoreCache: Boolean = false,
+        scope: CoroutineScope? = null
     ): LiveData<Either<ArcXPException, ArcXPContentElement>> =
         getContentByType(
             id = id,
             shouldIgnoreCache = shouldIgnoreCache,
             contentType = Utils.AnsTypes.GALLERY,
-            listener = listener
+            listener = listener,
+            scope = scope
         )
 
 
@@ -782,19 +1114,24 @@ class ArcXPContentManager internal constructor(
      * override [ArcXPContentCallback.onGetContentSuccess] for success
      * override [ArcXPContentCallback.onError] for failure
      * or leave [listener] null and use livedata result stream and error livedata stream
+     * @param shouldIgnoreCache if true, we ignore caching for this call only
+     * @param scope optional caller scope (ie lifecycleScope), cancelling it cancels this request and skips its listener / livedata result
      * @return [LiveData] subscribe to this livedata for successful results (or use callback interface)
      * Note: this returns the same live data as all other generic content calls, so can subscribe directly to [contentLiveData] once
      */
     @Deprecated("Use findByUuid() in Video SDK")
+    @JvmOverloads
     fun getVideo(
         id: String,
         listener: ArcXPContentCallback? = null,
-        shouldIgnoreCache: Boolean = false
+        shouldIgnoreCache: Boolean = false,
+        scope: CoroutineScope? = null
     ): LiveData<Either<ArcXPException, ArcXPContentElement>> = getContentByType(
         id = id,
         shouldIgnoreCache = shouldIgnoreCache,
         contentType = Utils.AnsTypes.VIDEO,
-        listener = listener
+        listener = listener,
+        scope = scope
     )
 
     /**
@@ -808,20 +1145,25 @@ class ArcXPContentManager internal constructor(
      * override [ArcXPContentCallback.onError] for failure
      * or leave null and use livedata result and error livedata
      * @param shouldIgnoreCache if true, we ignore caching for this call only
+     * @param scope optional caller scope (ie lifecycleScope), cancelling it cancels this request and skips its listener / livedata result
      * @return [LiveData] subscribe to this livedata for successful results (or use callback interface)
      * Note: this returns the same live data each time, so can subscribe directly to [sectionListLiveData] once
      */
+    @JvmOverloads
     fun getSectionList(
         siteHierarchy: String,
         listener: ArcXPContentCallback? = null,
-        shouldIgnoreCache: Boolean = false
+        shouldIgnoreCache: Boolean = false,
+        scope: CoroutineScope? = null
     ): LiveData<Either<ArcXPException, List<ArcXPSection>>> {
-        mIoScope.launch {
+        launchRequest(scope) {
+            val result = contentRepository.getSectionList(
+                siteHierarchy = siteHierarchy,
+                shouldIgnoreCache = shouldIgnoreCache
+            )
+            ensureActive()
             _sectionListLiveData.postValue(
-                contentRepository.getSectionList(
-                    siteHierarchy = siteHierarchy,
-                    shouldIgnoreCache = shouldIgnoreCache
-                ).apply {
+                result.apply {
                     when (this) {
                         is Success -> listener?.onGetSectionsSuccess(response = success)
                         is Failure -> listener?.onError(error = failure)
@@ -841,7 +1183,7 @@ class ArcXPContentManager internal constructor(
     suspend fun getSectionListSuspend(
         siteHierarchy: String, shouldIgnoreCache: Boolean = false
     ): Either<ArcXPException, List<ArcXPSection>> =
-        withContext(mIoScope.coroutineContext) {
+        withContext(ioContext) {
             contentRepository.getSectionList(
                 siteHierarchy = siteHierarchy,
                 shouldIgnoreCache = shouldIgnoreCache
@@ -858,20 +1200,25 @@ class ArcXPContentManager internal constructor(
      * override [ArcXPContentCallback.onGetJsonSuccess] for success
      * override [ArcXPContentCallback.onError] for failure
      * or leave null and use livedata result and error livedata
+     * @param scope optional caller scope (ie lifecycleScope), cancelling it cancels this request and skips its listener / livedata result
      * @return [LiveData] subscribe to this livedata for successful results (or use callback interface)
      * Note: this returns the same live data as all other '..AsJson' calls, so can subscribe directly  to [jsonLiveData] once
      */
+    @JvmOverloads
     fun getSectionListAsJson(
         siteHierarchy: String,
         listener: ArcXPContentCallback? = null,
         shouldIgnoreCache: Boolean = false,
+        scope: CoroutineScope? = null,
     ): LiveData<Either<ArcXPException, String>> {
-        mIoScope.launch {
+        launchRequest(scope) {
+            val result = contentRepository.getSectionListAsJson(
+                siteHierarchy = siteHierarchy,
+                shouldIgnoreCache = shouldIgnoreCache
+            )
+            ensureActive()
             _jsonLiveData.postValue(
-                contentRepository.getSectionListAsJson(
-                    siteHierarchy = siteHierarchy,
-                    shouldIgnoreCache = shouldIgnoreCache
-                )
+                result
                     .apply {
                         when (this) {
                             is Success -> listener?.onGetJsonSuccess(response = success)
@@ -892,7 +1239,7 @@ class ArcXPContentManager internal constructor(
         id: String,
         shouldIgnoreCache: Boolean = false,
     ): Either<ArcXPException, String> =
-        withContext(mIoScope.coroutineContext) {
+        withContext(ioContext) {
             contentRepository.getContentAsJson(uuid = id, shouldIgnoreCache = shouldIgnoreCache)
         }
 
@@ -913,7 +1260,7 @@ class ArcXPContentManager internal constructor(
         shouldIgnoreCache: Boolean = false,
         preLoading: Boolean? = null
     ): Either<ArcXPException, String> =
-        withContext(mIoScope.coroutineContext) {
+        withContext(ioContext) {
             contentRepository.getCollectionAsJson(
                 collectionAlias = collectionAlias.replace("/", ""),
                 from = from,
@@ -932,7 +1279,7 @@ class ArcXPContentManager internal constructor(
         siteHierarchy: String,
         shouldIgnoreCache: Boolean = false
     ): Either<ArcXPException, String> =
-        withContext(mIoScope.coroutineContext) {
+        withContext(ioContext) {
             contentRepository.getSectionListAsJson(
                 siteHierarchy = siteHierarchy,
                 shouldIgnoreCache = shouldIgnoreCache
@@ -5,6 +5,7 @@ import com.arcxp.commons.throwables.ArcXPException
 import com.arcxp.commons.util.Constants
 import com.arcxp.commons.util.Constants.expires
 import com.arcxp.commons.util.Either
+import com.arcxp.commons.util.Failure
 import com.arcxp.commons.util.Success
 import com.arcxp.commons.util.Utils.createFailure
 import com.arcxp.commons.util.Utils.createNavFailure
@@ -15,6 +16,7 @@ import com.arcxp.content.extendedModels.ArcXPContentElement
 import com.arcxp.content.retrofit.ContentService
 import com.arcxp.content.retrofit.NavigationService
 import com.arcxp.sdk.R
+import okhttp3.ResponseBody
 import java.util.Date
 
 /**
@@ -42,6 +44,7 @@ import java.util.Date
  * Note: Ensure that the configuration, application context, and service instances are properly configured before using ContentApiManager.
  *
  * @method getCollection Fetch a collection of content items.
+ * @method getCollectionBody Fetch a collection of content items as a streamed response body.
  * @method search Search for content items based on a search term.
  * @method searchAsJson Search for content items and return the result as a JSON string.
  * @method searchVideos Search for video content items based on a search term.
@@ -61,7 +64,39 @@ class ContentApiManager(
         from: Int,
         size: Int,
         full: Boolean?
-    ): Either<ArcXPException, Pair<String, Date>> {
+    ): Either<ArcXPException, Pair<String, Date>> =
+        when (val response = getCollectionBody(
+            collectionAlias = collectionAlias,
+            from = from,
+            size = size,
+            full = full
+        )) {
+            is Success -> try {
+                Success(Pair(response.success.first.use { it.string() }, response.success.second))
+            } catch (e: Exception) {
+                createFailure(
+                    message = application.getString(
+                        R.string.get_collection_failure_message,
+                        e.message
+                    ),
+                    value = e
+                )
+            }
+
+            is Failure -> response
+        }
+
+    /**
+     * [getCollectionBody] - same as [getCollection], but returns the unread response body
+     * so it can be parsed while streaming, the caller is responsible for closing it
+     * @return pair of response body, expires date or an error from response
+     */
+    suspend fun getCollectionBody(
+        collectionAlias: String,
+        from: Int,
+        size: Int,
+        full: Boolean?
+    ): Either<ArcXPException, Pair<ResponseBody, Date>> {
         //if unspecified(null) here from outer call, use preloading value here from initialization
         val finalFullChoice = full ?: contentConfig.preLoading
         return try {
@@ -72,10 +107,14 @@ class ContentApiManager(
             }
             when {
                 response.isSuccessful -> {
-                    val json = response.body()!!.string()
-                    val expiresAt =
+                    val body = response.body()!!
+                    val expiresAt = try {
                         determineExpiresAt(expiresAt = response.headers()[expires]!!)
-                    Success(Pair(json, expiresAt))
+                    } catch (e: Exception) {
+                        body.close()
+                        throw e
+                    }
+                    Success(Pair(body, expiresAt))
                 }
 
                 else -> createFailure(
@@ -198,6 +237,8 @@ class ContentApiManager(
 
     //this function returns a pair of json response, expires date
     //or an error from response
+    //not streamed like collections: the response is a single object whose json is cached
+    //and returned as one string, so the body is read whole either way
     suspend fun getContent(id: String): Either<ArcXPException, Pair<String, Date>> =
         try {
             val response = contentService.getContent(id = id)
@@ -230,6 +271,7 @@ class ContentApiManager(
         }
 
 
+    //not streamed for the same reason as getContent, the section list is cached as one json string
     suspend fun getSectionList(siteHierarchy: String): Either<ArcXPException, Pair<String, Date>> =
         try {
             val response =
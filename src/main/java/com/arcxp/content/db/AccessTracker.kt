@@ -0,0 +1,45 @@
+package com.arcxp.content.db
+
+import com.arcxp.commons.util.Constants.ACCESS_TRACKING_BATCH_SIZE
+
+/**
+ * AccessTracker collects cache reads in memory so reads don't each become a database write,
+ * [CacheManager] writes them (with the flush time as access time) once [batchSize] entries
+ * are pending or before evicting
+ */
+internal class AccessTracker(private val batchSize: Int = ACCESS_TRACKING_BATCH_SIZE) {
+
+    private val jsonUuids = mutableSetOf<String>()
+    private val collectionAliases = mutableSetOf<String>()
+
+    /**
+     * @return true when the pending batch is full and should be flushed
+     */
+    @Synchronized
+    fun touchJson(uuid: String): Boolean {
+        jsonUuids.add(uuid)
+        return isFull()
+    }
+
+    /**
+     * @return true when the pending batch is full and should be flushed
+     */
+    @Synchronized
+    fun touchCollection(collectionAlias: String): Boolean {
+        collectionAliases.add(collectionAlias)
+        return isFull()
+    }
+
+    /**
+     * @return pending (json uuids, collection aliases), clearing them
+     */
+    @Synchronized
+    fun drain(): Pair<List<String>, List<String>> {
+        val pending = jsonUuids.toList() to collectionAliases.toList()
+        jsonUuids.clear()
+        collectionAliases.clear()
+        return pending
+    }
+
+    private fun isFull() = jsonUuids.size + collectionAliases.size >= batchSize
+}
@@ -0,0 +1,41 @@
+package com.arcxp.content.db
+
+/**
+ * CacheEvictionPolicy decides which cached entries are removed first
+ * once the cache grows past [com.arcxp.content.ArcXPContentConfig.cacheSizeMB]
+ *
+ * entries are whole collections or json items no collection references (see [CacheEntry]),
+ * evicting a collection also removes its json items unless another collection references them
+ * or they were read after the collection was
+ *
+ * set with [com.arcxp.content.ArcXPContentConfig.Builder.setEvictionPolicy], defaults to [LRU]
+ */
+fun interface CacheEvictionPolicy {
+
+    /**
+     * @param candidates every evictable entry
+     * @param now current time in millis
+     * @return [candidates] in the order they should be evicted, entries left out are never evicted
+     */
+    fun order(candidates: List<CacheEntry>, now: Long): List<CacheEntry>
+
+    companion object {
+        /** least recently read first */
+        val LRU = CacheEvictionPolicy { candidates, _ ->
+            candidates.sortedBy { it.lastAccessedAt.time }
+        }
+
+        /** expired entries first (earliest expiration first), then least recently read */
+        val TTL_FIRST = CacheEvictionPolicy { candidates, now ->
+            val (expired, fresh) = candidates.partition { it.expiresAt.time <= now }
+            expired.sortedBy { it.expiresAt.time } + fresh.sortedBy { it.lastAccessedAt.time }
+        }
+
+        /** large entries that have not been read for a while first (size * time since last read) */
+        val SIZE_WEIGHTED = CacheEvictionPolicy { candidates, now ->
+            candidates.sortedByDescending {
+                it.sizeBytes.coerceAtLeast(1) * (now - it.lastAccessedAt.time).coerceAtLeast(1).toDouble()
+            }
+        }
+    }
+}
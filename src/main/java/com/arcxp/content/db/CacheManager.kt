@@ -3,14 +3,27 @@ package com.arcxp.content.db
 import android.app.Application
 import android.util.Log
 import com.arcxp.ArcXPMobileSDK.contentConfig
+import com.arcxp.commons.util.Constants.CACHE_MAINTENANCE_DELAY_MS
+import com.arcxp.commons.util.Constants.CACHE_MAINTENANCE_RETRY_MS
+import com.arcxp.commons.util.Constants.FREELIST_VACUUM_THRESHOLD
+import com.arcxp.commons.util.Constants.INCREMENTAL_VACUUM_PAGES
+import com.arcxp.commons.util.Constants.LOCAL_SEARCH_MAX_RESULTS
+import com.arcxp.commons.util.Constants.SEED_EXPIRES_AT_MS
+import com.arcxp.commons.util.Constants.SQLITE_MAX_BATCH_ARGS
 import com.arcxp.commons.util.DependencyFactory
 import com.arcxp.commons.util.DependencyFactory.createIOScope
+import com.arcxp.commons.util.DeviceStateUtil
 import com.arcxp.commons.util.MoshiController.fromJson
+import com.arcxp.commons.util.Utils
+import com.arcxp.commons.util.Utils.createDate
 import com.arcxp.commons.util.Utils.constructJsonArray
 import com.arcxp.content.extendedModels.ArcXPContentElement
 import com.arcxp.sdk.R
 import com.arcxp.video.util.TAG
+import androidx.room.withTransaction
 import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.Job
+import kotlinx.coroutines.delay
 import kotlinx.coroutines.launch
 import java.util.Date
 
@@ -20,45 +33,231 @@ import java.util.Date
  * @property application Application context
  * @property database Our database instance
  * @property mIoScope Scope for db operations
+ * @property evictionPolicy order in which entries are evicted when over the size limit
+ * @property accessTracker batches reads into last access updates for [evictionPolicy]
+ * @property maintenanceAllowed whether vacuuming may run now (device idle or charging by default)
+ * @property pinnedCollections collection aliases that are never evicted
+ * @property collectionQuotas max items cached per collection alias, rows at or past the quota index are not written
  */
-class CacheManager(
+class CacheManager internal constructor(
     private val application: Application,
     private val database: Database,
-    private val mIoScope: CoroutineScope = createIOScope()
+    private val mIoScope: CoroutineScope = createIOScope(),
+    private val evictionPolicy: CacheEvictionPolicy = CacheEvictionPolicy.LRU,
+    private val accessTracker: AccessTracker = AccessTracker(),
+    private val maintenanceAllowed: () -> Boolean = { DeviceStateUtil.isIdleOrCharging(application) },
+    private val pinnedCollections: Set<String> = emptySet(),
+    private val collectionQuotas: Map<String, Int> = emptyMap()
 ) {
     private val maxSizeBytes =
         contentConfig().cacheSizeMB/*mb*/ * 1024 /*kb*/ * 1024 /*bytes*/
     private val dao = database.sdkDao()
+    private var seedJob: Job? = null
 
-    init {
-        mIoScope.launch {
-            vac()//rebuilds the database file, repacking it into a minimal amount of disk space
+    private companion object {
+        const val AUTO_VACUUM_INCREMENTAL = 2
+    }
+
+    /**
+     * runs [maintain] once the device is idle or charging, waiting [CACHE_MAINTENANCE_DELAY_MS] first
+     * so it does not compete with the first loads after launch
+     */
+    fun scheduleMaintenance() = mIoScope.launch {
+        delay(CACHE_MAINTENANCE_DELAY_MS)
+        while (!maintenanceAllowed()) delay(CACHE_MAINTENANCE_RETRY_MS)
+        maintain()
+    }
+
+    /**
+     * reclaims free pages in [INCREMENTAL_VACUUM_PAGES] steps once they pass [FREELIST_VACUUM_THRESHOLD]
+     * of the file, stopping early if the device is no longer idle or charging.
+     * databases created before incremental auto vacuum are converted with one full VACUUM, which may
+     * renumber jsonItem rowids; search rows are linked by uuid (see [JsonItemFts]) so they stay valid.
+     */
+    internal suspend fun maintain() {
+        if (pragma("auto_vacuum") != AUTO_VACUUM_INCREMENTAL) {
+            pragma("auto_vacuum = INCREMENTAL")
+            vac() // auto_vacuum mode only changes when the file is rebuilt
+            return
+        }
+        val pageCount = pragma("page_count")
+        var freePages = pragma("freelist_count")
+        if (pageCount == 0 || freePages.toDouble() / pageCount < FREELIST_VACUUM_THRESHOLD) return
+        while (freePages > 0 && maintenanceAllowed()) {
+            pragma("incremental_vacuum($INCREMENTAL_VACUUM_PAGES)")
+            val remaining = pragma("freelist_count")
+            if (remaining >= freePages) break
+            freePages = remaining
         }
+        checkPoint()
     }
 
-    private fun getDBSize() = (application.getDatabasePath("database")
-        .length() // Add the shared memory (WAL index) file size
-            + application.getDatabasePath("database-shm").length() // Add the WAL file size
-            + application.getDatabasePath("database-wal").length() // Add the journal file size
-            + application.getDatabasePath("database-journal").length())
+    /**
+     * imports the [CacheSeed] snapshot at [assetPath] when the cache is empty (ie first launch).
+     * seeded entries expire at [SEED_EXPIRES_AT_MS], so they are returned right away and
+     * revalidated in the background on first use. reads wait for the import to finish.
+     */
+    fun importSeed(assetPath: String) = mIoScope.launch {
+        if (dao.getCollections().isNotEmpty()) return@launch
+        try {
+            val seed = CacheSeed.parse(
+                json = application.assets.open(assetPath).bufferedReader().use { it.readText() }
+            )
+            val expiresAt = Date(SEED_EXPIRES_AT_MS)
+            // one transaction rather than one per row
+            database.withTransaction {
+                seed.collections.forEach { (collectionAlias, items) ->
+                    items.forEach { item ->
+                        dao.insertCollectionItem(
+                            collectionItem = CollectionItem(
+                                collectionAlias = collectionAlias,
+                                indexValue = item.index,
+                                uuid = item.uuid,
+                                expiresAt = expiresAt
+                            )
+                        )
+                        insertJson(
+                            jsonItem = JsonItem(
+                                uuid = item.uuid,
+                                jsonResponse = item.json,
+                                expiresAt = expiresAt
+                            )
+                        )
+                    }
+                }
+                seed.sectionLists.forEach { (siteHierarchy, json) ->
+                    dao.insertSectionList(
+                        sectionHeaderItem = SectionHeaderItem(
+                            siteHierarchy = siteHierarchy,
+                            sectionHeaderResponse = json,
+                            expiresAt = expiresAt
+                        )
+                    )
+                }
+            }
+            trim()
+        } catch (e: Exception) {
+            // the seed only speeds up first launch, without it the cache fills from the network as usual
+            Log.e(TAG, application.getString(R.string.seed_import_failure_message, e.message), e)
+        }
+    }.also { seedJob = it }
+
+    private suspend fun awaitSeed() = seedJob?.join()
+
+    private suspend fun pragma(pragma: String) =
+        dao.pragma(supportSQLiteQuery = DependencyFactory.pragmaQuery(pragma = pragma))
+
+    /**
+     * bytes used by cached data: pages in use (free pages excluded, they are reused
+     * by new inserts and reclaimed by [maintain]) times page size
+     */
+    private suspend fun getDBSize() =
+        (pragma("page_count") - pragma("freelist_count")).toLong() * pragma("page_size")
 
     suspend fun getCollections() = dao.getCollections()
     suspend fun getSectionList(siteHierarchy: String) =
-        dao.getSectionList(siteHierarchy = siteHierarchy)
+        awaitSeed().run { dao.getSectionList(siteHierarchy = siteHierarchy) }
 
     suspend fun insertNavigation(sectionHeaderItem: SectionHeaderItem) =
         dao.insertSectionList(sectionHeaderItem)
 
-    suspend fun getJsonById(uuid: String) = dao.getJsonById(uuid = uuid)
+    suspend fun getJsonById(uuid: String) = awaitSeed().run { dao.getJsonById(uuid = uuid) }?.also {
+        if (accessTracker.touchJson(uuid = uuid)) flushAccess()
+    }
+
+    /**
+     * [getJsonByIds] returns the cached json items among [uuids] keyed by uuid, in as few queries as possible
+     */
+    suspend fun getJsonByIds(uuids: List<String>): Map<String, JsonItem> {
+        awaitSeed()
+        return uuids.distinct().chunked(SQLITE_MAX_BATCH_ARGS)
+            .flatMap { dao.getJsonByIds(uuids = it) }
+            .associateBy { it.uuid }
+            .also { items ->
+                if (items.keys.count { accessTracker.touchJson(uuid = it) } > 0) flushAccess()
+            }
+    }
+
+    /**
+     * inserts [jsonItems] in one transaction, trimming the cache once afterwards
+     */
+    suspend fun insertAll(jsonItems: List<JsonItem>) {
+        if (jsonItems.isEmpty()) return
+        database.withTransaction { jsonItems.forEach { insertJson(jsonItem = it) } }
+        trim()
+    }
+
+    /**
+     * runs [block] in one transaction, so a multi step write (ie a refreshed collection page) is applied whole or not at all
+     */
+    suspend fun inTransaction(block: suspend () -> Unit) = database.withTransaction(block)
 
     suspend fun insert(collectionItem: CollectionItem? = null, jsonItem: JsonItem) {
+        if (collectionItem != null && isOverQuota(collectionItem = collectionItem)) return
         collectionItem?.let { dao.insertCollectionItem(collectionItem = it) }
+        insertJson(jsonItem = jsonItem)
+        trim()
+    }
+
+    private suspend fun insertJson(jsonItem: JsonItem) {
+        // replace doesn't fire the delete trigger, so drop the previous search row first
+        if (dao.hasJsonItem(uuid = jsonItem.uuid)) dao.deleteSearchEntry(uuid = jsonItem.uuid)
         dao.insertJsonItem(jsonItem = jsonItem)
-        checkPoint()
-        while ((getDBSize() > maxSizeBytes) and (dao.countItems() > 0)) {
-            dao.deleteOldestCollectionItem()
-            dao.deleteOldestJsonItem()
-            checkPoint()
+        SearchIndexer.createEntry(uuid = jsonItem.uuid, json = jsonItem.jsonResponse)
+            ?.let { dao.insertSearchEntry(jsonItemFts = it) }
+    }
+
+    /**
+     * evicts entries in [evictionPolicy] order until the database fits in [maxSizeBytes]
+     */
+    private suspend fun trim() {
+        if (getDBSize() <= maxSizeBytes) return
+        flushAccess()
+        val candidates = evictionPolicy.order(
+            candidates = dao.getEvictionCandidates()
+                .filterNot { it.isCollection && it.key in pinnedCollections },
+            now = Utils.currentTimeInMillis()
+        )
+        for (entry in candidates) {
+            evict(entry = entry)
+            if (getDBSize() <= maxSizeBytes) break
+        }
+    }
+
+    private suspend fun evict(entry: CacheEntry) {
+        if (entry.isCollection) {
+            // json items go first, the collection rows are needed to find them
+            dao.deleteCollectionJsonItems(
+                collectionAlias = entry.key,
+                accessedBefore = entry.lastAccessedAt
+            )
+            dao.deleteCollection(collectionAlias = entry.key)
+        } else {
+            dao.deleteJsonItem(uuid = entry.key)
+        }
+    }
+
+    /**
+     * removes collections and unreferenced json items that expired before [before],
+     * except pinned collections, collections in [keep] and seeded entries awaiting revalidation
+     */
+    suspend fun purgeExpired(before: Date, keep: Set<String> = emptySet()) {
+        dao.getEvictionCandidates()
+            .filter { it.expiresAt.before(before) && it.expiresAt.time != SEED_EXPIRES_AT_MS }
+            .filterNot { it.isCollection && (it.key in pinnedCollections || it.key in keep) }
+            .forEach { evict(entry = it) }
+    }
+
+    /**
+     * writes pending reads as last access times, reads are batched so they don't each cost a write
+     */
+    suspend fun flushAccess() {
+        val (uuids, collectionAliases) = accessTracker.drain()
+        if (uuids.isEmpty() && collectionAliases.isEmpty()) return
+        val now = createDate()
+        if (uuids.isNotEmpty()) dao.updateJsonAccess(uuids = uuids, accessedAt = now)
+        if (collectionAliases.isNotEmpty()) {
+            dao.updateCollectionAccess(collectionAliases = collectionAliases, accessedAt = now)
         }
     }
 
@@ -74,26 +273,62 @@ class CacheManager(
         collectionAlias: String,
         from: Int,
         size: Int
-    ) = dao.getCollectionIndexedJson(collectionAlias, from, size).mapNotNull {
-        try {
-            it.indexValue to
-                    fromJson(
-                        it.jsonResponse,
-                        ArcXPContentElement::class.java
-                    )!!
-        } catch (e: Exception) {
-            Log.e(
-                TAG,
-                application.getString(
-                    R.string.get_collection_deserialization_failure_message,
-                    e.message
-                ),
-                e
-            )
-            return@mapNotNull null
-        }
+    ) = getCollectionIndexedJson(collectionAlias, from, size).mapNotNull {
+        parseElement(json = it.jsonResponse)?.let { element -> it.indexValue to element }
     }.toMap()
 
+    /**
+     * [getCollectionBatch] returns the same page of several collections read in one query,
+     * keyed by collection alias (collections with nothing cached are left out)
+     */
+    suspend fun getCollectionBatch(
+        collectionAliases: List<String>,
+        from: Int,
+        size: Int
+    ): Map<String, Map<Int, ArcXPContentElement>> {
+        awaitSeed()
+        return collectionAliases.distinct().chunked(SQLITE_MAX_BATCH_ARGS)
+            .flatMap { dao.getCollectionsIndexedJson(collectionAliases = it, from = from, size = size) }
+            .groupBy { it.collectionAlias }
+            .mapValues { (_, items) ->
+                items.mapNotNull {
+                    parseElement(json = it.jsonResponse)?.let { element -> it.indexValue to element }
+                }.toMap()
+            }
+            .also { collections ->
+                if (collections.keys.count { accessTracker.touchCollection(collectionAlias = it) } > 0) {
+                    flushAccess()
+                }
+            }
+    }
+
+    private fun parseElement(json: String) = try {
+        fromJson(json, ArcXPContentElement::class.java)!!
+    } catch (e: Exception) {
+        Log.e(
+            TAG,
+            application.getString(
+                R.string.get_collection_deserialization_failure_message,
+                e.message
+            ),
+            e
+        )
+        null
+    }
+
+    private suspend fun getCollectionIndexedJson(
+        collectionAlias: String,
+        from: Int,
+        size: Int
+    ): List<ContentSDKDao.IndexedJsonItem> {
+        awaitSeed()
+        return dao.getCollectionIndexedJson(collectionAlias, from, size).also {
+            if (it.isNotEmpty() && accessTracker.touchCollection(collectionAlias = collectionAlias)) {
+                flushAccess()
+            }
+        }
+    }
+
     /**
      * [getCollectionAsJson] returns a collection String entry, or empty if nothing in db
      */
@@ -103,7 +338,7 @@ class CacheManager(
         size: Int
     ): String {
         var jsonArray = ""
-        val strings = dao.getCollectionIndexedJson(collectionAlias, from, size)
+        val strings = getCollectionIndexedJson(collectionAlias, from, size)
         if (strings.isNotEmpty()) {
             jsonArray =
                 constructJsonArray(jsonStrings = strings.map { indexedJsonItem -> indexedJsonItem.jsonResponse }
@@ -114,9 +349,94 @@ class CacheManager(
     }
 
 
+    /**
+     * [search] full text search over cached content (headline, subheadline, description, author, tags)
+     * results are ranked, then paged by [from] and [size]
+     * @return map<index, ArcXPContentElement> with index starting at [from], empty if no matches
+     */
+    suspend fun search(
+        searchTerm: String,
+        from: Int,
+        size: Int
+    ): Map<Int, ArcXPContentElement> {
+        val query = SearchIndexer.matchQuery(searchTerm = searchTerm) ?: return emptyMap()
+        return dao.searchJsonItems(query = query, limit = LOCAL_SEARCH_MAX_RESULTS)
+            .sortedByDescending { SearchIndexer.rank(matchInfo = it.matchInfo) }
+            .drop(from)
+            .take(size)
+            .mapNotNull {
+                try {
+                    fromJson(it.jsonResponse, ArcXPContentElement::class.java)
+                } catch (e: Exception) {
+                    null
+                }
+            }
+            .mapIndexed { index, element -> index + from to element }
+            .toMap()
+    }
+
     suspend fun getCollectionExpiration(collectionAlias: String): Date? =
         dao.getCollectionExpiration(collectionAlias)
 
+    /**
+     * [getCollectionExpirations] returns the expiration of each cached collection in [collectionAliases]
+     */
+    suspend fun getCollectionExpirations(collectionAliases: List<String>): Map<String, Date> =
+        collectionAliases.distinct().chunked(SQLITE_MAX_BATCH_ARGS)
+            .flatMap { dao.getCollectionExpirations(collectionAliases = it) }
+            .associate { it.collectionAlias to it.expiresAt }
+
+    /**
+     * [getCollectionPage] returns the cached rows (index, uuid, json) of a collection page
+     */
+    suspend fun getCollectionPage(collectionAlias: String, from: Int, size: Int) =
+        dao.getCollectionPage(collectionAlias = collectionAlias, from = from, size = size)
+
+    /**
+     * [insertCollectionItem] inserts a collection row only, for items whose json is already cached and unchanged
+     */
+    suspend fun insertCollectionItem(collectionItem: CollectionItem) {
+        if (!isOverQuota(collectionItem = collectionItem)) dao.insertCollectionItem(collectionItem = collectionItem)
+    }
+
+    /**
+     * [isOverQuota] whether [index] is at or past the quota of [collectionAlias], such rows are never written
+     */
+    fun isOverQuota(collectionAlias: String, index: Int) = collectionQuotas.isNotEmpty() &&
+        collectionQuotas[collectionAlias]?.let { index >= it } ?: false
+
+    private fun isOverQuota(collectionItem: CollectionItem) =
+        isOverQuota(collectionAlias = collectionItem.collectionAlias, index = collectionItem.indexValue)
+
+    /**
+     * [deleteCollectionItems] removes collection rows by index, their json stays cached
+     */
+    suspend fun deleteCollectionItems(collectionAlias: String, indices: List<Int>) {
+        if (indices.isNotEmpty()) {
+            dao.deleteCollectionItems(collectionAlias = collectionAlias, indices = indices)
+        }
+    }
+
+    /**
+     * [updateExpiration] extends a refreshed collection page and its unchanged json items
+     * without rewriting their json
+     */
+    suspend fun updateExpiration(
+        collectionAlias: String,
+        from: Int,
+        size: Int,
+        uuids: List<String>,
+        expiresAt: Date
+    ) {
+        dao.updateCollectionExpiration(
+            collectionAlias = collectionAlias,
+            from = from,
+            size = size,
+            expiresAt = expiresAt
+        )
+        if (uuids.isNotEmpty()) dao.updateJsonExpiration(uuids = uuids, expiresAt = expiresAt)
+    }
+
     fun deleteCollection(collectionAlias: String) =
         mIoScope.launch { dao.deleteCollection(collectionAlias = "/$collectionAlias") }
 
@@ -0,0 +1,49 @@
+package com.arcxp.content.db
+
+import com.google.gson.JsonObject
+import com.google.gson.JsonParser
+
+/**
+ * CacheSeed is a cache snapshot bundled in the app assets, imported by [CacheManager.importSeed]
+ * so the first launch can show content before any network call returns.
+ *
+ * the snapshot wraps unmodified content api responses, tools/cache-seed-generator (gradle task generateCacheSeed)
+ * produces it by fetching each collection and section list and writing them into one file:
+ * ```
+ * {
+ *   "collections": { "<collection alias>": [ <collection api response> ] },
+ *   "sectionLists": { "<site hierarchy>": [ <navigation api response> ] }
+ * }
+ * ```
+ */
+internal class CacheSeed(
+    val collections: Map<String, List<Item>>,
+    val sectionLists: Map<String, String>
+) {
+    /**
+     * a collection entry, [json] is the ANS json of the element at [index]
+     */
+    class Item(val index: Int, val uuid: String, val json: String)
+
+    companion object {
+        fun parse(json: String): CacheSeed {
+            val root = JsonParser.parseString(json).asJsonObject
+            return CacheSeed(
+                collections = root.entries(name = "collections").mapValues { (_, response) ->
+                    response.asJsonArray.mapIndexed { index, element ->
+                        Item(
+                            index = index,
+                            uuid = element.asJsonObject["_id"].asString,
+                            json = element.toString()
+                        )
+                    }
+                },
+                sectionLists = root.entries(name = "sectionLists")
+                    .mapValues { (_, response) -> response.asJsonArray.toString() }
+            )
+        }
+
+        private fun JsonObject.entries(name: String) =
+            getAsJsonObject(name)?.entrySet()?.associate { it.key to it.value } ?: emptyMap()
+    }
+}
@@ -35,10 +35,21 @@ import java.util.Date
  * @method getSectionList Retrieve the section list for a given site hierarchy.
  * @method insertSectionList Insert a section list into the database.
  * @method getJsonById Retrieve a JSON item by its UUID.
- * @method insertJsonItem Insert a JSON item into the database.
+ * @method getJsonByIds Retrieve the JSON items matching a list of UUIDs.
+ * @method insertJsonItem Insert a JSON item into the database, returning its rowid.
+ * @method hasJsonItem Check whether a JSON item is cached for a UUID.
+ * @method insertSearchEntry Insert a full text search row for a JSON item.
+ * @method deleteSearchEntry Delete the full text search row for a JSON item UUID.
+ * @method searchJsonItems Full text search of cached JSON items.
  * @method deleteJsonItemById Delete a JSON item by its UUID.
  * @method getCollectionIndexedJson Retrieve a collection of content items with indexed JSON entries.
+ * @method getCollectionsIndexedJson Retrieve the same page of several collections in one query.
+ * @method getCollectionPage Retrieve the index, uuid and json of each cached item in a collection page.
  * @method getCollectionExpiration Retrieve the expiration date of a collection.
+ * @method getCollectionExpirations Retrieve the expiration date of several collections.
+ * @method updateCollectionExpiration Update the expiration date of a range of collection items.
+ * @method updateJsonExpiration Update the expiration date of JSON items by UUID.
+ * @method deleteCollectionItems Delete collection items by index.
  * @method getCollections Retrieve all collections.
  * @method insertCollectionItem Insert a collection item into the database.
  * @method deleteCollection Delete a collection by its alias.
@@ -46,13 +57,16 @@ import java.util.Date
  * @method deleteJsonTable Delete all JSON items.
  * @method deleteCollectionTable Delete all collection items.
  * @method deleteSectionHeaderTable Delete all section header items.
- * @method deleteOldestJsonItem Delete the oldest JSON item.
- * @method deleteOldestCollectionItem Delete the oldest collection item.
+ * @method updateJsonAccess Record a batch of reads of JSON items.
+ * @method updateCollectionAccess Record a batch of reads of collections.
+ * @method getEvictionCandidates Retrieve each collection and each unreferenced JSON item as an eviction candidate.
+ * @method deleteCollectionJsonItems Delete JSON items only referenced by a collection and not read since.
  * @method countItems Count the total number of items in the database.
  * @method countJsonItems Count the number of JSON items in the database.
  * @method countCollectionItems Count the number of collection items in the database.
  * @method vacuumDb Perform a VACUUM operation on the database.
  * @method walCheckPoint Perform a WAL checkpoint operation on the database.
+ * @method pragma Run a PRAGMA statement, returning its first column as an Int (0 if it returns no rows).
  */
 @Dao
 interface ContentSDKDao {
@@ -72,8 +86,35 @@ interface ContentSDKDao {
     @Query("SELECT * FROM jsonItem where uuid = :uuid")
     suspend fun getJsonById(uuid: String): JsonItem?
 
+    @Query("SELECT * FROM jsonItem where uuid IN (:uuids)")
+    suspend fun getJsonByIds(uuids: List<String>): List<JsonItem>
+
     @Insert(onConflict = OnConflictStrategy.REPLACE)
-    suspend fun insertJsonItem(jsonItem: JsonItem)
+    suspend fun insertJsonItem(jsonItem: JsonItem): Long
+
+    @Query("SELECT EXISTS(SELECT 1 FROM jsonItem where uuid = :uuid)")
+    suspend fun hasJsonItem(uuid: String): Boolean
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    suspend fun insertSearchEntry(jsonItemFts: JsonItemFts)
+
+    @Query("DELETE FROM jsonItemFts where uuid = :uuid")
+    suspend fun deleteSearchEntry(uuid: String)
+
+    /**
+     * [searchJsonItems] returns cached json items matching an fts query
+     * along with their matchinfo('pcx') blob for ranking
+     */
+    @Query(
+        """
+        SELECT jsonItem.uuid, jsonItem.jsonResponse, matchinfo(jsonItemFts, 'pcx') AS matchInfo
+        FROM jsonItemFts
+        JOIN jsonItem ON jsonItem.uuid = jsonItemFts.uuid
+        WHERE jsonItemFts MATCH :query
+        LIMIT :limit
+    """
+    )
+    suspend fun searchJsonItems(query: String, limit: Int): List<SearchJsonItem>
 
     @Query("DELETE FROM jsonItem where uuid = :uuid")
     suspend fun deleteJsonItemById(uuid: String)
@@ -97,6 +138,63 @@ interface ContentSDKDao {
         size: Int
     ): List<IndexedJsonItem>
 
+    /**
+     * [getCollectionsIndexedJson] returns the same page of each collection in [collectionAliases]
+     */
+    @Query(
+        """
+        SELECT collectionItem.collectionAlias, collectionItem.indexValue, jsonItem.jsonResponse FROM collectionItem
+        JOIN jsonItem ON collectionItem.uuid = jsonItem.uuid
+        WHERE collectionItem.collectionAlias IN (:collectionAliases)
+        AND indexValue >= :from AND indexValue < :from + :size
+        ORDER BY collectionItem.collectionAlias, indexValue
+    """
+    )
+    suspend fun getCollectionsIndexedJson(
+        collectionAliases: List<String>,
+        from: Int,
+        size: Int
+    ): List<AliasedJsonItem>
+
+    /**
+     * [getCollectionPage] returns the cached rows of a collection page, used to diff a refresh
+     * jsonResponse is null if the json item has been evicted
+     */
+    @Query(
+        """
+        SELECT collectionItem.indexValue, collectionItem.uuid, jsonItem.jsonResponse FROM collectionItem
+        LEFT JOIN jsonItem ON collectionItem.uuid = jsonItem.uuid
+        WHERE collectionItem.collectionAlias = :collectionAlias
+        AND indexValue >= :from AND indexValue < :from + :size
+        ORDER BY indexValue
+    """
+    )
+    suspend fun getCollectionPage(
+        collectionAlias: String,
+        from: Int,
+        size: Int
+    ): List<CollectionPageItem>
+
+    @Query(
+        """
+        UPDATE collectionItem SET expiresAt = :expiresAt
+        WHERE collectionAlias = :collectionAlias
+        AND indexValue >= :from AND indexValue < :from + :size
+        """
+    )
+    suspend fun updateCollectionExpiration(
+        collectionAlias: String,
+        from: Int,
+        size: Int,
+        expiresAt: Date
+    )
+
+    @Query("UPDATE jsonItem SET expiresAt = :expiresAt WHERE uuid IN (:uuids)")
+    suspend fun updateJsonExpiration(uuids: List<String>, expiresAt: Date)
+
+    @Query("DELETE FROM collectionItem WHERE collectionAlias = :collectionAlias AND indexValue IN (:indices)")
+    suspend fun deleteCollectionItems(collectionAlias: String, indices: List<Int>)
+
     @Query(
         """
         SELECT MIN(collectionItem.expiresAt) FROM collectionitem 
@@ -105,6 +203,15 @@ interface ContentSDKDao {
     )
     suspend fun getCollectionExpiration(collectionAlias: String): Date?
 
+    @Query(
+        """
+        SELECT collectionAlias, MIN(expiresAt) AS expiresAt FROM collectionItem
+        WHERE collectionAlias IN (:collectionAliases)
+        GROUP BY collectionAlias
+        """
+    )
+    suspend fun getCollectionExpirations(collectionAliases: List<String>): List<CollectionExpiration>
+
 
     @Query("SELECT * FROM collectionItem")
     suspend fun getCollections(): List<CollectionItem?>
@@ -127,11 +234,46 @@ interface ContentSDKDao {
     @Query("DELETE FROM sectionHeaderItem")
     suspend fun deleteSectionHeaderTable()
 
-    @Query("DELETE FROM jsonItem WHERE createdAt IN (SELECT createdAt FROM jsonItem ORDER BY createdAt ASC LIMIT 1)")
-    suspend fun deleteOldestJsonItem()
+    @Query("UPDATE jsonItem SET lastAccessedAt = :accessedAt WHERE uuid IN (:uuids)")
+    suspend fun updateJsonAccess(uuids: List<String>, accessedAt: Date)
+
+    @Query("UPDATE collectionItem SET lastAccessedAt = :accessedAt WHERE collectionAlias IN (:collectionAliases)")
+    suspend fun updateCollectionAccess(collectionAliases: List<String>, accessedAt: Date)
+
+    /**
+     * [getEvictionCandidates] returns every collection as one entry,
+     * plus every json item that no collection references
+     */
+    @Query(
+        """
+        SELECT collectionItem.collectionAlias AS `key`, 1 AS isCollection,
+            MAX(collectionItem.lastAccessedAt) AS lastAccessedAt,
+            MIN(collectionItem.expiresAt) AS expiresAt,
+            IFNULL(SUM(LENGTH(jsonItem.jsonResponse)), 0) AS sizeBytes
+        FROM collectionItem
+        LEFT JOIN jsonItem ON collectionItem.uuid = jsonItem.uuid
+        GROUP BY collectionItem.collectionAlias
+        UNION ALL
+        SELECT uuid AS `key`, 0 AS isCollection, lastAccessedAt, expiresAt, LENGTH(jsonResponse) AS sizeBytes
+        FROM jsonItem
+        WHERE uuid NOT IN (SELECT uuid FROM collectionItem)
+    """
+    )
+    suspend fun getEvictionCandidates(): List<CacheEntry>
 
-    @Query("DELETE FROM collectionitem WHERE createdAt IN (SELECT createdAt FROM collectionitem ORDER BY createdAt ASC LIMIT 1)")
-    suspend fun deleteOldestCollectionItem()
+    /**
+     * [deleteCollectionJsonItems] deletes the json items of a collection that no other collection references
+     * and that have not been read (ie opened as a story) since [accessedBefore]
+     */
+    @Query(
+        """
+        DELETE FROM jsonItem
+        WHERE uuid IN (SELECT uuid FROM collectionItem WHERE collectionAlias = :collectionAlias)
+        AND uuid NOT IN (SELECT uuid FROM collectionItem WHERE collectionAlias != :collectionAlias)
+        AND lastAccessedAt <= :accessedBefore
+    """
+    )
+    suspend fun deleteCollectionJsonItems(collectionAlias: String, accessedBefore: Date)
 
     @Query(
         """
@@ -155,5 +297,16 @@ interface ContentSDKDao {
     @RawQuery
     fun walCheckPoint(supportSQLiteQuery: SupportSQLiteQuery): Int
 
+    @RawQuery
+    suspend fun pragma(supportSQLiteQuery: SupportSQLiteQuery): Int
+
     data class IndexedJsonItem(val indexValue: Int, val jsonResponse: String)
+
+    data class AliasedJsonItem(val collectionAlias: String, val indexValue: Int, val jsonResponse: String)
+
+    data class CollectionExpiration(val collectionAlias: String, val expiresAt: Date)
+
+    data class CollectionPageItem(val indexValue: Int, val uuid: String, val jsonResponse: String?)
+
+    class SearchJsonItem(val uuid: String, val jsonResponse: String, val matchInfo: ByteArray)
 }
\ No newline at end of file
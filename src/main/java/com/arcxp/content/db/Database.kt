@@ -1,14 +1,111 @@
 package com.arcxp.content.db
 
+import android.os.Build
 import androidx.room.Database
 import androidx.room.RoomDatabase
 import androidx.room.TypeConverters
+import androidx.room.migration.Migration
+import androidx.sqlite.db.SupportSQLiteDatabase
+import java.util.concurrent.ExecutorService
 
 @Database(
-    entities = [CollectionItem::class, SectionHeaderItem::class, JsonItem::class],
-    version = 3
+    entities = [CollectionItem::class, SectionHeaderItem::class, JsonItem::class, JsonItemFts::class],
+    version = 7
 )
 @TypeConverters(DateConverter::class)
 abstract class Database : RoomDatabase() {
     abstract fun sdkDao(): ContentSDKDao
+
+    // created for DatabaseProfile.queryThreads, room does not shut down an executor it was given
+    internal var ownedQueryExecutor: ExecutorService? = null
+
+    override fun close() {
+        super.close()
+        ownedQueryExecutor?.shutdown()
+    }
+
+    companion object {
+        // removes search index rows when their json item is deleted or evicted,
+        // room does not generate triggers for fts tables without a content entity
+        private const val CREATE_SEARCH_DELETE_TRIGGER = """
+            CREATE TRIGGER IF NOT EXISTS jsonItem_search_delete AFTER DELETE ON jsonItem
+            BEGIN
+                DELETE FROM jsonItemFts WHERE uuid = old.uuid;
+            END
+        """
+
+        val searchIndexCallback = object : RoomDatabase.Callback() {
+            override fun onCreate(db: SupportSQLiteDatabase) =
+                db.execSQL(CREATE_SEARCH_DELETE_TRIGGER)
+
+            override fun onOpen(db: SupportSQLiteDatabase) =
+                db.execSQL(CREATE_SEARCH_DELETE_TRIGGER)
+        }
+
+        /**
+         * applies the pragmas of [profile] whenever the database is opened, to every connection
+         * in the pool (including ones opened later) from API 30, otherwise to the opening connection only
+         */
+        fun profileCallback(profile: DatabaseProfile) = object : RoomDatabase.Callback() {
+            override fun onOpen(db: SupportSQLiteDatabase) =
+                if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.R) {
+                    profile.pragmas().forEach { db.execPerConnectionSQL("PRAGMA $it", null) }
+                } else {
+                    // some pragmas return their new value, so run them as queries
+                    profile.pragmas().forEach { db.query("PRAGMA $it").close() }
+                }
+        }
+
+        // adds the full text search index, cached items become searchable as they are refreshed
+        val MIGRATION_3_4 = object : Migration(3, 4) {
+            override fun migrate(db: SupportSQLiteDatabase) {
+                db.execSQL(
+                    "CREATE VIRTUAL TABLE IF NOT EXISTS `JsonItemFts` USING FTS4(`headline` TEXT NOT NULL, " +
+                            "`subheadline` TEXT NOT NULL, `description` TEXT NOT NULL, `author` TEXT NOT NULL, `tags` TEXT NOT NULL)"
+                )
+                db.execSQL(CREATE_SEARCH_DELETE_TRIGGER)
+            }
+        }
+
+        // adds last access tracking, existing rows start with their creation time
+        val MIGRATION_4_5 = object : Migration(4, 5) {
+            override fun migrate(db: SupportSQLiteDatabase) {
+                listOf("JsonItem", "CollectionItem").forEach { table ->
+                    db.execSQL("ALTER TABLE `$table` ADD COLUMN `lastAccessedAt` INTEGER NOT NULL DEFAULT 0")
+                    db.execSQL("UPDATE `$table` SET `lastAccessedAt` = `createdAt`")
+                }
+            }
+        }
+
+        // adds collection indexes so page reads and eviction don't scan the table
+        val MIGRATION_5_6 = object : Migration(5, 6) {
+            override fun migrate(db: SupportSQLiteDatabase) {
+                db.execSQL(
+                    "CREATE INDEX IF NOT EXISTS `index_CollectionItem_collectionAlias_indexValue_uuid` " +
+                            "ON `CollectionItem` (`collectionAlias`, `indexValue`, `uuid`)"
+                )
+                db.execSQL("CREATE INDEX IF NOT EXISTS `index_CollectionItem_uuid` ON `CollectionItem` (`uuid`)")
+            }
+        }
+
+        // links search rows by uuid instead of rowid, which VACUUM may renumber. the old rows can't be
+        // trusted to still match, so the index starts empty and items become searchable as they are refreshed
+        val MIGRATION_6_7 = object : Migration(6, 7) {
+            override fun migrate(db: SupportSQLiteDatabase) {
+                db.execSQL("DROP TRIGGER IF EXISTS jsonItem_search_delete")
+                db.execSQL("DROP TABLE IF EXISTS `JsonItemFts`")
+                db.execSQL(
+                    "CREATE VIRTUAL TABLE IF NOT EXISTS `JsonItemFts` USING FTS4(`headline` TEXT NOT NULL, " +
+                            "`subheadline` TEXT NOT NULL, `description` TEXT NOT NULL, `author` TEXT NOT NULL, " +
+                            "`tags` TEXT NOT NULL, `uuid` TEXT NOT NULL, notindexed=`uuid`)"
+                )
+                db.execSQL(CREATE_SEARCH_DELETE_TRIGGER)
+            }
+        }
+
+        /**
+         * every migration from version 3 (the oldest schema still migrated), so upgrades keep the cache
+         */
+        val migrations = arrayOf(MIGRATION_3_4, MIGRATION_4_5, MIGRATION_5_6, MIGRATION_6_7)
+    }
 }
@@ -0,0 +1,52 @@
+package com.arcxp.content.db
+
+import androidx.annotation.Keep
+import androidx.room.RoomDatabase
+
+/**
+ * DatabaseProfile tunes SQLite for the content cache, set with
+ * [com.arcxp.content.ArcXPContentConfig.Builder.setDatabaseProfile]
+ *
+ * null values keep the Room / platform default
+ *
+ * @property journalMode [RoomDatabase.JournalMode.WRITE_AHEAD_LOGGING] lets reads run while a write is in progress
+ * @property synchronous how often SQLite syncs to disk, [Synchronous.NORMAL] is safe from corruption under WAL
+ * and only risks the last transactions on power loss (acceptable for a cache), with far fewer fsyncs than FULL
+ * @property mmapSizeBytes bytes of the database file read through memory mapping instead of read() calls
+ * @property cacheSizeKb page cache size per connection in KiB
+ * @property queryThreads threads for database queries, so concurrent reads (ie a feed loading several collections)
+ * don't queue behind each other
+ *
+ * note: [synchronous], [mmapSizeBytes] and [cacheSizeKb] are per connection settings, they apply to every
+ * connection from API 30 and only to the first (writing) connection opened on older versions
+ */
+@Keep
+data class DatabaseProfile(
+    val journalMode: RoomDatabase.JournalMode = RoomDatabase.JournalMode.AUTOMATIC,
+    val synchronous: Synchronous? = null,
+    val mmapSizeBytes: Long? = null,
+    val cacheSizeKb: Int? = null,
+    val queryThreads: Int? = null
+) {
+    enum class Synchronous { OFF, NORMAL, FULL }
+
+    companion object {
+        /** Room and platform defaults */
+        val DEFAULT = DatabaseProfile()
+
+        /** tuned for read heavy feed traffic */
+        val READ_OPTIMIZED = DatabaseProfile(
+            journalMode = RoomDatabase.JournalMode.WRITE_AHEAD_LOGGING,
+            synchronous = Synchronous.NORMAL,
+            mmapSizeBytes = 64L * 1024 * 1024,
+            cacheSizeKb = 8 * 1024,
+            queryThreads = 4
+        )
+    }
+
+    internal fun pragmas() = listOfNotNull(
+        synchronous?.let { "synchronous = ${it.name}" },
+        mmapSizeBytes?.let { "mmap_size = $it" },
+        cacheSizeKb?.let { "cache_size = -$it" } // negative is KiB rather than pages
+    )
+}
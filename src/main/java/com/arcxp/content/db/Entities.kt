@@ -2,20 +2,30 @@ package com.arcxp.content.db
 
 import androidx.room.ColumnInfo
 import androidx.room.Entity
+import androidx.room.Fts4
 import androidx.room.Index
 import androidx.room.PrimaryKey
 import androidx.room.TypeConverters
 import com.arcxp.commons.util.Utils.createDate
 import java.util.Date
 
-@Entity(indices = [Index(value = ["internalId"], unique = true)])
+@Entity(
+    indices = [
+        Index(value = ["internalId"], unique = true),
+        // covers collection page reads: filter by alias, order by index, join on uuid
+        Index(value = ["collectionAlias", "indexValue", "uuid"]),
+        // json item -> referencing collections, used by eviction
+        Index(value = ["uuid"])
+    ]
+)
 @TypeConverters(DateConverter::class)
 data class CollectionItem(
     @ColumnInfo val indexValue: Int, //given current collection ordering, this is item at index, 0 is top etc
     @ColumnInfo val collectionAlias: String,
     @ColumnInfo val uuid: String,
     @ColumnInfo override val createdAt: Date = createDate(),
-    @ColumnInfo override val expiresAt: Date
+    @ColumnInfo override val expiresAt: Date,
+    @ColumnInfo(defaultValue = "0") val lastAccessedAt: Date = createdAt // updated in batches, see [AccessTracker]
 ) : BaseItem(createdAt, expiresAt) {
     @PrimaryKey
     var internalId: String = "$collectionAlias-$indexValue"
@@ -36,9 +46,43 @@ data class JsonItem(
     @PrimaryKey val uuid: String, //ans uuid
     @ColumnInfo val jsonResponse: String, // raw json
     @ColumnInfo override val createdAt: Date = createDate(),
-    @ColumnInfo override val expiresAt: Date
+    @ColumnInfo override val expiresAt: Date,
+    @ColumnInfo(defaultValue = "0") val lastAccessedAt: Date = createdAt // updated in batches, see [AccessTracker]
 ) : BaseItem(createdAt, expiresAt)
 
+/**
+ * full text search row for a cached [JsonItem], linked to it by [uuid] (stored, not searchable).
+ * not by rowid: jsonItem has a text primary key, so VACUUM may renumber its rowids (see [Database.searchIndexCallback])
+ */
+@Fts4(notIndexed = ["uuid"])
+@Entity
+data class JsonItemFts(
+    @ColumnInfo val headline: String,
+    @ColumnInfo val subheadline: String,
+    @ColumnInfo val description: String,
+    @ColumnInfo val author: String,
+    @ColumnInfo val tags: String,
+    @ColumnInfo val uuid: String
+)
+
+/**
+ * an eviction candidate: either a whole collection (all its cached rows)
+ * or a json item not referenced by any collection
+ *
+ * @property key collection alias or json item uuid
+ * @property isCollection true if [key] is a collection alias
+ * @property lastAccessedAt most recent read of this entry (for a collection, of any of its rows)
+ * @property expiresAt earliest expiration of this entry
+ * @property sizeBytes approximate size of the json stored for this entry
+ */
+data class CacheEntry(
+    val key: String,
+    val isCollection: Boolean,
+    val lastAccessedAt: Date,
+    val expiresAt: Date,
+    val sizeBytes: Long
+)
+
 abstract class BaseItem(
     open val createdAt: Date = createDate(),
     open val expiresAt: Date
@@ -0,0 +1,77 @@
+package com.arcxp.content.db
+
+import com.arcxp.commons.util.MoshiController.fromJson
+import com.arcxp.content.extendedModels.ArcXPContentElement
+import java.nio.ByteBuffer
+import java.nio.ByteOrder
+
+/**
+ * SearchIndexer builds and queries the full text search index over cached [JsonItem]s.
+ *
+ * - [createEntry] extracts headline, subheadline, description, author and taxonomy tags from ANS json
+ * - [matchQuery] converts a search term into an fts MATCH expression
+ * - [rank] scores a row from its matchinfo('pcx') blob, weighting headline hits highest
+ */
+internal object SearchIndexer {
+
+    // column order of [JsonItemFts]: headline, subheadline, description, author, tags (uuid is not indexed)
+    private val columnWeights = doubleArrayOf(4.0, 2.0, 2.0, 1.5, 1.0)
+    private val tokenPattern = Regex("[A-Za-z0-9]+")
+
+    fun createEntry(uuid: String, json: String): JsonItemFts? = try {
+        fromJson(json, ArcXPContentElement::class.java)?.let { element ->
+            JsonItemFts(
+                uuid = uuid,
+                headline = element.headlines?.basic ?: "",
+                subheadline = element.subheadlines?.basic ?: "",
+                description = element.description?.basic ?: "",
+                author = element.credits?.by?.mapNotNull { it.name }?.joinToString(separator = " ")
+                    ?: "",
+                tags = element.taxonomy?.let { taxonomy ->
+                    listOfNotNull(
+                        taxonomy.tags?.mapNotNull { it.text ?: it.slug },
+                        taxonomy.seo_keywords,
+                        taxonomy.primary_section?.name?.let { listOf(it) }
+                    ).flatten().joinToString(separator = " ")
+                } ?: ""
+            )
+        }
+    } catch (e: Exception) {
+        null // unparseable items are still cached, they just aren't searchable
+    }
+
+    /**
+     * each alphanumeric token becomes a prefix query, tokens are OR'd together
+     * so "election,local news" -> "election* OR local* OR news*"
+     * @return null if there is nothing searchable in [searchTerm]
+     */
+    fun matchQuery(searchTerm: String): String? =
+        tokenPattern.findAll(searchTerm.lowercase())
+            .map { "${it.value}*" }
+            .distinct()
+            .joinToString(separator = " OR ")
+            .ifEmpty { null }
+
+    /**
+     * matchinfo 'pcx' layout: phrase count, column count,
+     * then for each phrase/column: hits in this row, hits in all rows, rows with hits
+     */
+    fun rank(matchInfo: ByteArray): Double {
+        val info = ByteBuffer.wrap(matchInfo).order(ByteOrder.nativeOrder()).asIntBuffer()
+        if (info.limit() < 2) return 0.0
+        val phraseCount = info.get(0)
+        val columnCount = info.get(1)
+        var score = 0.0
+        for (phrase in 0 until phraseCount) {
+            for (column in 0 until columnCount) {
+                val offset = 2 + (phrase * columnCount + column) * 3
+                val hitsThisRow = info.get(offset)
+                val hitsAllRows = info.get(offset + 1)
+                if (hitsThisRow > 0 && hitsAllRows > 0) {
+                    score += columnWeights.getOrElse(column) { 1.0 } * hitsThisRow / hitsAllRows.toDouble()
+                }
+            }
+        }
+        return score
+    }
+}
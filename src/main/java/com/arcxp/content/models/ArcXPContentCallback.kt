@@ -12,6 +12,7 @@ import com.arcxp.content.extendedModels.ArcXPStory
  */
 interface ArcXPContentCallback {
     fun onGetCollectionSuccess(response: Map<Int, ArcXPContentElement>) {}
+    fun onCollectionChanged(changes: CollectionChangeSet) {}
     fun onGetContentSuccess(response: ArcXPContentElement) {}
     fun onGetStorySuccess(response: ArcXPStory) {}
     fun onSearchSuccess(response: Map<Int, ArcXPContentElement>) {}
@@ -0,0 +1,37 @@
+package com.arcxp.content.models
+
+import androidx.annotation.Keep
+
+/**
+ * CollectionChangeSet describes how a refreshed collection page differs from the cached page,
+ * items are matched by ANS _id and compared by content
+ *
+ * positions are collection indices (the keys of the collection result map):
+ * - [removed]: items no longer in the page, at their previous position
+ * - [inserted]: items new to the page, at their new position
+ * - [moved]: items still in the page at a different position
+ * - [changed]: items whose content changed, at their new position (may also appear in [moved])
+ *
+ * positions neither inserted nor changed keep their previous content, so a list
+ * only needs to rebind the positions listed here
+ *
+ * @property collectionAlias alias of the collection refreshed
+ */
+@Keep
+data class CollectionChangeSet(
+    val collectionAlias: String,
+    val inserted: List<Int> = emptyList(),
+    val removed: List<Int> = emptyList(),
+    val moved: List<Move> = emptyList(),
+    val changed: List<Int> = emptyList()
+) {
+    /**
+     * @property from previous position
+     * @property to new position
+     */
+    @Keep
+    data class Move(val from: Int, val to: Int)
+
+    val isEmpty: Boolean
+        get() = inserted.isEmpty() && removed.isEmpty() && moved.isEmpty() && changed.isEmpty()
+}
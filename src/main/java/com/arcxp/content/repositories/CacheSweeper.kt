@@ -0,0 +1,57 @@
+package com.arcxp.content.repositories
+
+import android.app.Application
+import com.arcxp.commons.util.ConnectionUtil
+import com.arcxp.commons.util.Constants.STALE_PURGE_AFTER_MS
+import com.arcxp.commons.util.Utils
+import com.arcxp.content.db.CacheManager
+import com.arcxp.content.util.CacheScheduler
+import java.util.Date
+
+/**
+ * CacheSweeper periodically purges long expired cache entries and refreshes hot collections and
+ * section lists that would expire before the next sweep, so their first view doesn't wait on the network
+ *
+ * @property hotCollections collection aliases kept fresh (first page)
+ * @property hotSectionLists site hierarchies kept fresh
+ * @property intervalMillis time between sweeps
+ * @property scheduler runs each sweep
+ * @property refreshAllowed whether refreshing may use the network now (on WiFi by default, or any network
+ * with [refreshOnCellular]); purging is local and always runs
+ */
+internal class CacheSweeper(
+    private val application: Application,
+    private val contentRepository: ContentRepository,
+    private val cacheManager: CacheManager,
+    private val hotCollections: Set<String>,
+    private val hotSectionLists: Set<String>,
+    private val intervalMillis: Long,
+    private val scheduler: CacheScheduler,
+    private val refreshOnCellular: Boolean = false,
+    private val refreshAllowed: () -> Boolean = {
+        ConnectionUtil.isInternetAvailable(application) &&
+                (refreshOnCellular || ConnectionUtil.isOnWiFi(application))
+    }
+) {
+    fun start() = scheduler.schedule(intervalMillis = intervalMillis) { sweep() }
+
+    internal suspend fun sweep() {
+        val now = Utils.currentTimeInMillis()
+        cacheManager.purgeExpired(before = Date(now - STALE_PURGE_AFTER_MS), keep = hotCollections)
+        if (!refreshAllowed()) return
+        // anything expiring before the next sweep is refreshed now
+        val refreshBefore = now + intervalMillis
+        hotCollections.forEach { collectionAlias ->
+            if (expiresBefore(cacheManager.getCollectionExpiration(collectionAlias), refreshBefore)) {
+                contentRepository.refreshCollection(collectionAlias = collectionAlias)
+            }
+        }
+        hotSectionLists.forEach { siteHierarchy ->
+            if (expiresBefore(cacheManager.getSectionList(siteHierarchy)?.expiresAt, refreshBefore)) {
+                contentRepository.refreshSectionList(siteHierarchy = siteHierarchy)
+            }
+        }
+    }
+
+    private fun expiresBefore(expiresAt: Date?, time: Long) = expiresAt == null || expiresAt.time < time
+}
@@ -3,7 +3,9 @@ package com.arcxp.content.repositories
 import android.app.Application
 import com.arcxp.ArcXPMobileSDK.contentConfig
 import com.arcxp.commons.throwables.ArcXPException
+import com.arcxp.commons.util.Constants.CONTENT_BATCH_PARALLELISM
 import com.arcxp.commons.util.Constants.DEFAULT_PAGINATION_SIZE
+import com.arcxp.commons.util.Constants.SEED_EXPIRES_AT_MS
 import com.arcxp.commons.util.DependencyFactory.createIOScope
 import com.arcxp.commons.util.Either
 import com.arcxp.commons.util.Failure
@@ -11,7 +13,7 @@ import com.arcxp.commons.util.MoshiController.fromJson
 import com.arcxp.commons.util.Success
 import com.arcxp.commons.util.Utils
 import com.arcxp.commons.util.Utils.createFailure
-import com.arcxp.commons.util.Utils.parseJsonArray
+import com.arcxp.commons.util.Utils.createSearchFailure
 import com.arcxp.content.ArcXPContentConfig
 import com.arcxp.content.apimanagers.ContentApiManager
 import com.arcxp.content.db.*
@@ -21,19 +23,41 @@ import com.arcxp.content.models.*
 import com.arcxp.content.util.*
 import com.arcxp.sdk.R
 import kotlinx.coroutines.*
+import kotlinx.coroutines.flow.Flow
+import kotlinx.coroutines.flow.channelFlow
+import kotlinx.coroutines.flow.flow
+import kotlinx.coroutines.sync.Mutex
+import kotlinx.coroutines.sync.Semaphore
+import kotlinx.coroutines.sync.withLock
+import kotlinx.coroutines.sync.withPermit
 import java.util.*
+import java.util.concurrent.ConcurrentHashMap
 
 /**
  * This is our repository layer abstraction, clients to this class(ArcxpContentManager) can request data and we return via db or api call where appropriate (through callbacks only currently)
  * so this should be considered Single Source of Truth for our data from backend / cache
  * will be in charge of deserializing this data into our data objects to return to calling layer
+ *
+ * network search results are kept briefly in memory ([SearchResultCache]) keyed by (query, from, size)
+ *
+ * with [hybridCollectionLoading], collections that would load full are returned from the lightweight
+ * collection endpoint first, then collection-full is fetched in the background to fill the cache
+ *
+ * [contentTypeCacheTimeMinutes] overrides the cache time of parsed items by ANS type when they are written
  */
-class ContentRepository(
+class ContentRepository internal constructor(
     private val application: Application,
     private val contentApiManager: ContentApiManager,
     private val mIoScope: CoroutineScope = createIOScope(),
-    private val cacheManager: CacheManager
+    private val cacheManager: CacheManager,
+    private val searchCache: SearchResultCache<Map<Int, ArcXPContentElement>> = SearchResultCache(),
+    private val videoSearchCache: SearchResultCache<Map<Int, ArcXPContentElement>> = SearchResultCache(),
+    private val jsonSearchCache: SearchResultCache<String> = SearchResultCache(),
+    private val hybridCollectionLoading: Boolean = false,
+    private val contentTypeCacheTimeMinutes: Map<String, Int> = emptyMap()
 ) {
+    // (alias, from, size) pages with a collection-full upgrade in flight
+    private val pendingUpgrades = ConcurrentHashMap.newKeySet<Triple<String, Int, Int>>()
 
 
     /**
@@ -42,6 +66,7 @@ class ContentRepository(
      * @param collectionAlias searches for this id (first through db if enabled, then api if not or stale)
      * @param from starting index to return results, ie 0 for page 1, 20(size) for page 2
      * @param size number of results to return
+     * @param onChanges receives the [CollectionChangeSet] when a fetched page differs from the cached page
      * @return [Either] [ArcXPException] or a map of results ordered by server
      */
     suspend fun getCollection(
@@ -50,6 +75,7 @@ class ContentRepository(
         from: Int,
         size: Int,
         full: Boolean? = null,
+        onChanges: (CollectionChangeSet) -> Unit = {},
     ): Either<ArcXPException, Map<Int, ArcXPContentElement>> {
         return if (shouldIgnoreCache) {
             doCollectionApiCall(
@@ -68,16 +94,28 @@ class ContentRepository(
                     size = size
                 )
 
-            return if (cacheContentElementMap.isEmpty() || shouldMakeApiCall(
-                    cacheManager.getCollectionExpiration(collectionAlias = collectionAlias)
-                )
-            ) {
+            val expiration = cacheManager.getCollectionExpiration(collectionAlias = collectionAlias)
+            return if (cacheContentElementMap.isNotEmpty() && isSeed(date = expiration)) {
+                // bundled seed is shown right away, the refresh is delivered through onChanges
+                mIoScope.launch {
+                    doCollectionApiCall(
+                        id = collectionAlias,
+                        shouldIgnoreCache = false,
+                        from = from,
+                        size = size,
+                        full = full,
+                        onChanges = onChanges,
+                    )
+                }
+                Success(success = cacheContentElementMap)
+            } else if (cacheContentElementMap.isEmpty() || shouldMakeApiCall(expiration)) {
                 val apiResult = doCollectionApiCall(
                     id = collectionAlias,
                     shouldIgnoreCache = false,
                     from = from,
                     size = size,
                     full = full,
+                    onChanges = onChanges,
                 )
                 when {
                     apiResult is Success -> apiResult
@@ -90,6 +128,89 @@ class ContentRepository(
         }
     }
 
+    /**
+     * [getCollections] - request the same page of several collections, ie for a home screen
+     * cached pages are read in one query, then missing or stale collections are fetched concurrently
+     * (at most [parallelism] at a time)
+     *
+     * emits the cached results first (if any), then the updated map each time a fetch changes it.
+     * a failed fetch keeps the cached result for that collection if there is one
+     * @param collectionAliases content aliases, results are keyed (and ordered) by these
+     * @param from starting index to return results, ie 0 for page 1, 20(size) for page 2
+     * @param size number of results to return per collection
+     * @param full should we call collection full? if nothing is entered, will default to [ArcXPContentConfig.preLoading] value
+     * @param parallelism max concurrent network requests
+     * @param onChanges receives the change set of each refreshed collection
+     * @return [Flow] of results keyed by collection alias, the last emission has every alias
+     */
+    fun getCollections(
+        collectionAliases: List<String>,
+        from: Int,
+        size: Int,
+        full: Boolean? = null,
+        parallelism: Int = CONTENT_BATCH_PARALLELISM,
+        onChanges: (CollectionChangeSet) -> Unit = {},
+    ): Flow<Map<String, Either<ArcXPException, Map<Int, ArcXPContentElement>>>> = channelFlow {
+        val aliases = collectionAliases.distinct()
+        val cached = cacheManager.getCollectionBatch(collectionAliases = aliases, from = from, size = size)
+        val expirations = cacheManager.getCollectionExpirations(collectionAliases = aliases)
+        val results = HashMap<String, Either<ArcXPException, Map<Int, ArcXPContentElement>>>()
+        fun snapshot() = aliases.mapNotNull { alias -> results[alias]?.let { alias to it } }.toMap()
+
+        cached.forEach { (alias, elements) -> if (elements.isNotEmpty()) results[alias] = Success(elements) }
+        val stale = aliases.filter { results[it] == null || shouldMakeApiCall(expirations[it]) }
+        if (results.isNotEmpty() || stale.isEmpty()) send(snapshot())
+
+        val permits = Semaphore(permits = parallelism.coerceAtLeast(1))
+        val lock = Mutex()
+        stale.forEach { alias ->
+            launch {
+                val apiResult = permits.withPermit {
+                    doCollectionApiCall(
+                        id = alias,
+                        shouldIgnoreCache = false,
+                        from = from,
+                        size = size,
+                        full = full,
+                        onChanges = onChanges,
+                    )
+                }
+                lock.withLock {
+                    if (apiResult is Success || results[alias] == null) {
+                        results[alias] = apiResult
+                        send(snapshot())
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * [refreshCollection] - fetches a collection page into the cache regardless of its expiration
+     * @param collectionAlias content alias
+     * @param from starting index, ie 0 for page 1
+     * @param size number of results to fetch
+     */
+    suspend fun refreshCollection(
+        collectionAlias: String,
+        from: Int = 0,
+        size: Int = DEFAULT_PAGINATION_SIZE,
+        onChanges: (CollectionChangeSet) -> Unit = {},
+    ) = doCollectionApiCall(
+        id = collectionAlias,
+        shouldIgnoreCache = false,
+        from = from,
+        size = size,
+        full = null,
+        onChanges = onChanges
+    )
+
+    /**
+     * [refreshSectionList] - fetches a section list into the cache regardless of its expiration
+     */
+    suspend fun refreshSectionList(siteHierarchy: String) =
+        doSectionListApiCall(siteHierarchy = siteHierarchy, shouldIgnoreCache = false)
+
     /**
      * [getCollectionAsJson] - request collection by content alias
      * @param collectionAlias searches for this id
@@ -146,7 +267,8 @@ class ContentRepository(
 
 
     /**
-     * [searchSuspend] - search does not cache results, so we don't use db, just pass through to api manager
+     * [searchSuspend] - network search, successful results are reused for a short time
+     * (see [searchLocal] for searching cached content)
      * @param searchTerm input string to search
      * @param from starting index to return results, ie 0 for page 1, 20(size) for page 2
      * @param size number of results to return
@@ -155,14 +277,16 @@ class ContentRepository(
         searchTerm: String,
         from: Int = 0,
         size: Int = DEFAULT_PAGINATION_SIZE
-    ) = contentApiManager.search(
-        searchTerm = searchTerm,
-        from = from,
-        size = size
-    )
+    ) = cachedSearch(cache = searchCache, searchTerm = searchTerm, from = from, size = size) {
+        contentApiManager.search(
+            searchTerm = searchTerm,
+            from = from,
+            size = size
+        )
+    }
 
     /**
-     * [searchAsJsonSuspend] - search does not cache results, so we don't use db, just pass through to api manager
+     * [searchAsJsonSuspend] - network search, successful results are reused for a short time
      * @param searchTerm input string to search
      * @param from starting index to return results, ie 0 for page 1, 20(size) for page 2
      * @param size number of results to return
@@ -171,14 +295,16 @@ class ContentRepository(
         searchTerm: String,
         from: Int = 0,
         size: Int = DEFAULT_PAGINATION_SIZE
-    ) = contentApiManager.searchAsJson(
-        searchTerm = searchTerm,
-        from = from,
-        size = size
-    )
+    ) = cachedSearch(cache = jsonSearchCache, searchTerm = searchTerm, from = from, size = size) {
+        contentApiManager.searchAsJson(
+            searchTerm = searchTerm,
+            from = from,
+            size = size
+        )
+    }
 
     /**
-     * [searchSuspend] - search does not cache results, so we don't use db, just pass through to api manager
+     * [searchVideosSuspend] - network video search, successful results are reused for a short time
      * @param searchTerm input string to search
      * @param from starting index to return results, ie 0 for page 1, 20(size) for page 2
      * @param size number of results to return
@@ -187,11 +313,96 @@ class ContentRepository(
         searchTerm: String,
         from: Int = 0,
         size: Int = DEFAULT_PAGINATION_SIZE
-    ) = contentApiManager.searchVideos(
-        searchTerm = searchTerm,
-        from = from,
-        size = size
-    )
+    ) = cachedSearch(cache = videoSearchCache, searchTerm = searchTerm, from = from, size = size) {
+        contentApiManager.searchVideos(
+            searchTerm = searchTerm,
+            from = from,
+            size = size
+        )
+    }
+
+    /**
+     * [searchLocal] - search cached content only, using the full text search index
+     * works offline, results are ranked by relevance
+     * @param searchTerm input string to search
+     * @param from starting index to return results, ie 0 for page 1, 20(size) for page 2
+     * @param size number of results to return
+     * @return [Either] ranked results or search failure if nothing cached matches
+     */
+    suspend fun searchLocal(
+        searchTerm: String,
+        from: Int = 0,
+        size: Int = DEFAULT_PAGINATION_SIZE
+    ): Either<ArcXPException, Map<Int, ArcXPContentElement>> =
+        try {
+            val result = cacheManager.search(searchTerm = searchTerm, from = from, size = size)
+            if (result.isNotEmpty()) Success(success = result) else createSearchFailure(
+                message = application.getString(R.string.search_local_no_results),
+                searchTerm = searchTerm
+            )
+        } catch (e: Exception) {
+            createSearchFailure(message = e.message, searchTerm = searchTerm, value = e)
+        }
+
+    /**
+     * [searchHybrid] - emits cached results immediately (if any),
+     * then emits network results merged with the cached hits once they arrive
+     *
+     * merged results keep network ordering, followed by cached hits the network did not return,
+     * limited to [size]
+     * if network fails after cached results were emitted, no further emission occurs
+     * @param searchTerm input string to search
+     * @param from starting index to return results, ie 0 for page 1, 20(size) for page 2
+     * @param size number of results to return
+     */
+    fun searchHybrid(
+        searchTerm: String,
+        from: Int = 0,
+        size: Int = DEFAULT_PAGINATION_SIZE
+    ): Flow<Either<ArcXPException, Map<Int, ArcXPContentElement>>> = flow {
+        val local = searchLocal(searchTerm = searchTerm, from = from, size = size)
+        if (local is Success) emit(local)
+        when (val network = searchSuspend(searchTerm = searchTerm, from = from, size = size)) {
+            is Success -> emit(
+                Success(
+                    success = mergeSearchResults(
+                        network = network.success,
+                        local = (local as? Success)?.success.orEmpty(),
+                        from = from,
+                        size = size
+                    )
+                )
+            )
+
+            is Failure -> if (local !is Success) emit(network)
+        }
+    }
+
+    private suspend fun <T> cachedSearch(
+        cache: SearchResultCache<T>,
+        searchTerm: String,
+        from: Int,
+        size: Int,
+        apiCall: suspend () -> Either<ArcXPException, T>
+    ): Either<ArcXPException, T> {
+        val key = SearchResultCache.Key(query = searchTerm, from = from, size = size)
+        return cache.get(key = key)?.let { Success(success = it) }
+            ?: apiCall().also { if (it is Success) cache.put(key = key, value = it.success) }
+    }
+
+    private fun mergeSearchResults(
+        network: Map<Int, ArcXPContentElement>,
+        local: Map<Int, ArcXPContentElement>,
+        from: Int,
+        size: Int
+    ): Map<Int, ArcXPContentElement> {
+        val networkElements = network.toSortedMap().values
+        val networkIds = networkElements.map { it._id }.toSet()
+        return (networkElements + local.toSortedMap().values.filterNot { it._id in networkIds })
+            .take(size)
+            .mapIndexed { index, element -> index + from to element }
+            .toMap()
+    }
 
     /**
      * [getContent] - request article/story by ANS id
@@ -232,6 +443,67 @@ class ContentRepository(
         }
     }
 
+    /**
+     * [getContentBatch] - request several articles/stories by ANS id
+     * cache hits are read in one query, misses and stale items are fetched concurrently
+     * (at most [parallelism] at a time) and written to the cache in one transaction
+     * @param uuids ANS ids, results are returned in this order
+     * @param shouldIgnoreCache if enabled, skips db operation
+     * @param parallelism max concurrent network requests
+     * @return one [Either] per uuid, so a failed item doesn't fail the batch
+     */
+    suspend fun getContentBatch(
+        uuids: List<String>,
+        shouldIgnoreCache: Boolean = false,
+        parallelism: Int = CONTENT_BATCH_PARALLELISM
+    ): List<Either<ArcXPException, ArcXPContentElement>> = coroutineScope {
+        val cached =
+            if (shouldIgnoreCache) emptyMap() else cacheManager.getJsonByIds(uuids = uuids)
+        val permits = Semaphore(permits = parallelism.coerceAtLeast(1))
+        val fetched = uuids.distinct()
+            .filter { shouldMakeApiCall(baseItem = cached[it]) }
+            .map { uuid ->
+                async { uuid to permits.withPermit { contentApiManager.getContent(id = uuid) } }
+            }
+            .awaitAll()
+            .toMap()
+        val results: Map<String, Either<ArcXPException, ArcXPContentElement>> =
+            fetched.mapValues { (_, response) ->
+                when (response) {
+                    is Success -> fromJsonCheck(
+                        jsonString = response.success.first,
+                        ArcXPContentElement::class.java
+                    )
+
+                    is Failure -> response
+                }
+            }
+        if (!shouldIgnoreCache) {
+            cacheManager.insertAll(jsonItems = fetched.mapNotNull { (uuid, response) ->
+                val element = (results[uuid] as? Success)?.success
+                if (response is Success && element != null) JsonItem(
+                    uuid = uuid,
+                    jsonResponse = response.success.first,
+                    expiresAt = expiresAtFor(type = element.type, expiresAt = response.success.second)
+                ) else null
+            })
+        }
+        uuids.map { uuid ->
+            val result = results[uuid]
+            val cachedItem = cached[uuid]
+            when {
+                result is Success -> result
+                // fresh cache hit, or stale cache when the refresh failed
+                cachedItem != null -> fromJsonCheck(
+                    jsonString = cachedItem.jsonResponse,
+                    ArcXPContentElement::class.java
+                )
+
+                else -> result!!
+            }
+        }
+    }
+
     /**
      * [getStory] - request article/story by ANS id
      * @param shouldIgnoreCache if enabled, skips db operation
@@ -336,7 +608,13 @@ class ContentRepository(
         } else {
             val navigationEntry =
                 cacheManager.getSectionList(siteHierarchy = siteHierarchy)
-            if (shouldMakeApiCall(baseItem = navigationEntry)) {
+            if (navigationEntry != null && isSeed(date = navigationEntry.expiresAt)) {
+                // bundled seed is shown right away and replaced in the cache for the next request
+                mIoScope.launch {
+                    doSectionListApiCall(siteHierarchy = siteHierarchy, shouldIgnoreCache = false)
+                }
+                navJsonCheck(navJson = navigationEntry.sectionHeaderResponse)
+            } else if (shouldMakeApiCall(baseItem = navigationEntry)) {
                 val apiResult = doSectionListApiCall(
                     siteHierarchy = siteHierarchy, shouldIgnoreCache = false
                 )
@@ -391,52 +669,94 @@ class ContentRepository(
         }
     }
 
-    private fun collectionResponseFromJson(json: String) = fromJson(
-        json,
-        Array<ArcXPContentElement>::class.java
-    )!!.toList()
-
-
     private suspend fun doCollectionApiCall(
         id: String,
         shouldIgnoreCache: Boolean,
         from: Int,
         size: Int,
-        full: Boolean?
+        full: Boolean?,
+        onChanges: (CollectionChangeSet) -> Unit = {}
+    ): Either<ArcXPException, Map<Int, ArcXPContentElement>> {
+        val loadFull = full ?: contentConfig().preLoading
+        if (!hybridCollectionLoading || !loadFull || shouldIgnoreCache) {
+            return fetchCollection(
+                id = id,
+                shouldIgnoreCache = shouldIgnoreCache,
+                from = from,
+                size = size,
+                full = loadFull,
+                onChanges = onChanges
+            )
+        }
+        // the lightweight result is only returned, caching it would serve partial stories from the cache,
+        // so until the upgrade lands a story opened from this list is fetched on its own
+        val light = fetchCollection(id = id, shouldIgnoreCache = true, from = from, size = size, full = false)
+        if (light is Success) {
+            val page = Triple(id, from, size)
+            if (pendingUpgrades.add(page)) {
+                mIoScope.launch {
+                    try {
+                        fetchCollection(
+                            id = id,
+                            shouldIgnoreCache = false,
+                            from = from,
+                            size = size,
+                            full = true,
+                            onChanges = onChanges
+                        )
+                    } finally {
+                        pendingUpgrades.remove(page)
+                    }
+                }
+            }
+        }
+        return light
+    }
+
+    private suspend fun fetchCollection(
+        id: String,
+        shouldIgnoreCache: Boolean,
+        from: Int,
+        size: Int,
+        full: Boolean,
+        onChanges: (CollectionChangeSet) -> Unit = {}
     ): Either<ArcXPException, Map<Int, ArcXPContentElement>> =
-        when (val response = contentApiManager.getCollection(
+        when (val response = contentApiManager.getCollectionBody(
             collectionAlias = id,
             from = from,
             size = size,
-            full = full ?: contentConfig().preLoading
+            full = full
         )) {
             is Success -> {
+                // caller abandoned the request while it was in flight, skip parsing and caching
+                if (!currentCoroutineContext().isActive) response.success.first.close()
+                currentCoroutineContext().ensureActive()
                 try {
-                    val collectionResultJsonList =
-                        response.success.first //full result which is a list
-                    val jsonList =
-                        parseJsonArray(jsonArrayString = collectionResultJsonList) //list of each result as json
                     val expiresAt = response.success.second
-                    val collectionResultList =
-                        collectionResponseFromJson(json = collectionResultJsonList) // list of content elements to return
+                    // each result read once from the body as its json and its content element
+                    val collectionResultList = response.success.first.use {
+                        JsonStream.readArray(source = it.source(), type = ArcXPContentElement::class.java)
+                    }
                     if (collectionResultList.isNotEmpty()) {
                         val mapOfItems = HashMap<Int, ArcXPContentElement>()
-                        val mapOfJson = HashMap<Int, String>()
-                        collectionResultList.indices.forEach { index ->
-                            mapOfItems[index + from] = collectionResultList[index]
-                            mapOfJson[index + from] = jsonList[index]
+                        val rows = collectionResultList.mapIndexed { index, entry ->
+                            mapOfItems[index + from] = entry.value
+                            CollectionDiff.Row(
+                                index = index + from,
+                                uuid = entry.value._id,
+                                json = entry.json,
+                                type = entry.value.type
+                            )
                         }
                         if (!shouldIgnoreCache) {
-                            //insert collection items into db
-                            for ((key, value) in mapOfJson) {
-                                insertCollectionItem(
-                                    collectionAlias = id,
-                                    uuid = mapOfItems[key]!!._id,
-                                    index = key,
-                                    json = value,
-                                    expiresAt = expiresAt
-                                )
-                            }
+                            val changes = updateCollectionPage(
+                                collectionAlias = id,
+                                from = from,
+                                size = size,
+                                fetched = rows,
+                                expiresAt = expiresAt
+                            )
+                            if (!changes.isEmpty) onChanges(changes)
                         }
                         Success(success = mapOfItems)
                     } else createFailure(message = application.getString(R.string.get_collection_empty))
@@ -453,30 +773,96 @@ class ContentRepository(
             is Failure -> response
         }
 
-    private fun insertCollectionItem(
+    /**
+     * diffs a fetched collection page against the cached page, then only writes
+     * inserted, changed and moved rows (unchanged rows just have their expiration extended).
+     * rows past the collection's quota are never written, so they are left out of the diff
+     * instead of showing up as inserted on every refresh. the writes run in the background as one transaction
+     * @return the change set between cached and fetched page
+     */
+    private suspend fun updateCollectionPage(
         collectionAlias: String,
-        index: Int,
-        uuid: String,
-        json: String,
+        from: Int,
+        size: Int,
+        fetched: List<CollectionDiff.Row>,
         expiresAt: Date
-    ) {
+    ): CollectionChangeSet {
+        val rows = fetched.filterNot {
+            cacheManager.isOverQuota(collectionAlias = collectionAlias, index = it.index)
+        }
+        val cached = cacheManager.getCollectionPage(
+            collectionAlias = collectionAlias,
+            from = from,
+            size = size
+        ).map { CollectionDiff.Row(index = it.indexValue, uuid = it.uuid, json = it.jsonResponse) }
+        val changes =
+            CollectionDiff.diff(collectionAlias = collectionAlias, cached = cached, fresh = rows)
+        val rewritten = (changes.inserted + changes.changed).toSet()
+        val moved = changes.moved.map { it.to }.toSet()
         mIoScope.launch {
-            // we insert both the json and collection item here into separate tables,
-            // this way the data isn't duplicated
-            cacheManager.insert(
-                collectionItem = CollectionItem(
+            // one transaction, so readers never see a half written page
+            cacheManager.inTransaction {
+                // positions past the end of the fetched page are not overwritten, so remove them
+                cacheManager.deleteCollectionItems(
                     collectionAlias = collectionAlias,
-                    indexValue = index,
-                    uuid = uuid,
-                    expiresAt = expiresAt
-                ),
-                jsonItem = JsonItem(
-                    uuid = uuid,
-                    jsonResponse = json,
+                    indices = changes.removed.filter { it >= from + rows.size }
+                )
+                rows.forEach { row ->
+                    when (row.index) {
+                        in rewritten -> insertCollectionItem(
+                            collectionAlias = collectionAlias,
+                            uuid = row.uuid,
+                            index = row.index,
+                            json = row.json!!,
+                            expiresAt = expiresAt,
+                            jsonExpiresAt = expiresAtFor(type = row.type, expiresAt = expiresAt)
+                        )
+
+                        in moved -> cacheManager.insertCollectionItem(
+                            collectionItem = CollectionItem(
+                                collectionAlias = collectionAlias,
+                                indexValue = row.index,
+                                uuid = row.uuid,
+                                expiresAt = expiresAt
+                            )
+                        )
+                    }
+                }
+                cacheManager.updateExpiration(
+                    collectionAlias = collectionAlias,
+                    from = from,
+                    size = size,
+                    uuids = rows.filterNot { it.index in rewritten }.map { it.uuid },
                     expiresAt = expiresAt
                 )
-            )
+            }
         }
+        return changes
+    }
+
+    private suspend fun insertCollectionItem(
+        collectionAlias: String,
+        index: Int,
+        uuid: String,
+        json: String,
+        expiresAt: Date,
+        jsonExpiresAt: Date = expiresAt
+    ) {
+        // we insert both the json and collection item here into separate tables,
+        // this way the data isn't duplicated
+        cacheManager.insert(
+            collectionItem = CollectionItem(
+                collectionAlias = collectionAlias,
+                indexValue = index,
+                uuid = uuid,
+                expiresAt = expiresAt
+            ),
+            jsonItem = JsonItem(
+                uuid = uuid,
+                jsonResponse = json,
+                expiresAt = jsonExpiresAt
+            )
+        )
     }
 
     private suspend fun doContentApiCall(
@@ -485,13 +871,14 @@ class ContentRepository(
     ): Either<ArcXPException, ArcXPContentElement> =
         when (val response = contentApiManager.getContent(id = id)) {
             is Success -> {
+                currentCoroutineContext().ensureActive()
                 try {
                     val story = fromJson(response.success.first, ArcXPContentElement::class.java)!!
                     if (!shouldIgnoreCache) {
                         insertGeneric(
                             id = id,
                             json = response.success.first,
-                            expiresAt = response.success.second
+                            expiresAt = expiresAtFor(type = story.type, expiresAt = response.success.second)
                         )
                     }
                     Success(success = story)
@@ -514,13 +901,14 @@ class ContentRepository(
     ): Either<ArcXPException, ArcXPStory> =
         when (val response = contentApiManager.getContent(id = id)) {
             is Success -> {
+                currentCoroutineContext().ensureActive()
                 try {
                     val story = fromJson(response.success.first, ArcXPStory::class.java)!!
                     if (!shouldIgnoreCache) {
                         insertGeneric(
                             id = id,
                             json = response.success.first,
-                            expiresAt = response.success.second
+                            expiresAt = expiresAtFor(type = story.type, expiresAt = response.success.second)
                         )
                     }
                     Success(success = story)
@@ -616,11 +1004,25 @@ class ContentRepository(
 
     private fun shouldMakeApiCall(date: Date?) = date?.let { Utils.currentTime() > it } ?: true
 
+    // cache time configured for this ANS type, else the response expiration
+    private fun expiresAtFor(type: String?, expiresAt: Date) =
+        type?.let { contentTypeCacheTimeMinutes[it] }?.let { minutes ->
+            Utils.currentCalendar().apply { add(Calendar.MINUTE, minutes) }.time
+        } ?: expiresAt
+
+    // entries imported from a bundled seed, see [CacheManager.importSeed]
+    private fun isSeed(date: Date?) = date?.time == SEED_EXPIRES_AT_MS
+
     fun deleteCollection(collectionAlias: String) =
         cacheManager.deleteCollection(collectionAlias = collectionAlias)
 
     fun deleteItem(uuid: String) = cacheManager.deleteItem(uuid = uuid)
-    fun deleteCache() = cacheManager.deleteAll()
+    fun deleteCache(): Job {
+        searchCache.clear()
+        videoSearchCache.clear()
+        jsonSearchCache.clear()
+        return cacheManager.deleteAll()
+    }
 
     private fun <T> fromJsonCheck(
         jsonString: String,
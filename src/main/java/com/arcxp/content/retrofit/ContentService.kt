@@ -7,6 +7,7 @@ import retrofit2.Response
 import retrofit2.http.GET
 import retrofit2.http.Path
 import retrofit2.http.Query
+import retrofit2.http.Streaming
 
 /**
  * ContentService is an interface that defines the API endpoints for interacting with the ArcXP content services.
@@ -45,9 +46,10 @@ interface ContentService {
     suspend fun getContent(@Query("_id") id: String): Response<ResponseBody>
 
     /**
-     * returns no content-elements
+     * returns no content-elements, the body is streamed so callers must close it
      */
     @Keep
+    @Streaming
     @GET("/arc/outboundfeeds/collection/{id}")
     suspend fun getCollection(
         @Path("id") id: String,
@@ -56,9 +58,10 @@ interface ContentService {
         ): Response<ResponseBody>
 
     /**
-     * returns content-elements
+     * returns content-elements, the body is streamed so callers must close it
      */
     @Keep
+    @Streaming
     @GET("/arc/outboundfeeds/collection-full/{id}")
     suspend fun getCollectionFull(
         @Path("id") id: String,
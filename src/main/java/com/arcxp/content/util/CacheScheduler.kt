@@ -0,0 +1,43 @@
+package com.arcxp.content.util
+
+import android.app.Application
+import android.util.Log
+import com.arcxp.sdk.R
+import com.arcxp.video.util.TAG
+import kotlinx.coroutines.CancellationException
+import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.Job
+import kotlinx.coroutines.delay
+import kotlinx.coroutines.isActive
+import kotlinx.coroutines.launch
+
+/**
+ * CacheScheduler runs periodic cache work, see [com.arcxp.content.repositories.CacheSweeper]
+ *
+ * the default runs on coroutines, so tests can drive it with a test scope and virtual time
+ */
+internal fun interface CacheScheduler {
+
+    /**
+     * runs [task] every [intervalMillis] (first run after one interval) until the returned job is cancelled,
+     * a run that throws is logged and does not stop the ones after it
+     */
+    fun schedule(intervalMillis: Long, task: suspend () -> Unit): Job
+
+    companion object {
+        fun coroutine(application: Application, scope: CoroutineScope) = CacheScheduler { intervalMillis, task ->
+            scope.launch {
+                while (isActive) {
+                    delay(intervalMillis)
+                    try {
+                        task()
+                    } catch (e: CancellationException) {
+                        throw e
+                    } catch (e: Exception) {
+                        Log.e(TAG, application.getString(R.string.cache_task_failure_message, e.message), e)
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.arcxp.content.util
+
+import com.arcxp.content.models.CollectionChangeSet
+
+/**
+ * CollectionDiff compares a freshly fetched collection page against the cached page
+ *
+ * items are matched by uuid (ANS _id), then compared by their json content,
+ * so a refresh only needs to write rows that were inserted, moved or changed
+ */
+internal object CollectionDiff {
+
+    /**
+     * a collection row, [json] is null when the cached row has no json stored,
+     * [type] is the ANS type of fetched rows (not compared)
+     */
+    class Row(val index: Int, val uuid: String, val json: String?, val type: String? = null)
+
+    fun diff(
+        collectionAlias: String,
+        cached: List<Row>,
+        fresh: List<Row>
+    ): CollectionChangeSet {
+        // a uuid can appear more than once in a collection, match occurrences in order
+        val previous = cached.groupBy { it.uuid }.mapValues { ArrayDeque(it.value) }
+        val inserted = mutableListOf<Int>()
+        val moved = mutableListOf<CollectionChangeSet.Move>()
+        val changed = mutableListOf<Int>()
+        fresh.forEach { row ->
+            val old = previous[row.uuid]?.removeFirstOrNull()
+            if (old == null) {
+                inserted.add(row.index)
+            } else {
+                if (old.index != row.index) {
+                    moved.add(CollectionChangeSet.Move(from = old.index, to = row.index))
+                }
+                if (old.json != row.json) changed.add(row.index)
+            }
+        }
+        return CollectionChangeSet(
+            collectionAlias = collectionAlias,
+            inserted = inserted,
+            removed = previous.values.flatten().map { it.index }.sorted(),
+            moved = moved,
+            changed = changed
+        )
+    }
+}
@@ -0,0 +1,41 @@
+package com.arcxp.content.util
+
+import com.arcxp.commons.util.MoshiController.moshi
+import com.squareup.moshi.JsonDataException
+import com.squareup.moshi.JsonReader
+import okio.Buffer
+import okio.BufferedSource
+
+/**
+ * JsonStream reads json arrays straight from a response source
+ *
+ * each element is read once as utf-8 bytes, those bytes are parsed and decoded as the json we cache,
+ * so the whole response is never held as a [String] or parsed twice (once as a tree, once as models)
+ */
+internal object JsonStream {
+
+    /**
+     * one array element, [json] is the element exactly as it was received
+     */
+    class Entry<T>(val json: String, val value: T)
+
+    /**
+     * reads every element of the json array in [source], parsing each into [type]
+     * @throws java.io.IOException when the source is not a json array or an element doesn't parse
+     */
+    fun <T> readArray(source: BufferedSource, type: Class<T>): List<Entry<T>> {
+        val adapter = moshi.adapter(type)
+        val entries = mutableListOf<Entry<T>>()
+        JsonReader.of(source).use { reader ->
+            reader.beginArray()
+            while (reader.hasNext()) {
+                val bytes = reader.nextSource().use { it.readByteString() }
+                val value = adapter.fromJson(Buffer().write(bytes))
+                    ?: throw JsonDataException("null element at ${reader.path}")
+                entries.add(Entry(json = bytes.utf8(), value = value))
+            }
+            reader.endArray()
+        }
+        return entries
+    }
+}
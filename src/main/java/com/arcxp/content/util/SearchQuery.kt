@@ -0,0 +1,28 @@
+package com.arcxp.content.util
+
+import java.text.Normalizer
+import java.util.Locale
+
+/**
+ * SearchQuery normalizes search terms so equivalent input produces the same request and cache key
+ *
+ * - unicode: compatibility decomposition, accents removed ("Café" -> "cafe", full width -> ascii)
+ * - case: lower cased
+ * - whitespace: trimmed and collapsed to single spaces
+ * - characters outside letters, digits, commas, hyphens and spaces are removed
+ */
+internal object SearchQuery {
+
+    private val combiningMarks = Regex("\\p{M}+")
+    private val unsupported = Regex("[^A-Za-z0-9,\\- ]")
+    private val whitespace = Regex("\\s+")
+
+    fun normalize(searchTerm: String): String =
+        Normalizer.normalize(searchTerm, Normalizer.Form.NFKD)
+            .replace(combiningMarks, "")
+            .lowercase(Locale.ROOT)
+            .replace(whitespace, " ")
+            .replace(unsupported, "")
+            .replace(whitespace, " ")
+            .trim()
+}
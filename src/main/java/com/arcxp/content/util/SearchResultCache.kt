@@ -0,0 +1,45 @@
+package com.arcxp.content.util
+
+import com.arcxp.commons.util.Constants.DEFAULT_SEARCH_CACHE_SIZE
+import com.arcxp.commons.util.Constants.DEFAULT_SEARCH_CACHE_TTL_SECONDS
+import com.arcxp.commons.util.Utils
+
+/**
+ * SearchResultCache is a bounded in memory cache of search results keyed by (query, from, size)
+ *
+ * entries expire after [ttlSeconds], least recently used entries are dropped past [maxEntries]
+ * a [ttlSeconds] of 0 disables caching
+ */
+internal class SearchResultCache<T>(
+    private val ttlSeconds: Int = DEFAULT_SEARCH_CACHE_TTL_SECONDS,
+    private val maxEntries: Int = DEFAULT_SEARCH_CACHE_SIZE
+) {
+    data class Key(val query: String, val from: Int, val size: Int)
+
+    private class Entry<T>(val value: T, val expiresAtMillis: Long)
+
+    private val entries = object : LinkedHashMap<Key, Entry<T>>(16, 0.75f, true) {
+        override fun removeEldestEntry(eldest: MutableMap.MutableEntry<Key, Entry<T>>?) =
+            size > maxEntries
+    }
+
+    @Synchronized
+    fun get(key: Key): T? {
+        val entry = entries[key] ?: return null
+        return if (Utils.currentTimeInMillis() < entry.expiresAtMillis) entry.value else {
+            entries.remove(key)
+            null
+        }
+    }
+
+    @Synchronized
+    fun put(key: Key, value: T) {
+        if (ttlSeconds > 0) {
+            entries[key] =
+                Entry(value, expiresAtMillis = Utils.currentTimeInMillis() + ttlSeconds * 1000L)
+        }
+    }
+
+    @Synchronized
+    fun clear() = entries.clear()
+}
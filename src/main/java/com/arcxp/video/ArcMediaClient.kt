@@ -4,11 +4,16 @@ import androidx.annotation.Keep
 import com.arcxp.ArcXPMobileSDK.application
 import com.arcxp.commons.throwables.ArcXPException
 import com.arcxp.commons.throwables.ArcXPSDKErrorType
+import com.arcxp.commons.util.Constants.DEFAULT_VIDEO_CACHE_SIZE
+import com.arcxp.commons.util.Constants.VIDEO_BATCH_PARALLELISM
+import com.arcxp.commons.util.Constants.VIDEO_METADATA_CACHE_DIRECTORY
 import com.arcxp.commons.util.DependencyFactory.createArcXPError
 import com.arcxp.commons.util.DependencyFactory.createVideoApiManager
+import com.arcxp.commons.util.DependencyFactory.createVideoMetadataCache
 import com.arcxp.commons.util.Either
 import com.arcxp.sdk.R
 import com.arcxp.video.api.VideoApiManager
+import java.io.File
 
 /**
  * This class is used to interface with the Arc server.
@@ -77,6 +82,17 @@ import com.arcxp.video.api.VideoApiManager
  * })
  * ```
  *
+ * The suspend functions parse responses off the main thread and return an [Either], the callback
+ * functions deliver the same results on the main thread.
+ * ```
+ * lifecycleScope.launch {
+ * when (val result = mediaClient.findByUuidSuspend("xxxx-xxx-xxxx-xxxx")) {
+ * is Success -> //play result.success.arcVideoStreams
+ * is Failure -> //process result.failure
+ * }
+ * }
+ * ```
+ *
  */
 @Keep
 class ArcMediaClient {
@@ -138,6 +154,35 @@ class ArcMediaClient {
         )
     }
 
+    /**
+     * Returns the ArcVideoStream objects of several videos, resolved concurrently.
+     * Uses the cache when [enableCache] was called
+     *
+     * @param uuids String uuids of the videos
+     * @param listener [ArcVideoStreamCallback] use [ArcVideoStreamCallback.onVideoStreams] for results,
+     * one per uuid in the order requested
+     * @param parallelism max concurrent requests
+     */
+    fun findByUuids(
+        uuids: List<String>,
+        listener: ArcVideoStreamCallback,
+        parallelism: Int = VIDEO_BATCH_PARALLELISM
+    ) {
+        videoApiManager.findByUuidsApi(uuids = uuids, listener = listener, parallelism = parallelism)
+    }
+
+    /**
+     * Returns the ArcVideoStream objects of several videos, resolved concurrently (suspend).
+     * Uses the cache when [enableCache] was called
+     *
+     * @param uuids String uuids of the videos
+     * @param parallelism max concurrent requests
+     * @return [List] of [Either] Success: [com.arcxp.video.model.ArcVideoResponse] or [ArcXPException] in the order of [uuids],
+     * a geo restricted video fails with its [com.arcxp.video.model.ArcTypeResponse] as [ArcXPException.value]
+     */
+    suspend fun findByUuidsSuspend(uuids: List<String>, parallelism: Int = VIDEO_BATCH_PARALLELISM) =
+        videoApiManager.findByUuidsSuspend(uuids = uuids, parallelism = parallelism)
+
     /**
      * Returns an json representation of array containing a single ArcVideoStream object
      *
@@ -179,6 +224,102 @@ class ArcMediaClient {
         videoApiManager.findByPlaylistApiAsJson(name, count, listener)
     }
 
+    /**
+     * Returns a single ArcVideoStream object (suspend), parsed off the main thread
+     *
+     * @param uuid String uuid for the video
+     * @return [Either] Success: [com.arcxp.video.model.ArcVideoResponse] or [ArcXPException],
+     * a geo restricted video fails with its [com.arcxp.video.model.ArcTypeResponse] as [ArcXPException.value]
+     */
+    suspend fun findByUuidSuspend(uuid: String) = videoApiManager.findByUuidSuspend(uuid = uuid)
+
+    /**
+     * Returns a virtual channel (suspend)
+     *
+     * @param uuid String uuid for the virtual channel
+     * @return [Either] Success: [com.arcxp.video.model.ArcVideoStreamVirtualChannel] or [ArcXPException]
+     */
+    suspend fun findByUuidVirtualSuspend(uuid: String) =
+        videoApiManager.findByUuidVirtualSuspend(uuid = uuid)
+
+    /**
+     * Returns an json representation of array containing a single ArcVideoStream object (suspend)
+     *
+     * @param uuid String uuid for the video
+     * @param shouldUseVirtualChannel Boolean indicator to use virtual channel endpoint
+     * @return [Either] Success: [String] or [ArcXPException]
+     */
+    suspend fun findByUuidAsJsonSuspend(uuid: String, shouldUseVirtualChannel: Boolean = false) =
+        videoApiManager.findByUuidAsJsonSuspend(
+            uuid = uuid,
+            shouldUseVirtualChannel = shouldUseVirtualChannel
+        )
+
+    /**
+     * Returns the playlist with the given name containing the first count number of objects (suspend)
+     *
+     * @param name Name of the playlist
+     * @param count Number of entries to return
+     * @return [Either] Success: [com.arcxp.video.model.ArcVideoPlaylist] or [ArcXPException]
+     */
+    suspend fun findByPlaylistSuspend(name: String, count: Int) =
+        videoApiManager.findByPlaylistSuspend(name = name, count = count)
+
+    /**
+     * Returns the playlist as json with the given name containing the first count number of objects (suspend)
+     *
+     * @param name Name of the playlist
+     * @param count Number of entries to return
+     * @return [Either] Success: [String] or [ArcXPException]
+     */
+    suspend fun findByPlaylistAsJsonSuspend(name: String, count: Int) =
+        videoApiManager.findByPlaylistAsJsonSuspend(name = name, count = count)
+
+    /**
+     * Caches findByUuid, virtual channel and findByPlaylist responses (and their json / suspend variants)
+     * until they expire, concurrent requests for the same video or playlist share one call
+     *
+     * @param timeUntilUpdateMinutes minutes responses are kept for, null to keep them until their expires header
+     * @param maxEntries number of responses kept, least recently used are dropped first
+     * @param useDiskCache also keep responses in the app cache directory so they outlive the process
+     */
+    fun enableCache(
+        timeUntilUpdateMinutes: Int? = null,
+        maxEntries: Int = DEFAULT_VIDEO_CACHE_SIZE,
+        useDiskCache: Boolean = false
+    ) {
+        videoApiManager.cache = createVideoMetadataCache(
+            timeUntilUpdateMinutes = timeUntilUpdateMinutes,
+            maxEntries = maxEntries,
+            directory = if (useDiskCache) File(application().cacheDir, VIDEO_METADATA_CACHE_DIRECTORY) else null
+        )
+    }
+
+    /**
+     * Removes the cached responses for a video or virtual channel, so the next request for it hits the network
+     *
+     * @param uuid String uuid for the video or virtual channel
+     */
+    fun invalidateVideo(uuid: String) {
+        videoApiManager.invalidateUuid(uuid = uuid)
+    }
+
+    /**
+     * Removes the cached responses for a playlist, so the next request for it hits the network
+     *
+     * @param name Name of the playlist
+     */
+    fun invalidatePlaylist(name: String) {
+        videoApiManager.invalidatePlaylist(name = name)
+    }
+
+    /**
+     * Removes every cached response
+     */
+    fun invalidateCache() {
+        videoApiManager.invalidateAll()
+    }
+
     /**
      * Returns list of current live videos
      *
@@ -1,7 +1,9 @@
 package com.arcxp.video
 
 import androidx.annotation.Keep
+import com.arcxp.commons.throwables.ArcXPException
 import com.arcxp.commons.throwables.ArcXPSDKErrorType
+import com.arcxp.commons.util.Either
 import com.arcxp.video.model.ArcVideoPlaylist
 import com.arcxp.video.model.ArcVideoResponse
 import com.arcxp.video.model.ArcVideoStream
@@ -19,6 +21,8 @@ interface ArcVideoStreamCallback {
     fun onVideoStream(videos : List<ArcVideoStream>?) {}
     fun onLiveVideos(videos : List<VideoVO>?) {}
     fun onVideoStreamVirtual(arcVideoStreamVirtualChannel : ArcVideoStreamVirtualChannel?) {}
+    /** findByUuids results in the order requested, a geo restricted video fails with its [com.arcxp.video.model.ArcTypeResponse] as value */
+    fun onVideoStreams(results: List<Either<ArcXPException, ArcVideoResponse>>) {}
     fun onJsonResult(json: String) {}
     fun onError(type: ArcXPSDKErrorType, message: String, value: Any?) {}
 }
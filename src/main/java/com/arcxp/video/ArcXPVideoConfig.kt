@@ -9,6 +9,7 @@ import androidx.media3.ui.AspectRatioFrameLayout
 import com.arcxp.commons.util.Constants.OMID_VERSION
 import com.arcxp.commons.util.Constants.PAL_VERSION
 import com.arcxp.video.cast.ArcCastManager
+import com.arcxp.video.listeners.ArcMediaCacheListener
 import com.arcxp.video.model.AdConfig
 import com.arcxp.video.views.ArcVideoFrame
 
@@ -300,7 +301,37 @@ class ArcXPVideoConfig private constructor(
     /**
      * Disable Error overlaying video, if you don't want this feature and want to do your own error display
      */
-    val disableErrorOverlay: Boolean = false
+    val disableErrorOverlay: Boolean = false,
+
+    /**
+     * Max size in bytes of the disk cache for video manifests and segments, 0 (default) disables it
+     */
+    val mediaCacheSizeBytes: Long = 0,
+
+    /**
+     * Optional listener for bytes read from the media cache
+     */
+    val mediaCacheListener: ArcMediaCacheListener? = null,
+
+    /**
+     * How long before the end of a playlist video the next one is prepared and buffered, 0 (default) disables it
+     */
+    val preloadNextVideoMs: Long = 0,
+
+    /**
+     * How many released players are kept for the next player session to reuse, 0 (default) disables reuse
+     */
+    val playerPoolSize: Int = 0,
+
+    /**
+     * Buffering thresholds for the local player, null (default) keeps the ExoPlayer defaults
+     */
+    val bufferConfig: BufferConfig? = null,
+
+    /**
+     * Whether bandwidth measured in earlier sessions picks the starting stream and seeds the player
+     */
+    val useBandwidthEstimate: Boolean = false
 ) {
 
     /**
@@ -338,6 +369,54 @@ class ArcXPVideoConfig private constructor(
         }
     }
 
+    /**
+     * How much media the local player buffers, all values in milliseconds.
+     * ExoPlayer defaults are 2500 startup, 5000 rebuffer, 50000 max buffer and no back buffer.
+     *
+     * @param startupMs media buffered before playback starts, lower starts sooner but risks an early stall
+     * @param rebufferMs media buffered before playback resumes after a stall, lower resumes sooner but may stall again
+     * @param maxBufferMs the player stops loading once this much is buffered ahead, lower saves data and memory
+     * when users leave early but leaves less room for bandwidth drops
+     * @param backBufferMs media kept behind the playhead, so seeking back or replaying doesn't download again,
+     * at the cost of memory
+     */
+    data class BufferConfig(
+        val startupMs: Int,
+        val rebufferMs: Int,
+        val maxBufferMs: Int,
+        val backBufferMs: Int = 0
+    ) {
+        init {
+            require(startupMs in 0..maxBufferMs && rebufferMs in 0..maxBufferMs && backBufferMs >= 0) {
+                "startupMs and rebufferMs must be between 0 and maxBufferMs, backBufferMs must not be negative"
+            }
+        }
+    }
+
+    /**
+     * Named buffering strategies for [Builder.setBufferPreset]
+     */
+    enum class BufferPreset(val bufferConfig: BufferConfig) {
+        /**
+         * short in-feed clips: starts after 1s and keeps 15s behind the playhead for replays,
+         * only buffers 20s ahead since most clips are left before the end
+         */
+        FAST_START(BufferConfig(startupMs = 1000, rebufferMs = 2000, maxBufferMs = 20000, backBufferMs = 15000)),
+
+        /**
+         * live streams: starts after 1s and buffers at most 10s ahead, so less is downloaded and a rebuffer
+         * recovers quickly. it does not change how far behind the live edge playback starts, that is the
+         * stream's own target offset
+         */
+        LIVE_LOW_LATENCY(BufferConfig(startupMs = 1000, rebufferMs = 2000, maxBufferMs = 10000)),
+
+        /**
+         * metered connections: default startup, but only 15s ahead so less is downloaded and thrown away
+         * when users leave early, pair with setMaxBitRate to also lower the quality
+         */
+        DATA_SAVER(BufferConfig(startupMs = 2500, rebufferMs = 5000, maxBufferMs = 15000))
+    }
+
     fun enableClosedCaption(): Boolean {
         return mShowClosedCaption
     }
@@ -407,6 +486,12 @@ class ArcXPVideoConfig private constructor(
 
         private var videoResizeMode = VideoResizeMode.FIT
         private var disableErrorOverlay = false
+        private var mediaCacheSizeBytes = 0L
+        private var mediaCacheListener: ArcMediaCacheListener? = null
+        private var preloadNextVideoMs = 0L
+        private var playerPoolSize = 0
+        private var bufferConfig: BufferConfig? = null
+        private var useBandwidthEstimate = false
         /**
          * Sets the parent activity for the player.  This method must be called.
          */
@@ -838,6 +923,82 @@ class ArcXPVideoConfig private constructor(
             return this
         }
 
+        /**
+         * enables a disk cache for video manifests and segments, so replays, repeated prerolls
+         * and seeking back play from disk instead of downloading again.
+         * least recently used entries are evicted once the cache is over [maxBytes].
+         * live streams always bypass the cache, their playlists change under the same url.
+         * the cache is shared by every player, the first size set in the process is used
+         * @param listener optional, reports bytes read from the cache
+         * default is disabled
+         */
+        fun setMediaCache(maxBytes: Long, listener: ArcMediaCacheListener? = null): Builder {
+            mediaCacheSizeBytes = maxBytes
+            mediaCacheListener = listener
+            return this
+        }
+
+        /**
+         * when playing a list with playVideos, the next video is added to the player [leadTimeMs]
+         * before the current one ends, so its manifest and first segments are buffered
+         * and the switch is close to gapless.
+         * videos with client side ads and live videos are not preloaded, they start when the previous one ends.
+         * default is disabled
+         */
+        fun setPreloadNextVideo(leadTimeMs: Long): Builder {
+            preloadNextVideoMs = leadTimeMs
+            return this
+        }
+
+        /**
+         * keeps up to [size] released players, reset to their defaults, and hands them to the next
+         * player session instead of building a new one, which shortens time to first frame in feeds
+         * of short videos. the pool is shared by every player and releases its idle players when
+         * the system asks the app to trim memory
+         * default is 0, every session builds and releases its own player
+         */
+        fun setPlayerPoolSize(size: Int): Builder {
+            playerPoolSize = size
+            return this
+        }
+
+        /**
+         * sets the local player's buffering to one of the named presets, see [BufferPreset]
+         * default keeps the ExoPlayer buffering
+         */
+        fun setBufferPreset(preset: BufferPreset): Builder {
+            bufferConfig = preset.bufferConfig
+            return this
+        }
+
+        /**
+         * sets the local player's buffering, see [BufferConfig] for what each value trades off
+         * @throws IllegalArgumentException when startupMs or rebufferMs is negative or over maxBufferMs
+         * default keeps the ExoPlayer buffering
+         */
+        fun setBuffer(startupMs: Int, rebufferMs: Int, maxBufferMs: Int, backBufferMs: Int = 0): Builder {
+            bufferConfig = BufferConfig(
+                startupMs = startupMs,
+                rebufferMs = rebufferMs,
+                maxBufferMs = maxBufferMs,
+                backBufferMs = backBufferMs
+            )
+            return this
+        }
+
+        /**
+         * keeps the bandwidth the player measures, per network type, between sessions.
+         * new players start their bandwidth meter from it instead of generic defaults,
+         * and the starting stream is picked from it (capped by [setMaxBitRate] when set)
+         * so playback starts neither too high and stalls nor too low and looks blurry.
+         * until a network type has been measured the max bit rate picks the stream as before
+         * default is false
+         */
+        fun setUseBandwidthEstimate(use: Boolean): Builder {
+            useBandwidthEstimate = use
+            return this
+        }
+
         fun build(): ArcXPVideoConfig {
             return ArcXPVideoConfig(
                 activity = mActivity,
@@ -888,7 +1049,13 @@ class ArcXPVideoConfig private constructor(
                 showVolumeButton = showVolumeButton,
                 videoResizeMode = videoResizeMode,
                 isDisableControls = disableControls,
-                disableErrorOverlay = disableErrorOverlay
+                disableErrorOverlay = disableErrorOverlay,
+                mediaCacheSizeBytes = mediaCacheSizeBytes,
+                mediaCacheListener = mediaCacheListener,
+                preloadNextVideoMs = preloadNextVideoMs,
+                playerPoolSize = playerPoolSize,
+                bufferConfig = bufferConfig,
+                useBandwidthEstimate = useBandwidthEstimate
                 //isHideControlsDuringAds = hideControlsDuringAds
             )
         }
@@ -1,12 +1,16 @@
 package com.arcxp.video.api
 
+import androidx.annotation.StringRes
 import com.arcxp.ArcXPMobileSDK.application
 import com.arcxp.commons.throwables.ArcXPException
 import com.arcxp.commons.throwables.ArcXPSDKErrorType
+import com.arcxp.commons.util.Constants.VIDEO_BATCH_PARALLELISM
+import com.arcxp.commons.util.Constants.expires
+import com.arcxp.commons.util.DependencyFactory.createMainScope
+import com.arcxp.commons.util.DependencyFactory.ioDispatcher
 import com.arcxp.commons.util.Either
 import com.arcxp.commons.util.Failure
 import com.arcxp.commons.util.MoshiController.fromJson
-import com.arcxp.commons.util.MoshiController.fromJsonList
 import com.arcxp.commons.util.Success
 import com.arcxp.sdk.R
 import com.arcxp.video.ArcVideoPlaylistCallback
@@ -18,10 +22,24 @@ import com.arcxp.video.service.VirtualChannelService
 import com.arcxp.video.util.RetrofitController.akamaiService
 import com.arcxp.video.util.RetrofitController.baseService
 import com.arcxp.video.util.RetrofitController.virtualChannelService
+import com.arcxp.video.util.VideoMetadataCache
+import com.arcxp.video.util.VideoResponseDecoder
+import kotlinx.coroutines.CancellationException
+import kotlinx.coroutines.CoroutineDispatcher
+import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.async
+import kotlinx.coroutines.awaitAll
+import kotlinx.coroutines.coroutineScope
+import kotlinx.coroutines.launch
+import kotlinx.coroutines.suspendCancellableCoroutine
+import kotlinx.coroutines.sync.Semaphore
+import kotlinx.coroutines.sync.withPermit
+import kotlinx.coroutines.withContext
 import okhttp3.ResponseBody
 import retrofit2.Call
 import retrofit2.Callback
 import retrofit2.Response
+import kotlin.coroutines.resume
 
 /**
  * VideoApiManager is a class that manages API calls related to video content within the ArcXP platform.
@@ -34,6 +52,13 @@ import retrofit2.Response
  * - baseService: The Retrofit service for base video API calls.
  * - akamaiService: The Retrofit service for Akamai video API calls.
  * - virtualChannelService: The Retrofit service for virtual channel video API calls.
+ * - ioDispatcher: The dispatcher responses are read and parsed on.
+ * - mainScope: The scope callback results are delivered on.
+ *
+ * The suspend functions are the primary API, they read and parse responses on [ioDispatcher] and return
+ * [Either] results to the caller's context. The callback functions are adapters that launch them in
+ * [mainScope], so large video payloads are never parsed on the main thread. With a [cache] set, uuid, virtual
+ * channel and playlist responses are kept as json until they expire and concurrent requests for one share a call.
  *
  * Usage:
  * - Create an instance of VideoApiManager with the necessary parameters.
@@ -53,10 +78,22 @@ import retrofit2.Response
  * @property baseService The Retrofit service for base video API calls.
  * @property akamaiService The Retrofit service for Akamai video API calls.
  * @property virtualChannelService The Retrofit service for virtual channel video API calls.
+ * @property ioDispatcher The dispatcher responses are read and parsed on.
+ * @property mainScope The scope callback results are delivered on.
  * @method findByUuidApi Fetches a single video stream by its UUID.
  * @method findByUuidApiAsJson Fetches a single video stream by its UUID and returns the result as JSON.
  * @method findByPlaylistApi Fetches a video playlist by its name.
  * @method findByPlaylistApiAsJson Fetches a video playlist by its name and returns the result as JSON.
+ * @method findByUuidSuspend Fetches a single video stream by its UUID using a suspend function.
+ * @method findByUuidsApi Fetches several video streams by their UUIDs concurrently.
+ * @method findByUuidsSuspend Fetches several video streams by their UUIDs concurrently using a suspend function.
+ * @method findByUuidVirtualSuspend Fetches a virtual channel by its UUID using a suspend function.
+ * @method findByUuidAsJsonSuspend Fetches a single video stream by its UUID using a suspend function and returns the result as JSON.
+ * @method findByPlaylistSuspend Fetches a video playlist by its name using a suspend function.
+ * @method findByPlaylistAsJsonSuspend Fetches a video playlist by its name using a suspend function and returns the result as JSON.
+ * @method invalidateUuid Removes the cached responses for a video or virtual channel UUID.
+ * @method invalidatePlaylist Removes the cached responses for a playlist.
+ * @method invalidateAll Removes every cached response.
  * @method findLiveSuspend Fetches live video content using a suspend function.
  * @method findLiveSuspendAsJson Fetches live video content using a suspend function and returns the result as JSON.
  * @method findLive Fetches live video content.
@@ -80,216 +117,218 @@ class VideoApiManager(
         orgName = orgName,
         environmentName = environmentName,
         baseUrl = baseUrl
-    )
+    ),
+    private val ioDispatcher: CoroutineDispatcher = ioDispatcher(),
+    private val mainScope: CoroutineScope = createMainScope()
 ) {
-    /** makes call to endpoint(either normal or geo or virtual channel) for single uuid result */
+    /** caches json responses when set, see [com.arcxp.video.ArcMediaClient.enableCache] */
+    internal var cache: VideoMetadataCache? = null
+
+    /** makes call to endpoint(either normal or geo or virtual channel) for single uuid result, delivered on main */
     fun findByUuidApi(
         uuid: String,
         listener: ArcVideoStreamCallback,
         shouldUseVirtualChannel: Boolean = false
     ) {
-        when {
-            shouldUseVirtualChannel -> virtualChannelService.findByUuidVirtual(uuid)
-                .enqueue(object : Callback<ArcVideoStreamVirtualChannel> {
-                    override fun onResponse(
-                        call: Call<ArcVideoStreamVirtualChannel>,
-                        response: Response<ArcVideoStreamVirtualChannel>
-                    ) {
-                        if (response.isSuccessful) {
-                            listener.onVideoStreamVirtual(arcVideoStreamVirtualChannel = response.body())
-                        } else {
-                            handleError(response = response, listener = listener)
-                        }
-                    }
-
-                    override fun onFailure(
-                        call: Call<ArcVideoStreamVirtualChannel>,
-                        t: Throwable
-                    ) {
-                        listener.onError(
-                            ArcXPSDKErrorType.SOURCE_ERROR,
-                            application().getString(R.string.error_in_call_to_findbyuuidvirtual),
-                            t
-                        )
-                    }
-                })
-
-            else -> akamaiService.findByUuid(uuid)
-                .enqueue(object : Callback<ResponseBody> {
-                    override fun onResponse(
-                        call: Call<ResponseBody>,
-                        response: Response<ResponseBody>
-                    ) {
-                        if (response.isSuccessful) {
-                            val arcVideoResponse = ArcVideoResponse(null, null)
-
-                            //response.body().string() can only be accessed once, so we cache
-                            val result = response.body()!!.string()
-                            try {
-                                arcVideoResponse.arcTypeResponse =
-                                    fromJson(result, ArcTypeResponse::class.java)!!
-                                listener.onError(
-                                    type = ArcXPSDKErrorType.SOURCE_ERROR,
-                                    message = application().getString(
-                                        R.string.this_geo_restricted_content_is_not_allowed_in_region,
-                                        arcVideoResponse.arcTypeResponse!!.computedLocation.country ?: application().getString(R.string.unknown_country)
-                                    ),
-                                    value = arcVideoResponse.arcTypeResponse
-                                )
-                            } catch (e: Exception) {
-                                try {
-                                    arcVideoResponse.arcVideoStreams = fromJsonList(
-                                        result,
-                                        ArcVideoStream::class.java
-                                    )!!
-                                    listener.onVideoResponse(arcVideoResponse = arcVideoResponse)
-                                    listener.onVideoStream(videos = arcVideoResponse.arcVideoStreams)
-                                } catch (e: Exception) {
-                                    listener.onError(
-                                        type = ArcXPSDKErrorType.SOURCE_ERROR,
-                                        message = application().getString(R.string.bad_result_from_geo_restricted_video_call_to_findbyuuid),
-                                        value = e
-                                    )
-                                }
-                            }
-                        } else {
-                            handleError(response = response, listener = listener)
-                        }
-                    }
+        mainScope.launch {
+            when {
+                shouldUseVirtualChannel -> when (val result = findByUuidVirtualSuspend(uuid = uuid)) {
+                    is Success -> listener.onVideoStreamVirtual(arcVideoStreamVirtualChannel = result.success)
+                    is Failure -> listener.onError(result.failure)
+                }
 
-                    override fun onFailure(call: Call<ResponseBody>, t: Throwable) {
-                        listener.onError(
-                            ArcXPSDKErrorType.SOURCE_ERROR,
-                            application().getString(R.string.error_in_geo_restricted_video_call_to_findbyuuid),
-                            t
-                        )
+                else -> when (val result = findByUuidSuspend(uuid = uuid)) {
+                    is Success -> {
+                        listener.onVideoResponse(arcVideoResponse = result.success)
+                        listener.onVideoStream(videos = result.success.arcVideoStreams)
                     }
-                })
+                    is Failure -> listener.onError(result.failure)
+                }
+            }
         }
     }
 
-    /** makes call to endpoint(either normal or geo or virtual channel) for single uuid result */
+    /** makes call to endpoint(either normal or geo or virtual channel) for single uuid result, delivered on main */
     fun findByUuidApiAsJson(
         uuid: String,
         listener: ArcVideoStreamCallback,
         shouldUseVirtualChannel: Boolean = false
     ) {
-        when {
-            shouldUseVirtualChannel -> virtualChannelService.findByUuidVirtualAsJson(uuid)
-                .enqueue(object : Callback<ResponseBody> {
-                    override fun onResponse(
-                        call: Call<ResponseBody>,
-                        response: Response<ResponseBody>
-                    ) {
-                        if (response.isSuccessful) {
-                            listener.onJsonResult(json = response.body()!!.string())
-                        } else {
-                            handleError(response = response, listener = listener)
-                        }
-                    }
+        mainScope.launch {
+            when (val result = findByUuidAsJsonSuspend(uuid = uuid, shouldUseVirtualChannel = shouldUseVirtualChannel)) {
+                is Success -> listener.onJsonResult(json = result.success)
+                is Failure -> listener.onError(result.failure)
+            }
+        }
+    }
 
-                    override fun onFailure(
-                        call: Call<ResponseBody>,
-                        t: Throwable
-                    ) {
-                        listener.onError(
-                            ArcXPSDKErrorType.SOURCE_ERROR,
-                            application().getString(R.string.error_in_call_to_findbyuuidvirtual),
-                            t
-                        )
-                    }
-                })
+    /** makes call to base endpoint for playlist result, delivered on main */
+    fun findByPlaylistApi(name: String, count: Int, listener: ArcVideoPlaylistCallback) {
+        mainScope.launch {
+            when (val result = findByPlaylistSuspend(name = name, count = count)) {
+                is Success -> listener.onVideoPlaylist(result.success)
+                is Failure -> listener.onError(result.failure)
+            }
+        }
+    }
 
+    /** makes call to base endpoint for playlist result, delivered on main */
+    fun findByPlaylistApiAsJson(name: String, count: Int, listener: ArcVideoPlaylistCallback) {
+        mainScope.launch {
+            when (val result = findByPlaylistAsJsonSuspend(name = name, count = count)) {
+                is Success -> listener.onJsonResult(json = result.success)
+                is Failure -> listener.onError(result.failure)
+            }
+        }
+    }
 
-            else -> akamaiService.findByUuidAsJson(uuid)
-                .enqueue(object : Callback<ResponseBody> {
-                    override fun onResponse(
-                        call: Call<ResponseBody>,
-                        response: Response<ResponseBody>
-                    ) {
-                        if (response.isSuccessful) {
+    /**
+     * makes call to geo restricted endpoint for single uuid result, the response is read and parsed on [ioDispatcher]
+     * @return [Success] with the streams, or [Failure] with the [ArcTypeResponse] as value when geo restricted
+     */
+    suspend fun findByUuidSuspend(uuid: String): Either<ArcXPException, ArcVideoResponse> {
+        val json = if (cache == null) {
+            akamaiService.findByUuid(uuid).fetch(
+                type = ArcXPSDKErrorType.SOURCE_ERROR,
+                failureMessage = R.string.error_in_geo_restricted_video_call_to_findbyuuid
+            ) { Success(it.body()!!.string()) }
+        } else {
+            findByUuidAsJsonSuspend(uuid = uuid)
+        }
+        return when (json) {
+            is Success -> withContext(ioDispatcher) { decodeVideoResponse(json = json.success) }
+            is Failure -> json
+        }
+    }
 
-                            listener.onJsonResult(json = response.body()!!.string())
-                        } else {
-                            handleError(response = response, listener = listener)
-                        }
-                    }
+    /** resolves several videos concurrently, results are delivered on main in the order of [uuids] */
+    fun findByUuidsApi(
+        uuids: List<String>,
+        listener: ArcVideoStreamCallback,
+        parallelism: Int = VIDEO_BATCH_PARALLELISM
+    ) {
+        mainScope.launch {
+            listener.onVideoStreams(results = findByUuidsSuspend(uuids = uuids, parallelism = parallelism))
+        }
+    }
 
-                    override fun onFailure(call: Call<ResponseBody>, t: Throwable) {
-                        listener.onError(
-                            ArcXPSDKErrorType.SOURCE_ERROR,
-                            application().getString(R.string.error_in_geo_restricted_video_call_to_findbyuuid),
-                            value = t
-                        )
-                    }
-                })
+    /**
+     * resolves several videos concurrently, at most [parallelism] requests at a time, sharing [cache] when set
+     * @return one result per uuid in the order of [uuids], so a geo restricted or failed video doesn't fail the batch
+     */
+    suspend fun findByUuidsSuspend(
+        uuids: List<String>,
+        parallelism: Int = VIDEO_BATCH_PARALLELISM
+    ): List<Either<ArcXPException, ArcVideoResponse>> = coroutineScope {
+        val permits = Semaphore(permits = parallelism.coerceAtLeast(1))
+        val results = uuids.distinct()
+            .map { uuid -> async { uuid to permits.withPermit { findByUuidCatching(uuid = uuid) } } }
+            .awaitAll()
+            .toMap()
+        uuids.map { results.getValue(it) }
+    }
 
+    // an exception is this uuid's failure rather than cancelling the rest of the batch
+    private suspend fun findByUuidCatching(uuid: String): Either<ArcXPException, ArcVideoResponse> =
+        try {
+            findByUuidSuspend(uuid = uuid)
+        } catch (e: CancellationException) {
+            throw e
+        } catch (e: Exception) {
+            Failure(
+                ArcXPException(
+                    type = ArcXPSDKErrorType.SOURCE_ERROR,
+                    message = application().getString(R.string.error_in_geo_restricted_video_call_to_findbyuuid),
+                    value = e
+                )
+            )
         }
 
-    }
+    /** makes call to virtual channel endpoint for single uuid result */
+    suspend fun findByUuidVirtualSuspend(uuid: String): Either<ArcXPException, ArcVideoStreamVirtualChannel?> =
+        if (cache == null) {
+            virtualChannelService.findByUuidVirtual(uuid).fetch(
+                type = ArcXPSDKErrorType.SOURCE_ERROR,
+                failureMessage = R.string.error_in_call_to_findbyuuidvirtual
+            ) { Success(it.body()) }
+        } else {
+            findByUuidAsJsonSuspend(uuid = uuid, shouldUseVirtualChannel = true).parse(
+                type = ArcXPSDKErrorType.SOURCE_ERROR,
+                failureMessage = R.string.error_in_call_to_findbyuuidvirtual
+            ) { fromJson(it, ArcVideoStreamVirtualChannel::class.java) }
+        }
+
+    /** makes call to endpoint(either geo or virtual channel) for single uuid result as json */
+    suspend fun findByUuidAsJsonSuspend(
+        uuid: String,
+        shouldUseVirtualChannel: Boolean = false
+    ): Either<ArcXPException, String> =
+        when {
+            shouldUseVirtualChannel -> loadJson(key = VideoMetadataCache.virtualChannelKey(uuid)) {
+                virtualChannelService.findByUuidVirtualAsJson(uuid).fetch(
+                    type = ArcXPSDKErrorType.SOURCE_ERROR,
+                    failureMessage = R.string.error_in_call_to_findbyuuidvirtual,
+                    parse = ::jsonWithExpires
+                )
+            }
+
+            // a restriction answer depends on where the device is, so only streams are cached
+            else -> loadJson(
+                key = VideoMetadataCache.uuidKey(uuid),
+                shouldCache = { !VideoResponseDecoder.isGeoRestricted(json = it) }
+            ) {
+                akamaiService.findByUuidAsJson(uuid).fetch(
+                    type = ArcXPSDKErrorType.SOURCE_ERROR,
+                    failureMessage = R.string.error_in_geo_restricted_video_call_to_findbyuuid,
+                    parse = ::jsonWithExpires
+                )
+            }
+        }
 
     /** makes call to base endpoint for playlist result */
-    fun findByPlaylistApi(name: String, count: Int, listener: ArcVideoPlaylistCallback) {
-        akamaiService.findByPlaylist(name = name, count = count)
-            .enqueue(object : Callback<ArcVideoPlaylist> {
-                override fun onResponse(
-                    call: Call<ArcVideoPlaylist>,
-                    response: Response<ArcVideoPlaylist>
-                ) {
-                    if (response.isSuccessful) {
-                        listener.onVideoPlaylist(response.body())
-                    } else {
-                        listener.onError(
-                            type = ArcXPSDKErrorType.SERVER_ERROR,
-                            message = formatErrorMessage(response = response),
-                            value = response
-                        )
-                    }
-                }
+    suspend fun findByPlaylistSuspend(name: String, count: Int): Either<ArcXPException, ArcVideoPlaylist?> =
+        if (cache == null) {
+            akamaiService.findByPlaylist(name = name, count = count).fetch(
+                type = ArcXPSDKErrorType.SERVER_ERROR,
+                failureMessage = R.string.error_in_call_to_findbyplaylist
+            ) { Success(it.body()) }
+        } else {
+            findByPlaylistAsJsonSuspend(name = name, count = count).parse(
+                type = ArcXPSDKErrorType.SERVER_ERROR,
+                failureMessage = R.string.error_in_call_to_findbyplaylist
+            ) { fromJson(it, ArcVideoPlaylist::class.java) }
+        }
 
-                override fun onFailure(call: Call<ArcVideoPlaylist>, t: Throwable) {
-                    listener.onError(
-                        ArcXPSDKErrorType.SERVER_ERROR,
-                        application().getString(R.string.error_in_call_to_findbyplaylist),
-                        t
-                    )
-                }
-            })
+    /** makes call to base endpoint for playlist result as json */
+    suspend fun findByPlaylistAsJsonSuspend(name: String, count: Int): Either<ArcXPException, String> =
+        loadJson(key = VideoMetadataCache.playlistKey(name = name, count = count)) {
+            akamaiService.findByPlaylistAsJson(name = name, count = count).fetch(
+                type = ArcXPSDKErrorType.SERVER_ERROR,
+                failureMessage = R.string.error_in_call_to_findbyplaylist,
+                parse = ::jsonWithExpires
+            )
+        }
+
+    /** removes the cached video and virtual channel responses for [uuid] */
+    fun invalidateUuid(uuid: String) {
+        cache?.invalidate(key = VideoMetadataCache.uuidKey(uuid))
+        cache?.invalidate(key = VideoMetadataCache.virtualChannelKey(uuid))
     }
 
-    /** makes call to base endpoint for playlist result */
-    fun findByPlaylistApiAsJson(name: String, count: Int, listener: ArcVideoPlaylistCallback) {
-        akamaiService.findByPlaylistAsJson(name = name, count = count)
-            .enqueue(object : Callback<ResponseBody> {
-                override fun onResponse(
-                    call: Call<ResponseBody>,
-                    response: Response<ResponseBody>
-                ) {
-                    if (response.isSuccessful) {
-                        listener.onJsonResult(json = response.body()!!.string())
-                    } else {
-                        listener.onError(
-                            type = ArcXPSDKErrorType.SERVER_ERROR,
-                            message = formatErrorMessage(response = response),
-                            value = response
-                        )
-                    }
-                }
+    /** removes the cached responses of playlist [name], whatever count they were requested with */
+    fun invalidatePlaylist(name: String) {
+        cache?.invalidateIf { VideoMetadataCache.isPlaylistKey(key = it, name = name) }
+    }
 
-                override fun onFailure(call: Call<ResponseBody>, t: Throwable) {
-                    listener.onError(
-                        ArcXPSDKErrorType.SERVER_ERROR,
-                        application().getString(R.string.error_in_call_to_findbyplaylist),
-                        t
-                    )
-                }
-            })
+    /** removes every cached response */
+    fun invalidateAll() {
+        cache?.invalidateAll()
     }
 
-    suspend fun findLiveSuspend(): Either<ArcXPException, List<VideoVO>> {
+    suspend fun findLiveSuspend(): Either<ArcXPException, List<VideoVO>> = withContext(ioDispatcher) {
         try {
             val response = baseService.findLiveSuspend()
-            return if (response.isSuccessful) {
+            return@withContext if (response.isSuccessful) {
 
                 val json = response.body()!!.string()
                 val result = fromJson(
@@ -306,8 +345,10 @@ class VideoApiManager(
                     )
                 )
             }
+        } catch (e: CancellationException) {
+            throw e
         } catch (e: Exception) {
-            return Failure(
+            return@withContext Failure(
                 ArcXPException(
                     type = ArcXPSDKErrorType.SERVER_ERROR,
                     message = application().getString(R.string.find_live_exception)
@@ -317,9 +358,9 @@ class VideoApiManager(
 
     }
 
-    suspend fun findLiveSuspendAsJson(): Either<ArcXPException, String> {
+    suspend fun findLiveSuspendAsJson(): Either<ArcXPException, String> = withContext(ioDispatcher) {
         val response = baseService.findLiveSuspend()
-        return if (response.isSuccessful) {
+        if (response.isSuccessful) {
             Success(success = response.body()!!.string())
         } else {
             Failure(
@@ -332,57 +373,149 @@ class VideoApiManager(
 
     }
 
-    fun findLive(listener: ArcVideoStreamCallback) =
-        baseService.findLive().enqueue(object : Callback<List<VideoVO>> {
-            override fun onResponse(
-                call: Call<List<VideoVO>>,
-                response: Response<List<VideoVO>>
-            ) {
-                if (response.isSuccessful) {
-                    listener.onLiveVideos(response.body())
-                } else {
-                    listener.onError(
-                        type = ArcXPSDKErrorType.SERVER_ERROR,
-                        message = formatErrorMessage(response = response),
-                        value = response
-                    )
-                }
+    fun findLive(listener: ArcVideoStreamCallback) {
+        mainScope.launch {
+            when (val result = baseService.findLive().fetch(
+                type = ArcXPSDKErrorType.SERVER_ERROR,
+                failureMessage = R.string.find_live_failed
+            ) { Success(it.body()) }) {
+                is Success -> listener.onLiveVideos(result.success)
+                is Failure -> listener.onError(result.failure)
+            }
+        }
+    }
+
+    fun findLiveAsJson(listener: ArcVideoStreamCallback) {
+        mainScope.launch {
+            when (val result = baseService.findLiveAsJson().fetch(
+                type = ArcXPSDKErrorType.SERVER_ERROR,
+                failureMessage = R.string.find_live_failed
+            ) { Success(it.body()!!.string()) }) {
+                is Success -> listener.onJsonResult(json = result.success)
+                is Failure -> listener.onError(result.failure)
             }
+        }
+    }
 
-            override fun onFailure(call: Call<List<VideoVO>>, t: Throwable) {
-                listener.onError(
-                    ArcXPSDKErrorType.SERVER_ERROR,
-                    application().getString(R.string.find_live_failed),
-                    t
+    /**
+     * sends this call and hands a successful response to [parse] on [ioDispatcher],
+     * cancelling the calling coroutine cancels the http call
+     * @param type error type reported when the call itself or [parse] fails
+     * @param failureMessage message reported when the call itself or [parse] fails
+     */
+    private suspend fun <T : Any, R> Call<T>.fetch(
+        type: ArcXPSDKErrorType,
+        @StringRes failureMessage: Int,
+        parse: (Response<T>) -> Either<ArcXPException, R>
+    ): Either<ArcXPException, R> = withContext(ioDispatcher) {
+        fun failure(cause: Throwable) = Failure(
+            ArcXPException(
+                type = type,
+                message = application().getString(failureMessage),
+                value = cause
+            )
+        )
+        val response = await().getOrElse { return@withContext failure(cause = it) }
+        if (response.isSuccessful) {
+            try {
+                parse(response)
+            } catch (e: CancellationException) {
+                throw e
+            } catch (e: Exception) {
+                failure(cause = e)
+            }
+        } else {
+            Failure(
+                ArcXPException(
+                    type = ArcXPSDKErrorType.SERVER_ERROR,
+                    message = formatErrorMessage(response = response),
+                    value = response
                 )
+            )
+        }
+    }
+
+    // call failures are resumed as a value rather than thrown, so callers get the original exception
+    private suspend fun <T : Any> Call<T>.await(): Result<Response<T>> =
+        suspendCancellableCoroutine { continuation ->
+            continuation.invokeOnCancellation { cancel() }
+            enqueue(object : Callback<T> {
+                override fun onResponse(call: Call<T>, response: Response<T>) =
+                    continuation.resume(Result.success(response))
+
+                override fun onFailure(call: Call<T>, t: Throwable) =
+                    continuation.resume(Result.failure(t))
+            })
+        }
+
+    /**
+     * returns the json [fetch] loads, through [cache] when one is set so concurrent and repeated requests
+     * for [key] share a response until it expires. responses [shouldCache] rejects are shared but not kept
+     */
+    private suspend fun loadJson(
+        key: String,
+        shouldCache: (String) -> Boolean = { true },
+        fetch: suspend () -> Either<ArcXPException, Pair<String, String?>>
+    ): Either<ArcXPException, String> =
+        cache?.let { cache ->
+            withContext(ioDispatcher) { cache.load(key = key, shouldCache = shouldCache, fetch = fetch) }
+        }
+            ?: when (val result = fetch()) {
+                is Success -> Success(result.success.first)
+                is Failure -> result
             }
-        })
 
-    fun findLiveAsJson(listener: ArcVideoStreamCallback) =
-        baseService.findLiveAsJson().enqueue(object : Callback<ResponseBody> {
-            override fun onResponse(
-                call: Call<ResponseBody>,
-                response: Response<ResponseBody>
-            ) {
-                if (response.isSuccessful) {
-                    listener.onJsonResult(json = response.body()!!.string())
-                } else {
-                    listener.onError(
-                        type = ArcXPSDKErrorType.SERVER_ERROR,
-                        message = formatErrorMessage(response = response),
-                        value = response
+    private fun jsonWithExpires(response: Response<ResponseBody>): Either<ArcXPException, Pair<String, String?>> =
+        Success(response.body()!!.string() to response.headers()[expires])
+
+    /** parses a successful json result on [ioDispatcher], a parse error fails with [type] and [failureMessage] */
+    private suspend fun <R> Either<ArcXPException, String>.parse(
+        type: ArcXPSDKErrorType,
+        @StringRes failureMessage: Int,
+        parse: (String) -> R
+    ): Either<ArcXPException, R> = when (this) {
+        is Success -> withContext(ioDispatcher) {
+            try {
+                Success(parse(success))
+            } catch (e: Exception) {
+                Failure(
+                    ArcXPException(
+                        type = type,
+                        message = application().getString(failureMessage),
+                        value = e
                     )
-                }
+                )
             }
+        }
+
+        is Failure -> this
+    }
+
+    /** the geo restricted endpoint answers with an [ArcTypeResponse] when restricted, otherwise with the streams */
+    private fun decodeVideoResponse(json: String): Either<ArcXPException, ArcVideoResponse> =
+        when (val result = VideoResponseDecoder.decode(json = json)) {
+            is VideoResponseDecoder.Result.Streams ->
+                Success(ArcVideoResponse(arcTypeResponse = null, arcVideoStreams = result.streams))
 
-            override fun onFailure(call: Call<ResponseBody>, t: Throwable) {
-                listener.onError(
-                    ArcXPSDKErrorType.SERVER_ERROR,
-                    application().getString(R.string.find_live_failed),
-                    t
+            is VideoResponseDecoder.Result.GeoRestricted -> Failure(
+                ArcXPException(
+                    type = ArcXPSDKErrorType.SOURCE_ERROR,
+                    message = application().getString(
+                        R.string.this_geo_restricted_content_is_not_allowed_in_region,
+                        result.arcTypeResponse.computedLocation.country ?: application().getString(R.string.unknown_country)
+                    ),
+                    value = result.arcTypeResponse
                 )
-            }
-        })
+            )
+
+            is VideoResponseDecoder.Result.Malformed -> Failure(
+                ArcXPException(
+                    type = ArcXPSDKErrorType.SOURCE_ERROR,
+                    message = application().getString(R.string.bad_result_from_geo_restricted_video_call_to_findbyuuid),
+                    value = result.cause
+                )
+            )
+        }
 
     private fun <T : Any> formatErrorMessage(response: Response<T>) =
         "${response.code()}: ${
@@ -394,11 +527,9 @@ class VideoApiManager(
             }
         }"
 
-    private fun <T : Any> handleError(response: Response<T>, listener: ArcVideoStreamCallback) {
-        listener.onError(
-            type = ArcXPSDKErrorType.SERVER_ERROR,
-            message = formatErrorMessage(response = response),
-            value = response
-        )
-    }
-}
\ No newline at end of file
+    private fun ArcVideoStreamCallback.onError(error: ArcXPException) =
+        onError(type = error.type ?: ArcXPSDKErrorType.SERVER_ERROR, message = error.message.orEmpty(), value = error.value)
+
+    private fun ArcVideoPlaylistCallback.onError(error: ArcXPException) =
+        onError(type = error.type ?: ArcXPSDKErrorType.SERVER_ERROR, message = error.message.orEmpty(), value = error.value)
+}
@@ -0,0 +1,15 @@
+package com.arcxp.video.listeners
+
+import androidx.annotation.Keep
+
+/**
+ * reports reads served from the media cache, see [com.arcxp.video.ArcXPVideoConfig.Builder.setMediaCache]
+ */
+@Keep
+fun interface ArcMediaCacheListener {
+    /**
+     * @param cachedBytesRead bytes read from the cache instead of the network since the last report
+     * @param cacheSizeBytes current size of the cache
+     */
+    fun onCachedBytesRead(cachedBytesRead: Long, cacheSizeBytes: Long)
+}
@@ -3,6 +3,7 @@ package com.arcxp.video.model
 import androidx.annotation.Keep
 import com.arcxp.video.ArcXPVideoConfig
 import com.arcxp.video.ArcXPVideoConfig.CCStartMode
+import com.arcxp.video.util.BandwidthEstimate
 import androidx.media3.common.C
 
 @Keep
@@ -184,7 +185,14 @@ class ArcVideo(
         }
 
         fun setVideoStream(stream: ArcVideoStream, config: ArcXPVideoConfig): Builder {
-            bestStream = stream.findBestStream(config.getPreferredStreamType(), config.maxBitRate)
+            val targetBitRate = BandwidthEstimate.targetBitRate(config)
+            // a target below the max bit rate came from the measured bandwidth, when it is below every
+            // rendition start at the lowest one rather than switching stream types
+            bestStream = stream.findBestStream(
+                config.getPreferredStreamType(),
+                targetBitRate,
+                fallBackToLowest = targetBitRate != config.maxBitRate
+            )
             id = bestStream!!.url.replace("\\", "")
             uuid = stream.uuid
             if (stream.adTagUrl == null) {
@@ -98,11 +98,14 @@ public data class ArcVideoStream(  //TODO check nullability for items of this cl
      *
      * @param preferredtype Stream type to try to use
      * @param preferredbitrate Bit rate to try to use
+     * @param fallBackToLowest when every stream of a type is above [preferredbitrate], use the lowest of that type
+     * instead of moving on to the next type. for a measured bandwidth target, which is a starting point rather than a cap
      * @return [ArcVideoStream] object
      */
     fun findBestStream(
         preferredtype: ArcXPVideoConfig.PreferredStreamType,
-        preferredbitrate: Int
+        preferredbitrate: Int,
+        fallBackToLowest: Boolean = false
     ): Stream? {
         if (streams == null) {
             return null
@@ -129,13 +132,18 @@ public data class ArcVideoStream(  //TODO check nullability for items of this cl
                 }
             }
         }
+        if (bestMatchStream == null && fallBackToLowest) {
+            bestMatchStream = streams
+                .filter { preferredtype.getPreferredStreamType() == it.streamType && it.bitrate != null }
+                .minByOrNull { it.bitrate!! }
+        }
         if (bestMatchStream == null) {
             val nextType = preferredtype.next()
             //make sure we haven't looped all the way back around to the beginning.
             if (nextType != ArcXPVideoConfig.PreferredStreamType.HLS) {
                 //If we haven't found a winner yet then use recursion to call the algorithm again
                 //but this time use the next preferred type in the list.
-                bestMatchStream = findBestStream(nextType, preferredbitrate)
+                bestMatchStream = findBestStream(nextType, preferredbitrate, fallBackToLowest)
             } else {
                 //If we have looped through everything and have not found a winner then I guess
                 //we will pick the first stream
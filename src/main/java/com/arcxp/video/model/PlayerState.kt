@@ -11,6 +11,7 @@ import androidx.media3.common.Timeline
 import androidx.media3.common.util.UnstableApi
 import androidx.media3.datasource.DataSource
 import androidx.media3.exoplayer.ExoPlayer
+import androidx.media3.exoplayer.PlayerMessage
 import androidx.media3.exoplayer.ima.ImaAdsLoader
 import androidx.media3.exoplayer.trackselection.DefaultTrackSelector
 import androidx.media3.session.MediaSession
@@ -73,14 +74,35 @@ internal class PlayerState(
 
     var adPlaying = false
     var adPaused = false
+
+    /* index in mVideos of the video appended to the local player ahead of time, see ArcXPVideoConfig.preloadNextVideoMs */
+    var mPreloadedVideoIndex: Int? = null
+    var mPreloadMessage: PlayerMessage? = null
     val mMediaDataSourceFactory: DataSource.Factory =
-        utils.createDefaultDataSourceFactory(mAppContext, config.userAgent)
+        utils.createDefaultDataSourceFactory(mAppContext, config.userAgent).let { upstream ->
+            utils.createCacheDataSourceFactory(upstream, config)?.let { cached ->
+                // live playlists change under the same url, so live streams never read from the cache
+                DataSource.Factory {
+                    if (mIsLive) upstream.createDataSource() else cached.createDataSource()
+                }
+            } ?: upstream
+        }
 
     fun incrementVideoIndex(positive: Boolean): Int {
         if (positive) ++currentVideoIndex else --currentVideoIndex
         return currentVideoIndex
     }
 
+    /**
+     * cancels a scheduled preload and forgets the preloaded video,
+     * call whenever the local player's media source is replaced
+     */
+    fun clearPreload() {
+        mPreloadMessage?.cancel()
+        mPreloadMessage = null
+        mPreloadedVideoIndex = null
+    }
+
     var currentPlayer: Player? = null
     var currentPlayView: View? = null
 
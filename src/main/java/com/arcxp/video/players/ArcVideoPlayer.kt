@@ -40,6 +40,7 @@ import com.arcxp.video.model.PlayerState
 import com.arcxp.video.model.TrackingType
 import com.arcxp.video.model.TrackingTypeData.TrackingErrorTypeData
 import com.arcxp.video.model.TrackingTypeData.TrackingVideoTypeData
+import com.arcxp.video.util.ExoPlayerPool
 import com.arcxp.video.util.PrefManager
 import com.arcxp.video.util.TrackingHelper
 import com.arcxp.video.util.Utils
@@ -146,6 +147,7 @@ internal class ArcVideoPlayer(
                 if (playerState.mLocalPlayerView!!.parent is ViewGroup) {
                     (playerState.mLocalPlayerView!!.parent as ViewGroup).removeView(playerState.mLocalPlayerView)
                 }
+                playerState.mLocalPlayerView!!.player = null
                 playerState.mLocalPlayerView = null
             } catch (_: Exception) {
             }
@@ -167,7 +169,10 @@ internal class ArcVideoPlayer(
         if (playerState.mLocalPlayer != null) {
             try {
                 playerState.mLocalPlayer!!.stop()
-                playerState.mLocalPlayer!!.release()
+                playerListener?.let { playerState.mLocalPlayer!!.removeListener(it) }
+                if (!ExoPlayerPool.recycle(playerState.mLocalPlayer!!, playerState.mTrackSelector, mConfig)) {
+                    playerState.mLocalPlayer!!.release()
+                }
                 playerState.mLocalPlayer = null
             } catch (_: Exception) {
             }
@@ -730,6 +735,7 @@ internal class ArcVideoPlayer(
     }
 
     fun playOnLocal() {
+        playerState.clearPreload()
         val contentMediaSource: MediaSource = captionsManager.createMediaSourceWithCaptions()!!
         var adsMediaSource: MediaSource? = null
         if (playerState.mVideo!!.shouldPlayAds && !TextUtils.isEmpty(playerState.mVideo!!.adTagUrl)) {
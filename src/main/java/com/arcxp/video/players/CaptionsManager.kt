@@ -9,6 +9,7 @@ import androidx.core.content.ContextCompat
 import com.arcxp.sdk.R
 import com.arcxp.video.ArcXPVideoConfig
 import com.arcxp.video.listeners.VideoListener
+import com.arcxp.video.model.ArcVideo
 import com.arcxp.video.model.ArcVideoSDKErrorType
 import com.arcxp.video.model.PlayerState
 import com.arcxp.video.util.PrefManager
@@ -132,19 +133,27 @@ internal class CaptionsManager(
         }
     }
 
-    fun createMediaSourceWithCaptions(): MediaSource? {
+    fun createMediaSourceWithCaptions(): MediaSource? = mediaSourceWithCaptions { playerState.mVideo }
+
+    /**
+     * creates the media source for [video] (not necessarily the current one), merged with its subtitles when it has any
+     */
+    fun createMediaSourceWithCaptions(video: ArcVideo): MediaSource? = mediaSourceWithCaptions { video }
+
+    private fun mediaSourceWithCaptions(videoToPlay: () -> ArcVideo?): MediaSource? {
         try {
-            playerState.mVideo?.id.let { createMediaSource(utils.createMediaItem(it)) }
+            val video = videoToPlay()
+            video?.id.let { createMediaSource(utils.createMediaItem(it)) }
                 ?.let { videoMediaSource ->
 
-                    if (!TextUtils.isEmpty(playerState.mVideo!!.subtitleUrl)) {
+                    if (!TextUtils.isEmpty(video!!.subtitleUrl)) {
                         val config = utils.createSubtitleConfig(
-                            playerState.mVideo!!.id,
-                            playerState.mVideo!!.subtitleUrl
+                            video.id,
+                            video.subtitleUrl
                         )
                         val singleSampleSource =
                             utils.createSingleSampleMediaSourceFactory(playerState.mMediaDataSourceFactory)
-                                .setTag(playerState.mVideo!!.id)
+                                .setTag(video.id)
                                 .createMediaSource(config, C.TIME_UNSET)
                         return utils.createMergingMediaSource(videoMediaSource, singleSampleSource)
                     }
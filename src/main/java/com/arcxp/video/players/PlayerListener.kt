@@ -3,6 +3,7 @@ package com.arcxp.video.players
 import android.annotation.SuppressLint
 import android.app.Activity
 import android.net.Uri
+import android.os.Looper
 import android.text.TextUtils
 import android.util.Log
 import android.util.Pair
@@ -11,6 +12,7 @@ import android.view.View.INVISIBLE
 import android.view.View.VISIBLE
 import android.view.ViewGroup
 import androidx.media3.cast.CastPlayer
+import androidx.media3.common.C
 import androidx.media3.common.PlaybackException
 import androidx.media3.common.PlaybackParameters
 import androidx.media3.common.Player
@@ -177,6 +179,7 @@ internal class PlayerListener(
 
                         if (!playerState.mLocalPlayer!!.isPlayingAd) {
                             captionsManager.initVideoCaptions()
+                            schedulePreload()
                         }
                     } else {
                         playerState.mLocalPlayerView!!.keepScreenOn = false
@@ -281,6 +284,13 @@ internal class PlayerListener(
     ) {
         if (reason == Player.DISCONTINUITY_REASON_AUTO_TRANSITION) {
             if (playerState.currentPlayer != null) {
+                if (oldPosition.mediaItemIndex != newPosition.mediaItemIndex) {
+                    val preloadedIndex = playerState.mPreloadedVideoIndex
+                    if (preloadedIndex != null) {
+                        startPreloadedVideo(preloadedIndex)
+                        return
+                    }
+                }
                 val latestWindowIndex: Int = playerState.currentPlayer!!.getCurrentWindowIndex()
                 try { //TODO this block seems to get trigger a lot, but seems to require a playlist to work/test
                     val videoData: TrackingVideoTypeData = utils.createTrackingVideoTypeData()
@@ -304,9 +314,93 @@ internal class PlayerListener(
 
 
 
+    /**
+     * schedules [preloadNextVideo] [ArcXPVideoConfig.preloadNextVideoMs] before the end of the current video,
+     * once per video, when preloading is enabled and the playlist has another video
+     */
+    private fun schedulePreload() {
+        if (mConfig.preloadNextVideoMs <= 0) return
+        val player = playerState.mLocalPlayer ?: return
+        if (playerState.mIsLive || playerState.mPreloadMessage != null || playerState.mPreloadedVideoIndex != null
+            || !playerStateHelper.haveMoreVideosToPlay()
+        ) return
+        val duration = player.duration
+        if (duration == C.TIME_UNSET) return
+        playerState.mPreloadMessage = player.createMessage { _, _ -> preloadNextVideo() }
+            .setLooper(Looper.getMainLooper())
+            .setPosition(
+                player.currentMediaItemIndex,
+                (duration - mConfig.preloadNextVideoMs).coerceAtLeast(0)
+            )
+            .send()
+    }
+
+    /**
+     * appends the next playlist video to the local player, so the player prepares and buffers it
+     * while the current video finishes and moves on to it without stopping.
+     * videos with client side ads or live videos are left to start normally once the current one has ended
+     */
+    fun preloadNextVideo() {
+        playerState.mPreloadMessage = null
+        val index = playerState.currentVideoIndex + 1
+        val next = playerState.mVideos?.getOrNull(index) ?: return
+        if (isCasting() || playerState.mPreloadedVideoIndex != null || next.isLive
+            || (next.shouldPlayAds && !TextUtils.isEmpty(next.adTagUrl))
+        ) return
+        captionsManager.createMediaSourceWithCaptions(next)?.let {
+            playerState.mLocalPlayer?.addMediaSource(it) ?: return
+            playerState.mPreloadedVideoIndex = index
+        }
+    }
+
+    /**
+     * the player has moved on to the preloaded video at [index] of mVideos,
+     * finishes the previous video the way [onPlayerStateChanged] does on STATE_ENDED and starts tracking the new one
+     */
+    private fun startPreloadedVideo(index: Int) {
+        val player = playerState.mLocalPlayer!!
+        val completedData = utils.createTrackingVideoTypeData()
+        completedData.percentage = 100
+        completedData.arcVideo = playerState.mVideo
+        mListener.onTrackingEvent(TrackingType.ON_PLAY_COMPLETED, completedData)
+        playerState.videoTrackingSub?.unsubscribe()
+        playerState.videoTrackingSub = null
+        playerState.mVideoTracker?.reset()
+        mListener.setNoPosition(playerState.mVideoId)
+        trackingHelper.onPlaybackEnd()
+
+        playerState.clearPreload()
+        playerState.currentVideoIndex = index
+        val video = playerState.mVideos!![index]
+        playerState.mVideo = video
+        playerState.mVideoId = video.id
+        playerState.mHeadline = video.headline
+        playerState.mShareUrl = video.shareUrl
+        // the finished video stays first in the player's list until it is removed here
+        player.removeMediaItem(0)
+        playerState.mVideoTracker = getInstance(
+            mListener,
+            player,
+            trackingHelper,
+            playerState.mIsLive,
+            mConfig.activity!!
+        )
+        subscribe()
+        captionsManager.initVideoCaptions()
+        trackingHelper.initVideo(video.id.orEmpty())
+        trackingHelper.onPlaybackStart()
+        val startedData = utils.createTrackingVideoTypeData()
+        startedData.percentage = 0
+        startedData.position = 0L
+        startedData.arcVideo = video
+        playerStateHelper.onVideoEvent(TrackingType.ON_PLAY_STARTED, startedData)
+        schedulePreload()
+    }
+
     fun playVideoAtIndex(indexInput: Int) {
         var modifiedIndex = indexInput
         try {
+            playerState.clearPreload()
             if (playerState.mVideos?.isNotEmpty() == true) {
                 modifiedIndex = modifiedIndex.coerceIn(0, playerState.mVideos!!.size - 1)
                 if (!playerState.mIsFullScreen) {
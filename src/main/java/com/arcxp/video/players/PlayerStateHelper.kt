@@ -32,6 +32,7 @@ import com.arcxp.video.model.PlayerState
 import com.arcxp.video.model.TrackingType
 import com.arcxp.video.model.TrackingTypeData
 import com.arcxp.video.model.TrackingTypeData.TrackingVideoTypeData
+import com.arcxp.video.util.ExoPlayerPool
 import com.arcxp.video.util.PrefManager
 import com.arcxp.video.util.TrackingHelper
 import com.arcxp.video.util.Utils
@@ -105,8 +106,11 @@ internal class PlayerStateHelper(
 
 
     fun initLocalPlayer() {
-        playerState.mTrackSelector = utils.createDefaultTrackSelector()
-        val exoPlayer: ExoPlayer = utils.createExoPlayer(playerState.mTrackSelector)
+        val config = playerState.config
+        // the pool stays empty unless a config enabled it with setPlayerPoolSize
+        val pooled = ExoPlayerPool.acquire(config.bufferConfig, config.useBandwidthEstimate)
+        playerState.mTrackSelector = pooled?.trackSelector ?: utils.createDefaultTrackSelector()
+        val exoPlayer: ExoPlayer = pooled?.player ?: utils.createExoPlayer(playerState.mTrackSelector, config)
         playerState.mediaSession = DependencyFactory.createMediaSession(
             playerState.config.activity!!.applicationContext,
             exoPlayer
@@ -0,0 +1,88 @@
+package com.arcxp.video.util
+
+import android.content.Context
+import android.os.Handler
+import android.os.Looper
+import androidx.media3.common.C
+import androidx.media3.common.util.NetworkTypeObserver
+import androidx.media3.common.util.UnstableApi
+import androidx.media3.exoplayer.upstream.DefaultBandwidthMeter
+import com.arcxp.video.ArcXPVideoConfig
+
+/**
+ * BandwidthEstimate keeps the measured bandwidth per network type between sessions
+ *
+ * every player shares one [DefaultBandwidthMeter] seeded with the estimates saved by earlier sessions,
+ * so a new session doesn't start from the generic per country defaults. each bandwidth sample updates the
+ * saved estimate for the network type the device is on
+ */
+@UnstableApi
+internal object BandwidthEstimate {
+
+    private const val KEY_PREFIX = "prefBandwidthEstimate_"
+
+    /* only this share of the estimate is counted on, the same margin ExoPlayer's adaptive track selection keeps */
+    private const val BANDWIDTH_FRACTION = 0.7
+
+    private val networkTypes = intArrayOf(
+        C.NETWORK_TYPE_WIFI,
+        C.NETWORK_TYPE_ETHERNET,
+        C.NETWORK_TYPE_2G,
+        C.NETWORK_TYPE_3G,
+        C.NETWORK_TYPE_4G,
+        C.NETWORK_TYPE_5G_NSA,
+        C.NETWORK_TYPE_5G_SA,
+        C.NETWORK_TYPE_CELLULAR_UNKNOWN,
+        C.NETWORK_TYPE_OTHER
+    )
+
+    private var meter: DefaultBandwidthMeter? = null
+
+    private fun key(networkType: Int) = "$KEY_PREFIX$networkType"
+
+    private fun currentNetworkType(context: Context) = NetworkTypeObserver.getInstance(context).networkType
+
+    /**
+     * @return the shared bandwidth meter, seeded with the saved estimates the first time it is used
+     */
+    @Synchronized
+    fun meter(context: Context): DefaultBandwidthMeter = meter ?: context.applicationContext.let { appContext ->
+        val builder = DefaultBandwidthMeter.Builder(appContext)
+        for (networkType in networkTypes) {
+            val saved = PrefManager.getLong(appContext, key(networkType), 0)
+            if (saved > 0) builder.setInitialBitrateEstimate(networkType, saved)
+        }
+        builder.build().also {
+            it.addEventListener(Handler(Looper.getMainLooper())) { _, _, bitrateEstimate ->
+                save(appContext, bitrateEstimate)
+            }
+            meter = it
+        }
+    }
+
+    /**
+     * saves [bitrateEstimate], in bits per second, for the network type the device is on
+     */
+    fun save(context: Context, bitrateEstimate: Long) {
+        PrefManager.saveLong(context, key(currentNetworkType(context)), bitrateEstimate)
+    }
+
+    /**
+     * @return the saved estimate for the network type the device is on in bits per second, or null if none was measured
+     */
+    fun measured(context: Context): Long? =
+        PrefManager.getLong(context, key(currentNetworkType(context)), 0).takeIf { it > 0 }
+
+    /**
+     * picks the bit rate, in kbps like [com.arcxp.video.model.Stream.bitrate], to start a video at.
+     * with [ArcXPVideoConfig.useBandwidthEstimate] this is the measured throughput, capped by
+     * [ArcXPVideoConfig.maxBitRate] when one is set, otherwise it is the max bit rate
+     */
+    fun targetBitRate(config: ArcXPVideoConfig): Int {
+        if (!config.useBandwidthEstimate) return config.maxBitRate
+        val context = config.activity?.applicationContext ?: return config.maxBitRate
+        val measuredKbps = measured(context)?.let { (it * BANDWIDTH_FRACTION / 1000).toInt() }
+            ?: return config.maxBitRate
+        return if (config.maxBitRate > 0) minOf(measuredKbps, config.maxBitRate) else measuredKbps
+    }
+}
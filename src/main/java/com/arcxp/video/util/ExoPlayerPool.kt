@@ -0,0 +1,92 @@
+package com.arcxp.video.util
+
+import android.content.ComponentCallbacks2
+import android.content.res.Configuration
+import androidx.media3.common.PlaybackParameters
+import androidx.media3.common.Player
+import androidx.media3.common.util.UnstableApi
+import androidx.media3.exoplayer.ExoPlayer
+import androidx.media3.exoplayer.trackselection.DefaultTrackSelector
+import com.arcxp.video.ArcXPVideoConfig
+
+/**
+ * ExoPlayerPool keeps released local players, with their track selectors, for the next player session to reuse
+ *
+ * building an [ExoPlayer] allocates its renderers and playback thread, which dominates time to first frame
+ * when users flip through many short clips. a recycled player is stopped and reset to defaults, and idle
+ * players are released once memory is trimmed. players are created on the main looper, so the pool is
+ * only used from the main thread
+ */
+@UnstableApi
+internal object ExoPlayerPool : ComponentCallbacks2 {
+
+    class Entry(
+        val player: ExoPlayer,
+        val trackSelector: DefaultTrackSelector,
+        val bufferConfig: ArcXPVideoConfig.BufferConfig? = null,
+        val useBandwidthEstimate: Boolean = false
+    )
+
+    private val idle = ArrayDeque<Entry>()
+    private var registered = false
+
+    val size get() = idle.size
+
+    /**
+     * a player's load control and bandwidth meter are fixed once built, so only players built the same way are reused
+     * @param bufferConfig the buffering the session was configured with
+     * @param useBandwidthEstimate whether the session measures bandwidth with the shared estimate
+     * @return an idle player built with [bufferConfig] and [useBandwidthEstimate] ready for a new session, or null when there is none
+     */
+    fun acquire(bufferConfig: ArcXPVideoConfig.BufferConfig?, useBandwidthEstimate: Boolean): Entry? =
+        idle.indexOfLast { it.bufferConfig == bufferConfig && it.useBandwidthEstimate == useBandwidthEstimate }
+            .takeIf { it >= 0 }
+            ?.let { idle.removeAt(it) }
+
+    /**
+     * resets [player] and keeps it for reuse when fewer than [ArcXPVideoConfig.playerPoolSize] players are idle
+     * @return true if the pool took the player, otherwise the caller still owns and should release it
+     */
+    fun recycle(player: ExoPlayer, trackSelector: DefaultTrackSelector?, config: ArcXPVideoConfig): Boolean {
+        if (config.playerPoolSize <= 0 || trackSelector == null || idle.size >= config.playerPoolSize) return false
+        val context = config.activity?.applicationContext ?: return false
+        player.stop()
+        player.clearMediaItems()
+        player.clearVideoSurface()
+        player.playWhenReady = false
+        player.volume = 1f
+        player.repeatMode = Player.REPEAT_MODE_OFF
+        player.playbackParameters = PlaybackParameters.DEFAULT
+        trackSelector.parameters = DefaultTrackSelector.Parameters.getDefaults(context)
+        idle.addLast(
+            Entry(
+                player = player,
+                trackSelector = trackSelector,
+                bufferConfig = config.bufferConfig,
+                useBandwidthEstimate = config.useBandwidthEstimate
+            )
+        )
+        if (!registered) {
+            context.registerComponentCallbacks(this)
+            registered = true
+        }
+        return true
+    }
+
+    /**
+     * releases every idle player
+     */
+    fun clear() {
+        while (idle.isNotEmpty()) {
+            idle.removeFirst().player.release()
+        }
+    }
+
+    override fun onTrimMemory(level: Int) {
+        if (level >= ComponentCallbacks2.TRIM_MEMORY_RUNNING_LOW) clear()
+    }
+
+    override fun onLowMemory() = clear()
+
+    override fun onConfigurationChanged(newConfig: Configuration) {}
+}
@@ -0,0 +1,30 @@
+package com.arcxp.video.util
+
+import android.content.Context
+import androidx.media3.common.util.UnstableApi
+import androidx.media3.database.StandaloneDatabaseProvider
+import androidx.media3.datasource.cache.Cache
+import androidx.media3.datasource.cache.LeastRecentlyUsedCacheEvictor
+import androidx.media3.datasource.cache.SimpleCache
+import com.arcxp.commons.util.Constants.MEDIA_CACHE_DIRECTORY
+import java.io.File
+
+/**
+ * MediaCache holds the disk cache of manifests and segments shared by every player
+ *
+ * only one [SimpleCache] may use a directory per process, so the first caller's size cap is kept
+ * and entries over it are evicted least recently used first
+ */
+@UnstableApi
+internal object MediaCache {
+
+    private var cache: SimpleCache? = null
+
+    @Synchronized
+    fun get(context: Context, maxBytes: Long): Cache =
+        cache ?: SimpleCache(
+            File(context.cacheDir, MEDIA_CACHE_DIRECTORY),
+            LeastRecentlyUsedCacheEvictor(maxBytes),
+            StandaloneDatabaseProvider(context)
+        ).also { cache = it }
+}
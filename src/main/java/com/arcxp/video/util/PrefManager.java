@@ -12,6 +12,8 @@ import android.content.SharedPreferences;
  * - getString: Retrieves a string value from the shared preferences.
  * - saveBoolean: Saves a boolean value to the shared preferences.
  * - getBoolean: Retrieves a boolean value from the shared preferences.
+ * - saveLong: Saves a long value to the shared preferences in the background.
+ * - getLong: Retrieves a long value from the shared preferences.
  *
  * Usage:
  * - Use the provided static methods to manage shared preferences.
@@ -27,6 +29,8 @@ import android.content.SharedPreferences;
  * @method getString Retrieves a string value from the shared preferences.
  * @method saveBoolean Saves a boolean value to the shared preferences.
  * @method getBoolean Retrieves a boolean value from the shared preferences.
+ * @method saveLong Saves a long value to the shared preferences in the background.
+ * @method getLong Retrieves a long value from the shared preferences.
  */
 public class PrefManager {
     private static final String PREFERENCE = "mapPreference";
@@ -57,4 +61,20 @@ public class PrefManager {
         SharedPreferences sharedPreferences = context.getSharedPreferences(PREFERENCE, Context.MODE_PRIVATE);
         return sharedPreferences.getBoolean(key, defaultValue);
     }
-}
\ No newline at end of file
+
+    /**
+     * applied rather than committed, for values saved often from the main thread
+     */
+    public static long saveLong(Context context, String key, long value) {
+        SharedPreferences sharedPreferences = context.getSharedPreferences(PREFERENCE, Context.MODE_PRIVATE);
+        SharedPreferences.Editor editor = sharedPreferences.edit();
+        editor.putLong(key, value);
+        editor.apply();
+        return value;
+    }
+
+    public static long getLong(Context context, String key, long defaultValue) {
+        SharedPreferences sharedPreferences = context.getSharedPreferences(PREFERENCE, Context.MODE_PRIVATE);
+        return sharedPreferences.getLong(key, defaultValue);
+    }
+}
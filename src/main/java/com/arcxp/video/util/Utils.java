@@ -34,12 +34,14 @@ import android.widget.TextView;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 
+import com.arcxp.commons.retrofit.NetworkController;
 import com.arcxp.commons.util.DependencyFactory;
 import com.arcxp.sdk.R;
 import com.arcxp.video.ArcVideoManager;
 import com.arcxp.video.ArcXPVideoConfig;
 import com.arcxp.video.cast.ArcCastManager;
 import com.arcxp.video.listeners.AdsLoadedListener;
+import com.arcxp.video.listeners.ArcMediaCacheListener;
 import com.arcxp.video.listeners.VideoListener;
 import com.arcxp.video.listeners.VideoPlayer;
 import com.arcxp.video.model.ArcVideo;
@@ -60,6 +62,7 @@ import com.google.ads.interactivemedia.pal.NonceRequest;
 import com.google.ads.interactivemedia.v3.api.AdEvent;
 
 import androidx.media3.common.C;
+import androidx.media3.exoplayer.DefaultLoadControl;
 import androidx.media3.exoplayer.ExoPlayer;
 import androidx.media3.common.Format;
 import androidx.media3.common.MediaItem;
@@ -77,6 +80,8 @@ import androidx.media3.ui.PlayerView;
 import androidx.media3.datasource.DataSource;
 import androidx.media3.datasource.DataSpec;
 import androidx.media3.datasource.DefaultDataSourceFactory;
+import androidx.media3.datasource.okhttp.OkHttpDataSource;
+import androidx.media3.datasource.cache.CacheDataSource;
 import androidx.media3.common.MimeTypes;
 import androidx.media3.common.util.Util;
 import com.google.android.gms.cast.framework.CastContext;
@@ -96,11 +101,13 @@ import java.util.Timer;
  * The class defines the following methods:
  * - isAmazonBuild: Checks if the device is an Amazon build.
  * - inputStreamToString: Converts an InputStream to a String.
- * - createExoPlayer: Creates an ExoPlayer instance with the specified track selector.
+ * - createExoPlayer: Creates an ExoPlayer instance with the specified track selector, buffering and bandwidth meter.
+ * - createLoadControl: Creates a DefaultLoadControl instance with the specified buffering thresholds.
  * - createPlayerView: Creates a PlayerView instance.
  * - createCastPlayer: Creates a CastPlayer instance with the specified CastContext.
  * - createPlayerControlView: Creates a PlayerControlView instance.
- * - createDefaultDataSourceFactory: Creates a DefaultDataSourceFactory instance with the specified user agent.
+ * - createDefaultDataSourceFactory: Creates a DefaultDataSourceFactory instance loading over the shared OkHttp client with the specified user agent.
+ * - createCacheDataSourceFactory: Wraps a DataSource.Factory in the shared media cache when it is enabled in the config.
  * - createAdsLoadedListener: Creates an AdsLoadedListener instance with the specified parameters.
  * - createSingleSampleMediaSourceFactory: Creates a SingleSampleMediaSource.Factory instance with the specified DataSource.Factory.
  * - createMergingMediaSource: Creates a MergingMediaSource instance with the specified media sources.
@@ -138,18 +145,20 @@ import java.util.Timer;
  *
  * Example:
  *
- * val exoPlayer = Utils(application).createExoPlayer(DefaultTrackSelector())
+ * val exoPlayer = Utils(application).createExoPlayer(DefaultTrackSelector(), config)
  * val playerView = Utils(application).createPlayerView()
  *
  * Note: This class is intended for internal use only and should not be exposed publicly.
  *
  * @method isAmazonBuild Checks if the device is an Amazon build.
  * @method inputStreamToString Converts an InputStream to a String.
- * @method createExoPlayer Creates an ExoPlayer instance with the specified track selector.
+ * @method createExoPlayer Creates an ExoPlayer instance with the specified track selector, buffering and bandwidth meter.
+ * @method createLoadControl Creates a DefaultLoadControl instance with the specified buffering thresholds.
  * @method createPlayerView Creates a PlayerView instance.
  * @method createCastPlayer Creates a CastPlayer instance with the specified CastContext.
  * @method createPlayerControlView Creates a PlayerControlView instance.
- * @method createDefaultDataSourceFactory Creates a DefaultDataSourceFactory instance with the specified user agent.
+ * @method createDefaultDataSourceFactory Creates a DefaultDataSourceFactory instance loading over the shared OkHttp client with the specified user agent.
+ * @method createCacheDataSourceFactory Wraps a DataSource.Factory in the shared media cache when it is enabled in the config.
  * @method createAdsLoadedListener Creates an AdsLoadedListener instance with the specified parameters.
  * @method createSingleSampleMediaSourceFactory Creates a SingleSampleMediaSource.Factory instance with the specified DataSource.Factory.
  * @method createMergingMediaSource Creates a MergingMediaSource instance with the specified media sources.
@@ -202,11 +211,33 @@ public class Utils {
         return scanner.hasNext() ? scanner.next() : "";
     }
 
-    public ExoPlayer createExoPlayer(DefaultTrackSelector trackSelector) {
-        return new ExoPlayer.Builder(application).setTrackSelector(trackSelector)
+    /**
+     * @param config supplies the buffering thresholds and whether to use the saved bandwidth estimate,
+     *               otherwise the ExoPlayer defaults are kept
+     */
+    public ExoPlayer createExoPlayer(DefaultTrackSelector trackSelector, @NonNull ArcXPVideoConfig config) {
+        ExoPlayer.Builder builder = new ExoPlayer.Builder(application).setTrackSelector(trackSelector)
                 .setSeekForwardIncrementMs(application.getResources().getInteger(R.integer.ff_inc))
                 .setSeekBackIncrementMs(application.getResources().getInteger(R.integer.rew_inc))
-                .setLooper(Looper.getMainLooper())
+                .setLooper(Looper.getMainLooper());
+        ArcXPVideoConfig.BufferConfig bufferConfig = config.getBufferConfig();
+        if (bufferConfig != null) {
+            builder.setLoadControl(createLoadControl(bufferConfig));
+        }
+        if (config.getUseBandwidthEstimate()) {
+            builder.setBandwidthMeter(BandwidthEstimate.INSTANCE.meter(application));
+        }
+        return builder.build();
+    }
+
+    public DefaultLoadControl createLoadControl(@NonNull ArcXPVideoConfig.BufferConfig bufferConfig) {
+        return new DefaultLoadControl.Builder()
+                .setBufferDurationsMs(
+                        bufferConfig.getMaxBufferMs(),
+                        bufferConfig.getMaxBufferMs(),
+                        bufferConfig.getStartupMs(),
+                        bufferConfig.getRebufferMs())
+                .setBackBuffer(bufferConfig.getBackBufferMs(), true)
                 .build();
     }
 
@@ -222,11 +253,44 @@ public class Utils {
         return new PlayerControlView(application);
     }
 
+    /**
+     * http loads go through the SDK's shared OkHttp client, so manifests and segments reuse its pooled
+     * (and HTTP/2 multiplexed) connections to the hosts the video api already talks to
+     */
     public DefaultDataSourceFactory createDefaultDataSourceFactory(Context mAppContext, String userAgent) {
         return new DefaultDataSourceFactory(mAppContext,
-                userAgent == null || userAgent.isEmpty() ?
-                        Util.getUserAgent(mAppContext, mAppContext.getResources().getString(R.string.app_name)) :
-                        userAgent);
+                new OkHttpDataSource.Factory(NetworkController.INSTANCE.getClient())
+                        .setUserAgent(userAgent == null || userAgent.isEmpty() ?
+                                Util.getUserAgent(mAppContext, mAppContext.getResources().getString(R.string.app_name)) :
+                                userAgent));
+    }
+
+    /**
+     * @return a factory reading through the shared media cache, or null when the cache is disabled in the config
+     */
+    @Nullable
+    public CacheDataSource.Factory createCacheDataSourceFactory(@NonNull DataSource.Factory upstream, @NonNull ArcXPVideoConfig config) {
+        if (config.getMediaCacheSizeBytes() <= 0) {
+            return null;
+        }
+        CacheDataSource.Factory factory = new CacheDataSource.Factory()
+                .setCache(MediaCache.INSTANCE.get(application, config.getMediaCacheSizeBytes()))
+                .setUpstreamDataSourceFactory(upstream)
+                .setFlags(CacheDataSource.FLAG_IGNORE_CACHE_ON_ERROR);
+        ArcMediaCacheListener listener = config.getMediaCacheListener();
+        if (listener != null) {
+            factory.setEventListener(new CacheDataSource.EventListener() {
+                @Override
+                public void onCachedBytesRead(long cacheSizeBytes, long cachedBytesRead) {
+                    listener.onCachedBytesRead(cachedBytesRead, cacheSizeBytes);
+                }
+
+                @Override
+                public void onCacheIgnored(int reason) {
+                }
+            });
+        }
+        return factory;
     }
 
     public AdsLoadedListener createAdsLoadedListener(@NonNull VideoListener listener, ArcVideo config, VideoPlayer player) {
@@ -0,0 +1,167 @@
+package com.arcxp.video.util
+
+import com.arcxp.commons.throwables.ArcXPException
+import com.arcxp.commons.util.Constants.DEFAULT_VIDEO_CACHE_SIZE
+import com.arcxp.commons.util.DependencyFactory.createIOScope
+import com.arcxp.commons.util.Either
+import com.arcxp.commons.util.Failure
+import com.arcxp.commons.util.Success
+import com.arcxp.commons.util.Utils
+import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.CoroutineStart
+import kotlinx.coroutines.Deferred
+import kotlinx.coroutines.async
+import java.io.File
+import java.net.URLDecoder
+import java.net.URLEncoder
+
+/**
+ * VideoMetadataCache keeps successful video api responses as json, keyed by request, until they expire
+ *
+ * an entry expires [timeUntilUpdateMinutes] after it is stored when set, otherwise at the response's
+ * expires header, the same rule content caching follows. responses without either are not kept.
+ * least recently used entries are dropped past [maxEntries], with a [directory] entries are written
+ * there as well so they outlive the process. concurrent loads of a key share a single request
+ */
+internal class VideoMetadataCache(
+    private val timeUntilUpdateMinutes: Int? = null,
+    private val maxEntries: Int = DEFAULT_VIDEO_CACHE_SIZE,
+    private val directory: File? = null,
+    private val scope: CoroutineScope = createIOScope()
+) {
+    private class Entry(val json: String, val expiresAtMillis: Long)
+
+    private val entries = object : LinkedHashMap<String, Entry>(16, 0.75f, true) {
+        override fun removeEldestEntry(eldest: MutableMap.MutableEntry<String, Entry>?) =
+            size > maxEntries
+    }
+
+    private val inFlight = HashMap<String, Deferred<Either<ArcXPException, String>>>()
+
+    /**
+     * @return the cached json for [key] or, if there is none, the result of [fetch] which is cached when successful
+     * and [shouldCache] accepts the json. [fetch] returns the json with its expires header, callers loading a key
+     * already being fetched share that result
+     */
+    suspend fun load(
+        key: String,
+        shouldCache: (String) -> Boolean = { true },
+        fetch: suspend () -> Either<ArcXPException, Pair<String, String?>>
+    ): Either<ArcXPException, String> {
+        get(key)?.let { return Success(it) }
+        val request = synchronized(this) {
+            inFlight.getOrPut(key) {
+                // started by the sdk scope, so one caller being cancelled doesn't fail the others
+                scope.async(start = CoroutineStart.LAZY) {
+                    try {
+                        when (val result = fetch()) {
+                            is Success -> {
+                                if (shouldCache(result.success.first)) {
+                                    put(key = key, json = result.success.first, expires = result.success.second)
+                                }
+                                Success(result.success.first)
+                            }
+                            is Failure -> result
+                        }
+                    } finally {
+                        synchronized(this@VideoMetadataCache) { inFlight.remove(key) }
+                    }
+                }
+            }
+        }
+        return request.await()
+    }
+
+    /**
+     * @return the json cached for [key] if it has not expired
+     */
+    @Synchronized
+    fun get(key: String): String? {
+        val entry = entries[key] ?: readFromDisk(key)?.also { entries[key] = it } ?: return null
+        return if (Utils.currentTimeInMillis() < entry.expiresAtMillis) entry.json else {
+            invalidate(key)
+            null
+        }
+    }
+
+    /**
+     * caches [json] for [key] until the time given by [expires] or [timeUntilUpdateMinutes]
+     */
+    @Synchronized
+    fun put(key: String, json: String, expires: String?) {
+        if (expires == null && timeUntilUpdateMinutes == null) return
+        val expiresAtMillis = try {
+            Utils.determineExpiresAt(expiresAt = expires.orEmpty(), timeUntilUpdateMinutes = timeUntilUpdateMinutes).time
+        } catch (e: Exception) {
+            return
+        }
+        if (expiresAtMillis <= Utils.currentTimeInMillis()) return
+        val entry = Entry(json = json, expiresAtMillis = expiresAtMillis)
+        entries[key] = entry
+        writeToDisk(key, entry)
+    }
+
+    @Synchronized
+    fun invalidate(key: String) {
+        entries.remove(key)
+        directory?.let { File(it, fileName(key)).delete() }
+    }
+
+    /**
+     * removes every entry whose key matches [predicate]
+     */
+    @Synchronized
+    fun invalidateIf(predicate: (String) -> Boolean) {
+        entries.keys.removeAll(predicate)
+        directory?.listFiles()?.filter { predicate(key(it)) }?.forEach { it.delete() }
+    }
+
+    @Synchronized
+    fun invalidateAll() {
+        entries.clear()
+        directory?.listFiles()?.forEach { it.delete() }
+    }
+
+    private fun fileName(key: String) = URLEncoder.encode(key, "UTF-8")
+
+    private fun key(file: File) = URLDecoder.decode(file.name, "UTF-8")
+
+    // first line is the expiration in millis, the rest is the json
+    private fun readFromDisk(key: String): Entry? = directory?.let { File(it, fileName(key)) }
+        ?.takeIf { it.exists() }
+        ?.let { file ->
+            try {
+                val text = file.readText()
+                val newline = text.indexOf('\n')
+                Entry(json = text.substring(newline + 1), expiresAtMillis = text.substring(0, newline).toLong())
+            } catch (e: Exception) {
+                file.delete()
+                null
+            }
+        }
+
+    private fun writeToDisk(key: String, entry: Entry) {
+        val directory = directory ?: return
+        try {
+            directory.mkdirs()
+            File(directory, fileName(key)).writeText("${entry.expiresAtMillis}\n${entry.json}")
+            val files = directory.listFiles() ?: return
+            if (files.size > maxEntries) {
+                files.sortedBy { it.lastModified() }.take(files.size - maxEntries).forEach { it.delete() }
+            }
+        } catch (_: Exception) {
+            // the memory entry is still good, disk is only a fallback for the next session
+        }
+    }
+
+    companion object {
+        fun uuidKey(uuid: String) = "uuid:$uuid"
+        fun virtualChannelKey(uuid: String) = "virtual:$uuid"
+        fun playlistKey(name: String, count: Int) = "playlist:$name:$count"
+
+        /** playlists are cached per requested count, this matches the key of [name] for any count */
+        fun isPlaylistKey(key: String, name: String) = "playlist:$name:".let { prefix ->
+            key.startsWith(prefix) && key.substring(prefix.length).all(Char::isDigit)
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.arcxp.video.util
+
+import com.arcxp.commons.util.MoshiController.moshi
+import com.arcxp.video.model.ArcTypeResponse
+import com.arcxp.video.model.ArcVideoStream
+import com.squareup.moshi.JsonAdapter
+import com.squareup.moshi.JsonDataException
+import com.squareup.moshi.JsonReader
+import com.squareup.moshi.Types
+import okio.Buffer
+
+/**
+ * VideoResponseDecoder decodes findByUuid responses in a single pass
+ *
+ * the geo restricted endpoint answers with an [ArcTypeResponse] object when a video is restricted, otherwise
+ * with an array of [ArcVideoStream]. the first token tells which, so the body is read once by the matching
+ * adapter instead of failing a parse as one type before parsing it again as the other
+ */
+internal object VideoResponseDecoder {
+
+    sealed class Result {
+        class Streams(val streams: List<ArcVideoStream>) : Result()
+        class GeoRestricted(val arcTypeResponse: ArcTypeResponse) : Result()
+        class Malformed(val cause: Exception) : Result()
+    }
+
+    private val typeResponseAdapter: JsonAdapter<ArcTypeResponse> by lazy {
+        moshi.adapter(ArcTypeResponse::class.java)
+    }
+
+    private val streamsAdapter: JsonAdapter<List<ArcVideoStream>> by lazy {
+        moshi.adapter(Types.newParameterizedType(List::class.java, ArcVideoStream::class.java))
+    }
+
+    /**
+     * @return true when [json] is the geo restricted endpoint's restriction object rather than streams,
+     * checked by its first character so the body isn't parsed for it
+     */
+    fun isGeoRestricted(json: String) = json.firstOrNull { !it.isWhitespace() } == '{'
+
+    fun decode(json: String): Result {
+        // an empty body has always been treated as no streams
+        if (json.isBlank()) return Result.Streams(streams = emptyList())
+        return try {
+            JsonReader.of(Buffer().writeUtf8(json)).use { reader ->
+                val result = when (val token = reader.peek()) {
+                    JsonReader.Token.BEGIN_OBJECT ->
+                        Result.GeoRestricted(arcTypeResponse = typeResponseAdapter.fromJson(reader)!!)
+
+                    JsonReader.Token.BEGIN_ARRAY ->
+                        Result.Streams(streams = streamsAdapter.fromJson(reader)!!)
+
+                    else -> return Result.Malformed(
+                        cause = JsonDataException("Expected an object or array but was $token at path ${reader.path}")
+                    )
+                }
+                // same as parsing a whole string with moshi, trailing content means the body isn't what we expect
+                if (reader.peek() == JsonReader.Token.END_DOCUMENT) result else Result.Malformed(
+                    cause = JsonDataException("JSON document was not fully consumed.")
+                )
+            }
+        } catch (e: Exception) {
+            // the body isn't json or doesn't match the model, not a branch of the happy path
+            Result.Malformed(cause = e)
+        }
+    }
+}
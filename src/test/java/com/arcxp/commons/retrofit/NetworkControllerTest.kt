@@ -0,0 +1,42 @@
+package com.arcxp.commons.retrofit
+
+import okhttp3.Request
+import okhttp3.mockwebserver.MockResponse
+import okhttp3.mockwebserver.MockWebServer
+import org.junit.After
+import org.junit.Assert.assertEquals
+import org.junit.Before
+import org.junit.Test
+
+class NetworkControllerTest {
+
+    private lateinit var server: MockWebServer
+
+    @Before
+    fun setUp() {
+        server = MockWebServer()
+        server.enqueue(MockResponse())
+        server.start()
+    }
+
+    @After
+    fun tearDown() {
+        server.shutdown()
+    }
+
+    @Test
+    fun `client sets sdk user agent when request has none`() {
+        NetworkController.client.newCall(Request.Builder().url(server.url("/")).build()).execute().close()
+
+        assertEquals("ArcXP-Mobile Android", server.takeRequest().getHeader("User-Agent"))
+    }
+
+    @Test
+    fun `client keeps user agent set by request`() {
+        NetworkController.client.newCall(
+            Request.Builder().url(server.url("/")).header("User-Agent", "player agent").build()
+        ).execute().close()
+
+        assertEquals("player agent", server.takeRequest().getHeader("User-Agent"))
+    }
+}
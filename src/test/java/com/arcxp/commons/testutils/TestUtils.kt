@@ -47,9 +47,11 @@ import kotlinx.coroutines.test.TestDispatcher
 import kotlinx.coroutines.test.UnconfinedTestDispatcher
 import kotlinx.coroutines.test.resetMain
 import kotlinx.coroutines.test.setMain
+import org.junit.Assume.assumeTrue
 import org.junit.rules.TestWatcher
 import org.junit.runner.Description
 import java.io.File
+import java.lang.management.ManagementFactory
 import java.util.Date
 
 object TestUtils {
@@ -74,6 +76,25 @@ object TestUtils {
         return String(file.readBytes())
     }
 
+    /**
+     * bytes allocated on this thread by [times] runs of [block], after one warm up run so lazily built
+     * adapters aren't counted. skips the test on JVMs without per thread allocation counters
+     */
+    fun allocatedBy(times: Int = 1, block: () -> Unit): Long {
+        val threads = ManagementFactory.getThreadMXBean() as? com.sun.management.ThreadMXBean
+        assumeTrue(threads?.isThreadAllocatedMemorySupported == true)
+        block()
+        val before = threads!!.getThreadAllocatedBytes(Thread.currentThread().id)
+        repeat(times) { block() }
+        return threads.getThreadAllocatedBytes(Thread.currentThread().id) - before
+    }
+
+    /**
+     * skips the test unless allocation benchmarks are enabled (./gradlew test -PallocationBenchmarks),
+     * for comparisons whose margin is too small to hold on every JVM and GC
+     */
+    fun assumeAllocationBenchmarks() = assumeTrue(System.getProperty("arcxp.allocationBenchmarks").toBoolean())
+
     interface DispatcherProvider {
 
         fun main(): CoroutineDispatcher = Dispatchers.Main
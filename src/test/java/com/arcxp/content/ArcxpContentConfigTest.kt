@@ -4,6 +4,8 @@ import android.app.Application
 import androidx.arch.core.executor.testing.InstantTaskExecutorRule
 import com.arcxp.ArcXPMobileSDK
 import com.arcxp.commons.util.Constants
+import com.arcxp.content.db.CacheEvictionPolicy
+import com.arcxp.content.db.DatabaseProfile
 import com.arcxp.sdk.R
 import io.mockk.MockKAnnotations
 import io.mockk.every
@@ -98,4 +100,120 @@ class ArcxpContentConfigTest {
 
         assertEquals(Constants.CACHE_TIME_UNTIL_UPDATE_MIN, testObject.cacheTimeUntilUpdateMinutes)
     }
-}
\ No newline at end of file
+
+    @Test
+    fun `build with search settings`() {
+        val actual = ArcXPContentConfig
+            .Builder()
+            .setSearchDebounce(millis = 300L)
+            .setSearchCacheTtl(seconds = 120)
+            .setSearchCacheSize(entries = 10)
+            .build()
+
+        assertEquals(300L, actual.searchDebounceMillis)
+        assertEquals(120, actual.searchCacheTtlSeconds)
+        assertEquals(10, actual.searchCacheSize)
+    }
+
+    @Test
+    fun `build with out of range search settings coerces them`() {
+        val actual = ArcXPContentConfig
+            .Builder()
+            .setSearchDebounce(millis = 99999L)
+            .setSearchCacheTtl(seconds = -1)
+            .setSearchCacheSize(entries = 0)
+            .build()
+
+        assertEquals(Constants.VALID_SEARCH_DEBOUNCE_RANGE_MS.last, actual.searchDebounceMillis)
+        assertEquals(0, actual.searchCacheTtlSeconds)
+        assertEquals(1, actual.searchCacheSize)
+    }
+
+    @Test
+    fun `build uses search defaults`() {
+        val actual = ArcXPContentConfig.Builder().build()
+
+        assertEquals(Constants.DEFAULT_SEARCH_DEBOUNCE_MS, actual.searchDebounceMillis)
+        assertEquals(Constants.DEFAULT_SEARCH_CACHE_TTL_SECONDS, actual.searchCacheTtlSeconds)
+        assertEquals(Constants.DEFAULT_SEARCH_CACHE_SIZE, actual.searchCacheSize)
+    }
+
+    @Test
+    fun `build with eviction policy`() {
+        val actual = ArcXPContentConfig
+            .Builder()
+            .setEvictionPolicy(policy = CacheEvictionPolicy.TTL_FIRST)
+            .build()
+
+        assertEquals(CacheEvictionPolicy.TTL_FIRST, actual.evictionPolicy)
+        assertEquals(CacheEvictionPolicy.LRU, ArcXPContentConfig.Builder().build().evictionPolicy)
+    }
+
+    @Test
+    fun `build with database profile`() {
+        val actual = ArcXPContentConfig
+            .Builder()
+            .setDatabaseProfile(profile = DatabaseProfile.READ_OPTIMIZED)
+            .build()
+
+        assertEquals(DatabaseProfile.READ_OPTIMIZED, actual.databaseProfile)
+        assertEquals(DatabaseProfile.DEFAULT, ArcXPContentConfig.Builder().build().databaseProfile)
+    }
+
+    @Test
+    fun `build with seed asset`() {
+        val actual = ArcXPContentConfig
+            .Builder()
+            .setSeedAsset(assetPath = "seed/cache.json")
+            .build()
+
+        assertEquals("seed/cache.json", actual.seedAssetPath)
+        assertEquals(null, ArcXPContentConfig.Builder().build().seedAssetPath)
+    }
+
+    @Test
+    fun `build with hybrid collection loading`() {
+        val actual = ArcXPContentConfig
+            .Builder()
+            .setHybridCollectionLoading(enabled = true)
+            .build()
+
+        assertEquals(true, actual.hybridCollectionLoading)
+        assertEquals(false, ArcXPContentConfig.Builder().build().hybridCollectionLoading)
+    }
+
+    @Test
+    fun `build with pinned collections, quotas and content type cache times`() {
+        val actual = ArcXPContentConfig
+            .Builder()
+            .pinCollection(collectionAlias = "/top-stories")
+            .setCollectionQuota(collectionAlias = "sports", maxItems = 40)
+            .setCacheTimeUntilUpdate(contentType = "video", minutes = 60)
+            .setCacheTimeUntilUpdate(contentType = "story", minutes = 0)
+            .build()
+
+        assertEquals(setOf("top-stories"), actual.pinnedCollections)
+        assertEquals(mapOf("sports" to 40), actual.collectionQuotas)
+        assertEquals(
+            mapOf("video" to 60, "story" to Constants.CACHE_TIME_UNTIL_UPDATE_MIN),
+            actual.contentTypeCacheTimeMinutes
+        )
+    }
+
+    @Test
+    fun `build with cache sweep`() {
+        val actual = ArcXPContentConfig
+            .Builder()
+            .setCacheSweep(intervalMinutes = 15)
+            .addHotCollection(collectionAlias = "/top-stories")
+            .addHotSectionList(siteHierarchy = "default")
+            .setRefreshOnCellular(enabled = true)
+            .build()
+
+        assertEquals(15, actual.sweepIntervalMinutes)
+        assertEquals(setOf("top-stories"), actual.hotCollections)
+        assertEquals(setOf("default"), actual.hotSectionLists)
+        assertEquals(true, actual.refreshOnCellular)
+        assertEquals(0, ArcXPContentConfig.Builder().build().sweepIntervalMinutes)
+    }
+}
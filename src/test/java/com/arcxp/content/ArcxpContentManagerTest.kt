@@ -26,6 +26,7 @@ import com.arcxp.content.extendedModels.ArcXPContentElement
 import com.arcxp.content.extendedModels.ArcXPStory
 import com.arcxp.content.models.ArcXPContentCallback
 import com.arcxp.content.models.ArcXPSection
+import com.arcxp.content.models.CollectionChangeSet
 import com.arcxp.content.util.AuthManager
 import com.arcxp.sdk.R
 import io.mockk.MockKAnnotations
@@ -40,11 +41,20 @@ import io.mockk.mockkObject
 import io.mockk.mockkStatic
 import io.mockk.slot
 import io.mockk.verify
+import kotlinx.coroutines.CompletableDeferred
+import kotlinx.coroutines.CoroutineScope
 import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.awaitCancellation
+import kotlinx.coroutines.cancel
+import kotlinx.coroutines.flow.flowOf
+import kotlinx.coroutines.flow.toList
+import kotlinx.coroutines.launch
+import kotlinx.coroutines.test.runCurrent
 import kotlinx.coroutines.test.runTest
 import org.junit.After
 import org.junit.Assert.assertEquals
 import org.junit.Assert.assertNotNull
+import org.junit.Assert.assertTrue
 import org.junit.Before
 import org.junit.Rule
 import org.junit.Test
@@ -162,7 +172,8 @@ class ArcxpContentManagerTest {
                 shouldIgnoreCache = false,
                 size = DEFAULT_PAGINATION_SIZE,
                 from = 0,
-                full = true
+                full = true,
+                onChanges = any()
             )
         } returns Success(success = expected)
 
@@ -206,7 +217,8 @@ class ArcxpContentManagerTest {
                 collectionAlias = id,
                 shouldIgnoreCache = false,
                 size = DEFAULT_PAGINATION_SIZE,
-                from = 0
+                from = 0,
+                onChanges = any()
             )
         } returns Success(success = expected)
         testObject.getCollection(collectionAlias = id)
@@ -214,6 +226,29 @@ class ArcxpContentManagerTest {
         coVerify(exactly = 1) { collectionLiveData.postValue(Success(expected)) }
     }
 
+    @Test
+    fun `getCollection passes refresh change set to livedata and listener`() = runTest {
+        init()
+        val changes = CollectionChangeSet(collectionAlias = id, inserted = listOf(0))
+        coEvery {
+            contentRepository.getCollection(
+                collectionAlias = id,
+                shouldIgnoreCache = false,
+                size = DEFAULT_PAGINATION_SIZE,
+                from = 0,
+                onChanges = any()
+            )
+        } coAnswers {
+            arg<(CollectionChangeSet) -> Unit>(5).invoke(changes)
+            Success(success = emptyMap())
+        }
+
+        testObject.getCollection(collectionAlias = id, listener = arcxpContentCallback)
+
+        assertEquals(changes, testObject.collectionChangesLiveData.value)
+        coVerify(exactly = 1) { arcxpContentCallback.onCollectionChanged(changes = changes) }
+    }
+
     @Test
     fun `getContentSuspend returns value from repository`() = runTest {
         init()
@@ -231,6 +266,77 @@ class ArcxpContentManagerTest {
         assertEquals(expected, actual)
     }
 
+    @Test
+    fun `getContentBatchSuspend returns value from repository`() = runTest {
+        init()
+        val expected = listOf(Success(mockk<ArcXPContentElement>()))
+        coEvery {
+            contentRepository.getContentBatch(uuids = listOf(id), shouldIgnoreCache = false)
+        } returns expected
+        val actual = testObject.getContentBatchSuspend(ids = listOf(id))
+
+        assertEquals(expected, actual)
+    }
+
+    @Test
+    fun `getCollection with cancelled caller scope skips listener and livedata`() = runTest {
+        init()
+        val callerScope = CoroutineScope(Dispatchers.Unconfined)
+        coEvery {
+            contentRepository.getCollection(
+                collectionAlias = id,
+                shouldIgnoreCache = false,
+                size = DEFAULT_PAGINATION_SIZE,
+                from = 0,
+                onChanges = any()
+            )
+        } coAnswers {
+            callerScope.cancel()
+            Success(success = HashMap<Int, ArcXPContentElement>())
+        }
+
+        testObject.getCollection(collectionAlias = id, listener = arcxpContentCallback, scope = callerScope)
+
+        coVerify(exactly = 0) {
+            arcxpContentCallback.onGetCollectionSuccess(response = any())
+            collectionLiveData.postValue(any())
+        }
+    }
+
+    @Test
+    fun `getCollection with caller scope posts result while scope is active`() = runTest {
+        init()
+        val expected = HashMap<Int, ArcXPContentElement>()
+        coEvery {
+            contentRepository.getCollection(
+                collectionAlias = id,
+                shouldIgnoreCache = false,
+                size = DEFAULT_PAGINATION_SIZE,
+                from = 0,
+                onChanges = any()
+            )
+        } returns Success(success = expected)
+
+        testObject.getCollection(collectionAlias = id, scope = CoroutineScope(Dispatchers.Unconfined))
+
+        coVerify(exactly = 1) { collectionLiveData.postValue(Success(expected)) }
+    }
+
+    @Test
+    fun `getContentSuspend is cancelled with its caller`() = runTest {
+        init()
+        coEvery {
+            contentRepository.getContent(uuid = id, shouldIgnoreCache = false)
+        } coAnswers { awaitCancellation() }
+
+        val caller = launch { testObject.getContentSuspend(id = id) }
+        runCurrent()
+        caller.cancel()
+        caller.join()
+
+        assertTrue(caller.isCancelled)
+    }
+
     @Test
     fun `getSectionListSuspend returns value from repository`() = runTest {
         init()
@@ -277,7 +383,8 @@ class ArcxpContentManagerTest {
                 collectionAlias = id,
                 shouldIgnoreCache = true,
                 size = DEFAULT_PAGINATION_SIZE,
-                from = 0
+                from = 0,
+                onChanges = any()
             )
         } returns expected
         testObject.getCollection(
@@ -300,7 +407,8 @@ class ArcxpContentManagerTest {
                 collectionAlias = id,
                 shouldIgnoreCache = false,
                 size = DEFAULT_PAGINATION_SIZE,
-                from = 0
+                from = 0,
+                onChanges = any()
             )
         } returns Failure(failure = expected)
 
@@ -336,7 +444,8 @@ class ArcxpContentManagerTest {
                 collectionAlias = id,
                 shouldIgnoreCache = false,
                 size = DEFAULT_PAGINATION_SIZE,
-                from = 0
+                from = 0,
+                onChanges = any()
             )
         } returns expected
         testObject.getCollection(collectionAlias = id)
@@ -618,6 +727,46 @@ class ArcxpContentManagerTest {
         coVerify { searchLiveData.postValue(expected) }
     }
 
+    @Test
+    fun `search(string) cancels superseded search`() = runTest {
+        init()
+        val firstResult = CompletableDeferred<Either<ArcXPException, Map<Int, ArcXPContentElement>>>()
+        val secondResult = Success(success = mockk<Map<Int, ArcXPContentElement>>())
+        val firstListener = mockk<ArcXPContentCallback>(relaxed = true)
+        coEvery { contentRepository.searchSuspend(searchTerm = "first") } coAnswers { firstResult.await() }
+        coEvery { contentRepository.searchSuspend(searchTerm = "second") } returns secondResult
+
+        testObject.search(searchTerm = "first", listener = firstListener)
+        testObject.search(searchTerm = "second", listener = arcxpContentCallback)
+        firstResult.complete(Success(success = mockk()))
+
+        coVerify(exactly = 1) { searchLiveData.postValue(any()) }
+        coVerify(exactly = 1) { searchLiveData.postValue(secondResult) }
+        coVerify(exactly = 1) { arcxpContentCallback.onSearchSuccess(response = secondResult.success) }
+        coVerify(exactly = 0) { firstListener.onSearchSuccess(any()) }
+    }
+
+    @Test
+    fun `searchAsJson(string) cancels superseded json search only`() = runTest {
+        init()
+        val firstResult = CompletableDeferred<Either<ArcXPException, String>>()
+        val firstListener = mockk<ArcXPContentCallback>(relaxed = true)
+        val searchResult = Success(success = mockk<Map<Int, ArcXPContentElement>>())
+        coEvery { contentRepository.searchAsJsonSuspend(searchTerm = "first", from = any(), size = any()) } coAnswers { firstResult.await() }
+        coEvery { contentRepository.searchAsJsonSuspend(searchTerm = "second", from = any(), size = any()) } returns Success(success = "second")
+        coEvery { contentRepository.searchSuspend(searchTerm = "typed") } returns searchResult
+
+        testObject.searchAsJson(searchTerm = "first", listener = firstListener)
+        testObject.search(searchTerm = "typed", listener = arcxpContentCallback)
+        testObject.searchAsJson(searchTerm = "second", listener = arcxpContentCallback)
+        firstResult.complete(Success(success = "first"))
+
+        coVerify(exactly = 1) { jsonLiveData.postValue(any()) }
+        coVerify(exactly = 1) { jsonLiveData.postValue(Success("second")) }
+        coVerify(exactly = 1) { searchLiveData.postValue(searchResult) }
+        coVerify(exactly = 0) { firstListener.onGetJsonSuccess(any()) }
+    }
+
     @Test
     fun `search(string) keeps commas, spaces, and hyphens in keywords`() = runTest {
         init()
@@ -705,6 +854,86 @@ class ArcxpContentManagerTest {
             assertEquals(expected, actual)
         }
 
+    @Test
+    fun `searchLocal(string) success passes result to listener and livedata`() = runTest {
+        init()
+        val expected = Success(success = mockk<Map<Int, ArcXPContentElement>>())
+        coEvery {
+            contentRepository.searchLocal(searchTerm = keywords, from = 0, size = DEFAULT_PAGINATION_SIZE)
+        } returns expected
+
+        testObject.searchLocal(searchTerm = keywords, listener = arcxpContentCallback)
+
+        coVerify(exactly = 1) {
+            arcxpContentCallback.onSearchSuccess(response = expected.success)
+            searchLiveData.postValue(expected)
+        }
+    }
+
+    @Test
+    fun `searchLocalSuspend(string) removes special characters from string`() = runTest {
+        init()
+        testObject.searchLocalSuspend(searchTerm = "a@b#c, d-e")
+
+        coVerify(exactly = 1) {
+            contentRepository.searchLocal(searchTerm = "abc, d-e", from = 0, size = DEFAULT_PAGINATION_SIZE)
+        }
+    }
+
+    @Test
+    fun `searchHybrid(string) posts each emission to listener and livedata`() = runTest {
+        init()
+        val local = Success(success = mockk<Map<Int, ArcXPContentElement>>())
+        val merged = Success(success = mockk<Map<Int, ArcXPContentElement>>())
+        every {
+            contentRepository.searchHybrid(searchTerm = keywords, from = 0, size = DEFAULT_PAGINATION_SIZE)
+        } returns flowOf(local, merged)
+
+        testObject.searchHybrid(searchTerm = keywords, listener = arcxpContentCallback)
+
+        coVerifySequence {
+            arcxpContentCallback.onSearchSuccess(response = local.success)
+            arcxpContentCallback.onSearchSuccess(response = merged.success)
+        }
+        verify(exactly = 1) {
+            searchLiveData.postValue(local)
+            searchLiveData.postValue(merged)
+        }
+    }
+
+    @Test
+    fun `searchHybridFlow(string) returns repository flow`() = runTest {
+        init()
+        val expected = listOf(Success(success = mockk<Map<Int, ArcXPContentElement>>()))
+        every {
+            contentRepository.searchHybrid(searchTerm = keywords, from = 0, size = DEFAULT_PAGINATION_SIZE)
+        } returns flowOf(*expected.toTypedArray())
+
+        val actual = testObject.searchHybridFlow(searchTerm = keywords).toList()
+
+        assertEquals(expected, actual)
+    }
+
+    @Test
+    fun `getCollectionsSuspend returns last emission of repository flow`() = runTest {
+        init()
+        val cached = mapOf("a" to Success(success = mockk<Map<Int, ArcXPContentElement>>()))
+        val complete = cached + ("b" to Failure(failure = mockk<ArcXPException>()))
+        every {
+            contentRepository.getCollections(
+                collectionAliases = listOf("a", "b"),
+                from = 0,
+                size = DEFAULT_PAGINATION_SIZE,
+                full = null,
+                onChanges = any()
+            )
+        } returns flowOf(cached, complete)
+
+        val actual = testObject.getCollectionsSuspend(collectionAliases = listOf("/a", "b"))
+
+        assertEquals(complete, actual)
+    }
+
     @Test
     fun `search(string) failure passes error result to livedata`() = runTest {
         init()
@@ -1396,6 +1625,25 @@ class ArcxpContentManagerTest {
         coVerify(exactly = 1) { contentLiveData.postValue(Success(expected)) }
     }
 
+    @Test
+    fun `getVideo with cancelled caller scope skips listener and livedata`() = runTest {
+        init()
+        val callerScope = CoroutineScope(Dispatchers.Unconfined)
+        coEvery {
+            contentRepository.getContent(uuid = id, shouldIgnoreCache = false)
+        } coAnswers {
+            callerScope.cancel()
+            Success(success = mockk<ArcXPContentElement> { coEvery { type } returns "video" })
+        }
+
+        testObject.getVideo(id = id, listener = arcxpContentCallback, scope = callerScope)
+
+        coVerify(exactly = 0) {
+            arcxpContentCallback.onGetContentSuccess(response = any())
+            contentLiveData.postValue(any())
+        }
+    }
+
     @Test
     fun `getVideo failure passes error result to listener`() = runTest {
         init()
@@ -1595,7 +1843,8 @@ class ArcxpContentManagerTest {
                 collectionAlias = id,
                 shouldIgnoreCache = false,
                 size = Constants.VALID_COLLECTION_SIZE_RANGE.first,
-                from = 0
+                from = 0,
+                onChanges = any()
             )
         } returns Success(success = expected)
 
@@ -1606,7 +1855,8 @@ class ArcxpContentManagerTest {
                 collectionAlias = id,
                 shouldIgnoreCache = any(),
                 from = any(),
-                size = Constants.VALID_COLLECTION_SIZE_RANGE.first
+                size = Constants.VALID_COLLECTION_SIZE_RANGE.first,
+                onChanges = any()
             )
         }
     }
@@ -1620,7 +1870,8 @@ class ArcxpContentManagerTest {
                 collectionAlias = id,
                 shouldIgnoreCache = false,
                 size = Constants.VALID_COLLECTION_SIZE_RANGE.last,
-                from = 0
+                from = 0,
+                onChanges = any()
             )
         } returns Success(success = expected)
 
@@ -1631,7 +1882,8 @@ class ArcxpContentManagerTest {
                 collectionAlias = id,
                 shouldIgnoreCache = any(),
                 from = any(),
-                size = Constants.VALID_COLLECTION_SIZE_RANGE.last
+                size = Constants.VALID_COLLECTION_SIZE_RANGE.last,
+                onChanges = any()
             )
         }
     }
@@ -1650,7 +1902,8 @@ class ArcxpContentManagerTest {
                 collectionAlias = id,
                 shouldIgnoreCache = false,
                 size = DEFAULT_PAGINATION_SIZE,
-                from = 0
+                from = 0,
+                onChanges = any()
             )
         } returns expected
         val actual = testObject.getCollectionSuspend(collectionAlias = id)
@@ -1667,7 +1920,8 @@ class ArcxpContentManagerTest {
                 collectionAlias = id,
                 shouldIgnoreCache = any(),
                 from = any(),
-                size = Constants.VALID_COLLECTION_SIZE_RANGE.first
+                size = Constants.VALID_COLLECTION_SIZE_RANGE.first,
+                onChanges = any()
             )
         }
     }
@@ -1681,7 +1935,8 @@ class ArcxpContentManagerTest {
                 collectionAlias = id,
                 shouldIgnoreCache = any(),
                 from = any(),
-                size = Constants.VALID_COLLECTION_SIZE_RANGE.last
+                size = Constants.VALID_COLLECTION_SIZE_RANGE.last,
+                onChanges = any()
             )
         }
     }
@@ -287,6 +287,37 @@ class ContentApiManagerTest {
         assertEquals(collectionError, result.failure.message)
     }
 
+    @Test
+    fun `getCollectionBody on success returns unread body`() = runTest {
+        val expectedAnswer = "[{\"_id\":\"id\"}]"
+        val mockWebServer = MockWebServer()
+        val mockResponse = MockResponse().setBody(expectedAnswer)
+            .setHeader("expires", "Tue, 01 Mar 2022 22:05:54 GMT")
+        mockWebServer.enqueue(mockResponse)
+        mockWebServer.start()
+        val mockBaseUrl = mockWebServer.url("\\").toString()
+        testObject = ContentApiManager(
+            application = application,
+            contentConfig = arcXPContentConfig,
+            contentService = RetrofitController.getContentService(baseUrl = mockBaseUrl),
+            navigationService = navigationService
+        )
+
+        val actual = testObject.getCollectionBody(
+            collectionAlias = "id",
+            size = Constants.DEFAULT_PAGINATION_SIZE,
+            from = 0,
+            full = true
+        )
+
+        val request1 = mockWebServer.takeRequest()
+        assertEquals("/arc/outboundfeeds/collection-full/id?size=20&from=0", request1.path)
+        val (body, expiresAt) = (actual as Success).success
+        assertEquals(expectedAnswer, body.use { it.source().readUtf8() })
+        assertEquals(expectedDate, expiresAt)
+        mockWebServer.shutdown()
+    }
+
 
     @Test
     fun `getSectionListSuspend on success`() = runTest {
@@ -0,0 +1,29 @@
+package com.arcxp.content.db
+
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertFalse
+import org.junit.Assert.assertTrue
+import org.junit.Test
+
+class AccessTrackerTest {
+
+    @Test
+    fun `touch reports full batch`() {
+        val testObject = AccessTracker(batchSize = 3)
+
+        assertFalse(testObject.touchJson(uuid = "id1"))
+        assertFalse(testObject.touchJson(uuid = "id1"))
+        assertFalse(testObject.touchCollection(collectionAlias = "alias"))
+        assertTrue(testObject.touchJson(uuid = "id2"))
+    }
+
+    @Test
+    fun `drain returns pending reads once`() {
+        val testObject = AccessTracker()
+        testObject.touchJson(uuid = "id1")
+        testObject.touchCollection(collectionAlias = "alias")
+
+        assertEquals(listOf("id1") to listOf("alias"), testObject.drain())
+        assertEquals(emptyList<String>() to emptyList<String>(), testObject.drain())
+    }
+}
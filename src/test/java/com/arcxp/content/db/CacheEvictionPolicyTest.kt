@@ -0,0 +1,58 @@
+package com.arcxp.content.db
+
+import org.junit.Assert.assertEquals
+import org.junit.Test
+import java.util.Date
+
+class CacheEvictionPolicyTest {
+
+    private val now = 10_000L
+
+    private fun entry(key: String, lastAccessedAt: Long, expiresAt: Long = Long.MAX_VALUE, sizeBytes: Long = 100) =
+        CacheEntry(
+            key = key,
+            isCollection = false,
+            lastAccessedAt = Date(lastAccessedAt),
+            expiresAt = Date(expiresAt),
+            sizeBytes = sizeBytes
+        )
+
+    @Test
+    fun `LRU orders least recently read first`() {
+        val actual = CacheEvictionPolicy.LRU.order(
+            candidates = listOf(entry("new", 300), entry("old", 100), entry("mid", 200)),
+            now = now
+        )
+
+        assertEquals(listOf("old", "mid", "new"), actual.map { it.key })
+    }
+
+    @Test
+    fun `TTL_FIRST orders expired entries before least recently read`() {
+        val actual = CacheEvictionPolicy.TTL_FIRST.order(
+            candidates = listOf(
+                entry("old", 100),
+                entry("expiredLater", 900, expiresAt = 5_000),
+                entry("new", 300),
+                entry("expiredFirst", 800, expiresAt = 1_000)
+            ),
+            now = now
+        )
+
+        assertEquals(listOf("expiredFirst", "expiredLater", "old", "new"), actual.map { it.key })
+    }
+
+    @Test
+    fun `SIZE_WEIGHTED orders large stale entries first`() {
+        val actual = CacheEvictionPolicy.SIZE_WEIGHTED.order(
+            candidates = listOf(
+                entry("smallStale", 0, sizeBytes = 10),
+                entry("largeRecent", 9_990, sizeBytes = 1_000),
+                entry("largeStale", 0, sizeBytes = 1_000)
+            ),
+            now = now
+        )
+
+        assertEquals(listOf("largeStale", "smallStale", "largeRecent"), actual.map { it.key })
+    }
+}
@@ -1,23 +1,31 @@
 package com.arcxp.content.db
 
 import android.app.Application
+import android.content.res.AssetManager
 import android.util.Log
 import androidx.arch.core.executor.testing.InstantTaskExecutorRule
+import androidx.room.withTransaction
 import androidx.sqlite.db.SimpleSQLiteQuery
 import com.arcxp.ArcXPMobileSDK
 import com.arcxp.ArcXPMobileSDK.contentConfig
+import com.arcxp.commons.testutils.TestUtils.createContentElement
 import com.arcxp.commons.testutils.TestUtils.getJson
+import com.arcxp.commons.util.Constants.CACHE_MAINTENANCE_DELAY_MS
+import com.arcxp.commons.util.Constants.CACHE_MAINTENANCE_RETRY_MS
+import com.arcxp.commons.util.Constants.LOCAL_SEARCH_MAX_RESULTS
+import com.arcxp.commons.util.Constants.SEED_EXPIRES_AT_MS
+import com.arcxp.commons.util.Constants.SQLITE_MAX_BATCH_ARGS
 import com.arcxp.commons.util.DependencyFactory
 import com.arcxp.commons.util.DependencyFactory.createIOScope
 import com.arcxp.commons.util.MoshiController
 import com.arcxp.commons.util.Utils.constructJsonArray
 import com.arcxp.content.extendedModels.ArcXPContentElement
+import com.arcxp.content.models.Headline
 import com.arcxp.sdk.R
 import io.mockk.MockKAnnotations
 import io.mockk.coEvery
 import io.mockk.coVerify
 import io.mockk.coVerifyOrder
-import io.mockk.coVerifySequence
 import io.mockk.every
 import io.mockk.impl.annotations.MockK
 import io.mockk.impl.annotations.RelaxedMockK
@@ -27,11 +35,15 @@ import io.mockk.mockkStatic
 import kotlinx.coroutines.CoroutineScope
 import kotlinx.coroutines.Dispatchers
 import kotlinx.coroutines.SupervisorJob
+import kotlinx.coroutines.test.advanceTimeBy
 import kotlinx.coroutines.test.runTest
 import org.junit.Assert.assertEquals
+import org.junit.Assert.assertTrue
 import org.junit.Before
 import org.junit.Rule
 import org.junit.Test
+import java.nio.ByteBuffer
+import java.nio.ByteOrder
 import java.util.Date
 
 class CacheManagerTest {
@@ -71,7 +83,11 @@ class CacheManagerTest {
 
         every { database.sdkDao() } returns dao
 
-        testObject = CacheManager(application = application, database = database)
+        testObject = CacheManager(
+            application = application,
+            database = database,
+            maintenanceAllowed = { true }
+        )
     }
 
     @Test
@@ -169,89 +185,273 @@ class CacheManagerTest {
 
     @Test
     fun `insert Json Item when items run out`() = runTest {
-        with(application) {
-            every { getDatabasePath("database").length() } returns 125829120
-            every { getDatabasePath("database-shm").length() } returns 1
-            every { getDatabasePath("database-wal").length() } returns 2
-            every { getDatabasePath("database-journal").length() } returns 3
-        }
-        val expected: JsonItem = mockk()
-        coEvery { dao.countItems() } returnsMany listOf(3, 2, 1, 0)
+        givenPagesInUse(overLimitPages)
+        val expected: JsonItem = mockk(relaxed = true)
+        val older = cacheEntry(key = "older", lastAccessedAt = 1L)
+        val newer = cacheEntry(key = "newer", lastAccessedAt = 2L)
+        coEvery { dao.getEvictionCandidates() } returns listOf(newer, older)
 
         testObject.insert(jsonItem = expected)
 
         coVerifyOrder {
             dao.insertJsonItem(jsonItem = expected)
-            dao.walCheckPoint(supportSQLiteQuery = checkPointQuery)
-            dao.countItems()
-            dao.deleteOldestCollectionItem()
-            dao.deleteOldestJsonItem()
-            dao.walCheckPoint(supportSQLiteQuery = checkPointQuery)
-            dao.countItems()
-            dao.deleteOldestCollectionItem()
-            dao.deleteOldestJsonItem()
-            dao.walCheckPoint(supportSQLiteQuery = checkPointQuery)
-            dao.countItems()
-            dao.deleteOldestCollectionItem()
-            dao.deleteOldestJsonItem()
-            dao.walCheckPoint(supportSQLiteQuery = checkPointQuery)
-            dao.countItems()
+            dao.getEvictionCandidates()
+            dao.deleteJsonItem(uuid = "older")
+            dao.deleteJsonItem(uuid = "newer")
         }
     }
 
     @Test
     fun `insert Json Item when space runs out`() = runTest {
-        with(application) {
-            every { getDatabasePath("database").length() } returnsMany listOf(125829120, 999)
-            every { getDatabasePath("database-shm").length() } returns 1
-            every { getDatabasePath("database-wal").length() } returns 2
-            every { getDatabasePath("database-journal").length() } returns 3
-        }
-        val expected: JsonItem = mockk()
-        coEvery { dao.countItems() } returnsMany listOf(3, 2, 1, 0)
+        givenPagesInUse(overLimitPages, 1)
+        val expected: JsonItem = mockk(relaxed = true)
+        coEvery { dao.getEvictionCandidates() } returns listOf(
+            cacheEntry(key = "newer", lastAccessedAt = 2L),
+            cacheEntry(key = "older", lastAccessedAt = 1L)
+        )
 
         testObject.insert(jsonItem = expected)
 
         coVerifyOrder {
             dao.insertJsonItem(jsonItem = expected)
-            dao.walCheckPoint(supportSQLiteQuery = checkPointQuery)
-            dao.countItems()
-            dao.deleteOldestCollectionItem()
-            dao.deleteOldestJsonItem()
-            dao.walCheckPoint(supportSQLiteQuery = checkPointQuery)
-            dao.countItems()
+            dao.deleteJsonItem(uuid = "older")
         }
+        coVerify(exactly = 0) { dao.deleteJsonItem(uuid = "newer") }
     }
 
     @Test
-    fun `insert Item when space runs out`() = runTest {
-        with(application) {
-            every { getDatabasePath("database").length() } returnsMany listOf(125829120, 999)
-            every { getDatabasePath("database-shm").length() } returns 1
-            every { getDatabasePath("database-wal").length() } returns 2
-            every { getDatabasePath("database-journal").length() } returns 3
-        }
-        val expected: JsonItem = mockk()
+    fun `insert Item when space runs out evicts whole collection with its json items`() = runTest {
+        givenPagesInUse(overLimitPages, 1)
+        val expected: JsonItem = mockk(relaxed = true)
         val collectionItem: CollectionItem = mockk()
-        coEvery { dao.countItems() } returnsMany listOf(3, 2, 1, 0)
+        val collection = cacheEntry(key = "alias", lastAccessedAt = 1L, isCollection = true)
+        coEvery { dao.getEvictionCandidates() } returns listOf(collection)
 
         testObject.insert(jsonItem = expected, collectionItem = collectionItem)
 
         coVerifyOrder {
             dao.insertCollectionItem(collectionItem = collectionItem)
             dao.insertJsonItem(jsonItem = expected)
-            dao.walCheckPoint(supportSQLiteQuery = checkPointQuery)
-            dao.countItems()
-            dao.deleteOldestCollectionItem()
-            dao.deleteOldestJsonItem()
-            dao.walCheckPoint(supportSQLiteQuery = checkPointQuery)
-            dao.countItems()
+            dao.deleteCollectionJsonItems(
+                collectionAlias = "alias",
+                accessedBefore = collection.lastAccessedAt
+            )
+            dao.deleteCollection(collectionAlias = "alias")
         }
     }
 
     @Test
-    fun `init calls vac`() = runTest {
-        coVerifySequence { dao.vacuumDb(supportSQLiteQuery = vacQuery) }
+    fun `insert does not evict when under size limit`() = runTest {
+        givenPagesInUse(1)
+
+        testObject.insert(jsonItem = mockk(relaxed = true))
+
+        coVerify(exactly = 0) { dao.getEvictionCandidates() }
+    }
+
+    @Test
+    fun `insert uses configured eviction policy`() = runTest {
+        givenPagesInUse(overLimitPages, 1)
+        val small = cacheEntry(key = "small", lastAccessedAt = 1L, sizeBytes = 1)
+        val large = cacheEntry(key = "large", lastAccessedAt = 2L, sizeBytes = 1_000_000)
+        coEvery { dao.getEvictionCandidates() } returns listOf(small, large)
+        testObject = CacheManager(
+            application = application,
+            database = database,
+            evictionPolicy = CacheEvictionPolicy.SIZE_WEIGHTED
+        )
+
+        testObject.insert(jsonItem = mockk(relaxed = true))
+
+        coVerify(exactly = 1) { dao.deleteJsonItem(uuid = "large") }
+        coVerify(exactly = 0) { dao.deleteJsonItem(uuid = "small") }
+    }
+
+    @Test
+    fun `insert never evicts pinned collections`() = runTest {
+        givenPagesInUse(overLimitPages, overLimitPages, 1)
+        val pinned = cacheEntry(key = "top-stories", lastAccessedAt = 1L, isCollection = true)
+        val other = cacheEntry(key = "other", lastAccessedAt = 2L, isCollection = true)
+        coEvery { dao.getEvictionCandidates() } returns listOf(pinned, other)
+        testObject = CacheManager(
+            application = application,
+            database = database,
+            pinnedCollections = setOf("top-stories")
+        )
+
+        testObject.insert(jsonItem = mockk(relaxed = true))
+
+        coVerify(exactly = 1) { dao.deleteCollection(collectionAlias = "other") }
+        coVerify(exactly = 0) { dao.deleteCollection(collectionAlias = "top-stories") }
+    }
+
+    @Test
+    fun `collection items past their quota are not cached`() = runTest {
+        givenPagesInUse(1)
+        testObject = CacheManager(
+            application = application,
+            database = database,
+            collectionQuotas = mapOf("alias" to 2)
+        )
+        val inQuota = CollectionItem(indexValue = 1, collectionAlias = "alias", uuid = "a", expiresAt = Date())
+        val overQuota = CollectionItem(indexValue = 2, collectionAlias = "alias", uuid = "b", expiresAt = Date())
+        val json: JsonItem = mockk(relaxed = true)
+
+        testObject.insert(collectionItem = inQuota, jsonItem = json)
+        testObject.insert(collectionItem = overQuota, jsonItem = json)
+        testObject.insertCollectionItem(collectionItem = overQuota)
+
+        coVerify(exactly = 1) { dao.insertCollectionItem(collectionItem = inQuota) }
+        coVerify(exactly = 0) { dao.insertCollectionItem(collectionItem = overQuota) }
+        coVerify(exactly = 1) { dao.insertJsonItem(jsonItem = json) }
+    }
+
+    @Test
+    fun `reads are recorded as access in batches`() = runTest {
+        testObject = CacheManager(
+            application = application,
+            database = database,
+            accessTracker = AccessTracker(batchSize = 2)
+        )
+        coEvery { dao.getJsonById(uuid = any()) } returns mockk()
+        coEvery { dao.getCollectionIndexedJson(any(), any(), any()) } returns listOf(
+            ContentSDKDao.IndexedJsonItem(indexValue = 0, jsonResponse = "[]")
+        )
+
+        testObject.getJsonById(uuid = "id1")
+        coVerify(exactly = 0) { dao.updateJsonAccess(any(), any()) }
+
+        testObject.getCollectionAsJson(collectionAlias = "alias", from = 0, size = 1)
+
+        coVerify(exactly = 1) {
+            dao.updateJsonAccess(uuids = listOf("id1"), accessedAt = any())
+            dao.updateCollectionAccess(collectionAliases = listOf("alias"), accessedAt = any())
+        }
+    }
+
+    @Test
+    fun `missing items are not recorded as access`() = runTest {
+        coEvery { dao.getJsonById(uuid = "id1") } returns null
+
+        testObject.getJsonById(uuid = "id1")
+        testObject.flushAccess()
+
+        coVerify(exactly = 0) { dao.updateJsonAccess(any(), any()) }
+    }
+
+    private val overLimitPages = expectedMaxCacheSize * 1024 * 1024 / 4096 + 1
+
+    // size is (page_count - freelist_count) * page_size, page_count returns [pages] in turn
+    private fun givenPagesInUse(vararg pages: Int) {
+        givenPragma("page_size", 4096)
+        givenPragma("freelist_count", 0)
+        givenPragma("page_count", *pages)
+    }
+
+    private fun givenPragma(pragma: String, vararg values: Int) {
+        coEvery { dao.pragma(supportSQLiteQuery = match { it.sql == "pragma $pragma" }) } returnsMany values.toList()
+    }
+
+    private fun cacheEntry(
+        key: String,
+        lastAccessedAt: Long,
+        isCollection: Boolean = false,
+        sizeBytes: Long = 100,
+        expiresAt: Long = Long.MAX_VALUE
+    ) = CacheEntry(
+        key = key,
+        isCollection = isCollection,
+        lastAccessedAt = Date(lastAccessedAt),
+        expiresAt = Date(expiresAt),
+        sizeBytes = sizeBytes
+    )
+
+    @Test
+    fun `maintain converts database to incremental auto vacuum with one full vacuum`() = runTest {
+        givenPragma("auto_vacuum", 0)
+
+        testObject.maintain()
+
+        coVerifyOrder {
+            dao.pragma(supportSQLiteQuery = match { it.sql == "pragma auto_vacuum = INCREMENTAL" })
+            dao.vacuumDb(supportSQLiteQuery = vacQuery)
+        }
+        coVerify(exactly = 0) { dao.pragma(supportSQLiteQuery = match { it.sql.contains("incremental_vacuum") }) }
+    }
+
+    @Test
+    fun `maintain reclaims free pages in steps once over threshold`() = runTest {
+        givenPragma("auto_vacuum", 2)
+        givenPragma("page_count", 1000)
+        givenPragma("freelist_count", 300, 44, 0)
+
+        testObject.maintain()
+
+        coVerify(exactly = 2) {
+            dao.pragma(supportSQLiteQuery = match { it.sql == "pragma incremental_vacuum(256)" })
+        }
+        coVerify(exactly = 0) { dao.vacuumDb(any()) }
+        coVerify(exactly = 1) { dao.walCheckPoint(supportSQLiteQuery = checkPointQuery) }
+    }
+
+    @Test
+    fun `maintain skips vacuum under threshold`() = runTest {
+        givenPragma("auto_vacuum", 2)
+        givenPragma("page_count", 1000)
+        givenPragma("freelist_count", 10)
+
+        testObject.maintain()
+
+        coVerify(exactly = 0) { dao.pragma(supportSQLiteQuery = match { it.sql.contains("incremental_vacuum") }) }
+        coVerify(exactly = 0) { dao.vacuumDb(any()) }
+    }
+
+    @Test
+    fun `maintain stops when device is no longer idle`() = runTest {
+        var allowed = true
+        testObject = CacheManager(
+            application = application,
+            database = database,
+            maintenanceAllowed = { allowed }
+        )
+        givenPragma("auto_vacuum", 2)
+        givenPragma("page_count", 1000)
+        givenPragma("freelist_count", 600, 344)
+        coEvery {
+            dao.pragma(supportSQLiteQuery = match { it.sql.contains("incremental_vacuum") })
+        } answers {
+            allowed = false
+            0
+        }
+
+        testObject.maintain()
+
+        coVerify(exactly = 1) { dao.pragma(supportSQLiteQuery = match { it.sql.contains("incremental_vacuum") }) }
+    }
+
+    @Test
+    fun `scheduleMaintenance waits for idle or charging`() = runTest {
+        var allowed = false
+        testObject = CacheManager(
+            application = application,
+            database = database,
+            mIoScope = backgroundScope,
+            maintenanceAllowed = { allowed }
+        )
+        givenPragma("auto_vacuum", 0)
+
+        testObject.scheduleMaintenance()
+        advanceTimeBy(CACHE_MAINTENANCE_DELAY_MS + 1)
+        coVerify(exactly = 0) { dao.vacuumDb(any()) }
+
+        allowed = true
+        advanceTimeBy(CACHE_MAINTENANCE_RETRY_MS)
+        coVerify(exactly = 1) { dao.vacuumDb(supportSQLiteQuery = vacQuery) }
+    }
+
+    @Test
+    fun `constructing does not vacuum`() = runTest {
+        coVerify(exactly = 0) { dao.vacuumDb(any()) }
     }
 
     @Test
@@ -267,6 +467,56 @@ class CacheManagerTest {
         assertEquals(expected, actual)
     }
 
+    @Test
+    fun `getCollectionPage calls dao`() = runTest {
+        val expected = listOf(ContentSDKDao.CollectionPageItem(indexValue = 0, uuid = "id", jsonResponse = null))
+        coEvery { dao.getCollectionPage(collectionAlias = "alias", from = 0, size = 20) } returns expected
+
+        val actual = testObject.getCollectionPage(collectionAlias = "alias", from = 0, size = 20)
+
+        assertEquals(expected, actual)
+    }
+
+    @Test
+    fun `deleteCollectionItems skips dao when nothing to delete`() = runTest {
+        testObject.deleteCollectionItems(collectionAlias = "alias", indices = emptyList())
+        testObject.deleteCollectionItems(collectionAlias = "alias", indices = listOf(3))
+
+        coVerify(exactly = 1) { dao.deleteCollectionItems(collectionAlias = "alias", indices = any()) }
+        coVerify { dao.deleteCollectionItems(collectionAlias = "alias", indices = listOf(3)) }
+    }
+
+    @Test
+    fun `updateExpiration extends collection page and unchanged json items`() = runTest {
+        val expiresAt = Date(1000L)
+
+        testObject.updateExpiration(
+            collectionAlias = "alias",
+            from = 0,
+            size = 20,
+            uuids = listOf("id"),
+            expiresAt = expiresAt
+        )
+
+        coVerify(exactly = 1) {
+            dao.updateCollectionExpiration(collectionAlias = "alias", from = 0, size = 20, expiresAt = expiresAt)
+            dao.updateJsonExpiration(uuids = listOf("id"), expiresAt = expiresAt)
+        }
+    }
+
+    @Test
+    fun `updateExpiration skips json update without uuids`() = runTest {
+        testObject.updateExpiration(
+            collectionAlias = "alias",
+            from = 0,
+            size = 20,
+            uuids = emptyList(),
+            expiresAt = Date()
+        )
+
+        coVerify(exactly = 0) { dao.updateJsonExpiration(any(), any()) }
+    }
+
     @Test
     fun `getCollectionAsJson calls dao and returns mapped result`() = runTest {
         val collectionAlias = "collectionAlias"
@@ -328,4 +578,226 @@ class CacheManagerTest {
             dao.deleteSectionHeaderTable()
         }
     }
-}
\ No newline at end of file
+
+    @Test
+    fun `insert replaces search entry for json item`() = runTest {
+        givenPagesInUse(0)
+        val json = MoshiController.toJson(
+            createContentElement(id = "uuid").copy(
+                headlines = Headline(
+                    basic = "headline",
+                    print = null,
+                    social = null,
+                    native = null,
+                    tablet = null,
+                    web = null
+                )
+            )
+        )!!
+        val jsonItem = JsonItem(uuid = "uuid", jsonResponse = json, expiresAt = Date())
+        coEvery { dao.hasJsonItem(uuid = "uuid") } returns true
+
+        testObject.insert(jsonItem = jsonItem)
+
+        coVerifyOrder {
+            dao.deleteSearchEntry(uuid = "uuid")
+            dao.insertJsonItem(jsonItem = jsonItem)
+            dao.insertSearchEntry(jsonItemFts = match { it.uuid == "uuid" && it.headline == "headline" })
+        }
+    }
+
+    @Test
+    fun `insert does not index unparseable json`() = runTest {
+        givenPagesInUse(0)
+        val jsonItem = JsonItem(uuid = "uuid", jsonResponse = "invalid", expiresAt = Date())
+        coEvery { dao.hasJsonItem(uuid = "uuid") } returns false
+
+        testObject.insert(jsonItem = jsonItem)
+
+        coVerify(exactly = 1) { dao.insertJsonItem(jsonItem = jsonItem) }
+        coVerify(exactly = 0) {
+            dao.deleteSearchEntry(uuid = any())
+            dao.insertSearchEntry(jsonItemFts = any())
+        }
+    }
+
+    @Test
+    fun `search ranks and pages results`() = runTest {
+        val weak = ContentSDKDao.SearchJsonItem(
+            uuid = "weak",
+            jsonResponse = MoshiController.toJson(createContentElement(id = "weak"))!!,
+            matchInfo = matchInfo(1, 5)
+        )
+        val strong = ContentSDKDao.SearchJsonItem(
+            uuid = "strong",
+            jsonResponse = MoshiController.toJson(createContentElement(id = "strong"))!!,
+            matchInfo = matchInfo(4, 5)
+        )
+        val middle = ContentSDKDao.SearchJsonItem(
+            uuid = "middle",
+            jsonResponse = MoshiController.toJson(createContentElement(id = "middle"))!!,
+            matchInfo = matchInfo(2, 5)
+        )
+        coEvery {
+            dao.searchJsonItems(query = "term*", limit = LOCAL_SEARCH_MAX_RESULTS)
+        } returns listOf(weak, strong, middle)
+
+        val actual = testObject.search(searchTerm = "Term", from = 1, size = 2)
+
+        assertEquals(listOf(1, 2), actual.keys.toList())
+        assertEquals("middle", actual[1]!!._id)
+        assertEquals("weak", actual[2]!!._id)
+    }
+
+    @Test
+    fun `search without searchable terms does not query dao`() = runTest {
+        val actual = testObject.search(searchTerm = ",, -", from = 0, size = 2)
+
+        assertEquals(emptyMap<Int, ArcXPContentElement>(), actual)
+        coVerify(exactly = 0) { dao.searchJsonItems(query = any(), limit = any()) }
+    }
+
+    // matchinfo 'pcx' blob with one phrase matching only the headline column
+    private fun matchInfo(hitsThisRow: Int, hitsAllRows: Int): ByteArray {
+        val ints = intArrayOf(1, 5, hitsThisRow, hitsAllRows, 1) + IntArray(12)
+        val buffer = ByteBuffer.allocate(ints.size * 4).order(ByteOrder.nativeOrder())
+        ints.forEach { buffer.putInt(it) }
+        return buffer.array()
+    }
+
+    @Test
+    fun `importSeed inserts seed entries as stale when cache is empty`() = runTest {
+        val seedJson = """
+            {
+              "collections": { "top": [ { "_id": "a" }, { "_id": "b" } ] },
+              "sectionLists": { "default": [ { "_id": "/news" } ] }
+            }
+        """
+        val assets = mockk<AssetManager>()
+        every { application.assets } returns assets
+        every { assets.open("seed.json") } returns seedJson.byteInputStream()
+        mockkStatic("androidx.room.RoomDatabaseKt")
+        coEvery { database.withTransaction(any<suspend () -> Unit>()) } coAnswers {
+            secondArg<suspend () -> Unit>().invoke()
+        }
+        coEvery { dao.getCollections() } returns emptyList()
+
+        testObject.importSeed(assetPath = "seed.json").join()
+
+        val seedExpiration = Date(SEED_EXPIRES_AT_MS)
+        coVerify(exactly = 2) {
+            dao.insertCollectionItem(collectionItem = match {
+                it.collectionAlias == "top" && it.expiresAt == seedExpiration
+            })
+        }
+        coVerify {
+            dao.insertJsonItem(jsonItem = match { it.uuid == "a" && it.expiresAt == seedExpiration })
+            dao.insertJsonItem(jsonItem = match { it.uuid == "b" && it.expiresAt == seedExpiration })
+            dao.insertSectionList(sectionHeaderItem = match {
+                it.siteHierarchy == "default" && it.expiresAt == seedExpiration
+            })
+        }
+    }
+
+    @Test
+    fun `importSeed skips a cache that already has content`() = runTest {
+        coEvery { dao.getCollections() } returns listOf(mockk())
+
+        testObject.importSeed(assetPath = "seed.json").join()
+
+        coVerify(exactly = 0) {
+            dao.insertCollectionItem(collectionItem = any())
+            dao.insertJsonItem(jsonItem = any())
+        }
+    }
+
+    @Test
+    fun `getJsonByIds queries in chunks and keys results by uuid`() = runTest {
+        val uuids = (0 until SQLITE_MAX_BATCH_ARGS + 1).map { "$it" }
+        val first = JsonItem(uuid = "0", jsonResponse = "{}", expiresAt = Date())
+        val last = JsonItem(uuid = "$SQLITE_MAX_BATCH_ARGS", jsonResponse = "{}", expiresAt = Date())
+        coEvery { dao.getJsonByIds(uuids = uuids.take(SQLITE_MAX_BATCH_ARGS)) } returns listOf(first)
+        coEvery { dao.getJsonByIds(uuids = listOf("$SQLITE_MAX_BATCH_ARGS")) } returns listOf(last)
+
+        val actual = testObject.getJsonByIds(uuids = uuids + "0")
+
+        assertEquals(mapOf("0" to first, "$SQLITE_MAX_BATCH_ARGS" to last), actual)
+        coVerify(exactly = 2) { dao.getJsonByIds(uuids = any()) }
+    }
+
+    @Test
+    fun `insertAll writes items in one transaction`() = runTest {
+        mockkStatic("androidx.room.RoomDatabaseKt")
+        coEvery { database.withTransaction(any<suspend () -> Unit>()) } coAnswers {
+            secondArg<suspend () -> Unit>().invoke()
+        }
+        val items = listOf("a", "b").map { JsonItem(uuid = it, jsonResponse = "{}", expiresAt = Date()) }
+
+        testObject.insertAll(jsonItems = items)
+
+        coVerify(exactly = 1) { database.withTransaction(any<suspend () -> Unit>()) }
+        coVerify { items.forEach { dao.insertJsonItem(jsonItem = it) } }
+    }
+
+    @Test
+    fun `inTransaction runs block in one transaction`() = runTest {
+        mockkStatic("androidx.room.RoomDatabaseKt")
+        coEvery { database.withTransaction(any<suspend () -> Unit>()) } coAnswers {
+            secondArg<suspend () -> Unit>().invoke()
+        }
+        var ran = false
+
+        testObject.inTransaction { ran = true }
+
+        assertTrue(ran)
+        coVerify(exactly = 1) { database.withTransaction(any<suspend () -> Unit>()) }
+    }
+
+    @Test
+    fun `getCollectionBatch groups one query by collection`() = runTest {
+        val storyJson1 = getJson("story1.json")
+        val storyJson2 = getJson("story2.json")
+        coEvery {
+            dao.getCollectionsIndexedJson(collectionAliases = listOf("a", "b", "c"), from = 0, size = 20)
+        } returns listOf(
+            ContentSDKDao.AliasedJsonItem(collectionAlias = "a", indexValue = 0, jsonResponse = storyJson1),
+            ContentSDKDao.AliasedJsonItem(collectionAlias = "b", indexValue = 0, jsonResponse = storyJson2),
+            ContentSDKDao.AliasedJsonItem(collectionAlias = "b", indexValue = 1, jsonResponse = storyJson1),
+        )
+
+        val actual = testObject.getCollectionBatch(collectionAliases = listOf("a", "b", "c"), from = 0, size = 20)
+
+        assertEquals(setOf("a", "b"), actual.keys)
+        assertEquals(listOf(0, 1), actual.getValue("b").keys.toList())
+        assertEquals(
+            MoshiController.fromJson(storyJson2, ArcXPContentElement::class.java),
+            actual.getValue("b")[0]
+        )
+        coVerify(exactly = 1) { dao.getCollectionsIndexedJson(collectionAliases = any(), from = any(), size = any()) }
+    }
+
+    @Test
+    fun `purgeExpired removes long expired entries except kept, pinned and seeded ones`() = runTest {
+        testObject = CacheManager(
+            application = application,
+            database = database,
+            pinnedCollections = setOf("pinned")
+        )
+        coEvery { dao.getEvictionCandidates() } returns listOf(
+            cacheEntry(key = "expired", lastAccessedAt = 1L, isCollection = true, expiresAt = 10L),
+            cacheEntry(key = "fresh", lastAccessedAt = 1L, isCollection = true, expiresAt = 1000L),
+            cacheEntry(key = "pinned", lastAccessedAt = 1L, isCollection = true, expiresAt = 10L),
+            cacheEntry(key = "hot", lastAccessedAt = 1L, isCollection = true, expiresAt = 10L),
+            cacheEntry(key = "seeded", lastAccessedAt = 1L, isCollection = true, expiresAt = SEED_EXPIRES_AT_MS),
+            cacheEntry(key = "story", lastAccessedAt = 1L, expiresAt = 10L),
+        )
+
+        testObject.purgeExpired(before = Date(100L), keep = setOf("hot"))
+
+        coVerify(exactly = 1) { dao.deleteCollection(collectionAlias = "expired") }
+        coVerify(exactly = 1) { dao.deleteJsonItem(uuid = "story") }
+        listOf("fresh", "pinned", "hot", "seeded").forEach {
+            coVerify(exactly = 0) { dao.deleteCollection(collectionAlias = it) }
+        }
+    }
+}
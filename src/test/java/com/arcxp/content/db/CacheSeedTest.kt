@@ -0,0 +1,34 @@
+package com.arcxp.content.db
+
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertTrue
+import org.junit.Test
+
+class CacheSeedTest {
+
+    @Test
+    fun `parse reads collections and section lists`() {
+        val actual = CacheSeed.parse(
+            json = """
+            {
+              "collections": { "top": [ { "_id": "a", "type": "story" }, { "_id": "b" } ] },
+              "sectionLists": { "default": [ { "_id": "/news" } ] }
+            }
+            """
+        )
+
+        val items = actual.collections.getValue("top")
+        assertEquals(listOf(0, 1), items.map { it.index })
+        assertEquals(listOf("a", "b"), items.map { it.uuid })
+        assertEquals("{\"_id\":\"a\",\"type\":\"story\"}", items[0].json)
+        assertEquals("[{\"_id\":\"/news\"}]", actual.sectionLists.getValue("default"))
+    }
+
+    @Test
+    fun `parse allows missing sections`() {
+        val actual = CacheSeed.parse(json = "{}")
+
+        assertTrue(actual.collections.isEmpty())
+        assertTrue(actual.sectionLists.isEmpty())
+    }
+}
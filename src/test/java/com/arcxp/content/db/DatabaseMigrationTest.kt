@@ -0,0 +1,97 @@
+package com.arcxp.content.db
+
+import android.content.Context
+import android.database.sqlite.SQLiteDatabase
+import androidx.room.Room
+import androidx.test.core.app.ApplicationProvider
+import kotlinx.coroutines.ExperimentalCoroutinesApi
+import kotlinx.coroutines.asExecutor
+import kotlinx.coroutines.test.TestCoroutineDispatcher
+import kotlinx.coroutines.test.runTest
+import org.junit.After
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertNotNull
+import org.junit.Assert.assertTrue
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+import org.robolectric.annotation.Config
+import java.util.Date
+
+@ExperimentalCoroutinesApi
+@RunWith(RobolectricTestRunner::class)
+@Config(manifest = Config.NONE)
+class DatabaseMigrationTest {
+
+    private val testDispatcher = TestCoroutineDispatcher()
+    private val name = "migration-test"
+    private lateinit var context: Context
+    private var db: Database? = null
+
+    @Before
+    fun setUp() {
+        context = ApplicationProvider.getApplicationContext()
+        context.deleteDatabase(name)
+    }
+
+    @After
+    fun tearDown() {
+        db?.close()
+        context.deleteDatabase(name)
+    }
+
+    @Test
+    fun `migrates version 3 cache to current schema keeping cached items`() = runTest {
+        createVersion3Database()
+
+        db = Room.databaseBuilder(context, Database::class.java, name)
+            .addMigrations(*Database.migrations)
+            .addCallback(Database.searchIndexCallback)
+            .setTransactionExecutor(testDispatcher.asExecutor())
+            .setQueryExecutor(testDispatcher.asExecutor())
+            .allowMainThreadQueries()
+            .build()
+        val dao = db!!.sdkDao()
+
+        // room validates the migrated schema against the entities when opening
+        val json = dao.getJsonById(uuid = "id1")
+        assertNotNull(json)
+        assertEquals(Date(1000L), json!!.lastAccessedAt)
+        val collection = dao.getCollectionIndexedJson(collectionAlias = "alias", from = 0, size = 20)
+        assertEquals(listOf("json"), collection.map { it.jsonResponse })
+        assertEquals("section", dao.getSectionList(siteHierarchy = "site")!!.sectionHeaderResponse)
+
+        val indexes = db!!.openHelper.readableDatabase
+            .query("SELECT name FROM sqlite_master WHERE type IN ('index', 'trigger')").use { cursor ->
+                generateSequence { if (cursor.moveToNext()) cursor.getString(0) else null }.toList()
+            }
+        assertTrue(indexes.contains("index_CollectionItem_collectionAlias_indexValue_uuid"))
+        assertTrue(indexes.contains("jsonItem_search_delete"))
+
+        dao.insertSearchEntry(
+            JsonItemFts(headline = "migrated", subheadline = "", description = "", author = "", tags = "", uuid = "id1")
+        )
+        assertEquals(listOf("id1"), dao.searchJsonItems(query = "migrated", limit = 10).map { it.uuid })
+        dao.deleteJsonItem(uuid = "id1")
+        assertTrue(dao.searchJsonItems(query = "migrated", limit = 10).isEmpty())
+    }
+
+    // schema exactly as room created it for version 3
+    private fun createVersion3Database() {
+        SQLiteDatabase.openOrCreateDatabase(context.getDatabasePath(name), null).use { sqlite ->
+            listOf(
+                "CREATE TABLE IF NOT EXISTS `CollectionItem` (`indexValue` INTEGER NOT NULL, `collectionAlias` TEXT NOT NULL, `uuid` TEXT NOT NULL, `createdAt` INTEGER NOT NULL, `expiresAt` INTEGER NOT NULL, `internalId` TEXT NOT NULL, PRIMARY KEY(`internalId`))",
+                "CREATE UNIQUE INDEX IF NOT EXISTS `index_CollectionItem_internalId` ON `CollectionItem` (`internalId`)",
+                "CREATE TABLE IF NOT EXISTS `SectionHeaderItem` (`siteHierarchy` TEXT NOT NULL, `sectionHeaderResponse` TEXT NOT NULL, `createdAt` INTEGER NOT NULL, `expiresAt` INTEGER NOT NULL, PRIMARY KEY(`siteHierarchy`))",
+                "CREATE UNIQUE INDEX IF NOT EXISTS `index_SectionHeaderItem_siteHierarchy` ON `SectionHeaderItem` (`siteHierarchy`)",
+                "CREATE TABLE IF NOT EXISTS `JsonItem` (`uuid` TEXT NOT NULL, `jsonResponse` TEXT NOT NULL, `createdAt` INTEGER NOT NULL, `expiresAt` INTEGER NOT NULL, PRIMARY KEY(`uuid`))",
+                "CREATE UNIQUE INDEX IF NOT EXISTS `index_JsonItem_uuid` ON `JsonItem` (`uuid`)",
+                "INSERT INTO `JsonItem` VALUES ('id1', 'json', 1000, 2000)",
+                "INSERT INTO `CollectionItem` VALUES (0, 'alias', 'id1', 1000, 2000, 'alias-0')",
+                "INSERT INTO `SectionHeaderItem` VALUES ('site', 'section', 1000, 2000)"
+            ).forEach { sqlite.execSQL(it) }
+            sqlite.version = 3
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.arcxp.content.db
+
+import androidx.room.RoomDatabase
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertTrue
+import org.junit.Test
+
+class DatabaseProfileTest {
+
+    @Test
+    fun `default profile sets no pragmas`() {
+        assertTrue(DatabaseProfile.DEFAULT.pragmas().isEmpty())
+        assertEquals(RoomDatabase.JournalMode.AUTOMATIC, DatabaseProfile.DEFAULT.journalMode)
+    }
+
+    @Test
+    fun `read optimized profile pragmas`() {
+        assertEquals(
+            listOf("synchronous = NORMAL", "mmap_size = 67108864", "cache_size = -8192"),
+            DatabaseProfile.READ_OPTIMIZED.pragmas()
+        )
+        assertEquals(RoomDatabase.JournalMode.WRITE_AHEAD_LOGGING, DatabaseProfile.READ_OPTIMIZED.journalMode)
+    }
+}
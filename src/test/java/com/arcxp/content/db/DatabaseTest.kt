@@ -2,6 +2,7 @@ package com.arcxp.content.db
 
 import android.content.Context
 import androidx.room.Room
+import androidx.sqlite.db.SimpleSQLiteQuery
 import androidx.test.core.app.ApplicationProvider
 import com.arcxp.ArcXPMobileSDK
 import com.arcxp.commons.testutils.CoroutineTestRule
@@ -9,6 +10,7 @@ import com.arcxp.commons.testutils.TestUtils.createContentElement
 import com.arcxp.commons.testutils.TestUtils.getJson
 import com.arcxp.commons.util.MoshiController.toJson
 import com.arcxp.commons.util.Utils
+import com.arcxp.content.models.Headline
 import io.mockk.MockKAnnotations
 import io.mockk.clearAllMocks
 import io.mockk.coEvery
@@ -30,6 +32,7 @@ import org.robolectric.RobolectricTestRunner
 import org.robolectric.annotation.Config
 import java.io.IOException
 import java.util.*
+import java.util.concurrent.Executors
 
 @ExperimentalCoroutinesApi
 @RunWith(RobolectricTestRunner::class)
@@ -64,6 +67,7 @@ class DatabaseTest {
             .setTransactionExecutor(testDispatcher.asExecutor())
             .setQueryExecutor(testDispatcher.asExecutor())
             .allowMainThreadQueries()
+            .addCallback(Database.searchIndexCallback)
             .build()
         testObject = db.sdkDao()
         mockkObject(ArcXPMobileSDK)
@@ -222,63 +226,88 @@ class DatabaseTest {
     }
 
     @Test
-    fun `delete oldest json item deletes only the oldest json item`() = runTest {
-        val expectedDate = mockk<Date>()
-        every { expectedDate.time } returns 123L
-        val oldestDate = mockk<Date>()
-        every { oldestDate.time } returns 1L
-        val jsonItem1 = JsonItem(
-            uuid = "id1",
-            jsonResponse = "response",
-            expiresAt = expectedDate,
-            createdAt = expectedDate
-        )
-        val jsonItem2 = JsonItem(
-            uuid = "id2",
-            jsonResponse = "response",
-            expiresAt = expectedDate,
-            createdAt = expectedDate
-        )
-        val jsonItem3 = JsonItem(
-            uuid = "id3",
-            jsonResponse = "response",
-            expiresAt = expectedDate,
-            createdAt = expectedDate
-        )
-        val jsonItem4 = JsonItem(
-            uuid = "id4",
-            jsonResponse = "response",
-            expiresAt = expectedDate,
-            createdAt = expectedDate
-        )
-        val jsonItem5 = JsonItem(
-            uuid = "id5",
-            jsonResponse = "response",
-            expiresAt = expectedDate,
-            createdAt = oldestDate
-        )
-        val jsonItem6 = JsonItem(
-            uuid = "id6",
-            jsonResponse = "response",
-            expiresAt = expectedDate,
-            createdAt = expectedDate
-        )
-        testObject.insertJsonItem(jsonItem1)
-        testObject.insertJsonItem(jsonItem2)
-        testObject.insertJsonItem(jsonItem3)
-        testObject.insertJsonItem(jsonItem4)
-        testObject.insertJsonItem(jsonItem5)
-        testObject.insertJsonItem(jsonItem6)
-
-
-        assertEquals(6, testObject.countJsonItems())
+    fun `eviction candidates group collections and include only unreferenced json items`() = runTest {
+        coEvery { Utils.createDate(any()) } answers { Date(firstArg<Long>()) }
+        listOf("shared" to 1L, "onlyInA" to 2L, "standalone" to 3L).forEach { (uuid, time) ->
+            testObject.insertJsonItem(
+                JsonItem(
+                    uuid = uuid,
+                    jsonResponse = "json",
+                    createdAt = Date(time),
+                    expiresAt = Date(time)
+                )
+            )
+        }
+        listOf(Triple("a", 0, "shared"), Triple("a", 1, "onlyInA"), Triple("b", 0, "shared"))
+            .forEach { (alias, index, uuid) ->
+                testObject.insertCollectionItem(
+                    CollectionItem(
+                        indexValue = index,
+                        collectionAlias = alias,
+                        uuid = uuid,
+                        createdAt = Date(10L + index),
+                        expiresAt = Date(20L + index)
+                    )
+                )
+            }
+
+        val actual = testObject.getEvictionCandidates().sortedBy { it.key }
+
+        assertEquals(listOf("a", "b", "standalone"), actual.map { it.key })
+        assertEquals(listOf(true, true, false), actual.map { it.isCollection })
+        assertEquals(Date(11L), actual[0].lastAccessedAt)
+        assertEquals(Date(20L), actual[0].expiresAt)
+        assertEquals(8L, actual[0].sizeBytes)
+        assertEquals(4L, actual[2].sizeBytes)
+    }
 
-        testObject.deleteOldestJsonItem()
+    @Test
+    fun `deleteCollectionJsonItems keeps shared and recently read json items`() = runTest {
+        coEvery { Utils.createDate(any()) } answers { Date(firstArg<Long>()) }
+        listOf("shared", "onlyInA", "readLater").forEach { uuid ->
+            testObject.insertJsonItem(
+                JsonItem(uuid = uuid, jsonResponse = "json", createdAt = Date(1L), expiresAt = Date(1L))
+            )
+        }
+        listOf(Triple("a", 0, "shared"), Triple("a", 1, "onlyInA"), Triple("a", 2, "readLater"), Triple("b", 0, "shared"))
+            .forEach { (alias, index, uuid) ->
+                testObject.insertCollectionItem(
+                    CollectionItem(
+                        indexValue = index,
+                        collectionAlias = alias,
+                        uuid = uuid,
+                        createdAt = Date(1L),
+                        expiresAt = Date(1L)
+                    )
+                )
+            }
+        testObject.updateJsonAccess(uuids = listOf("readLater"), accessedAt = Date(50L))
+
+        testObject.deleteCollectionJsonItems(collectionAlias = "a", accessedBefore = Date(10L))
+
+        assertNull(testObject.getJsonById(uuid = "onlyInA"))
+        assertNotNull(testObject.getJsonById(uuid = "shared"))
+        assertNotNull(testObject.getJsonById(uuid = "readLater"))
+    }
 
-        assertEquals(5, testObject.countJsonItems())
+    @Test
+    fun `updateCollectionAccess updates every row of the collection`() = runTest {
+        coEvery { Utils.createDate(any()) } answers { Date(firstArg<Long>()) }
+        (0..1).forEach { index ->
+            testObject.insertCollectionItem(
+                CollectionItem(
+                    indexValue = index,
+                    collectionAlias = "a",
+                    uuid = "id$index",
+                    createdAt = Date(1L),
+                    expiresAt = Date(1L)
+                )
+            )
+        }
 
-        assertNull(testObject.getJsonById("id5"))
+        testObject.updateCollectionAccess(collectionAliases = listOf("a"), accessedAt = Date(7L))
 
+        assertEquals(listOf(Date(7L), Date(7L)), testObject.getCollections().map { it!!.lastAccessedAt })
     }
 
     @Test
@@ -955,4 +984,273 @@ class DatabaseTest {
         assertEquals(0, testObject.countJsonItems())
         assertEquals(0, testObject.countCollectionItems())
     }
-}
\ No newline at end of file
+
+    @Test
+    fun `search finds indexed json item and deleting json item removes it from index`() = runTest {
+        val jsonItem = JsonItem(
+            uuid = "id1",
+            jsonResponse = "response",
+            expiresAt = expectedDate,
+            createdAt = expectedDate
+        )
+        testObject.insertJsonItem(jsonItem)
+        testObject.insertSearchEntry(
+            JsonItemFts(
+                headline = "City council election",
+                subheadline = "",
+                description = "",
+                author = "Jane Reporter",
+                tags = "politics",
+                uuid = "id1"
+            )
+        )
+
+        val found = testObject.searchJsonItems(query = "elect*", limit = 10)
+        assertEquals(1, found.size)
+        assertEquals("id1", found[0].uuid)
+        assertTrue(testObject.hasJsonItem(uuid = "id1"))
+
+        testObject.deleteJsonItem(uuid = "id1")
+
+        assertTrue(testObject.searchJsonItems(query = "elect*", limit = 10).isEmpty())
+        assertFalse(testObject.hasJsonItem(uuid = "id1"))
+    }
+
+    @Test
+    fun `search results still match their json items after vacuum`() = runTest {
+        suspend fun insertIndexed(uuid: String, headline: String) {
+            testObject.insertJsonItem(
+                JsonItem(uuid = uuid, jsonResponse = "response $uuid", expiresAt = expectedDate, createdAt = expectedDate)
+            )
+            testObject.insertSearchEntry(
+                JsonItemFts(headline = headline, subheadline = "", description = "", author = "", tags = "", uuid = uuid)
+            )
+        }
+        fun search(query: String) = testObject.searchJsonItems(query = query, limit = 10).map { it.uuid to it.jsonResponse }
+        insertIndexed(uuid = "id1", headline = "apple")
+        insertIndexed(uuid = "id2", headline = "banana")
+        insertIndexed(uuid = "id3", headline = "cherry")
+        insertIndexed(uuid = "id4", headline = "damson")
+        testObject.deleteJsonItem(uuid = "id1")
+        testObject.deleteJsonItem(uuid = "id3")
+        insertIndexed(uuid = "id5", headline = "elderberry")
+
+        testObject.vacuumDb(supportSQLiteQuery = SimpleSQLiteQuery("VACUUM"))
+
+        assertTrue(search("apple").isEmpty())
+        assertEquals(listOf("id2" to "response id2"), search("banana"))
+        assertTrue(search("cherry").isEmpty())
+        assertEquals(listOf("id4" to "response id4"), search("damson"))
+        assertEquals(listOf("id5" to "response id5"), search("elderberry"))
+
+        testObject.deleteJsonItem(uuid = "id4")
+
+        assertTrue(search("damson").isEmpty())
+        assertEquals(listOf("id2" to "response id2"), search("banana"))
+        assertEquals(listOf("id5" to "response id5"), search("elderberry"))
+    }
+
+    @Test
+    fun `maintain converting to incremental vacuum keeps search results on their items`() = runTest {
+        every { ArcXPMobileSDK.contentConfig().cacheSizeMB } returns 100
+        val cacheManager = CacheManager(
+            application = ApplicationProvider.getApplicationContext(),
+            database = db,
+            maintenanceAllowed = { true }
+        )
+        suspend fun insert(uuid: String, headline: String) = cacheManager.insert(
+            jsonItem = JsonItem(
+                uuid = uuid,
+                jsonResponse = toJson(
+                    createContentElement(id = uuid).copy(
+                        headlines = Headline(
+                            basic = headline,
+                            print = null,
+                            social = null,
+                            native = null,
+                            tablet = null,
+                            web = null
+                        )
+                    )
+                )!!,
+                expiresAt = expectedDate
+            )
+        )
+        suspend fun search(searchTerm: String) =
+            cacheManager.search(searchTerm = searchTerm, from = 0, size = 10).values.map { it._id }
+        insert(uuid = "id1", headline = "apple")
+        insert(uuid = "id2", headline = "banana")
+        insert(uuid = "id3", headline = "cherry")
+        testObject.deleteJsonItem(uuid = "id1")
+        insert(uuid = "id2", headline = "banana split")
+        insert(uuid = "id4", headline = "damson")
+
+        cacheManager.maintain()
+
+        assertEquals(2, testObject.pragma(SimpleSQLiteQuery("PRAGMA auto_vacuum")))
+        assertTrue(search("apple").isEmpty())
+        assertEquals(listOf("id2"), search("split"))
+        assertEquals(listOf("id3"), search("cherry"))
+        assertEquals(listOf("id4"), search("damson"))
+    }
+
+    @Test
+    fun `collection page queries read, extend and delete only the requested rows`() = runTest {
+        val oldDate = Date(1000L)
+        val newDate = Date(2000L)
+        coEvery { Utils.createDate(any()) } answers { Date(firstArg<Long>()) }
+        (0..3).forEach { index ->
+            testObject.insertCollectionItem(
+                CollectionItem(
+                    indexValue = index,
+                    collectionAlias = "alias",
+                    uuid = "id$index",
+                    createdAt = oldDate,
+                    expiresAt = oldDate
+                )
+            )
+        }
+        (0..2).forEach { index ->
+            testObject.insertJsonItem(
+                JsonItem(uuid = "id$index", jsonResponse = "json$index", expiresAt = oldDate)
+            )
+        }
+
+        val page = testObject.getCollectionPage(collectionAlias = "alias", from = 1, size = 3)
+        assertEquals(listOf(1, 2, 3), page.map { it.indexValue })
+        assertEquals(listOf("id1", "id2", "id3"), page.map { it.uuid })
+        assertEquals(listOf("json1", "json2", null), page.map { it.jsonResponse })
+
+        testObject.updateCollectionExpiration(
+            collectionAlias = "alias",
+            from = 1,
+            size = 2,
+            expiresAt = newDate
+        )
+        testObject.updateJsonExpiration(uuids = listOf("id1"), expiresAt = newDate)
+        assertEquals(
+            listOf(oldDate, newDate, newDate, oldDate),
+            testObject.getCollections().sortedBy { it!!.indexValue }.map { it!!.expiresAt }
+        )
+        assertEquals(newDate, testObject.getJsonById(uuid = "id1")!!.expiresAt)
+        assertEquals(oldDate, testObject.getJsonById(uuid = "id2")!!.expiresAt)
+
+        testObject.deleteCollectionItems(collectionAlias = "alias", indices = listOf(0, 3))
+        assertEquals(
+            listOf(1, 2),
+            testObject.getCollections().map { it!!.indexValue }.sorted()
+        )
+    }
+
+    @Test
+    fun `hot queries use indexes instead of full table scans`() {
+        val hotQueries = listOf(
+            // getCollectionIndexedJson
+            """
+            SELECT collectionItem.indexValue, jsonItem.jsonResponse FROM collectionItem
+            JOIN jsonItem ON collectionItem.uuid = jsonItem.uuid
+            where collectionItem.collectionAlias = ? AND indexValue >= ?
+            ORDER BY indexValue LIMIT ?
+            """ to arrayOf<Any>("alias", 0, 20),
+            // getCollectionPage
+            """
+            SELECT collectionItem.indexValue, collectionItem.uuid, jsonItem.jsonResponse FROM collectionItem
+            LEFT JOIN jsonItem ON collectionItem.uuid = jsonItem.uuid
+            WHERE collectionItem.collectionAlias = ? AND indexValue >= ? AND indexValue < ? + ?
+            ORDER BY indexValue
+            """ to arrayOf<Any>("alias", 0, 0, 20),
+            // getCollectionExpiration
+            "SELECT MIN(collectionItem.expiresAt) FROM collectionitem WHERE collectionItem.collectionAlias = ?"
+                    to arrayOf<Any>("alias"),
+            // getJsonById
+            "SELECT * FROM jsonItem where uuid = ?" to arrayOf<Any>("id")
+        )
+        val fullScan = Regex("^SCAN (TABLE )?(collectionItem|jsonItem)\\b", RegexOption.IGNORE_CASE)
+
+        hotQueries.forEach { (sql, args) ->
+            val plan = db.query(SimpleSQLiteQuery("EXPLAIN QUERY PLAN $sql", args)).use { cursor ->
+                val detail = cursor.getColumnIndex("detail")
+                generateSequence { if (cursor.moveToNext()) cursor.getString(detail) else null }.toList()
+            }
+            assertTrue("$sql\n$plan", plan.isNotEmpty())
+            assertTrue("$sql\n$plan", plan.none { fullScan.containsMatchIn(it) })
+        }
+    }
+
+    @Test
+    fun `getJsonByIds returns matching items`() = runTest {
+        listOf("a", "b", "c").forEach {
+            testObject.insertJsonItem(JsonItem(uuid = it, jsonResponse = "{}", expiresAt = Date()))
+        }
+
+        val actual = testObject.getJsonByIds(uuids = listOf("c", "a", "missing"))
+
+        assertEquals(setOf("a", "c"), actual.map { it.uuid }.toSet())
+    }
+
+    @Test
+    fun `getCollectionsIndexedJson returns the page of each collection`() = runTest {
+        coEvery { Utils.createDate(any()) } answers { Date(firstArg()) }
+        listOf("a", "b").forEach { alias ->
+            (0..2).forEach { index ->
+                val expiresAt = Date(index * 1000L)
+                testObject.insertJsonItem(JsonItem(uuid = "$alias$index", jsonResponse = "{}", expiresAt = expiresAt))
+                testObject.insertCollectionItem(
+                    CollectionItem(
+                        collectionAlias = alias,
+                        indexValue = index,
+                        uuid = "$alias$index",
+                        expiresAt = expiresAt
+                    )
+                )
+            }
+        }
+
+        val actual = testObject.getCollectionsIndexedJson(collectionAliases = listOf("a", "b"), from = 1, size = 1)
+        val expirations = testObject.getCollectionExpirations(collectionAliases = listOf("a", "missing"))
+
+        assertEquals(listOf("a" to 1, "b" to 1), actual.map { it.collectionAlias to it.indexValue })
+        assertEquals(
+            listOf(ContentSDKDao.CollectionExpiration(collectionAlias = "a", expiresAt = Date(0))),
+            expirations
+        )
+    }
+
+    @Test
+    fun `profile callback applies pragmas on open`() {
+        val profile = DatabaseProfile(
+            synchronous = DatabaseProfile.Synchronous.NORMAL,
+            cacheSizeKb = 4096
+        )
+        val tuned = Room.inMemoryDatabaseBuilder(
+            ApplicationProvider.getApplicationContext<Context>(), Database::class.java
+        )
+            .allowMainThreadQueries()
+            .addCallback(Database.profileCallback(profile = profile))
+            .build()
+
+        fun pragma(name: String) = tuned.query(SimpleSQLiteQuery("PRAGMA $name")).use {
+            it.moveToFirst()
+            it.getLong(0)
+        }
+
+        assertEquals(1L, pragma("synchronous")) // NORMAL
+        assertEquals(-4096L, pragma("cache_size"))
+        tuned.close()
+    }
+
+    @Test
+    fun `close shuts down owned query executor`() {
+        val executor = Executors.newFixedThreadPool(1)
+        val database = Room.inMemoryDatabaseBuilder(
+            ApplicationProvider.getApplicationContext<Context>(), Database::class.java
+        )
+            .setQueryExecutor(executor)
+            .build()
+        database.ownedQueryExecutor = executor
+
+        database.close()
+
+        assertTrue(executor.isShutdown)
+    }
+}
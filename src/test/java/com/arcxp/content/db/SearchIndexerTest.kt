@@ -0,0 +1,72 @@
+package com.arcxp.content.db
+
+import com.arcxp.commons.testutils.TestUtils.getJson
+import com.arcxp.commons.util.MoshiController.fromJson
+import com.arcxp.content.extendedModels.ArcXPContentElement
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertNull
+import org.junit.Assert.assertTrue
+import org.junit.Test
+import java.nio.ByteBuffer
+import java.nio.ByteOrder
+
+class SearchIndexerTest {
+
+    @Test
+    fun `createEntry extracts searchable fields`() {
+        val json = getJson("story1.json")
+        val element = fromJson(json, ArcXPContentElement::class.java)!!
+
+        val actual = SearchIndexer.createEntry(uuid = "uuid", json = json)!!
+
+        assertEquals("uuid", actual.uuid)
+        assertEquals(element.headlines?.basic ?: "", actual.headline)
+        assertEquals(element.subheadlines?.basic ?: "", actual.subheadline)
+        assertEquals(element.description?.basic ?: "", actual.description)
+    }
+
+    @Test
+    fun `createEntry returns null for invalid json`() {
+        assertNull(SearchIndexer.createEntry(uuid = "uuid", json = "invalid"))
+    }
+
+    @Test
+    fun `matchQuery builds prefix or query from tokens`() {
+        assertEquals(
+            "election* OR local* OR news*",
+            SearchIndexer.matchQuery(searchTerm = "Election, local-news election")
+        )
+    }
+
+    @Test
+    fun `matchQuery returns null without tokens`() {
+        assertNull(SearchIndexer.matchQuery(searchTerm = " ,- "))
+    }
+
+    @Test
+    fun `rank weights headline above tags`() {
+        val headlineHit = SearchIndexer.rank(matchInfo = matchInfo(column = 0))
+        val tagHit = SearchIndexer.rank(matchInfo = matchInfo(column = 4))
+
+        assertTrue(headlineHit > tagHit)
+        assertTrue(tagHit > 0.0)
+    }
+
+    @Test
+    fun `rank returns zero for empty match info`() {
+        assertEquals(0.0, SearchIndexer.rank(matchInfo = ByteArray(0)), 0.0)
+    }
+
+    // matchinfo 'pcx' blob with one phrase, 5 columns, one hit in [column]
+    private fun matchInfo(column: Int): ByteArray {
+        val ints = IntArray(2 + 5 * 3)
+        ints[0] = 1
+        ints[1] = 5
+        ints[2 + column * 3] = 1
+        ints[2 + column * 3 + 1] = 2
+        ints[2 + column * 3 + 2] = 1
+        val buffer = ByteBuffer.allocate(ints.size * 4).order(ByteOrder.nativeOrder())
+        ints.forEach { buffer.putInt(it) }
+        return buffer.array()
+    }
+}
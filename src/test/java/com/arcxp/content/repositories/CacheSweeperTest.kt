@@ -0,0 +1,131 @@
+package com.arcxp.content.repositories
+
+import android.app.Application
+import com.arcxp.commons.util.Constants.STALE_PURGE_AFTER_MS
+import com.arcxp.commons.util.Utils
+import com.arcxp.content.db.CacheManager
+import com.arcxp.content.db.SectionHeaderItem
+import com.arcxp.content.util.CacheScheduler
+import com.arcxp.sdk.R
+import io.mockk.MockKAnnotations
+import io.mockk.clearAllMocks
+import io.mockk.coEvery
+import io.mockk.coVerify
+import io.mockk.every
+import io.mockk.impl.annotations.RelaxedMockK
+import io.mockk.mockkObject
+import io.mockk.verify
+import kotlinx.coroutines.test.advanceTimeBy
+import kotlinx.coroutines.test.runCurrent
+import kotlinx.coroutines.test.runTest
+import org.junit.After
+import org.junit.Assert.assertEquals
+import org.junit.Before
+import org.junit.Test
+import java.util.Date
+
+class CacheSweeperTest {
+
+    @RelaxedMockK
+    private lateinit var application: Application
+
+    @RelaxedMockK
+    private lateinit var contentRepository: ContentRepository
+
+    @RelaxedMockK
+    private lateinit var cacheManager: CacheManager
+
+    private val now = 1_000_000_000L
+    private val interval = 60_000L
+
+    @Before
+    fun setUp() {
+        MockKAnnotations.init(this)
+        mockkObject(Utils)
+        every { Utils.currentTimeInMillis() } returns now
+    }
+
+    @After
+    fun tearDown() {
+        clearAllMocks()
+    }
+
+    private fun sweeper(
+        refreshAllowed: Boolean,
+        scheduler: CacheScheduler = CacheScheduler { _, _ -> error("unused") }
+    ) = CacheSweeper(
+        application = application,
+        contentRepository = contentRepository,
+        cacheManager = cacheManager,
+        hotCollections = setOf("expiring", "fresh"),
+        hotSectionLists = setOf("default"),
+        intervalMillis = interval,
+        scheduler = scheduler,
+        refreshAllowed = { refreshAllowed }
+    )
+
+    @Test
+    fun `sweep purges and refreshes hot entries expiring before the next sweep`() = runTest {
+        coEvery { cacheManager.getCollectionExpiration("expiring") } returns Date(now + interval / 2)
+        coEvery { cacheManager.getCollectionExpiration("fresh") } returns Date(now + interval * 2)
+        coEvery { cacheManager.getSectionList("default") } returns null
+
+        sweeper(refreshAllowed = true).sweep()
+
+        coVerify(exactly = 1) {
+            cacheManager.purgeExpired(
+                before = Date(now - STALE_PURGE_AFTER_MS),
+                keep = setOf("expiring", "fresh")
+            )
+            contentRepository.refreshCollection(collectionAlias = "expiring", onChanges = any())
+            contentRepository.refreshSectionList(siteHierarchy = "default")
+        }
+        coVerify(exactly = 0) { contentRepository.refreshCollection(collectionAlias = "fresh", onChanges = any()) }
+    }
+
+    @Test
+    fun `sweep only purges when refreshing is not allowed`() = runTest {
+        coEvery { cacheManager.getSectionList("default") } returns SectionHeaderItem(
+            siteHierarchy = "default",
+            sectionHeaderResponse = "[]",
+            expiresAt = Date(0)
+        )
+
+        sweeper(refreshAllowed = false).sweep()
+
+        coVerify(exactly = 1) { cacheManager.purgeExpired(before = any(), keep = any()) }
+        coVerify(exactly = 0) {
+            contentRepository.refreshCollection(collectionAlias = any(), from = any(), size = any(), onChanges = any())
+            contentRepository.refreshSectionList(siteHierarchy = any())
+        }
+    }
+
+    @Test
+    fun `start sweeps on every interval of the scheduler`() = runTest {
+        val testObject = sweeper(
+            refreshAllowed = false,
+            scheduler = CacheScheduler.coroutine(application = application, scope = backgroundScope)
+        )
+
+        testObject.start()
+        runCurrent()
+        coVerify(exactly = 0) { cacheManager.purgeExpired(before = any(), keep = any()) }
+
+        advanceTimeBy(interval * 2 + 1)
+        coVerify(exactly = 2) { cacheManager.purgeExpired(before = any(), keep = any()) }
+    }
+
+    @Test
+    fun `coroutine scheduler keeps running after a task throws`() = runTest {
+        var runs = 0
+        CacheScheduler.coroutine(application = application, scope = backgroundScope).schedule(intervalMillis = interval) {
+            runs++
+            if (runs == 1) throw IllegalStateException("sweep failed")
+        }
+
+        advanceTimeBy(interval * 3 + 1)
+
+        assertEquals(3, runs)
+        verify(exactly = 1) { application.getString(R.string.cache_task_failure_message, "sweep failed") }
+    }
+}
@@ -4,10 +4,12 @@ import android.app.Application
 import androidx.arch.core.executor.testing.InstantTaskExecutorRule
 import com.arcxp.ArcXPMobileSDK
 import com.arcxp.ArcXPMobileSDK.contentConfig
+import com.arcxp.commons.testutils.TestUtils.createContentElement
 import com.arcxp.commons.testutils.TestUtils.getJson
 import com.arcxp.commons.throwables.ArcXPException
 import com.arcxp.commons.throwables.ArcXPSDKErrorType
 import com.arcxp.commons.util.Constants.DEFAULT_PAGINATION_SIZE
+import com.arcxp.commons.util.Constants.SEED_EXPIRES_AT_MS
 import com.arcxp.commons.util.DependencyFactory
 import com.arcxp.commons.util.DependencyFactory.createIOScope
 import com.arcxp.commons.util.Failure
@@ -17,18 +19,23 @@ import com.arcxp.commons.util.Utils
 import com.arcxp.content.apimanagers.ContentApiManager
 import com.arcxp.content.db.CacheManager
 import com.arcxp.content.db.CollectionItem
+import com.arcxp.content.db.ContentSDKDao
 import com.arcxp.content.db.JsonItem
 import com.arcxp.content.db.SectionHeaderItem
 import com.arcxp.content.extendedModels.ArcXPContentElement
 import com.arcxp.content.extendedModels.ArcXPStory
 import com.arcxp.content.models.*
+import com.arcxp.content.util.JsonStream
 import com.arcxp.sdk.R
-import com.google.gson.JsonSyntaxException
 import com.squareup.moshi.JsonEncodingException
 import io.mockk.*
 import io.mockk.impl.annotations.RelaxedMockK
 import kotlinx.coroutines.*
+import kotlinx.coroutines.flow.toList
 import kotlinx.coroutines.test.runTest
+import okhttp3.ResponseBody
+import okhttp3.ResponseBody.Companion.toResponseBody
+import okio.Buffer
 import org.junit.After
 import org.junit.Assert.assertEquals
 import org.junit.Before
@@ -80,6 +87,7 @@ class ContentRepositoryTest {
         coEvery { contentConfig().preLoading } returns true
         mockkObject(DependencyFactory)
         coEvery { createIOScope() } returns CoroutineScope(context = Dispatchers.Unconfined + SupervisorJob())
+        coEvery { cacheManager.inTransaction(any()) } coAnswers { firstArg<suspend () -> Unit>().invoke() }
 
         testObject = ContentRepository(
             application = application,
@@ -116,13 +124,13 @@ class ContentRepositoryTest {
         coEvery { cacheManager.getJsonById(uuid = any()) } returns null
         coEvery { cacheManager.getCollectionExpiration(id) } returns expiredDate
         coEvery {
-            contentApiManager.getCollection(
+            contentApiManager.getCollectionBody(
                 collectionAlias = id,
                 size = DEFAULT_PAGINATION_SIZE,
                 from = 0,
                 full = true
             )
-        } returns Success(Pair(collectionJson, mockk()))
+        } answers { Success(Pair(collectionJson.toResponseBody(), mockk())) }
 
         val actual = testObject.getCollection(
             collectionAlias = id,
@@ -154,6 +162,165 @@ class ContentRepositoryTest {
         assertEquals(contentElementList[2], actual2)
     }
 
+    @Test
+    fun `getCollection refresh only writes changed rows and reports change set`() = runTest {
+        val collectionJson = getJson("collectionFull.json")
+        val jsonList = JsonStream.readArray(
+            source = Buffer().writeUtf8(collectionJson),
+            type = ArcXPContentElement::class.java
+        ).map { it.json }
+        val uuids = listOf(
+            "SBMBP2IX35CVLCNR6BQGSXGQVA",
+            "RICKZKE4U5AF5GX7OLA6MWGOFY",
+            "SIWW3GLZERCIFC7F7RERLBNILQ"
+        )
+        val expiresAt = Date(5000L)
+        val changes = mutableListOf<CollectionChangeSet>()
+        coEvery {
+            cacheManager.getCollection(collectionAlias = id, from = 0, size = DEFAULT_PAGINATION_SIZE)
+        } returns emptyMap()
+        coEvery {
+            cacheManager.getCollectionPage(collectionAlias = id, from = 0, size = DEFAULT_PAGINATION_SIZE)
+        } returns listOf(
+            ContentSDKDao.CollectionPageItem(indexValue = 0, uuid = uuids[0], jsonResponse = jsonList[0]),
+            ContentSDKDao.CollectionPageItem(indexValue = 1, uuid = uuids[1], jsonResponse = "old"),
+            ContentSDKDao.CollectionPageItem(indexValue = 5, uuid = "gone", jsonResponse = "json")
+        )
+        coEvery {
+            contentApiManager.getCollectionBody(
+                collectionAlias = id,
+                size = DEFAULT_PAGINATION_SIZE,
+                from = 0,
+                full = true
+            )
+        } answers { Success(Pair(collectionJson.toResponseBody(), expiresAt)) }
+
+        testObject.getCollection(
+            collectionAlias = id,
+            size = DEFAULT_PAGINATION_SIZE,
+            from = 0,
+            onChanges = { changes.add(it) }
+        )
+
+        assertEquals(
+            listOf(
+                CollectionChangeSet(
+                    collectionAlias = id,
+                    inserted = listOf(2),
+                    removed = listOf(5),
+                    changed = listOf(1)
+                )
+            ), changes
+        )
+        val jsonItemSlot = mutableListOf<JsonItem>()
+        coVerify(exactly = 2) { cacheManager.insert(any(), capture(jsonItemSlot)) }
+        assertEquals(listOf(uuids[1], uuids[2]), jsonItemSlot.map { it.uuid })
+        coVerify(exactly = 1) {
+            cacheManager.inTransaction(any())
+            cacheManager.deleteCollectionItems(collectionAlias = id, indices = listOf(5))
+            cacheManager.updateExpiration(
+                collectionAlias = id,
+                from = 0,
+                size = DEFAULT_PAGINATION_SIZE,
+                uuids = listOf(uuids[0]),
+                expiresAt = expiresAt
+            )
+        }
+        coVerify(exactly = 0) { cacheManager.insertCollectionItem(any()) }
+    }
+
+    @Test
+    fun `getCollection refresh leaves rows past the quota out of the change set`() = runTest {
+        val collectionJson = getJson("collectionFull.json")
+        val jsonList = JsonStream.readArray(
+            source = Buffer().writeUtf8(collectionJson),
+            type = ArcXPContentElement::class.java
+        ).map { it.json }
+        val uuid = "SBMBP2IX35CVLCNR6BQGSXGQVA"
+        val changes = mutableListOf<CollectionChangeSet>()
+        every { cacheManager.isOverQuota(collectionAlias = id, index = any()) } answers { secondArg<Int>() >= 1 }
+        coEvery {
+            cacheManager.getCollection(collectionAlias = id, from = 0, size = DEFAULT_PAGINATION_SIZE)
+        } returns emptyMap()
+        coEvery {
+            cacheManager.getCollectionPage(collectionAlias = id, from = 0, size = DEFAULT_PAGINATION_SIZE)
+        } returns listOf(
+            ContentSDKDao.CollectionPageItem(indexValue = 0, uuid = uuid, jsonResponse = jsonList[0])
+        )
+        coEvery {
+            contentApiManager.getCollectionBody(
+                collectionAlias = id,
+                size = DEFAULT_PAGINATION_SIZE,
+                from = 0,
+                full = true
+            )
+        } answers { Success(Pair(collectionJson.toResponseBody(), Date())) }
+
+        testObject.getCollection(
+            collectionAlias = id,
+            size = DEFAULT_PAGINATION_SIZE,
+            from = 0,
+            onChanges = { changes.add(it) }
+        )
+
+        assertTrue(changes.isEmpty())
+        coVerify(exactly = 0) {
+            cacheManager.insert(any(), any())
+            cacheManager.insertCollectionItem(any())
+        }
+        coVerify(exactly = 1) {
+            cacheManager.updateExpiration(
+                collectionAlias = id,
+                from = 0,
+                size = DEFAULT_PAGINATION_SIZE,
+                uuids = listOf(uuid),
+                expiresAt = any()
+            )
+        }
+    }
+
+    @Test
+    fun `getCollection refresh rewrites only collection row for moved unchanged item`() = runTest {
+        val collectionJson = getJson("collectionFull.json")
+        val jsonList = JsonStream.readArray(
+            source = Buffer().writeUtf8(collectionJson),
+            type = ArcXPContentElement::class.java
+        ).map { it.json }
+        val uuid = "RICKZKE4U5AF5GX7OLA6MWGOFY"
+        val changes = mutableListOf<CollectionChangeSet>()
+        coEvery {
+            cacheManager.getCollection(collectionAlias = id, from = 0, size = DEFAULT_PAGINATION_SIZE)
+        } returns emptyMap()
+        coEvery {
+            cacheManager.getCollectionPage(collectionAlias = id, from = 0, size = DEFAULT_PAGINATION_SIZE)
+        } returns listOf(
+            ContentSDKDao.CollectionPageItem(indexValue = 0, uuid = uuid, jsonResponse = jsonList[1])
+        )
+        coEvery {
+            contentApiManager.getCollectionBody(
+                collectionAlias = id,
+                size = DEFAULT_PAGINATION_SIZE,
+                from = 0,
+                full = true
+            )
+        } answers { Success(Pair(collectionJson.toResponseBody(), Date())) }
+
+        testObject.getCollection(
+            collectionAlias = id,
+            size = DEFAULT_PAGINATION_SIZE,
+            from = 0,
+            onChanges = { changes.add(it) }
+        )
+
+        assertEquals(listOf(CollectionChangeSet.Move(from = 0, to = 1)), changes.single().moved)
+        assertEquals(listOf(0, 2), changes.single().inserted)
+        val collectionItemSlot = slot<CollectionItem>()
+        coVerify(exactly = 1) { cacheManager.insertCollectionItem(capture(collectionItemSlot)) }
+        assertEquals(1, collectionItemSlot.captured.indexValue)
+        assertEquals(uuid, collectionItemSlot.captured.uuid)
+        coVerify(exactly = 2) { cacheManager.insert(any(), any()) }
+    }
+
     @Test
     fun `doCollectionApiCallSuspend does not make story call when preLoading is false`() = runTest {
         coEvery { contentConfig().preLoading } returns false
@@ -166,13 +333,13 @@ class ContentRepositoryTest {
         } returns emptyMap()
         coEvery { cacheManager.getJsonById(uuid = any()) } returns null
         coEvery {
-            contentApiManager.getCollection(
+            contentApiManager.getCollectionBody(
                 collectionAlias = id,
                 size = DEFAULT_PAGINATION_SIZE,
                 from = 0,
                 full = true
             )
-        } returns Success(Pair(collectionListJson, Date()))
+        } answers { Success(Pair(collectionListJson.toResponseBody(), Date())) }
         testObject.getCollection(
             collectionAlias = id,
             shouldIgnoreCache = false,
@@ -1090,13 +1257,13 @@ class ContentRepositoryTest {
         }  //TODO what are we using list for
         val expected = Success(map)
         coEvery {
-            contentApiManager.getCollection(
+            contentApiManager.getCollectionBody(
                 collectionAlias = id,
                 size = DEFAULT_PAGINATION_SIZE,
                 from = 0,
                 full = true
             )
-        } returns Success(Pair(collectionListJson, Date()))
+        } answers { Success(Pair(collectionListJson.toResponseBody(), Date())) }
 
         val actual = testObject.getCollection(
             collectionAlias = id,
@@ -1127,13 +1294,13 @@ class ContentRepositoryTest {
             )
         } returns emptyMap()
         coEvery {
-            contentApiManager.getCollection(
+            contentApiManager.getCollectionBody(
                 collectionAlias = id,
                 size = DEFAULT_PAGINATION_SIZE,
                 from = 0,
                 full = true
             )
-        } returns Success(Pair(collectionJson, Date()))
+        } answers { Success(Pair(collectionJson.toResponseBody(), Date())) }
 
         val actual = testObject.getCollection(
             collectionAlias = id,
@@ -1239,13 +1406,13 @@ class ContentRepositoryTest {
                 contentApiManager.getContent(id = "KUD5XN7BMFHY7FKPT23WJ5TXQI")
             } returns Success(Pair(storyJson2, Date()))
             coEvery {
-                contentApiManager.getCollection(
+                contentApiManager.getCollectionBody(
                     collectionAlias = "collectionAlias",
                     size = DEFAULT_PAGINATION_SIZE,
                     from = 0,
                     full = true
                 )
-            } returns Success(Pair(collectionListJson, Date()))
+            } answers { Success(Pair(collectionListJson.toResponseBody(), Date())) }
 
             val actual = testObject.getCollection(
                 collectionAlias = "collectionAlias",
@@ -1350,13 +1517,13 @@ class ContentRepositoryTest {
                 contentApiManager.getContent(id = "KUD5XN7BMFHY7FKPT23WJ5TXQI")
             } returns Success(Pair(storyJson2, Date()))
             coEvery {
-                contentApiManager.getCollection(
+                contentApiManager.getCollectionBody(
                     collectionAlias = "collectionAlias",
                     size = DEFAULT_PAGINATION_SIZE,
                     from = 0,
                     full = true
                 )
-            } returns Success(Pair(collectionListJson, Date()))
+            } answers { Success(Pair(collectionListJson.toResponseBody(), Date())) }
             coEvery { cacheManager.getCollectionExpiration("collectionAlias") } returns null
 
             val actual = testObject.getCollection(
@@ -1463,7 +1630,7 @@ class ContentRepositoryTest {
                 contentApiManager.getContent(id = "KUD5XN7BMFHY7FKPT23WJ5TXQI")
             } returns Success(Pair(storyJson2, Date()))
             coEvery {
-                contentApiManager.getCollection(
+                contentApiManager.getCollectionBody(
                     collectionAlias = "collectionAlias",
                     size = DEFAULT_PAGINATION_SIZE,
                     from = 0,
@@ -1504,13 +1671,13 @@ class ContentRepositoryTest {
                 )
             } returns emptyMap()
             coEvery {
-                contentApiManager.getCollection(
+                contentApiManager.getCollectionBody(
                     collectionAlias = id,
                     size = DEFAULT_PAGINATION_SIZE,
                     from = 0,
                     full = true
                 )
-            } returns Success(Pair(collectionJson, Date()))
+            } answers { Success(Pair(collectionJson.toResponseBody(), Date())) }
 
             val actual = testObject.getCollection(
                 collectionAlias = id,
@@ -1568,7 +1735,7 @@ class ContentRepositoryTest {
             )
         } returns emptyMap()
         coEvery {
-            contentApiManager.getCollection(
+            contentApiManager.getCollectionBody(
                 collectionAlias = id,
                 from = 0,
                 size = DEFAULT_PAGINATION_SIZE,
@@ -1586,11 +1753,39 @@ class ContentRepositoryTest {
         assertEquals(expected, actual)
     }
 
+    @Test
+    fun `getCollection abandoned by caller closes response without parsing or caching`() = runTest {
+        val body = mockk<ResponseBody>(relaxed = true)
+        val callerScope = CoroutineScope(Dispatchers.Unconfined)
+        coEvery {
+            cacheManager.getCollection(collectionAlias = id, from = 0, size = DEFAULT_PAGINATION_SIZE)
+        } returns emptyMap()
+        coEvery {
+            contentApiManager.getCollectionBody(
+                collectionAlias = id,
+                from = 0,
+                size = DEFAULT_PAGINATION_SIZE,
+                full = true
+            )
+        } coAnswers {
+            callerScope.cancel()
+            Success(Pair(body, Date()))
+        }
+
+        callerScope.launch {
+            testObject.getCollection(collectionAlias = id, from = 0, size = DEFAULT_PAGINATION_SIZE)
+        }
+
+        verify(exactly = 1) { body.close() }
+        verify(exactly = 0) { body.source() }
+        coVerify(exactly = 0) { cacheManager.insert(any(), any()) }
+    }
+
     @Test
     fun `getCollection success from api, but list was empty`() = runTest {
         val json = "[]"
         val expectedErrorMessage = "Get Collection result was Empty"
-        val expectedResponse = Success(Pair(json, Date()))
+        val expectedResponse = Success(Pair(json.toResponseBody(), Date()))
         val expectedError = ArcXPException(
             type = ArcXPSDKErrorType.SERVER_ERROR,
             message = expectedErrorMessage
@@ -1604,7 +1799,7 @@ class ContentRepositoryTest {
             )
         } returns emptyMap()
         coEvery {
-            contentApiManager.getCollection(
+            contentApiManager.getCollectionBody(
                 collectionAlias = id,
                 from = 0,
                 size = DEFAULT_PAGINATION_SIZE,
@@ -1626,7 +1821,7 @@ class ContentRepositoryTest {
     @Test
     fun `getCollection success from api, but list had deserialization error`() = runTest {
         val json = "not Valid Json List"
-        val expectedResponse = Success(Pair(json, Date()))
+        val expectedResponse = Success(Pair(json.toResponseBody(), Date()))
         val expectedFormattedMessage = "Get Collection Deserialization Error: error"
         coEvery {
             cacheManager.getCollection(
@@ -1636,7 +1831,7 @@ class ContentRepositoryTest {
             )
         } returns emptyMap()
         coEvery {
-            contentApiManager.getCollection(
+            contentApiManager.getCollectionBody(
                 collectionAlias = id,
                 from = 0,
                 size = DEFAULT_PAGINATION_SIZE,
@@ -1659,7 +1854,7 @@ class ContentRepositoryTest {
         (actual as Failure).failure.apply {
             assertEquals(ArcXPSDKErrorType.SERVER_ERROR, type)
             assertEquals(expectedFormattedMessage, message)
-            assertTrue(value is JsonSyntaxException)
+            assertTrue(value is JsonEncodingException)
         }
     }
 
@@ -1699,6 +1894,36 @@ class ContentRepositoryTest {
         assertEquals(expectedFailure, actual)
     }
 
+    @Test
+    fun `searchSuspend returns cached result for repeated query`() = runTest {
+        val expected = Success(mockk<Map<Int, ArcXPContentElement>>())
+        coEvery {
+            contentApiManager.search(searchTerm = keywords, from = 0, size = DEFAULT_PAGINATION_SIZE)
+        } returns expected
+
+        testObject.searchSuspend(searchTerm = keywords)
+        val actual = testObject.searchSuspend(searchTerm = keywords)
+
+        assertEquals(expected, actual)
+        coVerify(exactly = 1) {
+            contentApiManager.search(searchTerm = keywords, from = 0, size = DEFAULT_PAGINATION_SIZE)
+        }
+    }
+
+    @Test
+    fun `searchSuspend does not cache failures`() = runTest {
+        coEvery {
+            contentApiManager.search(searchTerm = keywords, from = 0, size = DEFAULT_PAGINATION_SIZE)
+        } returns expectedFailure
+
+        testObject.searchSuspend(searchTerm = keywords)
+        testObject.searchSuspend(searchTerm = keywords)
+
+        coVerify(exactly = 2) {
+            contentApiManager.search(searchTerm = keywords, from = 0, size = DEFAULT_PAGINATION_SIZE)
+        }
+    }
+
     @Test
     fun `searchAsJsonSuspend success returns api result`() = runTest {
         val keywords = "keywords"
@@ -2149,4 +2374,263 @@ class ContentRepositoryTest {
         "[{\"_id\":\"/mobile-topstories\",\"site_topper\":{\"site_logo_image\":null},\"social\":{\"rss\":null,\"twitter\":null,\"facebook\":null,\"instagram\":null},\"site\":{\"site_url\":null,\"site_about\":null,\"site_description\":\"Top story collection to power the ArcXP mobile SDK\",\"pagebuilder_path_for_native_apps\":null,\"site_tagline\":null,\"site_title\":\"Mobile - Top Stories\",\"site_keywords\":null},\"navigation\":{\"nav_title\":\"Top Stories\"},\"name\":\"Mobile - Top Stories\",\"_website\":\"arcsales\",\"parent\":{\"default\":\"/\",\"mobile-nav\":\"/\"},\"ancestors\":{\"default\":[],\"mobile-nav\":[\"/\"]},\"_admin\":{\"alias_ids\":[\"/mobile-topstories\"]},\"inactive\":false,\"node_type\":\"section\",\"order\":{\"mobile-nav\":1001},\"children\":[]},{\"_id\":\"/mobile-politics\",\"site_topper\":{\"site_logo_image\":null},\"social\":{\"rss\":null,\"twitter\":null,\"facebook\":null,\"instagram\":null},\"site\":{\"site_url\":null,\"site_about\":null,\"site_description\":\"Politics collection to power the ArcXP mobile SDK\",\"pagebuilder_path_for_native_apps\":null,\"site_tagline\":null,\"site_title\":\"Mobile - Politics\",\"site_keywords\":\"politics\"},\"navigation\":{\"nav_title\":\"Politics\"},\"_admin\":{\"alias_ids\":[\"/mobile-politics\"]},\"_website\":\"arcsales\",\"name\":\"Mobile - Politics\",\"order\":{\"mobile-nav\":1002},\"parent\":{\"default\":\"/\",\"mobile-nav\":\"/\"},\"ancestors\":{\"default\":[],\"mobile-nav\":[\"/\"]},\"inactive\":false,\"node_type\":\"section\",\"children\":[]},{\"_id\":\"/mobile-tech\",\"site_topper\":{\"site_logo_image\":null},\"social\":{\"rss\":null,\"twitter\":null,\"facebook\":null,\"instagram\":null},\"site\":{\"site_url\":null,\"site_about\":null,\"site_description\":\"Tech collection to power the ArcXP mobile SDK\",\"pagebuilder_path_for_native_apps\":null,\"site_tagline\":null,\"site_title\":\"Mobile - Tech\",\"site_keywords\":null},\"navigation\":{\"nav_title\":\"Tech\"},\"_admin\":{\"alias_ids\":[\"/mobile-tech\"]},\"_website\":\"arcsales\",\"name\":\"Mobile - Tech\",\"parent\":{\"default\":\"/\",\"mobile-nav\":\"/\"},\"ancestors\":{\"default\":[],\"mobile-nav\":[\"/\"]},\"inactive\":false,\"node_type\":\"section\",\"order\":{\"mobile-nav\":1003},\"children\":[]},{\"_id\":\"/mobile-sports\",\"site_topper\":{\"site_logo_image\":null},\"social\":{\"rss\":null,\"twitter\":null,\"facebook\":null,\"instagram\":null},\"site\":{\"site_url\":null,\"site_about\":null,\"site_description\":\"Sports collection to power the ArcXP mobile SDK\",\"pagebuilder_path_for_native_apps\":null,\"site_tagline\":null,\"site_title\":\"Mobile - Sports\",\"site_keywords\":\"sports\"},\"navigation\":{\"nav_title\":\"Sports\"},\"_admin\":{\"alias_ids\":[\"/mobile-sports\"]},\"_website\":\"arcsales\",\"name\":\"Mobile - Sports\",\"parent\":{\"default\":\"/\",\"mobile-nav\":\"/\"},\"ancestors\":{\"default\":[],\"mobile-nav\":[\"/\"]},\"inactive\":false,\"node_type\":\"section\",\"order\":{\"mobile-nav\":1004},\"children\":[]},{\"_id\":\"/mobile-entertainment\",\"site_topper\":{\"site_logo_image\":null},\"social\":{\"rss\":null,\"twitter\":null,\"facebook\":null,\"instagram\":null},\"site\":{\"site_url\":null,\"site_about\":null,\"site_description\":\"Entertainment collection to power the ArcXP mobile SDK\",\"pagebuilder_path_for_native_apps\":null,\"site_tagline\":null,\"site_title\":\"Mobile - Entertainment\",\"site_keywords\":\"entertainment\"},\"navigation\":{\"nav_title\":\"Entertainment\"},\"_admin\":{\"alias_ids\":[\"/mobile-entertainment\"]},\"_website\":\"arcsales\",\"name\":\"Mobile - Entertainment\",\"parent\":{\"default\":\"/\",\"mobile-nav\":\"/\"},\"ancestors\":{\"default\":[],\"mobile-nav\":[\"/\"]},\"inactive\":false,\"node_type\":\"section\",\"order\":{\"mobile-nav\":1005},\"children\":[]}]"
     private val sectionListJson2 =
         "[{\"_id\":\"/mobile-topstories2\",\"site_topper\":{\"site_logo_image\":null},\"social\":{\"rss\":null,\"twitter\":null,\"facebook\":null,\"instagram\":null},\"site\":{\"site_url\":null,\"site_about\":null,\"site_description\":\"Top story collection to power the ArcXP mobile SDK\",\"pagebuilder_path_for_native_apps\":null,\"site_tagline\":null,\"site_title\":\"Mobile - Top Stories\",\"site_keywords\":null},\"navigation\":{\"nav_title\":\"Top Stories\"},\"name\":\"Mobile - Top Stories\",\"_website\":\"arcsales\",\"parent\":{\"default\":\"/\",\"mobile-nav\":\"/\"},\"ancestors\":{\"default\":[],\"mobile-nav\":[\"/\"]},\"_admin\":{\"alias_ids\":[\"/mobile-topstories\"]},\"inactive\":false,\"node_type\":\"section\",\"order\":{\"mobile-nav\":1001},\"children\":[]},{\"_id\":\"/mobile-politics\",\"site_topper\":{\"site_logo_image\":null},\"social\":{\"rss\":null,\"twitter\":null,\"facebook\":null,\"instagram\":null},\"site\":{\"site_url\":null,\"site_about\":null,\"site_description\":\"Politics collection to power the ArcXP mobile SDK\",\"pagebuilder_path_for_native_apps\":null,\"site_tagline\":null,\"site_title\":\"Mobile - Politics\",\"site_keywords\":\"politics\"},\"navigation\":{\"nav_title\":\"Politics\"},\"_admin\":{\"alias_ids\":[\"/mobile-politics\"]},\"_website\":\"arcsales\",\"name\":\"Mobile - Politics\",\"order\":{\"mobile-nav\":1002},\"parent\":{\"default\":\"/\",\"mobile-nav\":\"/\"},\"ancestors\":{\"default\":[],\"mobile-nav\":[\"/\"]},\"inactive\":false,\"node_type\":\"section\",\"children\":[]},{\"_id\":\"/mobile-tech\",\"site_topper\":{\"site_logo_image\":null},\"social\":{\"rss\":null,\"twitter\":null,\"facebook\":null,\"instagram\":null},\"site\":{\"site_url\":null,\"site_about\":null,\"site_description\":\"Tech collection to power the ArcXP mobile SDK\",\"pagebuilder_path_for_native_apps\":null,\"site_tagline\":null,\"site_title\":\"Mobile - Tech\",\"site_keywords\":null},\"navigation\":{\"nav_title\":\"Tech\"},\"_admin\":{\"alias_ids\":[\"/mobile-tech\"]},\"_website\":\"arcsales\",\"name\":\"Mobile - Tech\",\"parent\":{\"default\":\"/\",\"mobile-nav\":\"/\"},\"ancestors\":{\"default\":[],\"mobile-nav\":[\"/\"]},\"inactive\":false,\"node_type\":\"section\",\"order\":{\"mobile-nav\":1003},\"children\":[]},{\"_id\":\"/mobile-sports\",\"site_topper\":{\"site_logo_image\":null},\"social\":{\"rss\":null,\"twitter\":null,\"facebook\":null,\"instagram\":null},\"site\":{\"site_url\":null,\"site_about\":null,\"site_description\":\"Sports collection to power the ArcXP mobile SDK\",\"pagebuilder_path_for_native_apps\":null,\"site_tagline\":null,\"site_title\":\"Mobile - Sports\",\"site_keywords\":\"sports\"},\"navigation\":{\"nav_title\":\"Sports\"},\"_admin\":{\"alias_ids\":[\"/mobile-sports\"]},\"_website\":\"arcsales\",\"name\":\"Mobile - Sports\",\"parent\":{\"default\":\"/\",\"mobile-nav\":\"/\"},\"ancestors\":{\"default\":[],\"mobile-nav\":[\"/\"]},\"inactive\":false,\"node_type\":\"section\",\"order\":{\"mobile-nav\":1004},\"children\":[]},{\"_id\":\"/mobile-entertainment\",\"site_topper\":{\"site_logo_image\":null},\"social\":{\"rss\":null,\"twitter\":null,\"facebook\":null,\"instagram\":null},\"site\":{\"site_url\":null,\"site_about\":null,\"site_description\":\"Entertainment collection to power the ArcXP mobile SDK\",\"pagebuilder_path_for_native_apps\":null,\"site_tagline\":null,\"site_title\":\"Mobile - Entertainment\",\"site_keywords\":\"entertainment\"},\"navigation\":{\"nav_title\":\"Entertainment\"},\"_admin\":{\"alias_ids\":[\"/mobile-entertainment\"]},\"_website\":\"arcsales\",\"name\":\"Mobile - Entertainment\",\"parent\":{\"default\":\"/\",\"mobile-nav\":\"/\"},\"ancestors\":{\"default\":[],\"mobile-nav\":[\"/\"]},\"inactive\":false,\"node_type\":\"section\",\"order\":{\"mobile-nav\":1005},\"children\":[]}]"
-}
\ No newline at end of file
+
+    @Test
+    fun `searchLocal returns cached results`() = runTest {
+        val expectedResponse = mapOf(0 to createContentElement(id = "a"))
+        coEvery { cacheManager.search(searchTerm = keywords, from = 0, size = 5) } returns expectedResponse
+
+        val actual = testObject.searchLocal(searchTerm = keywords, from = 0, size = 5)
+
+        assertEquals(Success(expectedResponse), actual)
+    }
+
+    @Test
+    fun `searchLocal returns search failure when nothing cached matches`() = runTest {
+        every { ArcXPMobileSDK.application() } returns application
+        coEvery { cacheManager.search(searchTerm = keywords, from = 0, size = 5) } returns emptyMap()
+
+        val actual = testObject.searchLocal(searchTerm = keywords, from = 0, size = 5)
+
+        assertEquals(ArcXPSDKErrorType.SEARCH_ERROR, (actual as Failure).failure.type)
+    }
+
+    @Test
+    fun `searchHybrid emits local results then merged network results`() = runTest {
+        val local1 = createContentElement(id = "local1")
+        val shared = createContentElement(id = "shared")
+        val network1 = createContentElement(id = "network1")
+        coEvery {
+            cacheManager.search(searchTerm = keywords, from = 0, size = 3)
+        } returns mapOf(0 to shared, 1 to local1)
+        coEvery {
+            contentApiManager.search(searchTerm = keywords, from = 0, size = 3)
+        } returns Success(mapOf(0 to network1, 1 to shared))
+
+        val actual = testObject.searchHybrid(searchTerm = keywords, from = 0, size = 3).toList()
+
+        assertEquals(
+            listOf(
+                Success(mapOf(0 to shared, 1 to local1)),
+                Success(mapOf(0 to network1, 1 to shared, 2 to local1))
+            ), actual
+        )
+    }
+
+    @Test
+    fun `searchHybrid keeps local results when network fails`() = runTest {
+        val local1 = createContentElement(id = "local1")
+        coEvery {
+            cacheManager.search(searchTerm = keywords, from = 0, size = 3)
+        } returns mapOf(0 to local1)
+        coEvery {
+            contentApiManager.search(searchTerm = keywords, from = 0, size = 3)
+        } returns expectedFailure
+
+        val actual = testObject.searchHybrid(searchTerm = keywords, from = 0, size = 3).toList()
+
+        assertEquals(listOf(Success(mapOf(0 to local1))), actual)
+    }
+
+    @Test
+    fun `searchHybrid emits network failure when nothing cached`() = runTest {
+        every { ArcXPMobileSDK.application() } returns application
+        coEvery {
+            cacheManager.search(searchTerm = keywords, from = 0, size = 3)
+        } returns emptyMap()
+        coEvery {
+            contentApiManager.search(searchTerm = keywords, from = 0, size = 3)
+        } returns expectedFailure
+
+        val actual = testObject.searchHybrid(searchTerm = keywords, from = 0, size = 3).toList()
+
+        assertEquals(listOf(expectedFailure), actual)
+    }
+
+    @Test
+    fun `getCollection returns seeded cache and revalidates in background`() = runTest {
+        val collectionJson = getJson("collectionFull.json")
+        val cached = mapOf(0 to mockk<ArcXPContentElement>())
+        val changes = mutableListOf<CollectionChangeSet>()
+        coEvery {
+            cacheManager.getCollection(collectionAlias = id, from = 0, size = DEFAULT_PAGINATION_SIZE)
+        } returns cached
+        coEvery { cacheManager.getCollectionExpiration(id) } returns Date(SEED_EXPIRES_AT_MS)
+        coEvery { cacheManager.getCollectionPage(collectionAlias = id, from = 0, size = DEFAULT_PAGINATION_SIZE) } returns emptyList()
+        coEvery {
+            contentApiManager.getCollectionBody(
+                collectionAlias = id,
+                size = DEFAULT_PAGINATION_SIZE,
+                from = 0,
+                full = true
+            )
+        } answers { Success(Pair(collectionJson.toResponseBody(), Date())) }
+
+        val actual = testObject.getCollection(
+            collectionAlias = id,
+            from = 0,
+            size = DEFAULT_PAGINATION_SIZE,
+            onChanges = { changes.add(it) }
+        )
+
+        assertEquals(Success(cached), actual)
+        coVerify(exactly = 1) {
+            contentApiManager.getCollectionBody(
+                collectionAlias = id,
+                size = DEFAULT_PAGINATION_SIZE,
+                from = 0,
+                full = true
+            )
+        }
+        assertEquals(listOf(0, 1, 2), changes.single().inserted)
+    }
+
+    @Test
+    fun `getSectionList returns seeded cache and revalidates in background`() = runTest {
+        val cached = SectionHeaderItem(
+            sectionHeaderResponse = sectionListJson,
+            expiresAt = Date(SEED_EXPIRES_AT_MS),
+            siteHierarchy = siteServiceHierarchy,
+        )
+        coEvery { cacheManager.getSectionList(siteHierarchy = siteServiceHierarchy) } returns cached
+        coEvery { contentApiManager.getSectionList(siteHierarchy = siteServiceHierarchy) } returns Success(
+            Pair(sectionListJson, Date())
+        )
+
+        val actual = testObject.getSectionList(siteHierarchy = siteServiceHierarchy)
+
+        assertEquals(
+            Success(fromJson(sectionListJson, Array<ArcXPSection>::class.java)!!.toList()),
+            actual
+        )
+        coVerify(exactly = 1) { cacheManager.insertNavigation(sectionHeaderItem = any()) }
+    }
+
+    @Test
+    fun `getContentBatch reads hits in one query, fetches misses and keeps input order`() = runTest {
+        val story = fromJson(storyJson, ArcXPContentElement::class.java)!!
+        val notExpired = Calendar.getInstance().apply { set(3022, Calendar.FEBRUARY, 8) }.time
+        val error = ArcXPException(type = ArcXPSDKErrorType.SERVER_ERROR, message = "api error")
+        coEvery { cacheManager.getJsonByIds(uuids = listOf("miss", "hit", "error")) } returns mapOf(
+            "hit" to JsonItem(uuid = "hit", jsonResponse = storyJson, expiresAt = notExpired)
+        )
+        coEvery { contentApiManager.getContent(id = "miss") } returns Success(Pair(storyJson, notExpired))
+        coEvery { contentApiManager.getContent(id = "error") } returns Failure(error)
+
+        val actual = testObject.getContentBatch(uuids = listOf("miss", "hit", "error"))
+
+        assertEquals(listOf(Success(story), Success(story), Failure(error)), actual)
+        coVerify(exactly = 0) { contentApiManager.getContent(id = "hit") }
+        val inserted = slot<List<JsonItem>>()
+        coVerify(exactly = 1) { cacheManager.insertAll(jsonItems = capture(inserted)) }
+        assertEquals(listOf("miss"), inserted.captured.map { it.uuid })
+    }
+
+    @Test
+    fun `getContentBatch falls back to stale cache when fetch fails`() = runTest {
+        val story = fromJson(storyJson, ArcXPContentElement::class.java)!!
+        coEvery { cacheManager.getJsonByIds(uuids = listOf(id)) } returns mapOf(
+            id to JsonItem(uuid = id, jsonResponse = storyJson, expiresAt = expiredDate)
+        )
+        coEvery { contentApiManager.getContent(id = id) } returns Failure(
+            ArcXPException(type = ArcXPSDKErrorType.SERVER_ERROR, message = "api error")
+        )
+
+        val actual = testObject.getContentBatch(uuids = listOf(id))
+
+        assertEquals(listOf(Success(story)), actual)
+    }
+
+    @Test
+    fun `getCollections emits cached collections first then fetched ones`() = runTest {
+        val collectionJson = getJson("collectionFull.json")
+        val cachedElements = mapOf(0 to mockk<ArcXPContentElement>())
+        coEvery {
+            cacheManager.getCollectionBatch(collectionAliases = listOf("cached", "missing"), from = 0, size = 3)
+        } returns mapOf("cached" to cachedElements)
+        coEvery {
+            cacheManager.getCollectionExpirations(collectionAliases = listOf("cached", "missing"))
+        } returns mapOf("cached" to notExpiredDate)
+        coEvery {
+            contentApiManager.getCollectionBody(collectionAlias = "missing", from = 0, size = 3, full = true)
+        } answers { Success(Pair(collectionJson.toResponseBody(), Date())) }
+
+        val actual = testObject.getCollections(
+            collectionAliases = listOf("cached", "missing"),
+            from = 0,
+            size = 3
+        ).toList()
+
+        assertEquals(2, actual.size)
+        assertEquals(mapOf("cached" to Success(cachedElements)), actual[0])
+        assertEquals(listOf("cached", "missing"), actual[1].keys.toList())
+        assertEquals(3, (actual[1]["missing"] as Success).success.size)
+        coVerify(exactly = 0) { contentApiManager.getCollectionBody(collectionAlias = "cached", from = any(), size = any(), full = any()) }
+    }
+
+    @Test
+    fun `getCollections keeps stale cache when fetch fails`() = runTest {
+        val cachedElements = mapOf(0 to mockk<ArcXPContentElement>())
+        coEvery {
+            cacheManager.getCollectionBatch(collectionAliases = listOf(id), from = 0, size = 3)
+        } returns mapOf(id to cachedElements)
+        coEvery { cacheManager.getCollectionExpirations(collectionAliases = listOf(id)) } returns mapOf(id to expiredDate)
+        coEvery {
+            contentApiManager.getCollectionBody(collectionAlias = id, from = 0, size = 3, full = true)
+        } returns Failure(ArcXPException(type = ArcXPSDKErrorType.SERVER_ERROR, message = "api error"))
+
+        val actual = testObject.getCollections(collectionAliases = listOf(id), from = 0, size = 3).toList()
+
+        assertEquals(listOf(mapOf(id to Success(cachedElements))), actual)
+    }
+
+    @Test
+    fun `getCollection with hybrid loading returns lightweight collection and upgrades cache in background`() = runTest {
+        val collectionJson = getJson("collectionFull.json")
+        val expected = fromJson(collectionJson, Array<ArcXPContentElement>::class.java)!!
+            .mapIndexed { index, element -> index to element }.toMap()
+        testObject = ContentRepository(
+            application = application,
+            cacheManager = cacheManager,
+            contentApiManager = contentApiManager,
+            hybridCollectionLoading = true
+        )
+        coEvery { cacheManager.getCollection(collectionAlias = id, from = 0, size = 3) } returns emptyMap()
+        coEvery {
+            contentApiManager.getCollectionBody(collectionAlias = id, from = 0, size = 3, full = any())
+        } answers { Success(Pair(collectionJson.toResponseBody(), Date())) }
+
+        val actual = testObject.getCollection(collectionAlias = id, from = 0, size = 3)
+
+        assertEquals(Success(expected), actual)
+        coVerifyOrder {
+            contentApiManager.getCollectionBody(collectionAlias = id, from = 0, size = 3, full = false)
+            contentApiManager.getCollectionBody(collectionAlias = id, from = 0, size = 3, full = true)
+        }
+        // only the full result is diffed against and written to the cache
+        coVerify(exactly = 1) { cacheManager.getCollectionPage(collectionAlias = id, from = 0, size = 3) }
+        coVerify(exactly = 3) { cacheManager.insert(collectionItem = any(), jsonItem = any()) }
+    }
+
+    @Test
+    fun `getContent caches with cache time configured for its content type`() = runTest {
+        val story = fromJson(storyJson, ArcXPContentElement::class.java)!!
+        val now = Calendar.getInstance().apply { set(2022, Calendar.FEBRUARY, 8, 12, 0, 0) }
+        mockkObject(Utils)
+        every { Utils.currentCalendar() } answers { (now.clone() as Calendar) }
+        testObject = ContentRepository(
+            application = application,
+            cacheManager = cacheManager,
+            contentApiManager = contentApiManager,
+            contentTypeCacheTimeMinutes = mapOf(story.type to 90)
+        )
+        coEvery { cacheManager.getJsonById(uuid = id) } returns null
+        coEvery { contentApiManager.getContent(id = id) } returns Success(Pair(storyJson, Date()))
+
+        testObject.getContent(uuid = id)
+
+        val inserted = slot<JsonItem>()
+        coVerify(exactly = 1) { cacheManager.insert(jsonItem = capture(inserted)) }
+        assertEquals(now.timeInMillis + 90 * 60_000L, inserted.captured.expiresAt.time)
+    }
+}
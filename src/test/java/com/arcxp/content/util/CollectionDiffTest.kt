@@ -0,0 +1,92 @@
+package com.arcxp.content.util
+
+import com.arcxp.content.models.CollectionChangeSet
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertTrue
+import org.junit.Test
+
+class CollectionDiffTest {
+
+    private fun row(index: Int, uuid: String, json: String? = "json-$uuid") =
+        CollectionDiff.Row(index = index, uuid = uuid, json = json)
+
+    @Test
+    fun `diff of identical pages is empty`() {
+        val page = listOf(row(0, "a"), row(1, "b"))
+
+        val actual = CollectionDiff.diff(collectionAlias = "alias", cached = page, fresh = page)
+
+        assertTrue(actual.isEmpty)
+        assertEquals("alias", actual.collectionAlias)
+    }
+
+    @Test
+    fun `diff reports inserted and removed items`() {
+        val actual = CollectionDiff.diff(
+            collectionAlias = "alias",
+            cached = listOf(row(0, "a"), row(1, "b")),
+            fresh = listOf(row(0, "a"), row(1, "c"))
+        )
+
+        assertEquals(listOf(1), actual.inserted)
+        assertEquals(listOf(1), actual.removed)
+        assertTrue(actual.moved.isEmpty())
+        assertTrue(actual.changed.isEmpty())
+    }
+
+    @Test
+    fun `diff reports moved items`() {
+        val actual = CollectionDiff.diff(
+            collectionAlias = "alias",
+            cached = listOf(row(0, "a"), row(1, "b")),
+            fresh = listOf(row(0, "b"), row(1, "a"))
+        )
+
+        assertEquals(
+            listOf(CollectionChangeSet.Move(from = 1, to = 0), CollectionChangeSet.Move(from = 0, to = 1)),
+            actual.moved
+        )
+        assertTrue(actual.inserted.isEmpty())
+        assertTrue(actual.removed.isEmpty())
+        assertTrue(actual.changed.isEmpty())
+    }
+
+    @Test
+    fun `diff reports changed content at new position`() {
+        val actual = CollectionDiff.diff(
+            collectionAlias = "alias",
+            cached = listOf(row(0, "a"), row(1, "b")),
+            fresh = listOf(row(0, "new"), row(1, "a", json = "updated"), row(2, "b"))
+        )
+
+        assertEquals(listOf(0), actual.inserted)
+        assertEquals(listOf(1), actual.changed)
+        assertEquals(
+            listOf(CollectionChangeSet.Move(from = 0, to = 1), CollectionChangeSet.Move(from = 1, to = 2)),
+            actual.moved
+        )
+    }
+
+    @Test
+    fun `diff treats evicted cached json as changed`() {
+        val actual = CollectionDiff.diff(
+            collectionAlias = "alias",
+            cached = listOf(row(0, "a", json = null)),
+            fresh = listOf(row(0, "a"))
+        )
+
+        assertEquals(listOf(0), actual.changed)
+    }
+
+    @Test
+    fun `diff matches repeated uuids in order`() {
+        val actual = CollectionDiff.diff(
+            collectionAlias = "alias",
+            cached = listOf(row(0, "a"), row(1, "a")),
+            fresh = listOf(row(0, "a"))
+        )
+
+        assertEquals(listOf(1), actual.removed)
+        assertTrue(actual.moved.isEmpty())
+    }
+}
@@ -0,0 +1,66 @@
+package com.arcxp.content.util
+
+import com.arcxp.commons.testutils.TestUtils.allocatedBy
+import com.arcxp.commons.util.MoshiController.fromJson
+import com.arcxp.commons.util.Utils
+import com.arcxp.content.extendedModels.ArcXPContentElement
+import com.squareup.moshi.JsonDataException
+import com.squareup.moshi.JsonEncodingException
+import okio.Buffer
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertTrue
+import org.junit.Test
+
+class JsonStreamTest {
+
+    private fun element(index: Int) =
+        """{"_id":"id-$index","type":"story","website":"héadline ✓ $index ${"x".repeat(1024)}"}"""
+
+    private fun largeFixture(count: Int) = (0 until count).joinToString(separator = ",", prefix = "[", postfix = "]") {
+        element(it)
+    }
+
+    private fun readElements(json: String) =
+        JsonStream.readArray(source = Buffer().writeUtf8(json), type = ArcXPContentElement::class.java)
+
+    @Test
+    fun `readArray returns each element as received and parsed`() {
+        val actual = readElements("[${element(0)}, ${element(1)}]")
+
+        assertEquals(listOf(element(0), element(1)), actual.map { it.json })
+        assertEquals(listOf("id-0", "id-1"), actual.map { it.value._id })
+        assertEquals(fromJson(element(1), ArcXPContentElement::class.java), actual[1].value)
+    }
+
+    @Test
+    fun `readArray of empty array is empty`() {
+        assertTrue(readElements("[]").isEmpty())
+    }
+
+    @Test(expected = JsonEncodingException::class)
+    fun `readArray throws when source is not json`() {
+        readElements("not Valid Json List")
+    }
+
+    @Test(expected = JsonDataException::class)
+    fun `readArray throws on null element`() {
+        readElements("[${element(0)}, null]")
+    }
+
+    @Test
+    fun `readArray of large fixture allocates less than string parsing`() {
+        val fixture = largeFixture(count = 2_000).encodeToByteArray()
+
+        val streamed = allocatedBy {
+            JsonStream.readArray(source = Buffer().write(fixture), type = ArcXPContentElement::class.java)
+        }
+        // previous path: whole body as a string, parsed as a tree for the json and again for the elements
+        val materialized = allocatedBy {
+            val json = Buffer().write(fixture).readUtf8()
+            Utils.parseJsonArray(jsonArrayString = json)
+            fromJson(json, Array<ArcXPContentElement>::class.java)
+        }
+
+        assertTrue("streamed $streamed bytes, materialized $materialized bytes", streamed < materialized)
+    }
+}
@@ -0,0 +1,36 @@
+package com.arcxp.content.util
+
+import org.junit.Assert.assertEquals
+import org.junit.Test
+
+class SearchQueryTest {
+
+    @Test
+    fun `normalize removes special characters`() {
+        assertEquals("keyword1, keyword2", SearchQuery.normalize(searchTerm = "keyword1!, keyword2?"))
+    }
+
+    @Test
+    fun `normalize keeps commas, spaces and hyphens`() {
+        val query = "keyword 1, a-b-c, a b c"
+        assertEquals(query, SearchQuery.normalize(searchTerm = query))
+    }
+
+    @Test
+    fun `normalize lower cases and folds accents`() {
+        assertEquals("cafe creme", SearchQuery.normalize(searchTerm = "Café CRÈME"))
+    }
+
+    @Test
+    fun `normalize collapses and trims whitespace`() {
+        assertEquals("a b, c", SearchQuery.normalize(searchTerm = "  a \t b,   c \n"))
+    }
+
+    @Test
+    fun `normalize maps equivalent input to the same term`() {
+        assertEquals(
+            SearchQuery.normalize(searchTerm = "Election News"),
+            SearchQuery.normalize(searchTerm = " election  news! ")
+        )
+    }
+}
@@ -0,0 +1,85 @@
+package com.arcxp.content.util
+
+import com.arcxp.commons.util.Utils
+import io.mockk.every
+import io.mockk.mockkObject
+import io.mockk.unmockkObject
+import org.junit.After
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertNull
+import org.junit.Before
+import org.junit.Test
+
+class SearchResultCacheTest {
+
+    private val key = SearchResultCache.Key(query = "query", from = 0, size = 20)
+
+    @Before
+    fun setUp() {
+        mockkObject(Utils)
+        every { Utils.currentTimeInMillis() } returns 1000L
+    }
+
+    @After
+    fun tearDown() {
+        unmockkObject(Utils)
+    }
+
+    @Test
+    fun `get returns stored value before expiration`() {
+        val testObject = SearchResultCache<String>(ttlSeconds = 60)
+        testObject.put(key = key, value = "result")
+        every { Utils.currentTimeInMillis() } returns 60_999L
+
+        assertEquals("result", testObject.get(key = key))
+    }
+
+    @Test
+    fun `get returns null after expiration`() {
+        val testObject = SearchResultCache<String>(ttlSeconds = 60)
+        testObject.put(key = key, value = "result")
+        every { Utils.currentTimeInMillis() } returns 61_000L
+
+        assertNull(testObject.get(key = key))
+    }
+
+    @Test
+    fun `get returns null for different page`() {
+        val testObject = SearchResultCache<String>()
+        testObject.put(key = key, value = "result")
+
+        assertNull(testObject.get(key = key.copy(from = 20)))
+    }
+
+    @Test
+    fun `put does nothing when ttl is zero`() {
+        val testObject = SearchResultCache<String>(ttlSeconds = 0)
+        testObject.put(key = key, value = "result")
+
+        assertNull(testObject.get(key = key))
+    }
+
+    @Test
+    fun `put evicts least recently used entry past max entries`() {
+        val testObject = SearchResultCache<String>(maxEntries = 2)
+        val key2 = key.copy(query = "2")
+        val key3 = key.copy(query = "3")
+        testObject.put(key = key, value = "1")
+        testObject.put(key = key2, value = "2")
+        testObject.get(key = key)
+        testObject.put(key = key3, value = "3")
+
+        assertEquals("1", testObject.get(key = key))
+        assertNull(testObject.get(key = key2))
+        assertEquals("3", testObject.get(key = key3))
+    }
+
+    @Test
+    fun `clear removes all entries`() {
+        val testObject = SearchResultCache<String>()
+        testObject.put(key = key, value = "result")
+        testObject.clear()
+
+        assertNull(testObject.get(key = key))
+    }
+}
@@ -222,6 +222,108 @@ class ArcMediaClientTest {
         }
     }
 
+    @Test
+    fun `findByUuidSuspend calls through to api Manager`() = runTest {
+        ArcMediaClient(orgName = org, serverEnvironment = env)
+            .findByUuidSuspend(uuid = "uuid")
+
+        coVerify(exactly = 1) {
+            videoApiManager.findByUuidSuspend(uuid = "uuid")
+        }
+    }
+
+    @Test
+    fun `findByUuidVirtualSuspend calls through to api Manager`() = runTest {
+        ArcMediaClient(orgName = org, serverEnvironment = env)
+            .findByUuidVirtualSuspend(uuid = "uuid")
+
+        coVerify(exactly = 1) {
+            videoApiManager.findByUuidVirtualSuspend(uuid = "uuid")
+        }
+    }
+
+    @Test
+    fun `findByUuidAsJsonSuspend calls through to api Manager`() = runTest {
+        ArcMediaClient(orgName = org, serverEnvironment = env)
+            .findByUuidAsJsonSuspend(uuid = "uuid", shouldUseVirtualChannel = true)
+
+        coVerify(exactly = 1) {
+            videoApiManager.findByUuidAsJsonSuspend(uuid = "uuid", shouldUseVirtualChannel = true)
+        }
+    }
+
+    @Test
+    fun `findByPlaylistSuspend calls through to api Manager`() = runTest {
+        ArcMediaClient(orgName = org, serverEnvironment = env)
+            .findByPlaylistSuspend(name = "name", count = 3)
+
+        coVerify(exactly = 1) {
+            videoApiManager.findByPlaylistSuspend(name = "name", count = 3)
+        }
+    }
+
+    @Test
+    fun `findByPlaylistAsJsonSuspend calls through to api Manager`() = runTest {
+        ArcMediaClient(orgName = org, serverEnvironment = env)
+            .findByPlaylistAsJsonSuspend(name = "name", count = 3)
+
+        coVerify(exactly = 1) {
+            videoApiManager.findByPlaylistAsJsonSuspend(name = "name", count = 3)
+        }
+    }
+
+    @Test
+    fun `enableCache sets cache on api Manager`() {
+        ArcMediaClient(orgName = org, serverEnvironment = env)
+            .enableCache(timeUntilUpdateMinutes = 5)
+
+        verify(exactly = 1) { videoApiManager.cache = any() }
+    }
+
+    @Test
+    fun `invalidateVideo calls through to api Manager`() {
+        ArcMediaClient(orgName = org, serverEnvironment = env)
+            .invalidateVideo(uuid = "uuid")
+
+        verify(exactly = 1) { videoApiManager.invalidateUuid(uuid = "uuid") }
+    }
+
+    @Test
+    fun `invalidatePlaylist calls through to api Manager`() {
+        ArcMediaClient(orgName = org, serverEnvironment = env)
+            .invalidatePlaylist(name = "name")
+
+        verify(exactly = 1) { videoApiManager.invalidatePlaylist(name = "name") }
+    }
+
+    @Test
+    fun `invalidateCache calls through to api Manager`() {
+        ArcMediaClient(orgName = org, serverEnvironment = env)
+            .invalidateCache()
+
+        verify(exactly = 1) { videoApiManager.invalidateAll() }
+    }
+
+    @Test
+    fun `findByUuids calls through to api Manager`() {
+        ArcMediaClient(orgName = org, serverEnvironment = env)
+            .findByUuids(uuids = listOf("1", "2"), listener = listener, parallelism = 2)
+
+        verify(exactly = 1) {
+            videoApiManager.findByUuidsApi(uuids = listOf("1", "2"), listener = listener, parallelism = 2)
+        }
+    }
+
+    @Test
+    fun `findByUuidsSuspend calls through to api Manager`() = runTest {
+        ArcMediaClient(orgName = org, serverEnvironment = env)
+            .findByUuidsSuspend(uuids = listOf("1", "2"))
+
+        coVerify(exactly = 1) {
+            videoApiManager.findByUuidsSuspend(uuids = listOf("1", "2"), parallelism = any())
+        }
+    }
+
     @Test
     fun `findLiveAsJson calls through to api Manager`() {
         ArcMediaClient(orgName = org, serverEnvironment = env)
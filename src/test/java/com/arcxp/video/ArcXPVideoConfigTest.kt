@@ -1,5 +1,6 @@
 package com.arcxp.video
 
+import com.arcxp.video.listeners.ArcMediaCacheListener
 import io.mockk.MockKAnnotations
 import io.mockk.clearAllMocks
 import org.junit.After
@@ -34,6 +35,69 @@ class ArcXPVideoConfigTest {
         assertEquals("adParam3Value", actual.adParams["adParam3key"])
     }
 
+    @Test
+    fun `media cache is disabled by default`() {
+        val actual = ArcXPVideoConfig.Builder().build()
+
+        assertEquals(0L, actual.mediaCacheSizeBytes)
+        assertNull(actual.mediaCacheListener)
+    }
+
+    @Test
+    fun `setMediaCache builder passes values to object correctly`() {
+        val listener = ArcMediaCacheListener { _, _ -> }
+
+        val actual = ArcXPVideoConfig.Builder()
+            .setMediaCache(maxBytes = 100L * 1024 * 1024, listener = listener)
+            .build()
+
+        assertEquals(100L * 1024 * 1024, actual.mediaCacheSizeBytes)
+        assertSame(listener, actual.mediaCacheListener)
+    }
+
+    @Test
+    fun `setPreloadNextVideo builder passes value to object correctly`() {
+        assertEquals(0L, ArcXPVideoConfig.Builder().build().preloadNextVideoMs)
+        assertEquals(8000L, ArcXPVideoConfig.Builder().setPreloadNextVideo(leadTimeMs = 8000).build().preloadNextVideoMs)
+    }
+
+    @Test
+    fun `setPlayerPoolSize builder passes value to object correctly`() {
+        assertEquals(0, ArcXPVideoConfig.Builder().build().playerPoolSize)
+        assertEquals(3, ArcXPVideoConfig.Builder().setPlayerPoolSize(3).build().playerPoolSize)
+    }
+
+    @Test
+    fun `setBufferPreset builder passes preset buffering to object`() {
+        assertNull(ArcXPVideoConfig.Builder().build().bufferConfig)
+        assertEquals(
+            ArcXPVideoConfig.BufferPreset.LIVE_LOW_LATENCY.bufferConfig,
+            ArcXPVideoConfig.Builder()
+                .setBufferPreset(ArcXPVideoConfig.BufferPreset.LIVE_LOW_LATENCY)
+                .build().bufferConfig
+        )
+    }
+
+    @Test
+    fun `setBuffer builder passes custom buffering to object`() {
+        val actual = ArcXPVideoConfig.Builder()
+            .setBuffer(startupMs = 500, rebufferMs = 1500, maxBufferMs = 30000, backBufferMs = 5000)
+            .build()
+
+        assertEquals(ArcXPVideoConfig.BufferConfig(500, 1500, 30000, 5000), actual.bufferConfig)
+    }
+
+    @Test(expected = IllegalArgumentException::class)
+    fun `setBuffer throws when startup buffer is over max buffer`() {
+        ArcXPVideoConfig.Builder().setBuffer(startupMs = 5000, rebufferMs = 1000, maxBufferMs = 2000)
+    }
+
+    @Test
+    fun `setUseBandwidthEstimate builder passes value to object correctly`() {
+        assertFalse(ArcXPVideoConfig.Builder().build().useBandwidthEstimate)
+        assertTrue(ArcXPVideoConfig.Builder().setUseBandwidthEstimate(true).build().useBandwidthEstimate)
+    }
+
     @Test
     fun `PreferredStreamType next cycles through correctly`() {
         assertTrue(
@@ -21,6 +21,7 @@ import com.arcxp.video.service.AkamaiService
 import com.arcxp.video.service.ArcMediaClientService
 import com.arcxp.video.service.VirtualChannelService
 import com.arcxp.video.util.RetrofitController
+import com.arcxp.video.util.VideoMetadataCache
 import io.mockk.MockKAnnotations
 import io.mockk.clearAllMocks
 import io.mockk.coEvery
@@ -30,11 +31,15 @@ import io.mockk.impl.annotations.RelaxedMockK
 import io.mockk.mockk
 import io.mockk.mockkObject
 import io.mockk.verify
+import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.launch
+import kotlinx.coroutines.test.UnconfinedTestDispatcher
 import kotlinx.coroutines.test.runTest
 import okhttp3.ResponseBody
 import okhttp3.ResponseBody.Companion.toResponseBody
 import org.junit.After
 import org.junit.Assert.assertEquals
+import org.junit.Assert.assertNull
 import org.junit.Before
 import org.junit.Test
 import retrofit2.Call
@@ -69,6 +74,8 @@ class VideoApiManagerTest {
 
     private lateinit var testObject: VideoApiManager
 
+    private val testDispatcher = UnconfinedTestDispatcher()
+
     @Before
     fun setUp() {
         MockKAnnotations.init(this, relaxed = true)
@@ -105,6 +112,8 @@ class VideoApiManagerTest {
             VideoApiManager(
                 orgName = "org",
                 environmentName = "env",
+                ioDispatcher = testDispatcher,
+                mainScope = CoroutineScope(testDispatcher)
             )
     }
 
@@ -736,6 +745,23 @@ class VideoApiManagerTest {
         }
     }
 
+    @Test
+    fun `findLiveAsJson successful response without body passes failure to listener`() {
+        every { baseService.findLiveAsJson() } answers {
+            Calls.response(success<ResponseBody>(null))
+        }
+
+        testObject.findLiveAsJson(listener = listener)
+
+        verify(exactly = 1) {
+            listener.onError(
+                type = ArcXPSDKErrorType.SERVER_ERROR,
+                message = "Find Live Failed",
+                value = match { it is NullPointerException }
+            )
+        }
+    }
+
     @Test
     fun `findLiveSuspend Success returns expected`() = runTest {
         val listItem = listOf(
@@ -821,6 +847,251 @@ class VideoApiManagerTest {
     }
 
 
+    @Test
+    fun `findByUuidSuspend returns expected data`() = runTest {
+        val expectedList = listOf(createVideoStream())
+        every { akamaiService.findByUuid("id") } answers {
+            Calls.response(toJson(expectedList)!!.toResponseBody())
+        }
+
+        val actual = testObject.findByUuidSuspend(uuid = "id")
+
+        assertEquals(ArcVideoResponse(null, expectedList), (actual as Success).success)
+    }
+
+    @Test
+    fun `findByUuidSuspend returns geo restriction as failure`() = runTest {
+        val expectedArcTypeResponse = ArcTypeResponse(
+            "geo-restriction",
+            false,
+            TypeParams(country = "country", zip = "zip", dma = "dma"),
+            ComputedLocation(country = expectedCountry, zip = "zip", dma = "dma")
+        )
+        every { akamaiService.findByUuid("id") } answers {
+            Calls.response(toJson(expectedArcTypeResponse)!!.toResponseBody())
+        }
+
+        val actual = (testObject.findByUuidSuspend(uuid = "id") as Failure).failure
+
+        assertEquals(ArcXPSDKErrorType.SOURCE_ERROR, actual.type)
+        assertEquals("This Geo-restricted content is not allowed in region: $expectedCountry", actual.message)
+        assertEquals(expectedArcTypeResponse, actual.value)
+    }
+
+    @Test
+    fun `findByUuidSuspend cancelled by caller cancels the http call`() = runTest {
+        val call = mockk<Call<ResponseBody>>(relaxed = true)
+        every { akamaiService.findByUuid("id") } returns call
+
+        val job = CoroutineScope(testDispatcher).launch { testObject.findByUuidSuspend(uuid = "id") }
+        job.cancel()
+
+        verify(exactly = 1) {
+            call.enqueue(any())
+            call.cancel()
+        }
+    }
+
+    @Test
+    fun `findByUuidSuspend returns call failure`() = runTest {
+        val exception = IOException()
+        every { akamaiService.findByUuid("id") } answers { Calls.failure(exception) }
+
+        val actual = (testObject.findByUuidSuspend(uuid = "id") as Failure).failure
+
+        assertEquals(ArcXPSDKErrorType.SOURCE_ERROR, actual.type)
+        assertEquals("Error in geo restricted video call to findByUuid()", actual.message)
+        assertEquals(exception, actual.value)
+    }
+
+    @Test
+    fun `findByUuidVirtualSuspend returns expected data`() = runTest {
+        val expected = mockk<ArcVideoStreamVirtualChannel>()
+        every { virtualChannelService.findByUuidVirtual("id") } answers { Calls.response(expected) }
+
+        val actual = testObject.findByUuidVirtualSuspend(uuid = "id")
+
+        assertEquals(expected, (actual as Success).success)
+    }
+
+    @Test
+    fun `findByUuidAsJsonSuspend with virtual channel returns expected data`() = runTest {
+        val expected = "json"
+        every { virtualChannelService.findByUuidVirtualAsJson("id") } answers {
+            Calls.response(expected.toResponseBody())
+        }
+
+        val actual = testObject.findByUuidAsJsonSuspend(uuid = "id", shouldUseVirtualChannel = true)
+
+        assertEquals(expected, (actual as Success).success)
+    }
+
+    @Test
+    fun `findByPlaylistSuspend returns server error`() = runTest {
+        every { akamaiService.findByPlaylist(name = "name", count = 1) } answers {
+            Calls.response(error(404, "".toResponseBody()))
+        }
+
+        val actual = (testObject.findByPlaylistSuspend(name = "name", count = 1) as Failure).failure
+
+        assertEquals(ArcXPSDKErrorType.SERVER_ERROR, actual.type)
+        assertEquals("404: Not Found", actual.message)
+    }
+
+    @Test
+    fun `findByPlaylistAsJsonSuspend returns expected data`() = runTest {
+        val expected = "json"
+        every { akamaiService.findByPlaylistAsJson(name = "name", count = 1) } answers {
+            Calls.response(expected.toResponseBody())
+        }
+
+        val actual = testObject.findByPlaylistAsJsonSuspend(name = "name", count = 1)
+
+        assertEquals(expected, (actual as Success).success)
+    }
+
+    @Test
+    fun `findByUuidSuspend with cache reuses response until it expires`() = runTest {
+        val expectedList = listOf(createVideoStream())
+        testObject.cache = VideoMetadataCache(timeUntilUpdateMinutes = 5, scope = CoroutineScope(testDispatcher))
+        every { akamaiService.findByUuidAsJson("id") } answers {
+            Calls.response(toJson(expectedList)!!.toResponseBody())
+        }
+
+        testObject.findByUuidSuspend(uuid = "id")
+        val actual = testObject.findByUuidSuspend(uuid = "id")
+
+        assertEquals(ArcVideoResponse(null, expectedList), (actual as Success).success)
+        verify(exactly = 1) { akamaiService.findByUuidAsJson("id") }
+    }
+
+    @Test
+    fun `findByUuidSuspend with cache does not keep geo restricted response`() = runTest {
+        val arcTypeResponse = ArcTypeResponse(
+            "geo-restriction",
+            false,
+            TypeParams(country = "country", zip = "zip", dma = "dma"),
+            ComputedLocation(country = "USA", zip = "zip", dma = "dma")
+        )
+        testObject.cache = VideoMetadataCache(timeUntilUpdateMinutes = 5, scope = CoroutineScope(testDispatcher))
+        every { akamaiService.findByUuidAsJson("id") } answers {
+            Calls.response(toJson(arcTypeResponse)!!.toResponseBody())
+        }
+
+        testObject.findByUuidSuspend(uuid = "id")
+        val actual = (testObject.findByUuidSuspend(uuid = "id") as Failure).failure
+
+        assertEquals(arcTypeResponse, actual.value)
+        assertNull(testObject.cache!!.get(key = VideoMetadataCache.uuidKey("id")))
+        verify(exactly = 2) { akamaiService.findByUuidAsJson("id") }
+    }
+
+    @Test
+    fun `findByPlaylistSuspend with cache parses cached json`() = runTest {
+        val expected = ArcVideoPlaylist(playlistName = "name", version = "1", playlistItems = listOf(createVideoStream()))
+        testObject.cache = VideoMetadataCache(timeUntilUpdateMinutes = 5, scope = CoroutineScope(testDispatcher))
+        every { akamaiService.findByPlaylistAsJson(name = "name", count = 1) } answers {
+            Calls.response(toJson(expected)!!.toResponseBody())
+        }
+
+        testObject.findByPlaylistAsJsonSuspend(name = "name", count = 1)
+        val actual = testObject.findByPlaylistSuspend(name = "name", count = 1)
+
+        assertEquals(expected, (actual as Success).success)
+        verify(exactly = 1) { akamaiService.findByPlaylistAsJson(name = "name", count = 1) }
+        verify(exactly = 0) { akamaiService.findByPlaylist(name = any(), count = any()) }
+    }
+
+    @Test
+    fun `invalidatePlaylist makes next request hit the network`() = runTest {
+        testObject.cache = VideoMetadataCache(timeUntilUpdateMinutes = 5, scope = CoroutineScope(testDispatcher))
+        every { akamaiService.findByPlaylistAsJson(name = "name", count = 1) } answers {
+            Calls.response("json".toResponseBody())
+        }
+
+        testObject.findByPlaylistAsJsonSuspend(name = "name", count = 1)
+        testObject.invalidatePlaylist(name = "name")
+        testObject.findByPlaylistAsJsonSuspend(name = "name", count = 1)
+
+        verify(exactly = 2) { akamaiService.findByPlaylistAsJson(name = "name", count = 1) }
+    }
+
+    @Test
+    fun `findByUuidsSuspend returns one result per uuid in order`() = runTest {
+        val expectedList = listOf(createVideoStream())
+        val expectedArcTypeResponse = ArcTypeResponse(
+            "geo-restriction",
+            false,
+            TypeParams(country = "country", zip = "zip", dma = "dma"),
+            ComputedLocation(country = expectedCountry, zip = "zip", dma = "dma")
+        )
+        every { akamaiService.findByUuid("video") } answers {
+            Calls.response(toJson(expectedList)!!.toResponseBody())
+        }
+        every { akamaiService.findByUuid("restricted") } answers {
+            Calls.response(toJson(expectedArcTypeResponse)!!.toResponseBody())
+        }
+        every { akamaiService.findByUuid("missing") } answers {
+            Calls.response(error(404, "".toResponseBody()))
+        }
+
+        val actual = testObject.findByUuidsSuspend(uuids = listOf("restricted", "video", "missing", "video"))
+
+        assertEquals(4, actual.size)
+        assertEquals(expectedArcTypeResponse, (actual[0] as Failure).failure.value)
+        assertEquals(ArcVideoResponse(null, expectedList), (actual[1] as Success).success)
+        assertEquals("404: Not Found", (actual[2] as Failure).failure.message)
+        assertEquals(actual[1], actual[3])
+        verify(exactly = 1) { akamaiService.findByUuid("video") }
+    }
+
+    @Test
+    fun `findByUuidsSuspend fails only the lookup that throws`() = runTest {
+        val expectedList = listOf(createVideoStream())
+        val expectedException = IllegalStateException("boom")
+        every { akamaiService.findByUuid("video") } answers {
+            Calls.response(toJson(expectedList)!!.toResponseBody())
+        }
+        every { akamaiService.findByUuid("throws") } throws expectedException
+        every { akamaiService.findByUuid("missing") } answers {
+            Calls.response(error(404, "".toResponseBody()))
+        }
+
+        val actual = testObject.findByUuidsSuspend(uuids = listOf("video", "throws", "missing"))
+
+        assertEquals(3, actual.size)
+        assertEquals(ArcVideoResponse(null, expectedList), (actual[0] as Success).success)
+        val failure = (actual[1] as Failure).failure
+        assertEquals(ArcXPSDKErrorType.SOURCE_ERROR, failure.type)
+        assertEquals("Error in geo restricted video call to findByUuid()", failure.message)
+        assertEquals(expectedException, failure.value)
+        assertEquals("404: Not Found", (actual[2] as Failure).failure.message)
+    }
+
+    @Test
+    fun `findByUuidsApi delivers results when a lookup throws`() {
+        every { akamaiService.findByUuid("throws") } throws IllegalStateException("boom")
+
+        testObject.findByUuidsApi(uuids = listOf("throws"), listener = listener)
+
+        verify(exactly = 1) {
+            listener.onVideoStreams(results = match { (it.single() as Failure).failure.value is IllegalStateException })
+        }
+    }
+
+    @Test
+    fun `findByUuidsApi passes results to listener`() {
+        every { akamaiService.findByUuid("missing") } answers {
+            Calls.response(error(404, "".toResponseBody()))
+        }
+
+        testObject.findByUuidsApi(uuids = listOf("missing"), listener = listener)
+
+        verify(exactly = 1) {
+            listener.onVideoStreams(results = match { (it.single() as Failure).failure.message == "404: Not Found" })
+        }
+    }
+
     @Test
     fun `when blank environment name baseurl does not using hyphen for coverage`() {
         val testObject = VideoApiManager(orgName = "staging")
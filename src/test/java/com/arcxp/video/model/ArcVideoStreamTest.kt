@@ -366,6 +366,58 @@ class ArcVideoStreamTest {
         assertEquals(expectedStream, actualStream)
     }
 
+    @Test
+    fun `findBestStream with fall back to lowest chooses lowest preferred stream when all are above bitrate`() {
+        fun stream(type: ArcXPVideoConfig.PreferredStreamType, bitrate: Int) = Stream(
+            1,
+            2,
+            12345L,
+            type.getPreferredStreamType(),
+            "url",
+            bitrate,
+            "provider"
+        )
+        val expectedStream = stream(ArcXPVideoConfig.PreferredStreamType.HLS, 800)
+        val streams = listOf(
+            stream(ArcXPVideoConfig.PreferredStreamType.MP4, 300),
+            stream(ArcXPVideoConfig.PreferredStreamType.HLS, 2000),
+            expectedStream,
+            stream(ArcXPVideoConfig.PreferredStreamType.HLS, 1200)
+        )
+
+        val testObject = ArcVideoStream(
+            "type",
+            "id",
+            "uuid",
+            "version",
+            "canonicalUrl",
+            "shortUrl",
+            "createdDate",
+            "lastUpdatedDate",
+            "publishedDate",
+            "firstPublishDate",
+            "DisplayDate",
+            headlines = mockk(),
+            subheadlines = mockk(),
+            description = mockk(),
+            credits = mockk(),
+            taxonomy = mockk(),
+            additionalProperties = mockk(),
+            100L,
+            "videoType",
+            streams = streams,
+            null,
+            PromoItemBasic("", "", Credits(null), "", 0, 0),
+            null
+        )
+
+        assertEquals(
+            expectedStream,
+            testObject.findBestStream(ArcXPVideoConfig.PreferredStreamType.HLS, 500, fallBackToLowest = true)
+        )
+        assertEquals(streams[0], testObject.findBestStream(ArcXPVideoConfig.PreferredStreamType.HLS, 500))
+    }
+
     @Test
     fun `url returns full video url`() {
         val url = "videoUrl"
@@ -1,12 +1,15 @@
 package com.arcxp.video.model
 
 import com.arcxp.video.ArcXPVideoConfig
+import com.arcxp.video.util.BandwidthEstimate
 import androidx.media3.common.C
 import io.mockk.MockKAnnotations
 import io.mockk.clearAllMocks
 import io.mockk.every
 import io.mockk.impl.annotations.RelaxedMockK
 import io.mockk.mockk
+import io.mockk.mockkObject
+import io.mockk.unmockkObject
 import org.junit.After
 import org.junit.Assert.assertEquals
 import org.junit.Assert.assertFalse
@@ -53,6 +56,18 @@ class ArcVideoTest {
         clearAllMocks()
     }
 
+    @Test
+    fun `setVideoStream falls back to lowest preferred stream when the bandwidth estimate sets the target`() {
+        mockkObject(BandwidthEstimate)
+        every { BandwidthEstimate.targetBitRate(config) } returns 500
+        every { stream.findBestStream(expectedStreamType, 500, fallBackToLowest = true) } returns expectedStream
+
+        testObject.setVideoStream(stream, config)
+
+        assertEquals(expectedUrl, testObject.build().id)
+        unmockkObject(BandwidthEstimate)
+    }
+
     @Test
     fun `setVideoStream sets shouldPlayAds true given adTagUrl is null, adConfig is null, isEnableAds true`() {
         every { stream.adTagUrl } returns null
@@ -0,0 +1,100 @@
+package com.arcxp.video.model
+
+import android.app.Activity
+import androidx.media3.datasource.DefaultDataSourceFactory
+import androidx.media3.datasource.cache.CacheDataSource
+import androidx.media3.exoplayer.PlayerMessage
+import com.arcxp.video.ArcXPVideoConfig
+import com.arcxp.video.listeners.VideoListener
+import com.arcxp.video.util.Utils
+import io.mockk.MockKAnnotations
+import io.mockk.clearAllMocks
+import io.mockk.every
+import io.mockk.impl.annotations.RelaxedMockK
+import io.mockk.mockk
+import io.mockk.verify
+import org.junit.After
+import org.junit.Assert.assertNull
+import org.junit.Assert.assertSame
+import org.junit.Before
+import org.junit.Test
+
+class PlayerStateTest {
+
+    @RelaxedMockK
+    private lateinit var activity: Activity
+
+    @RelaxedMockK
+    private lateinit var listener: VideoListener
+
+    @RelaxedMockK
+    private lateinit var utils: Utils
+
+    @RelaxedMockK
+    private lateinit var config: ArcXPVideoConfig
+
+    @RelaxedMockK
+    private lateinit var upstream: DefaultDataSourceFactory
+
+    @RelaxedMockK
+    private lateinit var cached: CacheDataSource.Factory
+
+    @Before
+    fun setUp() {
+        MockKAnnotations.init(this, relaxUnitFun = true)
+        every { config.userAgent } returns "agent"
+        every { utils.createDefaultDataSourceFactory(activity, "agent") } returns upstream
+    }
+
+    @After
+    fun tearDown() {
+        clearAllMocks()
+    }
+
+    @Test
+    fun `media data source is upstream when media cache is disabled`() {
+        every { utils.createCacheDataSourceFactory(upstream, config) } returns null
+
+        val testObject = PlayerState(activity, listener, utils, config)
+
+        assertSame(upstream, testObject.mMediaDataSourceFactory)
+    }
+
+    @Test
+    fun `media data source reads through media cache for on demand video`() {
+        every { utils.createCacheDataSourceFactory(upstream, config) } returns cached
+        val testObject = PlayerState(activity, listener, utils, config)
+
+        testObject.mMediaDataSourceFactory.createDataSource()
+
+        verify(exactly = 1) { cached.createDataSource() }
+        verify(exactly = 0) { upstream.createDataSource() }
+    }
+
+    @Test
+    fun `media data source bypasses media cache for live video`() {
+        every { utils.createCacheDataSourceFactory(upstream, config) } returns cached
+        val testObject = PlayerState(activity, listener, utils, config)
+        testObject.mIsLive = true
+
+        testObject.mMediaDataSourceFactory.createDataSource()
+
+        verify(exactly = 1) { upstream.createDataSource() }
+        verify(exactly = 0) { cached.createDataSource() }
+    }
+
+    @Test
+    fun `clearPreload cancels scheduled preload and forgets preloaded video`() {
+        every { utils.createCacheDataSourceFactory(upstream, config) } returns null
+        val message = mockk<PlayerMessage>(relaxed = true)
+        val testObject = PlayerState(activity, listener, utils, config)
+        testObject.mPreloadMessage = message
+        testObject.mPreloadedVideoIndex = 2
+
+        testObject.clearPreload()
+
+        verify(exactly = 1) { message.cancel() }
+        assertNull(testObject.mPreloadMessage)
+        assertNull(testObject.mPreloadedVideoIndex)
+    }
+}
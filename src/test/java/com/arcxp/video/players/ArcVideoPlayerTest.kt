@@ -45,6 +45,7 @@ import com.arcxp.video.model.ArcVideoSDKErrorType
 import com.arcxp.video.model.PlayerState
 import com.arcxp.video.model.TrackingType
 import com.arcxp.video.model.TrackingTypeData
+import com.arcxp.video.util.ExoPlayerPool
 import com.arcxp.video.util.PrefManager
 import com.arcxp.video.util.TrackingHelper
 import com.arcxp.video.util.Utils
@@ -66,6 +67,7 @@ import io.mockk.mockkStatic
 import io.mockk.runs
 import io.mockk.slot
 import io.mockk.spyk
+import io.mockk.unmockkObject
 import io.mockk.verify
 import io.mockk.verifyOrder
 import io.mockk.verifySequence
@@ -1901,6 +1903,24 @@ internal class ArcVideoPlayerTest {
         }
     }
 
+    @Test
+    fun `release hands local player to pool instead of releasing it`() {
+        mockkObject(ExoPlayerPool)
+        every { ExoPlayerPool.recycle(mLocalPlayer!!, any(), mConfig) } returns true
+
+        testObject.release()
+
+        verifyOrder {
+            mPlayerView.player = null
+            mLocalPlayer!!.stop()
+            mLocalPlayer!!.removeListener(playerListener)
+            ExoPlayerPool.recycle(mLocalPlayer!!, any(), mConfig)
+            playerState.mLocalPlayer = null
+        }
+        verify(exactly = 0) { mLocalPlayer!!.release() }
+        unmockkObject(ExoPlayerPool)
+    }
+
     @Test
     fun `release when local player view parents are null`() {
 
@@ -341,6 +341,31 @@ internal class CaptionsManagerTest {
         assertEquals(expected, actual)
     }
 
+    @Test
+    fun `createMediaSourceWithCaptions for given video uses that video not current one`() {
+        val newId = "382764"
+        val expectedUri: Uri = mockk()
+        val mediaItem = MediaItem.Builder().setUri(expectedUri).build()
+        val expectedHlsMediaSource = mockk<HlsMediaSource>()
+        val factory: DataSource.Factory = mockk()
+
+        every { utils.createMediaItem(newId) } returns mediaItem
+        mockkStatic(Util::class)
+        every { Util.inferContentType(expectedUri) } returns C.CONTENT_TYPE_HLS
+        mockkConstructor(HlsMediaSource.Factory::class)
+        every {
+            constructedWith<HlsMediaSource.Factory>(EqMatcher(factory)).createMediaSource(
+                mediaItem
+            )
+        } returns expectedHlsMediaSource
+        every { playerState.mMediaDataSourceFactory } returns factory
+
+        val actual = testObject.createMediaSourceWithCaptions(createDefaultVideo(id = newId, subtitleUrl = ""))
+
+        assertEquals(expectedHlsMediaSource, actual)
+        verify(exactly = 0) { playerState.mVideo }
+    }
+
     @Test
     fun `createMediaSourceWithCaptions with null video returns null`() {
         every { playerState.mVideo } returns null
@@ -26,6 +26,7 @@ import com.arcxp.video.util.Utils
 import com.google.ads.interactivemedia.v3.api.AdEvent.AdEventListener
 import androidx.media3.exoplayer.ExoPlaybackException
 import androidx.media3.exoplayer.ExoPlayer
+import androidx.media3.exoplayer.PlayerMessage
 import androidx.media3.common.Format
 import androidx.media3.common.PlaybackException
 import androidx.media3.common.Player
@@ -439,6 +440,120 @@ internal class PlayerListenerTest {
         verify { playerState wasNot called }
     }
 
+    @Test
+    fun `onPositionDiscontinuity to preloaded video advances playlist and drops finished item`() {
+        val arcVideo1 = createDefaultVideo(id = "1")
+        val arcVideo2 = createDefaultVideo(id = "2")
+        val positionOld = Player.PositionInfo(null, 0, null, null, 0, 1000, 1000, 0, 0)
+        val positionNew = Player.PositionInfo(null, 1, null, null, 0, 0, 0, 0, 0)
+        every { playerState.mPreloadedVideoIndex } returns 1
+        every { playerState.mVideo } returns arcVideo1
+        every { playerState.mVideoId } returns "1"
+        every { playerState.mVideos } returns mutableListOf(arcVideo1, arcVideo2)
+        every { mConfig.preloadNextVideoMs } returns 0
+
+        testObject.onPositionDiscontinuity(
+            positionOld,
+            positionNew,
+            Player.DISCONTINUITY_REASON_AUTO_TRANSITION
+        )
+
+        verifyOrder {
+            mListener.onTrackingEvent(TrackingType.ON_PLAY_COMPLETED, videoData)
+            mListener.setNoPosition("1")
+            trackingHelper.onPlaybackEnd()
+            playerState.clearPreload()
+            playerState.currentVideoIndex = 1
+            playerState.mVideo = arcVideo2
+            playerState.mVideoId = "2"
+            mPlayer.removeMediaItem(0)
+            playerState.mVideoTracker = videoTracker
+            captionsManager.initVideoCaptions()
+            trackingHelper.initVideo("2")
+            trackingHelper.onPlaybackStart()
+            playerStateHelper.onVideoEvent(TrackingType.ON_PLAY_STARTED, videoData)
+        }
+        verify(exactly = 0) { mPlayer.currentWindowIndex }
+    }
+
+    @Test
+    fun `onPlayerStateChanged when ready schedules preload before end of video`() {
+        val message = mockk<PlayerMessage>(relaxed = true)
+        every { mConfig.preloadNextVideoMs } returns 5000
+        every { playerState.mIsLive } returns false
+        every { playerState.mPreloadMessage } returns null
+        every { playerState.mPreloadedVideoIndex } returns null
+        every { playerStateHelper.haveMoreVideosToPlay() } returns true
+        every { mPlayer.isPlayingAd } returns false
+        every { mPlayer.duration } returns 60000
+        every { mPlayer.currentMediaItemIndex } returns 0
+        every { mPlayer.createMessage(any()) } returns message
+        every { message.setLooper(any()) } returns message
+        every { message.setPosition(any(), any()) } returns message
+        every { message.send() } returns message
+
+        testObject.onPlayerStateChanged(true, Player.STATE_READY)
+
+        verify(exactly = 1) {
+            message.setPosition(0, 55000)
+            message.send()
+            playerState.mPreloadMessage = message
+        }
+    }
+
+    @Test
+    fun `onPlayerStateChanged when ready does not schedule preload when disabled`() {
+        every { mConfig.preloadNextVideoMs } returns 0
+        every { mPlayer.isPlayingAd } returns false
+
+        testObject.onPlayerStateChanged(true, Player.STATE_READY)
+
+        verify(exactly = 0) { mPlayer.createMessage(any()) }
+    }
+
+    @Test
+    fun `preloadNextVideo adds next video to player`() {
+        val next = createDefaultVideo(id = "2", shouldPlayAds = false)
+        every { playerState.currentVideoIndex } returns 0
+        every { playerState.mPreloadedVideoIndex } returns null
+        every { playerState.mVideos } returns mutableListOf(createDefaultVideo(id = "1"), next)
+        every { captionsManager.createMediaSourceWithCaptions(next) } returns contentMediaSource
+
+        testObject.preloadNextVideo()
+
+        verifyOrder {
+            mPlayer.addMediaSource(contentMediaSource)
+            playerState.mPreloadedVideoIndex = 1
+        }
+    }
+
+    @Test
+    fun `preloadNextVideo leaves video with ads to start normally`() {
+        every { playerState.currentVideoIndex } returns 0
+        every { playerState.mPreloadedVideoIndex } returns null
+        every { playerState.mVideos } returns mutableListOf(
+            createDefaultVideo(id = "1"),
+            createDefaultVideo(id = "2", shouldPlayAds = true)
+        )
+
+        testObject.preloadNextVideo()
+
+        verify(exactly = 0) {
+            mPlayer.addMediaSource(any<MediaSource>())
+            playerState.mPreloadedVideoIndex = any()
+        }
+    }
+
+    @Test
+    fun `preloadNextVideo at end of playlist does nothing`() {
+        every { playerState.currentVideoIndex } returns 1
+        every { playerState.mVideos } returns mutableListOf(createDefaultVideo(id = "1"), createDefaultVideo(id = "2"))
+
+        testObject.preloadNextVideo()
+
+        verify(exactly = 0) { mPlayer.addMediaSource(any<MediaSource>()) }
+    }
+
 
     //TODO ask about the loop only using last found language? is this the expected behavior?
     @Test
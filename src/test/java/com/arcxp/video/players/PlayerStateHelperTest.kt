@@ -42,6 +42,7 @@ import com.arcxp.video.model.ArcVideoSDKErrorType
 import com.arcxp.video.model.PlayerState
 import com.arcxp.video.model.TrackingType
 import com.arcxp.video.model.TrackingTypeData
+import com.arcxp.video.util.ExoPlayerPool
 import com.arcxp.video.util.PrefManager
 import com.arcxp.video.util.TrackingHelper
 import com.arcxp.video.util.Utils
@@ -56,6 +57,7 @@ import io.mockk.mockkObject
 import io.mockk.mockkStatic
 import io.mockk.slot
 import io.mockk.spyk
+import io.mockk.unmockkObject
 import io.mockk.unmockkStatic
 import io.mockk.verify
 import io.mockk.verifySequence
@@ -259,7 +261,8 @@ internal class PlayerStateHelperTest {
         every { utils.createLayoutParams() } returns layoutParams
         every { utils.createTrackingVideoTypeData() } returns videoData
         every { utils.createDefaultTrackSelector() } returns defaultTrackSelector
-        every { utils.createExoPlayer(defaultTrackSelector) } returns exoPlayer
+        every { utils.createExoPlayer(defaultTrackSelector, arcXPVideoConfig) } returns exoPlayer
+        every { arcXPVideoConfig.bufferConfig } returns null
         every { utils.createPlayerView() } returns playerView
         every { utils.createFullScreenDialog(mockActivity) } returns mFullScreenDialog
         every { arcXPVideoConfig.activity } returns mockActivity
@@ -320,6 +323,30 @@ internal class PlayerStateHelperTest {
         clearAllMocks()
     }
 
+    @Test
+    fun `initLocalPlayer reuses pooled player instead of building one`() {
+        val mockVideo = mockk<ArcVideo>(relaxed = true)
+        val expectedResize = mockk<ArcXPVideoConfig.VideoResizeMode>(relaxed = true)
+        every { playerState.mVideo } returns mockVideo
+        every { arcXPVideoConfig.videoResizeMode } returns expectedResize
+        every { arcXPVideoConfig.isDisableControls } returns true
+        mockkObject(ExoPlayerPool)
+        every { ExoPlayerPool.acquire(null, false) } returns ExoPlayerPool.Entry(exoPlayer, defaultTrackSelector)
+
+        testObject.initLocalPlayer()
+
+        verify(exactly = 0) {
+            utils.createDefaultTrackSelector()
+            utils.createExoPlayer(any(), any())
+        }
+        verify(exactly = 1) {
+            playerState.mTrackSelector = defaultTrackSelector
+            playerState.mLocalPlayer = exoPlayer
+            exoPlayer.addListener(playerListener)
+        }
+        unmockkObject(ExoPlayerPool)
+    }
+
     @Test
     fun `initLocalPlayer not fullscreen, mVideo is not null, start muted, disableControls fully false, has ccButton, disable controls fully, not full screen, autoShow false, disable controls true`() {
         val exoVolume = 0.83f
@@ -344,10 +371,12 @@ internal class PlayerStateHelperTest {
         testObject.initLocalPlayer()
 
         verifySequence {
+            playerState.config
+            arcXPVideoConfig.bufferConfig
             utils.createDefaultTrackSelector()
             playerState.mTrackSelector = defaultTrackSelector
             playerState.mTrackSelector
-            utils.createExoPlayer(defaultTrackSelector)
+            utils.createExoPlayer(defaultTrackSelector, arcXPVideoConfig)
             playerState.config
             arcXPVideoConfig.activity
             mockActivity.applicationContext
@@ -418,10 +447,12 @@ internal class PlayerStateHelperTest {
         testObject.initLocalPlayer()
 
         verifySequence {
+            playerState.config
+            arcXPVideoConfig.bufferConfig
             utils.createDefaultTrackSelector()
             playerState.mTrackSelector = defaultTrackSelector
             playerState.mTrackSelector
-            utils.createExoPlayer(defaultTrackSelector)
+            utils.createExoPlayer(defaultTrackSelector, arcXPVideoConfig)
             playerState.config
             arcXPVideoConfig.activity
             mockActivity.applicationContext
@@ -1280,10 +1311,12 @@ internal class PlayerStateHelperTest {
 
         testObject.initLocalPlayer()
         verifySequence {
+            playerState.config
+            arcXPVideoConfig.bufferConfig
             utils.createDefaultTrackSelector()
             playerState.mTrackSelector = defaultTrackSelector
             playerState.mTrackSelector
-            utils.createExoPlayer(defaultTrackSelector)
+            utils.createExoPlayer(defaultTrackSelector, arcXPVideoConfig)
             playerState.config
             arcXPVideoConfig.activity
             mockActivity.applicationContext
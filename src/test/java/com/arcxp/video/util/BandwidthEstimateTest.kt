@@ -0,0 +1,84 @@
+package com.arcxp.video.util
+
+import android.app.Activity
+import android.app.Application
+import androidx.test.core.app.ApplicationProvider
+import com.arcxp.video.ArcXPVideoConfig
+import io.mockk.MockKAnnotations
+import io.mockk.clearAllMocks
+import io.mockk.every
+import io.mockk.impl.annotations.RelaxedMockK
+import org.junit.After
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertNull
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+
+@RunWith(RobolectricTestRunner::class)
+class BandwidthEstimateTest {
+
+    @RelaxedMockK
+    private lateinit var config: ArcXPVideoConfig
+
+    @RelaxedMockK
+    private lateinit var activity: Activity
+
+    private lateinit var context: Application
+
+    @Before
+    fun setUp() {
+        MockKAnnotations.init(this)
+        context = ApplicationProvider.getApplicationContext()
+        every { activity.applicationContext } returns context
+        every { config.activity } returns activity
+        every { config.useBandwidthEstimate } returns true
+        every { config.maxBitRate } returns 0
+    }
+
+    @After
+    fun tearDown() {
+        clearAllMocks()
+    }
+
+    @Test
+    fun `measured is null until an estimate is saved`() {
+        assertNull(BandwidthEstimate.measured(context))
+
+        BandwidthEstimate.save(context, bitrateEstimate = 3_000_000)
+
+        assertEquals(3_000_000L, BandwidthEstimate.measured(context))
+    }
+
+    @Test
+    fun `targetBitRate when disabled is max bit rate`() {
+        BandwidthEstimate.save(context, bitrateEstimate = 3_000_000)
+        every { config.useBandwidthEstimate } returns false
+        every { config.maxBitRate } returns 4500
+
+        assertEquals(4500, BandwidthEstimate.targetBitRate(config))
+    }
+
+    @Test
+    fun `targetBitRate without measurement is max bit rate`() {
+        every { config.maxBitRate } returns 4500
+
+        assertEquals(4500, BandwidthEstimate.targetBitRate(config))
+    }
+
+    @Test
+    fun `targetBitRate counts on part of measured throughput in kbps`() {
+        BandwidthEstimate.save(context, bitrateEstimate = 2_000_000)
+
+        assertEquals(1400, BandwidthEstimate.targetBitRate(config))
+    }
+
+    @Test
+    fun `targetBitRate is capped by max bit rate`() {
+        BandwidthEstimate.save(context, bitrateEstimate = 10_000_000)
+        every { config.maxBitRate } returns 1200
+
+        assertEquals(1200, BandwidthEstimate.targetBitRate(config))
+    }
+}
@@ -0,0 +1,134 @@
+package com.arcxp.video.util
+
+import android.app.Activity
+import android.app.Application
+import android.content.ComponentCallbacks2
+import androidx.media3.common.PlaybackParameters
+import androidx.media3.common.Player
+import androidx.media3.exoplayer.ExoPlayer
+import androidx.media3.exoplayer.trackselection.DefaultTrackSelector
+import androidx.test.core.app.ApplicationProvider
+import com.arcxp.video.ArcXPVideoConfig
+import io.mockk.MockKAnnotations
+import io.mockk.clearAllMocks
+import io.mockk.every
+import io.mockk.impl.annotations.RelaxedMockK
+import io.mockk.verify
+import org.junit.After
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertFalse
+import org.junit.Assert.assertNull
+import org.junit.Assert.assertSame
+import org.junit.Assert.assertTrue
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+
+@RunWith(RobolectricTestRunner::class)
+class ExoPlayerPoolTest {
+
+    @RelaxedMockK
+    private lateinit var config: ArcXPVideoConfig
+
+    @RelaxedMockK
+    private lateinit var activity: Activity
+
+    @RelaxedMockK
+    private lateinit var player: ExoPlayer
+
+    @RelaxedMockK
+    private lateinit var trackSelector: DefaultTrackSelector
+
+    @Before
+    fun setUp() {
+        MockKAnnotations.init(this)
+        every { config.activity } returns activity
+        every { activity.applicationContext } returns ApplicationProvider.getApplicationContext<Application>()
+        every { config.playerPoolSize } returns 1
+        every { config.bufferConfig } returns null
+    }
+
+    @After
+    fun tearDown() {
+        ExoPlayerPool.clear()
+        clearAllMocks()
+    }
+
+    @Test
+    fun `recycle resets player and acquire hands it out again`() {
+        assertTrue(ExoPlayerPool.recycle(player, trackSelector, config))
+
+        verify {
+            player.stop()
+            player.clearMediaItems()
+            player.clearVideoSurface()
+            player.playWhenReady = false
+            player.volume = 1f
+            player.repeatMode = Player.REPEAT_MODE_OFF
+            player.playbackParameters = PlaybackParameters.DEFAULT
+            trackSelector.parameters = any()
+        }
+        val actual = ExoPlayerPool.acquire(null, false)
+        assertSame(player, actual!!.player)
+        assertSame(trackSelector, actual.trackSelector)
+        assertNull(ExoPlayerPool.acquire(null, false))
+        verify(exactly = 0) { player.release() }
+    }
+
+    @Test
+    fun `acquire only hands out players built with the same buffering`() {
+        val bufferConfig = ArcXPVideoConfig.BufferPreset.FAST_START.bufferConfig
+        every { config.bufferConfig } returns bufferConfig
+        ExoPlayerPool.recycle(player, trackSelector, config)
+
+        assertNull(ExoPlayerPool.acquire(null, false))
+        assertSame(player, ExoPlayerPool.acquire(bufferConfig.copy(), false)!!.player)
+    }
+
+    @Test
+    fun `acquire only hands out players with the same bandwidth meter`() {
+        every { config.useBandwidthEstimate } returns true
+        ExoPlayerPool.recycle(player, trackSelector, config)
+
+        assertNull(ExoPlayerPool.acquire(null, false))
+        assertSame(player, ExoPlayerPool.acquire(null, true)!!.player)
+    }
+
+    @Test
+    fun `recycle when disabled leaves player to caller`() {
+        every { config.playerPoolSize } returns 0
+
+        assertFalse(ExoPlayerPool.recycle(player, trackSelector, config))
+
+        assertEquals(0, ExoPlayerPool.size)
+        verify(exactly = 0) { player.stop() }
+    }
+
+    @Test
+    fun `recycle when pool is full leaves player to caller`() {
+        ExoPlayerPool.recycle(player, trackSelector, config)
+
+        assertFalse(ExoPlayerPool.recycle(player, trackSelector, config))
+        assertEquals(1, ExoPlayerPool.size)
+    }
+
+    @Test
+    fun `onTrimMemory releases idle players`() {
+        ExoPlayerPool.recycle(player, trackSelector, config)
+
+        ExoPlayerPool.onTrimMemory(ComponentCallbacks2.TRIM_MEMORY_UI_HIDDEN)
+
+        assertEquals(0, ExoPlayerPool.size)
+        verify(exactly = 1) { player.release() }
+    }
+
+    @Test
+    fun `onTrimMemory while running keeps idle players`() {
+        ExoPlayerPool.recycle(player, trackSelector, config)
+
+        ExoPlayerPool.onTrimMemory(ComponentCallbacks2.TRIM_MEMORY_RUNNING_MODERATE)
+
+        assertEquals(1, ExoPlayerPool.size)
+    }
+}
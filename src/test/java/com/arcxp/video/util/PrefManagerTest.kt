@@ -76,4 +76,25 @@ class PrefManagerTest {
             sharedPreferencesEditor.commit()
         }
     }
-}
\ No newline at end of file
+
+    @Test
+    fun `getLong returns long from shared preferences`(){
+        val expectedKey = "key"
+        every { sharedPreferences.getLong(expectedKey, 0L)} returns 1500000L
+
+        assertEquals(1500000L, PrefManager.getLong(context, expectedKey, 0L))
+    }
+
+    @Test
+    fun `saveLong puts long, applies, and returns value`(){
+        val expectedKey = "key"
+        val expectedValue = 1500000L
+
+        assertEquals(expectedValue, PrefManager.saveLong(context, expectedKey, expectedValue))
+
+        verifySequence {
+            sharedPreferencesEditor.putLong(expectedKey, expectedValue)
+            sharedPreferencesEditor.apply()
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package com.arcxp.video.util
+
+import com.arcxp.commons.throwables.ArcXPException
+import com.arcxp.commons.util.Failure
+import com.arcxp.commons.util.Success
+import com.arcxp.commons.util.Utils
+import io.mockk.every
+import io.mockk.mockkObject
+import io.mockk.unmockkObject
+import kotlinx.coroutines.CompletableDeferred
+import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.async
+import kotlinx.coroutines.test.UnconfinedTestDispatcher
+import kotlinx.coroutines.test.runTest
+import org.junit.After
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertNull
+import org.junit.Before
+import org.junit.Rule
+import org.junit.Test
+import org.junit.rules.TemporaryFolder
+
+class VideoMetadataCacheTest {
+
+    @get:Rule
+    val folder = TemporaryFolder()
+
+    private val expires = "Tue, 01 Mar 2022 22:05:54 GMT"
+    private val expiresAtMillis = 1646172354000L
+
+    @Before
+    fun setUp() {
+        mockkObject(Utils)
+        every { Utils.currentTimeInMillis() } returns expiresAtMillis - 1
+    }
+
+    @After
+    fun tearDown() {
+        unmockkObject(Utils)
+    }
+
+    @Test
+    fun `get returns stored json until expires header`() {
+        val testObject = VideoMetadataCache()
+        testObject.put(key = "key", json = "json", expires = expires)
+
+        assertEquals("json", testObject.get(key = "key"))
+
+        every { Utils.currentTimeInMillis() } returns expiresAtMillis
+        assertNull(testObject.get(key = "key"))
+    }
+
+    @Test
+    fun `put without expiration does not cache`() {
+        val testObject = VideoMetadataCache()
+        testObject.put(key = "key", json = "json", expires = null)
+        testObject.put(key = "key2", json = "json", expires = "not a date")
+
+        assertNull(testObject.get(key = "key"))
+        assertNull(testObject.get(key = "key2"))
+    }
+
+    @Test
+    fun `put with time until update ignores expires header`() {
+        every { Utils.currentTimeInMillis() } returns 0L
+        val testObject = VideoMetadataCache(timeUntilUpdateMinutes = 5)
+        testObject.put(key = "key", json = "json", expires = null)
+
+        assertEquals("json", testObject.get(key = "key"))
+    }
+
+    @Test
+    fun `put evicts least recently used entry past max entries`() {
+        val testObject = VideoMetadataCache(maxEntries = 2)
+        testObject.put(key = "1", json = "1", expires = expires)
+        testObject.put(key = "2", json = "2", expires = expires)
+        testObject.get(key = "1")
+        testObject.put(key = "3", json = "3", expires = expires)
+
+        assertEquals("1", testObject.get(key = "1"))
+        assertNull(testObject.get(key = "2"))
+        assertEquals("3", testObject.get(key = "3"))
+    }
+
+    @Test
+    fun `disk entries are read by a new cache`() {
+        VideoMetadataCache(directory = folder.root).put(key = "uuid:1", json = "json", expires = expires)
+
+        assertEquals("json", VideoMetadataCache(directory = folder.root).get(key = "uuid:1"))
+    }
+
+    @Test
+    fun `invalidate removes memory and disk entries`() {
+        val testObject = VideoMetadataCache(directory = folder.root)
+        testObject.put(key = "uuid:1", json = "json", expires = expires)
+        testObject.invalidate(key = "uuid:1")
+
+        assertNull(testObject.get(key = "uuid:1"))
+        assertNull(VideoMetadataCache(directory = folder.root).get(key = "uuid:1"))
+    }
+
+    @Test
+    fun `invalidateIf removes playlist for every count only`() {
+        val testObject = VideoMetadataCache(directory = folder.root)
+        val playlist = VideoMetadataCache.playlistKey(name = "name", count = 5)
+        val playlist2 = VideoMetadataCache.playlistKey(name = "name", count = 10)
+        val other = VideoMetadataCache.playlistKey(name = "name:other", count = 5)
+        testObject.put(key = playlist, json = "1", expires = expires)
+        testObject.put(key = playlist2, json = "2", expires = expires)
+        testObject.put(key = other, json = "3", expires = expires)
+
+        testObject.invalidateIf { VideoMetadataCache.isPlaylistKey(key = it, name = "name") }
+
+        assertNull(testObject.get(key = playlist))
+        assertNull(VideoMetadataCache(directory = folder.root).get(key = playlist2))
+        assertEquals("3", testObject.get(key = other))
+    }
+
+    @Test
+    fun `load shares one request between concurrent callers and caches it`() = runTest {
+        val dispatcher = UnconfinedTestDispatcher(testScheduler)
+        val testObject = VideoMetadataCache(scope = CoroutineScope(dispatcher))
+        val response = CompletableDeferred<Pair<String, String?>>()
+        var fetches = 0
+        val fetch: suspend () -> Success<Pair<String, String?>> = {
+            fetches++
+            Success(response.await())
+        }
+
+        val first = async(dispatcher) { testObject.load(key = "key", fetch = fetch) }
+        val second = async(dispatcher) { testObject.load(key = "key", fetch = fetch) }
+        response.complete("json" to expires)
+
+        assertEquals(Success("json"), first.await())
+        assertEquals(Success("json"), second.await())
+        assertEquals(Success("json"), testObject.load(key = "key", fetch = fetch))
+        assertEquals(1, fetches)
+    }
+
+    @Test
+    fun `load does not cache json rejected by shouldCache`() = runTest {
+        val dispatcher = UnconfinedTestDispatcher(testScheduler)
+        val testObject = VideoMetadataCache(directory = folder.root, scope = CoroutineScope(dispatcher))
+
+        val actual = testObject.load(key = "key", shouldCache = { false }) { Success("json" to expires) }
+
+        assertEquals(Success("json"), actual)
+        assertNull(testObject.get(key = "key"))
+        assertNull(VideoMetadataCache(directory = folder.root).get(key = "key"))
+    }
+
+    @Test
+    fun `load does not cache failure`() = runTest {
+        val dispatcher = UnconfinedTestDispatcher(testScheduler)
+        val testObject = VideoMetadataCache(scope = CoroutineScope(dispatcher))
+        val error = ArcXPException(message = "error")
+        var fetches = 0
+
+        repeat(2) {
+            assertEquals(Failure(error), testObject.load(key = "key") {
+                fetches++
+                Failure(error)
+            })
+        }
+        assertEquals(2, fetches)
+    }
+}
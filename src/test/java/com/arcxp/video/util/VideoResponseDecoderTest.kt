@@ -0,0 +1,83 @@
+package com.arcxp.video.util
+
+import com.arcxp.commons.testutils.TestUtils.allocatedBy
+import com.arcxp.commons.testutils.TestUtils.assumeAllocationBenchmarks
+import com.arcxp.commons.testutils.TestUtils.createVideoStream
+import com.arcxp.commons.util.MoshiController.fromJson
+import com.arcxp.commons.util.MoshiController.fromJsonList
+import com.arcxp.commons.util.MoshiController.toJson
+import com.arcxp.video.model.ArcTypeResponse
+import com.arcxp.video.model.ArcVideoStream
+import com.arcxp.video.model.ComputedLocation
+import com.arcxp.video.model.TypeParams
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertFalse
+import org.junit.Assert.assertTrue
+import org.junit.Test
+
+class VideoResponseDecoderTest {
+
+    private val arcTypeResponse = ArcTypeResponse(
+        "geo-restriction",
+        false,
+        TypeParams(country = "country", zip = "zip", dma = "dma"),
+        ComputedLocation(country = "USA", zip = "zip", dma = "dma")
+    )
+
+    private fun streams(count: Int) = (0 until count).map { createVideoStream(id = "id-$it") }
+
+    @Test
+    fun `decode array returns streams`() {
+        val expected = streams(count = 2)
+
+        val actual = VideoResponseDecoder.decode(json = toJson(expected)!!)
+
+        assertEquals(expected, (actual as VideoResponseDecoder.Result.Streams).streams)
+    }
+
+    @Test
+    fun `decode object returns geo restriction`() {
+        val actual = VideoResponseDecoder.decode(json = toJson(arcTypeResponse)!!)
+
+        assertEquals(arcTypeResponse, (actual as VideoResponseDecoder.Result.GeoRestricted).arcTypeResponse)
+    }
+
+    @Test
+    fun `isGeoRestricted only for object bodies`() {
+        assertTrue(VideoResponseDecoder.isGeoRestricted(json = " " + toJson(arcTypeResponse)!!))
+        assertFalse(VideoResponseDecoder.isGeoRestricted(json = toJson(streams(count = 1))!!))
+        assertFalse(VideoResponseDecoder.isGeoRestricted(json = ""))
+    }
+
+    @Test
+    fun `decode blank body returns no streams`() {
+        val actual = VideoResponseDecoder.decode(json = " ")
+
+        assertTrue((actual as VideoResponseDecoder.Result.Streams).streams.isEmpty())
+    }
+
+    @Test
+    fun `decode other values is malformed`() {
+        listOf("\"not json\"", "null", "not json", "{\"type\":\"geo\"}", "[] []").forEach {
+            assertTrue(it, VideoResponseDecoder.decode(json = it) is VideoResponseDecoder.Result.Malformed)
+        }
+    }
+
+    @Test
+    fun `decode allocates less than parsing as geo restriction first`() {
+        assumeAllocationBenchmarks()
+        val json = toJson(streams(count = 20))!!
+
+        val singlePass = allocatedBy(times = 10) { VideoResponseDecoder.decode(json = json) }
+        // previous path: a failed parse as the geo restriction, its exception, then a second parse as streams
+        val exceptionFlow = allocatedBy(times = 10) {
+            try {
+                fromJson(json, ArcTypeResponse::class.java)
+            } catch (e: Exception) {
+                fromJsonList(json, ArcVideoStream::class.java)
+            }
+        }
+
+        assertTrue("single pass $singlePass bytes, exception flow $exceptionFlow bytes", singlePass < exceptionFlow)
+    }
+}
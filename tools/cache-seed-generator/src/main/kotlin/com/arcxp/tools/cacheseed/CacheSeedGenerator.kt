@@ -0,0 +1,62 @@
+package com.arcxp.tools.cacheseed
+
+import com.google.gson.JsonObject
+import com.google.gson.JsonParser
+import okhttp3.OkHttpClient
+import okhttp3.Request
+import java.io.File
+import java.io.IOException
+
+/**
+ * CacheSeedGenerator writes a content cache seed (see CacheSeed in the sdk) from content api responses, run at build time with
+ * ```
+ * ./gradlew generateCacheSeed -PseedArgs="<output file> collection:<alias>=<source> sectionList:<site hierarchy>=<source>"
+ * ```
+ * each source is a content api url to fetch or a file holding a saved response, collections and
+ * section lists can be repeated. it is a plain jvm tool kept out of the sdk so it never ships in the library
+ */
+internal object CacheSeedGenerator {
+
+    private const val COLLECTION = "collection:"
+    private const val SECTION_LIST = "sectionList:"
+
+    /**
+     * @param collections collection alias to its collection api response
+     * @param sectionLists site hierarchy to its navigation api response
+     * @return the snapshot json CacheSeed.parse reads
+     */
+    fun generate(collections: Map<String, String>, sectionLists: Map<String, String>): String {
+        fun JsonObject.addAll(responses: Map<String, String>) = apply {
+            responses.forEach { (key, response) -> add(key, JsonParser.parseString(response).asJsonArray) }
+        }
+        return JsonObject().apply {
+            add("collections", JsonObject().addAll(collections))
+            add("sectionLists", JsonObject().addAll(sectionLists))
+        }.toString()
+    }
+
+    @JvmStatic
+    fun main(args: Array<String>) {
+        require(args.isNotEmpty()) {
+            "usage: <output file> [${COLLECTION}<alias>=<source>]... [${SECTION_LIST}<site hierarchy>=<source>]..."
+        }
+        val client = OkHttpClient()
+        fun sources(prefix: String) = args.drop(1)
+            .filter { it.startsWith(prefix) }
+            .associate { arg ->
+                val (key, source) = arg.removePrefix(prefix).split("=", limit = 2)
+                key to read(client, source)
+            }
+        File(args[0]).writeText(
+            generate(collections = sources(COLLECTION), sectionLists = sources(SECTION_LIST))
+        )
+    }
+
+    private fun read(client: OkHttpClient, source: String): String =
+        if (source.startsWith("http://") || source.startsWith("https://")) {
+            client.newCall(Request.Builder().url(source).build()).execute().use { response ->
+                if (!response.isSuccessful) throw IOException("${response.code} fetching $source")
+                response.body!!.string()
+            }
+        } else File(source).readText()
+}
@@ -0,0 +1,52 @@
+package com.arcxp.tools.cacheseed
+
+import com.google.gson.JsonObject
+import com.google.gson.JsonParser
+import org.junit.Assert.assertEquals
+import org.junit.Rule
+import org.junit.Test
+import org.junit.rules.TemporaryFolder
+
+class CacheSeedGeneratorTest {
+
+    @get:Rule
+    val folder = TemporaryFolder()
+
+    private val collection = """[ { "_id": "a", "type": "story" }, { "_id": "b" } ]"""
+    private val sectionList = """[ { "_id": "/news" } ]"""
+
+    // the layout CacheSeed.parse reads, see CacheSeedTest in the sdk
+    private fun JsonObject.section(name: String, key: String) = getAsJsonObject(name).getAsJsonArray(key).toString()
+
+    @Test
+    fun `generate wraps responses by collection alias and site hierarchy`() {
+        val actual = JsonParser.parseString(
+            CacheSeedGenerator.generate(
+                collections = mapOf("top" to collection),
+                sectionLists = mapOf("default" to sectionList)
+            )
+        ).asJsonObject
+
+        assertEquals("[{\"_id\":\"a\",\"type\":\"story\"},{\"_id\":\"b\"}]", actual.section("collections", "top"))
+        assertEquals("[{\"_id\":\"/news\"}]", actual.section("sectionLists", "default"))
+    }
+
+    @Test
+    fun `main writes seed from saved responses`() {
+        val output = folder.newFile("seed.json")
+        val collectionFile = folder.newFile("top.json").apply { writeText(collection) }
+        val sectionListFile = folder.newFile("default.json").apply { writeText(sectionList) }
+
+        CacheSeedGenerator.main(
+            arrayOf(
+                output.path,
+                "collection:top=${collectionFile.path}",
+                "sectionList:default=${sectionListFile.path}"
+            )
+        )
+
+        val actual = JsonParser.parseString(output.readText()).asJsonObject
+        assertEquals("[{\"_id\":\"a\",\"type\":\"story\"},{\"_id\":\"b\"}]", actual.section("collections", "top"))
+        assertEquals("[{\"_id\":\"/news\"}]", actual.section("sectionLists", "default"))
+    }
+}